@@ -0,0 +1,145 @@
+/*
+ * Copyright 2006-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ldap.core;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import javax.naming.Name;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * An asynchronous counterpart to {@link LdapClient}. Each operation is dispatched onto
+ * an executor and its outcome is reported through a {@link CompletableFuture}, so that
+ * many directory calls can be in flight without blocking a platform thread for each.
+ * <p>
+ * Operations are described with the same specifications as {@link LdapClient}, for
+ * example: <pre>
+ * AsyncLdapClient async = LdapClient.withContextSource(contextSource).buildAsync();
+ * CompletableFuture&lt;List&lt;String&gt;&gt; names = async.search((search) -&gt; search
+ * 	.query((query) -&gt; query.base("ou=people").where("uid").is(uid))
+ * 	.map(CN_ATTRIBUTES_MAPPER)
+ * 	.list());
+ * </pre> Search functions should return detached results, such as those of
+ * {@link LdapClient.MappedSearchSpec#list()} or
+ * {@link LdapClient.MappedSearchSpec#optional()}, rather than lazily resolved streams.
+ *
+ * @since 4.2
+ * @see LdapClient.Builder#buildAsync()
+ */
+public interface AsyncLdapClient {
+
+	/**
+	 * Run a search.
+	 * @param search the function that configures the search and retrieves its results
+	 * @param <T> the result type
+	 * @return a future completed with the value returned by {@code search}
+	 */
+	<T extends @Nullable Object> CompletableFuture<T> search(Function<LdapClient.SearchSpec, T> search);
+
+	/**
+	 * Authenticate a user.
+	 * @param authenticate the consumer that configures the authentication
+	 * @return a future completed once the user is authenticated
+	 */
+	CompletableFuture<Void> authenticate(Consumer<LdapClient.AuthenticateSpec> authenticate);
+
+	/**
+	 * Authenticate a user, mapping the authenticated entry.
+	 * @param authenticate the consumer that configures the authentication
+	 * @param mapper the mapper to apply to the authenticated entry
+	 * @param <T> the result type
+	 * @return a future completed with the mapped entry
+	 */
+	<T extends @Nullable Object> CompletableFuture<T> authenticate(Consumer<LdapClient.AuthenticateSpec> authenticate,
+			AuthenticatedLdapEntryContextMapper<T> mapper);
+
+	/**
+	 * Bind an entry.
+	 * @param name the name of the entry
+	 * @param bind the consumer that configures the bind
+	 * @return a future completed once the entry is bound
+	 */
+	CompletableFuture<Void> bind(String name, Consumer<LdapClient.BindSpec> bind);
+
+	/**
+	 * Bind an entry.
+	 * @param name the name of the entry
+	 * @param bind the consumer that configures the bind
+	 * @return a future completed once the entry is bound
+	 */
+	CompletableFuture<Void> bind(Name name, Consumer<LdapClient.BindSpec> bind);
+
+	/**
+	 * Modify an entry.
+	 * @param name the name of the entry
+	 * @param modify the consumer that configures the modification
+	 * @return a future completed once the entry is modified
+	 */
+	CompletableFuture<Void> modify(String name, Consumer<LdapClient.ModifySpec> modify);
+
+	/**
+	 * Modify an entry.
+	 * @param name the name of the entry
+	 * @param modify the consumer that configures the modification
+	 * @return a future completed once the entry is modified
+	 */
+	CompletableFuture<Void> modify(Name name, Consumer<LdapClient.ModifySpec> modify);
+
+	/**
+	 * Unbind an entry.
+	 * @param name the name of the entry
+	 * @param unbind the consumer that configures the unbind
+	 * @return a future completed once the entry is unbound
+	 */
+	CompletableFuture<Void> unbind(String name, Consumer<LdapClient.UnbindSpec> unbind);
+
+	/**
+	 * Unbind an entry.
+	 * @param name the name of the entry
+	 * @param unbind the consumer that configures the unbind
+	 * @return a future completed once the entry is unbound
+	 */
+	CompletableFuture<Void> unbind(Name name, Consumer<LdapClient.UnbindSpec> unbind);
+
+	/**
+	 * Run any sequence of {@link LdapClient} operations as a single asynchronous call.
+	 * @param operation the operation to run
+	 * @param <T> the result type
+	 * @return a future completed with the value returned by {@code operation}
+	 */
+	<T extends @Nullable Object> CompletableFuture<T> execute(Function<LdapClient, T> operation);
+
+	/**
+	 * Return a view of this client that gives each call a deadline of {@code timeout}
+	 * from the moment it is made.
+	 * <p>
+	 * A call that is still running at its deadline completes with a
+	 * {@link TimeoutException}, and a call that is still queued at its deadline is not
+	 * sent to the directory at all. Searches also carry the time remaining until the
+	 * deadline as their server-side time limit, unless their query specifies a time
+	 * limit of its own.
+	 * @param timeout the time allowed for each call
+	 * @return an {@link AsyncLdapClient} applying the deadline
+	 */
+	AsyncLdapClient withTimeout(Duration timeout);
+
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2006-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ldap.core;
+
+import java.util.List;
+
+/**
+ * Callback interface for processing search results in batches rather than one entry at
+ * a time, for example to write them to another store with bulk operations.
+ *
+ * @param <T> the type of the mapped results
+ * @since 4.2
+ * @see BatchingNameClassPairCallbackHandler
+ * @see LdapClient.MappedSearchSpec#forEachBatch(int, BatchCallbackHandler)
+ */
+@FunctionalInterface
+public interface BatchCallbackHandler<T> {
+
+	/**
+	 * Handle one batch of results. This method is called once for each batch, in the
+	 * order the results were read, and never concurrently with itself.
+	 * @param batch the mapped results, never empty; the list is not used anymore by
+	 * the caller once passed
+	 */
+	void handleBatch(List<T> batch);
+
+}
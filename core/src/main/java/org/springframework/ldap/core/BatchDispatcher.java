@@ -0,0 +1,145 @@
+/*
+ * Copyright 2006-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ldap.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+
+import org.jspecify.annotations.Nullable;
+
+import org.springframework.util.Assert;
+
+/**
+ * Groups results into batches of a fixed size and passes them to a
+ * {@link BatchCallbackHandler}.
+ * <p>
+ * Without an {@link Executor}, each batch is handled on the calling thread as soon as
+ * it is full. With one, the batch is handled on the executor while the caller goes on
+ * filling the next one; handing over a further batch waits for the previous one to be
+ * handled, so that at most one batch is pending and batches are handled in order.
+ *
+ * @param <T> the type of the results
+ * @since 4.2
+ */
+final class BatchDispatcher<T> {
+
+	private final int batchSize;
+
+	private final BatchCallbackHandler<T> handler;
+
+	private final @Nullable Executor executor;
+
+	private List<T> batch;
+
+	private CompletableFuture<Void> pending = CompletableFuture.completedFuture(null);
+
+	BatchDispatcher(int batchSize, BatchCallbackHandler<T> handler, @Nullable Executor executor) {
+		Assert.isTrue(batchSize > 0, "batchSize must be greater than 0");
+		Assert.notNull(handler, "handler cannot be null");
+		this.batchSize = batchSize;
+		this.handler = handler;
+		this.executor = executor;
+		this.batch = new ArrayList<>(batchSize);
+	}
+
+	/**
+	 * Pass all elements of the given stream to the handler in batches, and close it.
+	 * @param results the results to dispatch
+	 * @param batchSize the maximum number of results per batch
+	 * @param handler the handler to pass the batches to
+	 * @param executor the executor to handle batches on, or {@code null} to handle
+	 * them on the calling thread
+	 * @param <T> the type of the results
+	 */
+	static <T> void dispatch(Stream<T> results, int batchSize, BatchCallbackHandler<T> handler,
+			@Nullable Executor executor) {
+		BatchDispatcher<T> dispatcher = new BatchDispatcher<>(batchSize, handler, executor);
+		try (results) {
+			results.forEach(dispatcher::add);
+		}
+		catch (Throwable ex) {
+			// do not leave a batch being handled behind the caller's back
+			try {
+				dispatcher.awaitPending();
+			}
+			catch (Throwable pendingFailure) {
+				ex.addSuppressed(pendingFailure);
+			}
+			throw ex;
+		}
+		dispatcher.complete();
+	}
+
+	/**
+	 * Add a result to the current batch, handing the batch over if it is full.
+	 * @param result the result
+	 */
+	void add(T result) {
+		this.batch.add(result);
+		if (this.batch.size() >= this.batchSize) {
+			flush();
+		}
+	}
+
+	/**
+	 * Hand over the current batch, if not empty, even though it is not full.
+	 */
+	void flush() {
+		if (this.batch.isEmpty()) {
+			return;
+		}
+		List<T> batch = this.batch;
+		this.batch = new ArrayList<>(this.batchSize);
+		if (this.executor == null) {
+			this.handler.handleBatch(batch);
+			return;
+		}
+		awaitPending();
+		this.pending = CompletableFuture.runAsync(() -> this.handler.handleBatch(batch), this.executor);
+	}
+
+	/**
+	 * Hand over the current batch and wait until all batches have been handled.
+	 */
+	void complete() {
+		flush();
+		awaitPending();
+	}
+
+	private void awaitPending() {
+		CompletableFuture<Void> pending = this.pending;
+		this.pending = CompletableFuture.completedFuture(null);
+		try {
+			pending.join();
+		}
+		catch (CompletionException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof RuntimeException runtime) {
+				throw runtime;
+			}
+			if (cause instanceof Error error) {
+				throw error;
+			}
+			throw ex;
+		}
+	}
+
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2006-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ldap.core;
+
+import java.util.concurrent.Executor;
+
+import javax.naming.NameClassPair;
+import javax.naming.NamingException;
+
+import org.jspecify.annotations.Nullable;
+
+import org.springframework.util.Assert;
+
+/**
+ * A NameClassPairCallbackHandler that maps each entry and passes the mapped objects to
+ * a {@link BatchCallbackHandler} in batches of a given size.
+ * <p>
+ * {@link LdapTemplate} hands over the last, possibly incomplete, batch at the end of
+ * every search. When paging through results with a
+ * {@link org.springframework.ldap.control.PagedResultsDirContextProcessor}, each page
+ * therefore ends a batch, and with a batch size equal to the page size, each page makes
+ * exactly one batch:
+ *
+ * <pre>
+ * BatchingNameClassPairCallbackHandler&lt;Person&gt; handler = new BatchingNameClassPairCallbackHandler&lt;&gt;(
+ * 		PERSON_CONTEXT_MAPPER, 500, personRepository::saveAll);
+ * handler.setExecutor(executor);
+ * PagedResultsDirContextProcessor processor = new PagedResultsDirContextProcessor(500);
+ * do {
+ * 	ldapTemplate.search(base, filter, searchControls, handler, processor);
+ * }
+ * while (processor.hasMore());
+ * handler.complete();
+ * </pre>
+ *
+ * If an {@link #setExecutor(Executor) executor} is set, batches are handled on it while
+ * the next page is being read, and {@link #complete()} must be called once the search
+ * is done to wait for the last batch. Instances are not thread-safe and are meant to be
+ * used for a single search.
+ *
+ * @param <T> the type of the mapped results
+ * @since 4.2
+ */
+public class BatchingNameClassPairCallbackHandler<T> implements NameClassPairCallbackHandler {
+
+	private final CollectingNameClassPairCallbackHandler<T> mapping;
+
+	private final int batchSize;
+
+	private final BatchCallbackHandler<T> handler;
+
+	private @Nullable Executor executor;
+
+	private @Nullable BatchDispatcher<T> dispatcher;
+
+	/**
+	 * Constructs a new instance mapping entries with the supplied {@link ContextMapper}.
+	 * @param mapper the mapper to be called for each entry.
+	 * @param batchSize the maximum number of mapped entries per batch.
+	 * @param handler the handler to pass the batches to.
+	 */
+	public BatchingNameClassPairCallbackHandler(ContextMapper<T> mapper, int batchSize,
+			BatchCallbackHandler<T> handler) {
+		this(new ContextMapperCallbackHandler<>(mapper), batchSize, handler);
+	}
+
+	/**
+	 * Constructs a new instance mapping entries with the supplied
+	 * {@link AttributesMapper}.
+	 * @param mapper the mapper to be called for each entry.
+	 * @param batchSize the maximum number of mapped entries per batch.
+	 * @param handler the handler to pass the batches to.
+	 */
+	public BatchingNameClassPairCallbackHandler(AttributesMapper<T> mapper, int batchSize,
+			BatchCallbackHandler<T> handler) {
+		this(new AttributesMapperCallbackHandler<>(mapper), batchSize, handler);
+	}
+
+	private BatchingNameClassPairCallbackHandler(CollectingNameClassPairCallbackHandler<T> mapping, int batchSize,
+			BatchCallbackHandler<T> handler) {
+		Assert.isTrue(batchSize > 0, "batchSize must be greater than 0");
+		Assert.notNull(handler, "handler cannot be null");
+		this.mapping = mapping;
+		this.batchSize = batchSize;
+		this.handler = handler;
+	}
+
+	/**
+	 * Set the executor to handle batches on, so that handling a batch overlaps with
+	 * reading the next one. At most one batch is handled at a time. Default is to handle
+	 * each batch on the thread reading the results, as soon as it is full.
+	 * @param executor the executor to handle batches on.
+	 */
+	public void setExecutor(Executor executor) {
+		Assert.notNull(executor, "executor cannot be null");
+		Assert.state(this.dispatcher == null, "executor must be set before the search");
+		this.executor = executor;
+	}
+
+	/**
+	 * Map the entry and add it to the current batch, passing the batch to the
+	 * {@link BatchCallbackHandler} once it is full.
+	 */
+	@Override
+	public final void handleNameClassPair(NameClassPair nameClassPair) throws NamingException {
+		dispatcher().add(this.mapping.getObjectFromNameClassPair(nameClassPair));
+	}
+
+	/**
+	 * Pass the current batch to the {@link BatchCallbackHandler}, even if it is not full.
+	 * Called by {@link LdapTemplate} at the end of each search, and thus of each page.
+	 */
+	public void flush() {
+		dispatcher().flush();
+	}
+
+	/**
+	 * Pass the current batch to the {@link BatchCallbackHandler} and wait for all
+	 * batches to be handled, rethrowing any exception that occurred while handling them.
+	 */
+	public void complete() {
+		dispatcher().complete();
+	}
+
+	boolean isContextMapping() {
+		return this.mapping instanceof ContextMapperCallbackHandler;
+	}
+
+	private BatchDispatcher<T> dispatcher() {
+		if (this.dispatcher == null) {
+			this.dispatcher = new BatchDispatcher<>(this.batchSize, this.handler, this.executor);
+		}
+		return this.dispatcher;
+	}
+
+}
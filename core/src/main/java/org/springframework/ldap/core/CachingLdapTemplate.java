@@ -0,0 +1,653 @@
+/*
+ * Copyright 2006-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ldap.core;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+import javax.naming.Name;
+import javax.naming.directory.Attributes;
+import javax.naming.directory.ModificationItem;
+import javax.naming.ldap.LdapName;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.jspecify.annotations.Nullable;
+
+import org.springframework.ldap.NameNotFoundException;
+import org.springframework.ldap.filter.Filter;
+import org.springframework.ldap.query.LdapQuery;
+import org.springframework.ldap.query.SearchScope;
+import org.springframework.ldap.support.LdapUtils;
+
+/**
+ * An {@link LdapTemplate} that caches the attributes of looked up entries, so that
+ * repeated lookups of the same entries do not each cost a round trip to the directory.
+ * <p>
+ * The lookups returning attributes, that is
+ * {@link #lookup(Name, AttributesMapper)},
+ * {@link #lookup(Name, String[], AttributesMapper)} and
+ * {@link #lookup(Name, String[], ContextMapper)} and their {@code String} variants, are
+ * cached by distinguished name and requested attributes. Each call maps a fresh copy of
+ * the cached attributes, so mappers are free to modify them. Other operations are not
+ * cached.
+ * <p>
+ * Entries are evicted once they are older than the {@link #setTimeToLive(Duration) time
+ * to live}, or when the cache is full, in which case the least recently used ones go
+ * first. Concurrent lookups of an entry that is not cached load it only once. When this
+ * template binds, rebinds, modifies, renames or unbinds an entry, the entry is removed
+ * from the cache, along with its subtree for renames and recursive unbinds. Changes made
+ * by other clients only become visible once the cached entries expire, or after calling
+ * {@link #invalidate(Name)}.
+ * <p>
+ * Searches can be cached as well, by {@link #setCacheSearches(boolean) enabling} the
+ * search cache. {@link #search(LdapQuery, ContextMapper)} and
+ * {@link #search(LdapQuery, AttributesMapper)} are then cached by query, so that queries
+ * differing only in the case of attribute names or in the spelling of their base are
+ * served from the same entry. A write through this template removes the cached searches
+ * whose base is above, at or below the written entry. The search cache relies on the
+ * default {@code DirObjectFactory} handing out {@link DirContextAdapter} instances.
+ * <p>
+ * Lookups of entries that do not exist can be remembered for a
+ * {@link #setNegativeTimeToLive(Duration) short time} too, so that probing for optional
+ * entries does not cost a round trip each time. Known absent entries make the lookups
+ * throw a {@link NameNotFoundException} without stack trace, and
+ * {@link #lookupIfExists(Name, String[], ContextMapper)} and
+ * {@link #lookupAttributesIfExists(Name, String[], AttributesMapper)} return
+ * {@code null} without creating an exception at all. Binding an entry through this
+ * template forgets that it was absent, even while it is being looked up.
+ * <p>
+ * Cache statistics are available by {@link #bindTo(MeterRegistry) binding} this
+ * template to a Micrometer {@link MeterRegistry}.
+ *
+ * @since 4.2
+ */
+public class CachingLdapTemplate extends LdapTemplate implements MeterBinder {
+
+	private static final int DEFAULT_MAXIMUM_SIZE = 10_000;
+
+	private static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofMinutes(5);
+
+	private static final AttributesMapper<Attributes> IDENTITY = (attributes) -> attributes;
+
+	private static final ContextMapper<DirContextAdapter> CONTEXT_IDENTITY = (ctx) -> (DirContextAdapter) ctx;
+
+	private final ExpiringCache<LookupKey, Attributes> cache = new ExpiringCache<>(DEFAULT_MAXIMUM_SIZE,
+			DEFAULT_TIME_TO_LIVE);
+
+	private final ExpiringCache<SearchKey, List<?>> searchCache = new ExpiringCache<>(DEFAULT_MAXIMUM_SIZE,
+			DEFAULT_TIME_TO_LIVE);
+
+	private volatile boolean cacheSearches;
+
+	private volatile @Nullable ExpiringCache<LdapName, Boolean> absentEntries;
+
+	private @Nullable Duration negativeTimeToLive;
+
+	private int maximumSize = DEFAULT_MAXIMUM_SIZE;
+
+	/**
+	 * Constructor for bean usage.
+	 */
+	public CachingLdapTemplate() {
+	}
+
+	/**
+	 * Constructor to setup instance directly.
+	 * @param contextSource the ContextSource to use.
+	 */
+	public CachingLdapTemplate(ContextSource contextSource) {
+		super(contextSource);
+	}
+
+	/**
+	 * Set the maximum number of cached lookups, and of cached searches if enabled.
+	 * Default is 10000. Each combination of entry and requested attributes counts as one
+	 * lookup, each distinct query as one search. Lowering this setting evicts the least
+	 * recently used lookups and searches, and forgets the absent entries.
+	 * @param maximumSize the maximum number of cached lookups or searches.
+	 */
+	public void setMaximumSize(int maximumSize) {
+		this.cache.setMaximumSize(maximumSize);
+		this.searchCache.setMaximumSize(maximumSize);
+		this.maximumSize = maximumSize;
+		setNegativeTimeToLive(this.negativeTimeToLive);
+	}
+
+	/**
+	 * Set how long looked up attributes and search results are cached. Default is 5
+	 * minutes. Changing this setting also applies to the attributes and results already
+	 * cached.
+	 * @param timeToLive the time after which cached attributes are looked up again.
+	 */
+	public void setTimeToLive(Duration timeToLive) {
+		this.cache.setTimeToLive(timeToLive);
+		this.searchCache.setTimeToLive(timeToLive);
+	}
+
+	/**
+	 * Set whether the results of {@link #search(LdapQuery, ContextMapper)} and
+	 * {@link #search(LdapQuery, AttributesMapper)} are cached. Default is
+	 * {@code false}.
+	 * @param cacheSearches {@code true} to cache search results.
+	 */
+	public void setCacheSearches(boolean cacheSearches) {
+		this.cacheSearches = cacheSearches;
+		this.searchCache.invalidateAll();
+	}
+
+	/**
+	 * Set how long entries that were not found are remembered as absent. Default is
+	 * {@code null}, in which case absent entries are looked up again each time. This
+	 * should be kept short, since entries created by other clients are not found until
+	 * it expires. Changing this setting forgets the absent entries.
+	 * @param negativeTimeToLive the time after which absent entries are looked up again,
+	 * or {@code null} not to remember them.
+	 */
+	public void setNegativeTimeToLive(@Nullable Duration negativeTimeToLive) {
+		this.absentEntries = (negativeTimeToLive != null)
+				? new ExpiringCache<>(this.maximumSize, negativeTimeToLive) : null;
+		this.negativeTimeToLive = negativeTimeToLive;
+	}
+
+	/**
+	 * Remove the given entry from the cache, along with the cached searches whose base
+	 * is above, at or below it, for example after it has been changed by another client.
+	 * @param dn the distinguished name of the entry.
+	 */
+	public void invalidate(Name dn) {
+		LdapName name = LdapUtils.newLdapName(dn);
+		this.cache.invalidate((key) -> key.dn.equals(name));
+		invalidateSearches(name);
+		ExpiringCache<LdapName, Boolean> absentEntries = this.absentEntries;
+		if (absentEntries != null) {
+			absentEntries.invalidate(name::equals);
+		}
+	}
+
+	/**
+	 * Remove all entries and searches from the cache.
+	 */
+	public void invalidateAll() {
+		this.cache.invalidateAll();
+		this.searchCache.invalidateAll();
+		ExpiringCache<LdapName, Boolean> absentEntries = this.absentEntries;
+		if (absentEntries != null) {
+			absentEntries.invalidateAll();
+		}
+	}
+
+	/**
+	 * Register the hit, miss and eviction counts and the size of the caches with the
+	 * given registry, tagged with {@code cache=lookup} and {@code cache=search}.
+	 * @param registry the registry to register the meters with.
+	 */
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		this.cache.bindTo(registry, "lookup");
+		this.searchCache.bindTo(registry, "search");
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public <T> List<T> search(LdapQuery query, ContextMapper<T> mapper) {
+		if (!this.cacheSearches) {
+			return super.search(query, mapper);
+		}
+		List<?> cached = this.searchCache.get(new SearchKey(query, true),
+				() -> List.copyOf(super.search(query, CONTEXT_IDENTITY)));
+		return cached.stream().map((entry) -> {
+			try {
+				return mapper.mapFromContext(new DirContextAdapter((DirContextAdapter) entry));
+			}
+			catch (javax.naming.NamingException ex) {
+				throw LdapUtils.convertLdapException(ex);
+			}
+		}).toList();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public <T> List<T> search(LdapQuery query, AttributesMapper<T> mapper) {
+		if (!this.cacheSearches) {
+			return super.search(query, mapper);
+		}
+		List<?> cached = this.searchCache.get(new SearchKey(query, false),
+				() -> List.copyOf(super.search(query, IDENTITY)));
+		return cached.stream().map((attributes) -> {
+			try {
+				return mapper.mapFromAttributes((Attributes) ((Attributes) attributes).clone());
+			}
+			catch (javax.naming.NamingException ex) {
+				throw LdapUtils.convertLdapException(ex);
+			}
+		}).toList();
+	}
+
+	/**
+	 * Look up the given entry like {@link #lookup(Name, String[], ContextMapper)}, but
+	 * return {@code null} if it does not exist. Entries remembered as absent are not
+	 * looked up again, nor is an exception created for them.
+	 * @param dn the distinguished name of the entry.
+	 * @param attributes the attributes to return, or {@code null} for all attributes.
+	 * @param mapper the mapper to map the entry with.
+	 * @param <T> the type of the mapped entry
+	 * @return the mapped entry, or {@code null} if it does not exist.
+	 * @see #setNegativeTimeToLive(Duration)
+	 */
+	public <T> @Nullable T lookupIfExists(Name dn, String @Nullable [] attributes, ContextMapper<T> mapper) {
+		if (isKnownAbsent(LdapUtils.newLdapName(dn))) {
+			return null;
+		}
+		try {
+			return lookup(dn, attributes, mapper);
+		}
+		catch (NameNotFoundException ex) {
+			return null;
+		}
+	}
+
+	/**
+	 * Look up the given entry like {@link #lookup(Name, String[], AttributesMapper)},
+	 * but return {@code null} if it does not exist. Entries remembered as absent are not
+	 * looked up again, nor is an exception created for them.
+	 * @param dn the distinguished name of the entry.
+	 * @param attributes the attributes to return, or {@code null} for all attributes.
+	 * @param mapper the mapper to map the attributes with.
+	 * @param <T> the type of the mapped entry
+	 * @return the mapped entry, or {@code null} if it does not exist.
+	 * @see #setNegativeTimeToLive(Duration)
+	 */
+	public <T> @Nullable T lookupAttributesIfExists(Name dn, String @Nullable [] attributes,
+			AttributesMapper<T> mapper) {
+		if (isKnownAbsent(LdapUtils.newLdapName(dn))) {
+			return null;
+		}
+		try {
+			return lookup(dn, attributes, mapper);
+		}
+		catch (NameNotFoundException ex) {
+			return null;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public <T> T lookup(Name dn, AttributesMapper<T> mapper) {
+		return lookup(dn, null, mapper);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public <T> T lookup(String dn, AttributesMapper<T> mapper) {
+		return lookup(LdapUtils.newLdapName(dn), null, mapper);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public <T> T lookup(Name dn, String @Nullable [] attributes, AttributesMapper<T> mapper) {
+		try {
+			return mapper.mapFromAttributes(cachedAttributes(dn, attributes));
+		}
+		catch (javax.naming.NamingException ex) {
+			throw LdapUtils.convertLdapException(ex);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public <T> T lookup(String dn, String @Nullable [] attributes, AttributesMapper<T> mapper) {
+		return lookup(LdapUtils.newLdapName(dn), attributes, mapper);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public <T> T lookup(Name dn, String @Nullable [] attributes, ContextMapper<T> mapper) {
+		try {
+			return mapper.mapFromContext(new DirContextAdapter(cachedAttributes(dn, attributes), dn));
+		}
+		catch (javax.naming.NamingException ex) {
+			throw LdapUtils.convertLdapException(ex);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public <T> T lookup(String dn, String @Nullable [] attributes, ContextMapper<T> mapper) {
+		return lookup(LdapUtils.newLdapName(dn), attributes, mapper);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void bind(Name dn, @Nullable Object obj, @Nullable Attributes attributes) {
+		try {
+			super.bind(dn, obj, attributes);
+		}
+		finally {
+			invalidate(dn);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void bind(String dn, @Nullable Object obj, @Nullable Attributes attributes) {
+		try {
+			super.bind(dn, obj, attributes);
+		}
+		finally {
+			invalidate(LdapUtils.newLdapName(dn));
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void rebind(Name dn, @Nullable Object obj, @Nullable Attributes attributes) {
+		try {
+			super.rebind(dn, obj, attributes);
+		}
+		finally {
+			invalidate(dn);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void rebind(String dn, @Nullable Object obj, @Nullable Attributes attributes) {
+		try {
+			super.rebind(dn, obj, attributes);
+		}
+		finally {
+			invalidate(LdapUtils.newLdapName(dn));
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void modifyAttributes(Name dn, ModificationItem[] mods) {
+		try {
+			super.modifyAttributes(dn, mods);
+		}
+		finally {
+			invalidate(dn);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void modifyAttributes(String dn, ModificationItem[] mods) {
+		try {
+			super.modifyAttributes(dn, mods);
+		}
+		finally {
+			invalidate(LdapUtils.newLdapName(dn));
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void unbind(Name dn) {
+		unbind(dn, false);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void unbind(String dn) {
+		unbind(dn, false);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void unbind(Name dn, boolean recursive) {
+		try {
+			super.unbind(dn, recursive);
+		}
+		finally {
+			invalidateSubtree(dn);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void unbind(String dn, boolean recursive) {
+		try {
+			super.unbind(dn, recursive);
+		}
+		finally {
+			invalidateSubtree(LdapUtils.newLdapName(dn));
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void rename(Name oldDn, Name newDn) {
+		try {
+			super.rename(oldDn, newDn);
+		}
+		finally {
+			invalidateSubtree(oldDn);
+			invalidateSubtree(newDn);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void rename(String oldDn, String newDn) {
+		try {
+			super.rename(oldDn, newDn);
+		}
+		finally {
+			invalidateSubtree(LdapUtils.newLdapName(oldDn));
+			invalidateSubtree(LdapUtils.newLdapName(newDn));
+		}
+	}
+
+	private Attributes cachedAttributes(Name dn, String @Nullable [] attributes) {
+		LdapName name = LdapUtils.newLdapName(dn);
+		if (isKnownAbsent(name)) {
+			throw new AbsentEntryException(name);
+		}
+		ExpiringCache<LdapName, Boolean> absentEntries = this.absentEntries;
+		long generation = (absentEntries != null) ? absentEntries.generation() : 0;
+		try {
+			Attributes cached = this.cache.get(new LookupKey(name, attributes),
+					() -> super.lookup(name, attributes, IDENTITY));
+			return (Attributes) cached.clone();
+		}
+		catch (NameNotFoundException ex) {
+			if (absentEntries != null) {
+				// not if the entry was bound while it was being looked up
+				absentEntries.put(name, Boolean.TRUE, generation);
+			}
+			throw ex;
+		}
+	}
+
+	private boolean isKnownAbsent(LdapName dn) {
+		ExpiringCache<LdapName, Boolean> absentEntries = this.absentEntries;
+		return absentEntries != null && absentEntries.getIfPresent(dn) != null;
+	}
+
+	private void invalidateSubtree(Name dn) {
+		// an entry without subordinates can only be removed, so this is enough even
+		// when not unbinding recursively
+		LdapName name = LdapUtils.newLdapName(dn);
+		this.cache.invalidate((key) -> key.dn.startsWith(name));
+		invalidateSearches(name);
+		ExpiringCache<LdapName, Boolean> absentEntries = this.absentEntries;
+		if (absentEntries != null) {
+			absentEntries.invalidate((absent) -> absent.startsWith(name));
+		}
+	}
+
+	private void invalidateSearches(LdapName dn) {
+		this.searchCache.invalidate((key) -> key.isAffectedBy(dn));
+	}
+
+	private static @Nullable List<String> normalize(String @Nullable [] attributes) {
+		return (attributes != null) ? Arrays.stream(attributes)
+			.map((attribute) -> attribute.toLowerCase(Locale.ROOT))
+			.sorted()
+			.distinct()
+			.toList() : null;
+	}
+
+	/**
+	 * Thrown for entries known to be absent, without the cost of a stack trace.
+	 */
+	private static final class AbsentEntryException extends NameNotFoundException {
+
+		AbsentEntryException(LdapName dn) {
+			super("Entry " + dn + " does not exist");
+		}
+
+		@Override
+		public synchronized Throwable fillInStackTrace() {
+			return this;
+		}
+
+	}
+
+	private static final class LookupKey {
+
+		private final LdapName dn;
+
+		private final @Nullable List<String> attributes;
+
+		LookupKey(LdapName dn, String @Nullable [] attributes) {
+			this.dn = dn;
+			this.attributes = normalize(attributes);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof LookupKey other)) {
+				return false;
+			}
+			return this.dn.equals(other.dn) && Objects.equals(this.attributes, other.attributes);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(this.dn, this.attributes);
+		}
+
+	}
+
+	private static final class SearchKey {
+
+		private final List<LdapName> bases;
+
+		private final String filter;
+
+		private final @Nullable SearchScope searchScope;
+
+		private final @Nullable Integer countLimit;
+
+		private final @Nullable List<String> attributes;
+
+		private final List<String> partitions;
+
+		private final boolean distinct;
+
+		private final boolean contexts;
+
+		SearchKey(LdapQuery query, boolean contexts) {
+			this.bases = query.bases().stream().map(LdapUtils::newLdapName).toList();
+			this.filter = query.filter().encode();
+			this.searchScope = query.searchScope();
+			this.countLimit = query.countLimit();
+			this.attributes = normalize(query.attributes());
+			this.partitions = query.partitions().stream().map(Filter::encode).toList();
+			this.distinct = query.distinct();
+			this.contexts = contexts;
+		}
+
+		boolean isAffectedBy(LdapName dn) {
+			// writes at or below the base change the results, writes above it may rename
+			// or remove the base itself
+			return this.bases.stream().anyMatch((base) -> dn.startsWith(base) || base.startsWith(dn));
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof SearchKey other)) {
+				return false;
+			}
+			return this.bases.equals(other.bases) && this.filter.equals(other.filter)
+					&& this.searchScope == other.searchScope && Objects.equals(this.countLimit, other.countLimit)
+					&& Objects.equals(this.attributes, other.attributes) && this.partitions.equals(other.partitions)
+					&& this.distinct == other.distinct && this.contexts == other.contexts;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(this.bases, this.filter, this.searchScope, this.countLimit, this.attributes,
+					this.partitions, this.distinct, this.contexts);
+		}
+
+	}
+
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2006-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ldap.core;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import javax.naming.Name;
+import javax.naming.directory.SearchControls;
+
+import org.jspecify.annotations.Nullable;
+
+import org.springframework.util.Assert;
+
+/**
+ * Default implementation of {@link AsyncLdapClient}, delegating to the
+ * {@link LdapClient} built by a {@link DefaultLdapClientBuilder}.
+ *
+ * @since 4.2
+ */
+final class DefaultAsyncLdapClient implements AsyncLdapClient {
+
+	private final DefaultLdapClientBuilder builder;
+
+	private final LdapClient client;
+
+	private final Executor executor;
+
+	private final @Nullable Duration timeout;
+
+	DefaultAsyncLdapClient(DefaultLdapClientBuilder builder, Executor executor, @Nullable Duration timeout) {
+		Assert.notNull(builder, "builder cannot be null");
+		Assert.notNull(executor, "executor cannot be null");
+		this.builder = builder;
+		this.client = builder.build();
+		this.executor = executor;
+		this.timeout = timeout;
+	}
+
+	@Override
+	public <T extends @Nullable Object> CompletableFuture<T> search(Function<LdapClient.SearchSpec, T> search) {
+		return execute((client) -> search.apply(client.search()));
+	}
+
+	@Override
+	public CompletableFuture<Void> authenticate(Consumer<LdapClient.AuthenticateSpec> authenticate) {
+		return run((client) -> {
+			LdapClient.AuthenticateSpec spec = client.authenticate();
+			authenticate.accept(spec);
+			spec.execute();
+		});
+	}
+
+	@Override
+	public <T extends @Nullable Object> CompletableFuture<T> authenticate(
+			Consumer<LdapClient.AuthenticateSpec> authenticate, AuthenticatedLdapEntryContextMapper<T> mapper) {
+		return execute((client) -> {
+			LdapClient.AuthenticateSpec spec = client.authenticate();
+			authenticate.accept(spec);
+			return spec.execute(mapper);
+		});
+	}
+
+	@Override
+	public CompletableFuture<Void> bind(String name, Consumer<LdapClient.BindSpec> bind) {
+		return run((client) -> {
+			LdapClient.BindSpec spec = client.bind(name);
+			bind.accept(spec);
+			spec.execute();
+		});
+	}
+
+	@Override
+	public CompletableFuture<Void> bind(Name name, Consumer<LdapClient.BindSpec> bind) {
+		return run((client) -> {
+			LdapClient.BindSpec spec = client.bind(name);
+			bind.accept(spec);
+			spec.execute();
+		});
+	}
+
+	@Override
+	public CompletableFuture<Void> modify(String name, Consumer<LdapClient.ModifySpec> modify) {
+		return run((client) -> {
+			LdapClient.ModifySpec spec = client.modify(name);
+			modify.accept(spec);
+			spec.execute();
+		});
+	}
+
+	@Override
+	public CompletableFuture<Void> modify(Name name, Consumer<LdapClient.ModifySpec> modify) {
+		return run((client) -> {
+			LdapClient.ModifySpec spec = client.modify(name);
+			modify.accept(spec);
+			spec.execute();
+		});
+	}
+
+	@Override
+	public CompletableFuture<Void> unbind(String name, Consumer<LdapClient.UnbindSpec> unbind) {
+		return run((client) -> {
+			LdapClient.UnbindSpec spec = client.unbind(name);
+			unbind.accept(spec);
+			spec.execute();
+		});
+	}
+
+	@Override
+	public CompletableFuture<Void> unbind(Name name, Consumer<LdapClient.UnbindSpec> unbind) {
+		return run((client) -> {
+			LdapClient.UnbindSpec spec = client.unbind(name);
+			unbind.accept(spec);
+			spec.execute();
+		});
+	}
+
+	@Override
+	public <T extends @Nullable Object> CompletableFuture<T> execute(Function<LdapClient, T> operation) {
+		Assert.notNull(operation, "operation cannot be null");
+		LdapClient client = this.client;
+		CompletableFuture<T> future = new CompletableFuture<>();
+		if (this.timeout != null) {
+			long deadline = System.nanoTime() + this.timeout.toNanos();
+			client = this.builder.build((controls) -> limitTime(controls, deadline));
+			future.orTimeout(this.timeout.toNanos(), TimeUnit.NANOSECONDS);
+		}
+		LdapClient target = client;
+		try {
+			this.executor.execute(() -> {
+				if (future.isDone()) {
+					// timed out or cancelled while queued
+					return;
+				}
+				try {
+					future.complete(operation.apply(target));
+				}
+				catch (Throwable ex) {
+					future.completeExceptionally(ex);
+				}
+			});
+		}
+		catch (RuntimeException ex) {
+			future.completeExceptionally(ex);
+		}
+		return future;
+	}
+
+	@Override
+	public AsyncLdapClient withTimeout(Duration timeout) {
+		Assert.notNull(timeout, "timeout cannot be null");
+		Assert.isTrue(!timeout.isNegative() && !timeout.isZero(), "timeout must be positive");
+		return new DefaultAsyncLdapClient(this.builder, this.executor, timeout);
+	}
+
+	private CompletableFuture<Void> run(Consumer<LdapClient> operation) {
+		return execute((client) -> {
+			operation.accept(client);
+			return null;
+		});
+	}
+
+	private static void limitTime(SearchControls controls, long deadline) {
+		long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+		int limit = (int) Math.max(1, Math.min(remaining, Integer.MAX_VALUE));
+		if (controls.getTimeLimit() == 0 || controls.getTimeLimit() > limit) {
+			controls.setTimeLimit(limit);
+		}
+	}
+
+}
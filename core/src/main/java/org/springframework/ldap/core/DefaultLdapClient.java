@@ -19,14 +19,22 @@ package org.springframework.ldap.core;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Enumeration;
+import java.util.HashSet;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -45,12 +53,17 @@ import javax.naming.directory.SearchControls;
 import javax.naming.directory.SearchResult;
 import javax.naming.ldap.LdapName;
 
+import org.jspecify.annotations.NonNull;
 import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.dao.support.DataAccessUtils;
+import org.springframework.ldap.filter.AndFilter;
+import org.springframework.ldap.filter.Filter;
 import org.springframework.ldap.query.LdapQuery;
 import org.springframework.ldap.query.LdapQueryBuilder;
 import org.springframework.ldap.query.SearchScope;
@@ -71,6 +84,13 @@ class DefaultLdapClient implements LdapClient {
 
 	private static final boolean RETURN_OBJ_FLAG = true;
 
+	private static final int SINGLE_RESULT_COUNT_LIMIT = 2;
+
+	// the special attribute selector for requesting no attributes, see RFC 4511
+	private static final String[] NO_ATTRIBUTES = { "1.1" };
+
+	private static final Executor BLOCKING_EXECUTOR = blockingExecutor("ldap-search-");
+
 	private final Builder builder;
 
 	private final ContextSource contextSource;
@@ -83,6 +103,8 @@ class DefaultLdapClient implements LdapClient {
 
 	private boolean ignoreSizeLimitExceededException = true;
 
+	private @Nullable EntryIdentificationCache identificationCache;
+
 	DefaultLdapClient(ContextSource contextSource, Supplier<SearchControls> searchControlsSupplier,
 			LdapClient.Builder builder) {
 		this.contextSource = contextSource;
@@ -90,6 +112,19 @@ class DefaultLdapClient implements LdapClient {
 		this.builder = builder;
 	}
 
+	/**
+	 * Create an executor for running blocking directory calls off the caller's thread,
+	 * using a virtual thread per task when running on Java 21 or later.
+	 * @param threadNamePrefix the prefix for the names of created threads
+	 * @return the executor
+	 */
+	static Executor blockingExecutor(String threadNamePrefix) {
+		SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+		executor.setVirtualThreads(Runtime.version().feature() >= 21);
+		executor.setDaemon(true);
+		return executor;
+	}
+
 	@Override
 	public ListSpec list(String name) {
 		return new DefaultListSpec(LdapUtils.newLdapName(name));
@@ -187,6 +222,17 @@ class DefaultLdapClient implements LdapClient {
 		this.ignoreSizeLimitExceededException = ignoreSizeLimitExceededException;
 	}
 
+	void setIdentificationCache(@Nullable EntryIdentificationCache identificationCache) {
+		this.identificationCache = identificationCache;
+	}
+
+	private void forgetIdentifications(Name dn) {
+		EntryIdentificationCache identificationCache = this.identificationCache;
+		if (identificationCache != null) {
+			identificationCache.invalidate(dn);
+		}
+	}
+
 	<T> @Nullable T computeWithReadOnlyContext(ContextExecutor<T> executor) {
 		DirContext context = this.contextSource.getReadOnlyContext();
 		try {
@@ -298,6 +344,11 @@ class DefaultLdapClient implements LdapClient {
 
 	private <S extends NameClassPair, T> List<T> toList(@Nullable NamingEnumeration<S> results,
 			NamingExceptionFunction<? super S, T> mapper) {
+		return toList(results, mapper, Integer.MAX_VALUE);
+	}
+
+	private <S extends NameClassPair, T> List<T> toList(@Nullable NamingEnumeration<S> results,
+			NamingExceptionFunction<? super S, T> mapper, int maxResults) {
 		if (results == null) {
 			return Collections.emptyList();
 		}
@@ -305,7 +356,7 @@ class DefaultLdapClient implements LdapClient {
 			Enumeration<S> enumeration = enumeration(results);
 			Function<? super S, @Nullable T> function = mapper.wrap(this.namingExceptionHandler);
 			List<T> mapped = new ArrayList<>();
-			while (enumeration.hasMoreElements()) {
+			while (mapped.size() < maxResults && enumeration.hasMoreElements()) {
 				T result = function.apply(enumeration.nextElement());
 				if (result != null) {
 					mapped.add(result);
@@ -318,6 +369,32 @@ class DefaultLdapClient implements LdapClient {
 		}
 	}
 
+	private <S extends NameClassPair> int count(@Nullable NamingEnumeration<S> results, Predicate<S> counted,
+			boolean firstOnly) {
+		if (results == null) {
+			return 0;
+		}
+		int count = 0;
+		try {
+			Enumeration<S> enumeration = enumeration(results);
+			while (enumeration.hasMoreElements()) {
+				if (counted.test(enumeration.nextElement())) {
+					count++;
+				}
+			}
+		}
+		catch (org.springframework.ldap.SizeLimitExceededException ex) {
+			if (!firstOnly) {
+				throw ex;
+			}
+			// the server stopped after the first entry, which is all that was asked for
+		}
+		finally {
+			closeNamingEnumeration(results);
+		}
+		return count;
+	}
+
 	private <S extends NameClassPair, T> Stream<T> toStream(@Nullable NamingEnumeration<S> results,
 			NamingExceptionFunction<? super S, T> mapper) {
 		if (results == null) {
@@ -442,7 +519,7 @@ class DefaultLdapClient implements LdapClient {
 
 	private final class DefaultAuthenticateSpec implements AuthenticateSpec {
 
-		LdapClient.SearchSpec search = new DefaultSearchSpec();
+		DefaultSearchSpec search = new DefaultSearchSpec();
 
 		char @Nullable [] password;
 
@@ -465,22 +542,40 @@ class DefaultLdapClient implements LdapClient {
 
 		@Override
 		public <T> T execute(AuthenticatedLdapEntryContextMapper<T> mapper) {
-			LdapEntryIdentificationContextMapper m = new LdapEntryIdentificationContextMapper();
-			List<LdapEntryIdentification> identification = this.search.map(m).list();
-			if (identification.size() == 0) {
-				throw new EmptyResultDataAccessException(1);
-			}
-			else if (identification.size() != 1) {
-				throw new IncorrectResultSizeDataAccessException(1, identification.size());
+			LdapQuery query = this.search.query;
+			EntryIdentificationCache identificationCache = (query.bases().size() == 1)
+					? DefaultLdapClient.this.identificationCache : null;
+			String filter = query.filter().encode();
+			int searchScope = this.search.searchControlsForQuery(RETURN_OBJ_FLAG).getSearchScope();
+			LdapEntryIdentification identification = (identificationCache != null)
+					? identificationCache.get(query.base(), filter, searchScope) : null;
+			if (identification == null) {
+				LdapEntryIdentificationContextMapper m = new LdapEntryIdentificationContextMapper();
+				List<LdapEntryIdentification> identifications = this.search.map(m).list();
+				if (identifications.size() == 0) {
+					throw new EmptyResultDataAccessException(1);
+				}
+				else if (identifications.size() != 1) {
+					throw new IncorrectResultSizeDataAccessException(1, identifications.size());
+				}
+				identification = identifications.get(0);
+				if (identificationCache != null) {
+					identificationCache.put(query.base(), filter, searchScope, identification);
+				}
 			}
 			DirContext ctx = null;
+			boolean authenticated = false;
 			try {
 				String password = (this.password != null) ? new String(this.password) : "";
-				ctx = DefaultLdapClient.this.contextSource
-					.getContext(identification.get(0).getAbsoluteName().toString(), password);
-				return mapper.mapWithContext(ctx, identification.get(0));
+				ctx = DefaultLdapClient.this.contextSource.getContext(identification.getAbsoluteName().toString(),
+						password);
+				authenticated = true;
+				return mapper.mapWithContext(ctx, identification);
 			}
 			finally {
+				if (!authenticated && identificationCache != null) {
+					identificationCache.invalidate(query.base(), filter, searchScope);
+				}
 				this.password = null;
 				closeContext(ctx);
 			}
@@ -530,6 +625,7 @@ class DefaultLdapClient implements LdapClient {
 
 		@Override
 		public <T> @Nullable T toObject(ContextMapper<T> mapper) {
+			assertSingleBase();
 			this.controls = searchControlsForQuery(RETURN_OBJ_FLAG);
 			NamingEnumeration<SearchResult> results = computeWithReadOnlyContext(this::search);
 			return DefaultLdapClient.this.toObject(results, function(mapper));
@@ -537,6 +633,7 @@ class DefaultLdapClient implements LdapClient {
 
 		@Override
 		public <T> @Nullable T toObject(AttributesMapper<T> mapper) {
+			assertSingleBase();
 			this.controls = searchControlsForQuery(DONT_RETURN_OBJ_FLAG);
 			NamingEnumeration<SearchResult> results = computeWithReadOnlyContext(this::search);
 			return DefaultLdapClient.this.toObject(results, function(mapper));
@@ -545,6 +642,9 @@ class DefaultLdapClient implements LdapClient {
 		@Override
 		public <T> List<T> toList(ContextMapper<T> mapper) {
 			this.controls = searchControlsForQuery(RETURN_OBJ_FLAG);
+			if (isMerged()) {
+				return list((results) -> DefaultLdapClient.this.toStream(results, function(mapper)), Integer.MAX_VALUE);
+			}
 			NamingEnumeration<SearchResult> results = computeWithReadOnlyContext(this::search);
 			return DefaultLdapClient.this.toList(results, function(mapper));
 		}
@@ -552,6 +652,9 @@ class DefaultLdapClient implements LdapClient {
 		@Override
 		public <T> List<T> toList(AttributesMapper<T> mapper) {
 			this.controls = searchControlsForQuery(DONT_RETURN_OBJ_FLAG);
+			if (isMerged()) {
+				return list((results) -> DefaultLdapClient.this.toStream(results, function(mapper)), Integer.MAX_VALUE);
+			}
 			NamingEnumeration<SearchResult> results = computeWithReadOnlyContext(this::search);
 			return DefaultLdapClient.this.toList(results, function(mapper));
 		}
@@ -559,21 +662,130 @@ class DefaultLdapClient implements LdapClient {
 		@Override
 		public <T> Stream<T> toStream(ContextMapper<T> mapper) {
 			this.controls = searchControlsForQuery(RETURN_OBJ_FLAG);
-			NamingEnumeration<SearchResult> results = computeWithReadOnlyContext(this::search);
-			return DefaultLdapClient.this.toStream(results, function(mapper));
+			return stream((results) -> DefaultLdapClient.this.toStream(results, function(mapper)));
 		}
 
 		@Override
 		public <T> Stream<T> toStream(AttributesMapper<T> mapper) {
 			this.controls = searchControlsForQuery(DONT_RETURN_OBJ_FLAG);
-			NamingEnumeration<SearchResult> results = computeWithReadOnlyContext(this::search);
-			return DefaultLdapClient.this.toStream(results, function(mapper));
+			return stream((results) -> DefaultLdapClient.this.toStream(results, function(mapper)));
+		}
+
+		@Override
+		public int count() {
+			return count(false);
+		}
+
+		@Override
+		public boolean exists() {
+			return count(true) > 0;
+		}
+
+		private int count(boolean firstOnly) {
+			SearchControls controls = searchControlsForQuery(DONT_RETURN_OBJ_FLAG);
+			controls.setReturningAttributes(NO_ATTRIBUTES);
+			if (firstOnly) {
+				controls.setCountLimit(1);
+			}
+			String filter = this.query.filter().encode();
+			Set<Object> seen = new HashSet<>();
+			int count = 0;
+			for (Name base : this.query.bases()) {
+				NamingEnumeration<SearchResult> results = computeWithReadOnlyContext(
+						(ctx) -> ctx.search(base, filter, controls));
+				count += DefaultLdapClient.this.count(results, (result) -> !hasMultipleBases()
+						|| seen.add(DistinctSearchResults.distinguishedName(result, base)), firstOnly);
+				if (firstOnly && count > 0) {
+					break;
+				}
+			}
+			return count;
 		}
 
 		private NamingEnumeration<SearchResult> search(DirContext ctx) throws NamingException {
 			return ctx.search(this.query.base(), this.query.filter().encode(), this.controls);
 		}
 
+		private void assertSingleBase() {
+			Assert.isTrue(!hasMultipleBases(),
+					"Operations returning a single result cannot search several bases; use a list operation instead");
+		}
+
+		private boolean hasMultipleBases() {
+			return this.query.bases().size() > 1;
+		}
+
+		private boolean isMerged() {
+			return hasMultipleBases() || !this.query.partitions().isEmpty();
+		}
+
+		private <T> List<T> list(Function<@Nullable NamingEnumeration<SearchResult>, Stream<T>> toStream,
+				int maxResults) {
+			try (Stream<T> results = stream(toStream)) {
+				return results.limit(maxResults).collect(Collectors.toList());
+			}
+		}
+
+		private <T> Stream<T> stream(Function<@Nullable NamingEnumeration<SearchResult>, Stream<T>> toStream) {
+			return stream(toStream, false);
+		}
+
+		private <T> Stream<T> stream(Function<@Nullable NamingEnumeration<SearchResult>, Stream<T>> toStream,
+				boolean holdContext) {
+			if (!isMerged()) {
+				return stream(toStream, holdContext, this.query.base(), this.query.filter(), null);
+			}
+			// search all bases and partitions concurrently, skipping entries found under
+			// an overlapping base or, for distinct queries, by another partition
+			List<Filter> filters = new ArrayList<>();
+			if (this.query.partitions().isEmpty()) {
+				filters.add(this.query.filter());
+			}
+			for (Filter partition : this.query.partitions()) {
+				filters.add(new AndFilter().and(this.query.filter()).and(partition));
+			}
+			@Nullable Set<Object> seen = (hasMultipleBases() || this.query.distinct()) ? ConcurrentHashMap.newKeySet()
+					: null;
+			List<Supplier<Stream<T>>> streams = new ArrayList<>();
+			for (Name base : this.query.bases()) {
+				for (Filter filter : filters) {
+					streams.add(() -> stream(toStream, true, base, filter, seen));
+				}
+			}
+			return PartitionedStreams.merge(streams, BLOCKING_EXECUTOR, PartitionedStreams.DEFAULT_BUFFER_SIZE);
+		}
+
+		private <T> Stream<T> stream(Function<@Nullable NamingEnumeration<SearchResult>, Stream<T>> toStream,
+				boolean holdContext, Name base, Filter filter, @Nullable Set<Object> seen) {
+			Integer pageSize = this.query.pageSize();
+			if (pageSize == null && !holdContext) {
+				return toStream.apply(computeWithReadOnlyContext(this::search));
+			}
+			// paging needs the same connection for every page, and publishers release
+			// it only once the subscription ends, so keep it until the stream is closed
+			DirContext ctx = DefaultLdapClient.this.contextSource.getReadOnlyContext();
+			NamingEnumeration<SearchResult> results;
+			try {
+				String encodedFilter = filter.encode();
+				results = (pageSize != null)
+						? PagedSearchResultsEnumeration.search(ctx, base, encodedFilter, this.controls, pageSize)
+						: ctx.search(base, encodedFilter, this.controls);
+				if (seen != null) {
+					results = new DistinctSearchResults(results, base, seen);
+				}
+			}
+			catch (NamingException ex) {
+				closeContext(ctx);
+				DefaultLdapClient.this.namingExceptionHandler.accept(ex);
+				return Stream.empty();
+			}
+			catch (RuntimeException ex) {
+				closeContext(ctx);
+				throw ex;
+			}
+			return toStream.apply(results).onClose(() -> closeContext(ctx));
+		}
+
 		private SearchControls searchControlsForQuery(boolean returnObjFlag) {
 			SearchControls controls = DefaultLdapClient.this.searchControlsSupplier.get();
 			controls.setReturningObjFlag(returnObjFlag);
@@ -593,6 +805,17 @@ class DefaultLdapClient implements LdapClient {
 			return controls;
 		}
 
+		/**
+		 * Lower the count limit so that the server stops after the second matching
+		 * entry, which is enough to tell whether the result is unique.
+		 */
+		private SearchControls singleResultSearchControls(SearchControls controls) {
+			if (controls.getCountLimit() == 0 || controls.getCountLimit() > SINGLE_RESULT_COUNT_LIMIT) {
+				controls.setCountLimit(SINGLE_RESULT_COUNT_LIMIT);
+			}
+			return controls;
+		}
+
 		private final class ContextMapperSearchSpec<T> implements MappedSearchSpec<T> {
 
 			private final ContextMapper<T> mapper;
@@ -604,6 +827,11 @@ class DefaultLdapClient implements LdapClient {
 			@Override
 			public List<T> list() {
 				DefaultSearchSpec.this.controls = searchControlsForQuery(RETURN_OBJ_FLAG);
+				if (isMerged()) {
+					return DefaultSearchSpec.this.list(
+							(results) -> DefaultLdapClient.this.toStream(results, function(this.mapper)),
+							Integer.MAX_VALUE);
+				}
 				NamingEnumeration<SearchResult> results = computeWithReadOnlyContext(DefaultSearchSpec.this::search);
 				return DefaultLdapClient.this.toList(results, function(this.mapper));
 			}
@@ -611,8 +839,43 @@ class DefaultLdapClient implements LdapClient {
 			@Override
 			public Stream<T> stream() {
 				DefaultSearchSpec.this.controls = searchControlsForQuery(RETURN_OBJ_FLAG);
+				return DefaultSearchSpec.this
+					.stream((results) -> DefaultLdapClient.this.toStream(results, function(this.mapper)));
+			}
+
+			@Override
+			public Flow.Publisher<T> publisher() {
+				return publisher(BLOCKING_EXECUTOR);
+			}
+
+			@Override
+			public Flow.Publisher<T> publisher(Executor executor) {
+				return new SearchResultPublisher<>(() -> {
+					DefaultSearchSpec.this.controls = searchControlsForQuery(RETURN_OBJ_FLAG);
+					return DefaultSearchSpec.this
+						.stream((results) -> DefaultLdapClient.this.toStream(results, function(this.mapper)), true);
+				}, executor);
+			}
+
+			@Override
+			public @NonNull T single() {
+				return DataAccessUtils.requiredSingleResult(uniquenessCandidates());
+			}
+
+			@Override
+			public Optional<T> optional() {
+				return DataAccessUtils.optionalResult(uniquenessCandidates());
+			}
+
+			private List<T> uniquenessCandidates() {
+				DefaultSearchSpec.this.controls = singleResultSearchControls(searchControlsForQuery(RETURN_OBJ_FLAG));
+				if (isMerged()) {
+					return DefaultSearchSpec.this.list(
+							(results) -> DefaultLdapClient.this.toStream(results, function(this.mapper)),
+							SINGLE_RESULT_COUNT_LIMIT);
+				}
 				NamingEnumeration<SearchResult> results = computeWithReadOnlyContext(DefaultSearchSpec.this::search);
-				return DefaultLdapClient.this.toStream(results, function(this.mapper));
+				return DefaultLdapClient.this.toList(results, function(this.mapper), SINGLE_RESULT_COUNT_LIMIT);
 			}
 
 		}
@@ -628,6 +891,11 @@ class DefaultLdapClient implements LdapClient {
 			@Override
 			public List<T> list() {
 				DefaultSearchSpec.this.controls = searchControlsForQuery(DONT_RETURN_OBJ_FLAG);
+				if (isMerged()) {
+					return DefaultSearchSpec.this.list(
+							(results) -> DefaultLdapClient.this.toStream(results, function(this.mapper)),
+							Integer.MAX_VALUE);
+				}
 				NamingEnumeration<SearchResult> results = computeWithReadOnlyContext(DefaultSearchSpec.this::search);
 				return DefaultLdapClient.this.toList(results, function(this.mapper));
 			}
@@ -635,8 +903,44 @@ class DefaultLdapClient implements LdapClient {
 			@Override
 			public Stream<T> stream() {
 				DefaultSearchSpec.this.controls = searchControlsForQuery(DONT_RETURN_OBJ_FLAG);
+				return DefaultSearchSpec.this
+					.stream((results) -> DefaultLdapClient.this.toStream(results, function(this.mapper)));
+			}
+
+			@Override
+			public Flow.Publisher<T> publisher() {
+				return publisher(BLOCKING_EXECUTOR);
+			}
+
+			@Override
+			public Flow.Publisher<T> publisher(Executor executor) {
+				return new SearchResultPublisher<>(() -> {
+					DefaultSearchSpec.this.controls = searchControlsForQuery(DONT_RETURN_OBJ_FLAG);
+					return DefaultSearchSpec.this
+						.stream((results) -> DefaultLdapClient.this.toStream(results, function(this.mapper)), true);
+				}, executor);
+			}
+
+			@Override
+			public @NonNull T single() {
+				return DataAccessUtils.requiredSingleResult(uniquenessCandidates());
+			}
+
+			@Override
+			public Optional<T> optional() {
+				return DataAccessUtils.optionalResult(uniquenessCandidates());
+			}
+
+			private List<T> uniquenessCandidates() {
+				DefaultSearchSpec.this.controls = singleResultSearchControls(
+						searchControlsForQuery(DONT_RETURN_OBJ_FLAG));
+				if (isMerged()) {
+					return DefaultSearchSpec.this.list(
+							(results) -> DefaultLdapClient.this.toStream(results, function(this.mapper)),
+							SINGLE_RESULT_COUNT_LIMIT);
+				}
 				NamingEnumeration<SearchResult> results = computeWithReadOnlyContext(DefaultSearchSpec.this::search);
-				return DefaultLdapClient.this.toStream(results, function(this.mapper));
+				return DefaultLdapClient.this.toList(results, function(this.mapper), SINGLE_RESULT_COUNT_LIMIT);
 			}
 
 		}
@@ -729,6 +1033,7 @@ class DefaultLdapClient implements LdapClient {
 			if (!this.entry.getDn().equals(this.name)) {
 				runWithReadWriteContext((ctx) -> ctx.rename(this.entry.getDn(), this.name));
 				renamed = true;
+				forgetIdentifications(this.entry.getDn());
 			}
 			try {
 				if (this.items.length > 0) {
@@ -764,11 +1069,16 @@ class DefaultLdapClient implements LdapClient {
 
 		@Override
 		public void execute() {
-			if (this.recursive) {
-				runWithReadWriteContext((ctx) -> unbindRecursive(ctx, this.name));
-				return;
+			try {
+				if (this.recursive) {
+					runWithReadWriteContext((ctx) -> unbindRecursive(ctx, this.name));
+					return;
+				}
+				runWithReadWriteContext((ctx) -> ctx.unbind(this.name));
+			}
+			finally {
+				forgetIdentifications(this.name);
 			}
-			runWithReadWriteContext((ctx) -> ctx.unbind(this.name));
 		}
 
 		void unbindRecursive(DirContext ctx, Name name) throws NamingException {
@@ -16,12 +16,16 @@
 
 package org.springframework.ldap.core;
 
+import java.time.Duration;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 import javax.naming.directory.DirContext;
 import javax.naming.directory.SearchControls;
 
+import org.jspecify.annotations.Nullable;
+
 import org.springframework.ldap.NamingException;
 
 class DefaultLdapClientBuilder implements LdapClient.Builder {
@@ -42,6 +46,8 @@ class DefaultLdapClientBuilder implements LdapClient.Builder {
 
 	private boolean ignoreSizeLimitExceededException = true;
 
+	private @Nullable EntryIdentificationCache identificationCache;
+
 	@Deprecated
 	DefaultLdapClientBuilder() {
 		this(new NullContextSource());
@@ -68,6 +74,7 @@ class DefaultLdapClientBuilder implements LdapClient.Builder {
 		this.ignoreNameNotFoundException = ldap.isIgnoreNameNotFoundException();
 		this.ignoreSizeLimitExceededException = ldap.isIgnoreSizeLimitExceededException();
 		this.ignorePartialResultException = ldap.isIgnorePartialResultException();
+		this.identificationCache = ldap.getIdentificationCache();
 	}
 
 	@Override
@@ -109,6 +116,15 @@ class DefaultLdapClientBuilder implements LdapClient.Builder {
 		return this;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public DefaultLdapClientBuilder authenticationCacheTimeToLive(@Nullable Duration timeToLive) {
+		this.identificationCache = (timeToLive != null) ? new EntryIdentificationCache(timeToLive) : null;
+		return this;
+	}
+
 	@Override
 	public DefaultLdapClientBuilder apply(Consumer<LdapClient.Builder> builderConsumer) {
 		builderConsumer.accept(this);
@@ -117,15 +133,45 @@ class DefaultLdapClientBuilder implements LdapClient.Builder {
 
 	@Override
 	public DefaultLdapClientBuilder clone() {
-		return new DefaultLdapClientBuilder(this.contextSource, this.searchControlsSupplier);
+		DefaultLdapClientBuilder clone = new DefaultLdapClientBuilder(this.contextSource, this.searchControlsSupplier);
+		clone.ignorePartialResultException = this.ignorePartialResultException;
+		clone.ignoreNameNotFoundException = this.ignoreNameNotFoundException;
+		clone.ignoreSizeLimitExceededException = this.ignoreSizeLimitExceededException;
+		clone.identificationCache = this.identificationCache;
+		return clone;
 	}
 
 	@Override
 	public LdapClient build() {
-		DefaultLdapClient client = new DefaultLdapClient(this.contextSource, this.searchControlsSupplier, this);
+		return newClient(this.searchControlsSupplier);
+	}
+
+	/**
+	 * Build an {@link LdapClient} whose default search controls are further customized
+	 * by the given {@code Consumer} each time they are created.
+	 * @param searchControlsCustomizer the customizer to apply
+	 * @return the {@link LdapClient}
+	 */
+	LdapClient build(Consumer<SearchControls> searchControlsCustomizer) {
+		Supplier<SearchControls> searchControlsSupplier = this.searchControlsSupplier;
+		return newClient(() -> {
+			SearchControls controls = searchControlsSupplier.get();
+			searchControlsCustomizer.accept(controls);
+			return controls;
+		});
+	}
+
+	@Override
+	public AsyncLdapClient buildAsync(Executor executor) {
+		return new DefaultAsyncLdapClient(clone(), executor, null);
+	}
+
+	private LdapClient newClient(Supplier<SearchControls> searchControlsSupplier) {
+		DefaultLdapClient client = new DefaultLdapClient(this.contextSource, searchControlsSupplier, this);
 		client.setIgnorePartialResultException(this.ignorePartialResultException);
 		client.setIgnoreSizeLimitExceededException(this.ignoreSizeLimitExceededException);
 		client.setIgnoreNameNotFoundException(this.ignoreNameNotFoundException);
+		client.setIdentificationCache(this.identificationCache);
 		return client;
 	}
 
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2006-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ldap.core;
+
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import javax.naming.Name;
+import javax.naming.NameClassPair;
+import javax.naming.NamingEnumeration;
+import javax.naming.NamingException;
+import javax.naming.directory.SearchResult;
+
+import org.jspecify.annotations.Nullable;
+
+import org.springframework.ldap.support.LdapUtils;
+
+/**
+ * A {@link NamingEnumeration} that skips search results whose distinguished name has
+ * already been seen, for example by another search sharing the same set.
+ * <p>
+ * Relative result names are resolved against the search base, so that the same entry
+ * found under different, overlapping bases is recognized.
+ *
+ * @since 4.2
+ */
+final class DistinctSearchResults implements NamingEnumeration<SearchResult> {
+
+	private final NamingEnumeration<SearchResult> delegate;
+
+	private final Name base;
+
+	private final Set<Object> seen;
+
+	private @Nullable SearchResult next;
+
+	/**
+	 * Create a new instance.
+	 * @param delegate the search results to filter
+	 * @param base the base the search was issued with
+	 * @param seen the distinguished names seen so far; must be thread-safe if shared
+	 * between concurrent searches
+	 */
+	DistinctSearchResults(NamingEnumeration<SearchResult> delegate, Name base, Set<Object> seen) {
+		this.delegate = delegate;
+		this.base = base;
+		this.seen = seen;
+	}
+
+	@Override
+	public boolean hasMore() throws NamingException {
+		while (this.next == null && this.delegate.hasMore()) {
+			accept(this.delegate.next());
+		}
+		return this.next != null;
+	}
+
+	@Override
+	public SearchResult next() throws NamingException {
+		if (!hasMore()) {
+			throw new NoSuchElementException("no more search results");
+		}
+		return take();
+	}
+
+	@Override
+	public boolean hasMoreElements() {
+		while (this.next == null && this.delegate.hasMoreElements()) {
+			accept(this.delegate.nextElement());
+		}
+		return this.next != null;
+	}
+
+	@Override
+	public SearchResult nextElement() {
+		if (!hasMoreElements()) {
+			throw new NoSuchElementException("no more search results");
+		}
+		return take();
+	}
+
+	@Override
+	public void close() throws NamingException {
+		this.next = null;
+		this.delegate.close();
+	}
+
+	private void accept(SearchResult result) {
+		if (this.seen.add(distinguishedName(result, this.base))) {
+			this.next = result;
+		}
+	}
+
+	private SearchResult take() {
+		SearchResult result = this.next;
+		this.next = null;
+		return result;
+	}
+
+	/**
+	 * Get a key identifying the entry of a search result, for comparison with the
+	 * results of searches under other bases.
+	 * @param result the search result
+	 * @param base the base the search was issued with
+	 * @return the distinguished name of the entry, or its URL if not relative
+	 */
+	static Object distinguishedName(NameClassPair result, Name base) {
+		if (!result.isRelative()) {
+			// typically a referral URL
+			return result.getName();
+		}
+		return LdapUtils.prepend(LdapUtils.newLdapName(result.getName()), base);
+	}
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2006-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ldap.core;
+
+import java.time.Duration;
+import java.util.Objects;
+
+import javax.naming.Name;
+import javax.naming.ldap.LdapName;
+
+import org.jspecify.annotations.Nullable;
+
+import org.springframework.ldap.support.LdapUtils;
+
+/**
+ * Remembers which entry an authentication search identified, so that later
+ * authentications with the same search only need to bind.
+ * <p>
+ * Entries are keyed by search base, filter and scope. An entry should be
+ * {@link #invalidate(Name, String, int) invalidated} when binding as the identified
+ * entry fails, since it may have been renamed or removed in the meantime. While an
+ * entry is remembered, the conditions of the filter are not checked again.
+ *
+ * @since 4.2
+ */
+final class EntryIdentificationCache {
+
+	private static final int MAXIMUM_SIZE = 10_000;
+
+	private final ExpiringCache<Key, LdapEntryIdentification> cache;
+
+	EntryIdentificationCache(Duration timeToLive) {
+		this.cache = new ExpiringCache<>(MAXIMUM_SIZE, timeToLive);
+	}
+
+	@Nullable LdapEntryIdentification get(Name base, String filter, int searchScope) {
+		return this.cache.getIfPresent(new Key(base, filter, searchScope));
+	}
+
+	void put(Name base, String filter, int searchScope, LdapEntryIdentification identification) {
+		this.cache.put(new Key(base, filter, searchScope), identification);
+	}
+
+	void invalidate(Name base, String filter, int searchScope) {
+		this.cache.remove(new Key(base, filter, searchScope));
+	}
+
+	/**
+	 * Forget the identifications of the given entry and of the entries below it.
+	 * @param dn the distinguished name of the entry, relative to the base of the
+	 * context source
+	 */
+	void invalidate(Name dn) {
+		LdapName name = LdapUtils.newLdapName(dn);
+		this.cache.invalidateEntries((key, identification) -> identification.getRelativeName().startsWith(name));
+	}
+
+	private static final class Key {
+
+		private final LdapName base;
+
+		private final String filter;
+
+		private final int searchScope;
+
+		Key(Name base, String filter, int searchScope) {
+			this.base = LdapUtils.newLdapName(base);
+			this.filter = filter;
+			this.searchScope = searchScope;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Key other)) {
+				return false;
+			}
+			return this.base.equals(other.base) && this.filter.equals(other.filter)
+					&& this.searchScope == other.searchScope;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(this.base, this.filter, this.searchScope);
+		}
+
+	}
+
+}
@@ -0,0 +1,335 @@
+/*
+ * Copyright 2006-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ldap.core;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiPredicate;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.jspecify.annotations.Nullable;
+
+import org.springframework.util.Assert;
+
+/**
+ * A size-bounded cache whose entries expire a fixed time after they were loaded.
+ * <p>
+ * The least recently used entry is evicted when the cache is full. The maximum size
+ * and time to live can be changed in place, keeping the cached entries and statistics.
+ * Concurrent misses for the same key load the value only once, the other callers
+ * waiting for it. A value that was being loaded while the cache was invalidated is
+ * returned to its callers but not stored, since it may predate the change that caused
+ * the invalidation.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ * @since 4.2
+ */
+final class ExpiringCache<K, V> {
+
+	private volatile int maximumSize;
+
+	private volatile long timeToLiveNanos;
+
+	private final LongSupplier ticker;
+
+	private final Map<K, Entry<V>> entries;
+
+	private final ConcurrentMap<K, CompletableFuture<V>> loading = new ConcurrentHashMap<>();
+
+	private final AtomicLong generation = new AtomicLong();
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	private final LongAdder evictions = new LongAdder();
+
+	ExpiringCache(int maximumSize, Duration timeToLive) {
+		this(maximumSize, timeToLive, System::nanoTime);
+	}
+
+	ExpiringCache(int maximumSize, Duration timeToLive, LongSupplier ticker) {
+		assertMaximumSize(maximumSize);
+		assertTimeToLive(timeToLive);
+		this.maximumSize = maximumSize;
+		this.timeToLiveNanos = timeToLive.toNanos();
+		this.ticker = ticker;
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+				if (size() > ExpiringCache.this.maximumSize) {
+					ExpiringCache.this.evictions.increment();
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * Change the maximum number of entries, evicting the least recently used ones if
+	 * there are more.
+	 * @param maximumSize the maximum number of entries
+	 */
+	void setMaximumSize(int maximumSize) {
+		assertMaximumSize(maximumSize);
+		synchronized (this.entries) {
+			this.maximumSize = maximumSize;
+			Iterator<K> keys = this.entries.keySet().iterator();
+			while (this.entries.size() > maximumSize) {
+				keys.next();
+				keys.remove();
+				this.evictions.increment();
+			}
+		}
+	}
+
+	/**
+	 * Change how long entries are kept after they were loaded, including the entries
+	 * already cached.
+	 * @param timeToLive the time to live
+	 */
+	void setTimeToLive(Duration timeToLive) {
+		assertTimeToLive(timeToLive);
+		this.timeToLiveNanos = timeToLive.toNanos();
+	}
+
+	/**
+	 * Get the value cached for the given key, loading and caching it if absent.
+	 * @param key the key
+	 * @param loader the function loading the value; exceptions are propagated to all
+	 * callers waiting for the value, and nothing is cached
+	 * @return the cached or loaded value
+	 */
+	V get(K key, Supplier<V> loader) {
+		V cached = getIfPresent(key);
+		if (cached != null) {
+			this.hits.increment();
+			return cached;
+		}
+		this.misses.increment();
+		CompletableFuture<V> load = new CompletableFuture<>();
+		CompletableFuture<V> pending = this.loading.putIfAbsent(key, load);
+		if (pending != null) {
+			return join(pending);
+		}
+		long generation = this.generation.get();
+		try {
+			V value = loader.get();
+			if (value != null) {
+				put(key, value, generation);
+			}
+			load.complete(value);
+			return value;
+		}
+		catch (RuntimeException | Error ex) {
+			load.completeExceptionally(ex);
+			throw ex;
+		}
+		finally {
+			this.loading.remove(key, load);
+		}
+	}
+
+	/**
+	 * Get the value cached for the given key, without loading it if absent.
+	 * @param key the key
+	 * @return the cached value, or {@code null} if absent or expired
+	 */
+	@Nullable V getIfPresent(K key) {
+		synchronized (this.entries) {
+			Entry<V> entry = this.entries.get(key);
+			if (entry == null) {
+				return null;
+			}
+			if (this.ticker.getAsLong() - entry.loaded >= this.timeToLiveNanos) {
+				this.entries.remove(key);
+				return null;
+			}
+			return entry.value;
+		}
+	}
+
+	/**
+	 * Cache the given value.
+	 * @param key the key
+	 * @param value the value
+	 */
+	void put(K key, V value) {
+		synchronized (this.entries) {
+			this.entries.put(key, new Entry<>(value, this.ticker.getAsLong()));
+		}
+	}
+
+	/**
+	 * Cache the given value, unless entries were invalidated since the given generation
+	 * was read, in which case the value may predate the change that caused it.
+	 * @param key the key
+	 * @param value the value
+	 * @param generation the {@link #generation()} read before loading the value
+	 */
+	void put(K key, V value, long generation) {
+		synchronized (this.entries) {
+			if (generation == this.generation.get()) {
+				this.entries.put(key, new Entry<>(value, this.ticker.getAsLong()));
+			}
+		}
+	}
+
+	/**
+	 * Get the current generation, which changes whenever entries are invalidated.
+	 * @return the current generation
+	 * @see #put(Object, Object, long)
+	 */
+	long generation() {
+		return this.generation.get();
+	}
+
+	/**
+	 * Remove the entry for the given key, and keep values being loaded from being
+	 * cached.
+	 * @param key the key
+	 */
+	void remove(K key) {
+		this.generation.incrementAndGet();
+		synchronized (this.entries) {
+			this.entries.remove(key);
+		}
+	}
+
+	/**
+	 * Remove the entries whose key matches, and keep values being loaded from being
+	 * cached.
+	 * @param keys the predicate selecting the keys to remove
+	 */
+	void invalidate(Predicate<? super K> keys) {
+		invalidateEntries((key, value) -> keys.test(key));
+	}
+
+	/**
+	 * Remove the entries matching by key and value, and keep values being loaded from
+	 * being cached.
+	 * @param entries the predicate selecting the entries to remove
+	 */
+	void invalidateEntries(BiPredicate<? super K, ? super V> entries) {
+		this.generation.incrementAndGet();
+		synchronized (this.entries) {
+			this.entries.entrySet().removeIf((entry) -> entries.test(entry.getKey(), entry.getValue().value));
+		}
+	}
+
+	/**
+	 * Remove all entries.
+	 */
+	void invalidateAll() {
+		invalidate((key) -> true);
+	}
+
+	long hitCount() {
+		return this.hits.sum();
+	}
+
+	long missCount() {
+		return this.misses.sum();
+	}
+
+	long evictionCount() {
+		return this.evictions.sum();
+	}
+
+	int size() {
+		synchronized (this.entries) {
+			return this.entries.size();
+		}
+	}
+
+	/**
+	 * Register the statistics of this cache with the given registry.
+	 * @param registry the registry
+	 * @param name the name of the cache, used as {@code cache} tag
+	 */
+	void bindTo(MeterRegistry registry, String name) {
+		FunctionCounter.builder("spring.ldap.cache.gets", this, ExpiringCache::hitCount)
+			.tags("cache", name, "result", "hit")
+			.description("The number of times cached values were returned")
+			.register(registry);
+		FunctionCounter.builder("spring.ldap.cache.gets", this, ExpiringCache::missCount)
+			.tags("cache", name, "result", "miss")
+			.description("The number of times values had to be loaded")
+			.register(registry);
+		FunctionCounter.builder("spring.ldap.cache.evictions", this, ExpiringCache::evictionCount)
+			.tags("cache", name)
+			.description("The number of values evicted because the cache was full")
+			.register(registry);
+		Gauge.builder("spring.ldap.cache.size", this, ExpiringCache::size)
+			.tags("cache", name)
+			.description("The number of cached values")
+			.register(registry);
+	}
+
+	private static void assertMaximumSize(int maximumSize) {
+		Assert.isTrue(maximumSize > 0, "maximumSize must be greater than 0");
+	}
+
+	private static void assertTimeToLive(Duration timeToLive) {
+		Assert.notNull(timeToLive, "timeToLive cannot be null");
+		Assert.isTrue(!timeToLive.isNegative() && !timeToLive.isZero(), "timeToLive must be positive");
+	}
+
+	private static <V> V join(CompletableFuture<V> pending) {
+		try {
+			return pending.join();
+		}
+		catch (CompletionException ex) {
+			if (ex.getCause() instanceof RuntimeException runtime) {
+				throw runtime;
+			}
+			if (ex.getCause() instanceof Error error) {
+				throw error;
+			}
+			throw ex;
+		}
+	}
+
+	private static final class Entry<V> {
+
+		private final V value;
+
+		private final long loaded;
+
+		Entry(V value, long loaded) {
+			this.value = value;
+			this.loaded = loaded;
+		}
+
+	}
+
+}
@@ -0,0 +1,428 @@
+/*
+ * Copyright 2006-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ldap.core;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiFunction;
+
+import javax.naming.Name;
+
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.ldap.TimeLimitExceededException;
+import org.springframework.ldap.filter.Filter;
+import org.springframework.ldap.query.LdapQuery;
+import org.springframework.ldap.query.SearchScope;
+import org.springframework.util.Assert;
+
+/**
+ * Issues the same {@link LdapQuery} against several independent directories
+ * concurrently, so that a federated search takes as long as the slowest directory
+ * rather than the sum of all of them.
+ * <p>
+ * Each directory is represented by the {@link LdapOperations} used to search it and a
+ * name, which is attached to each of its results: <pre>
+ * FederatedLdapSearch federation = new FederatedLdapSearch(Map.of(
+ * 		"corporate", new LdapTemplate(corporateContextSource),
+ * 		"partners", new LdapTemplate(partnerContextSource)));
+ * federation.setTimeout(Duration.ofSeconds(2));
+ * List&lt;SourcedResult&lt;Person&gt;&gt; people = federation.search(query, PERSON_CONTEXT_MAPPER);
+ * </pre> {@link #searchFirst(LdapQuery, ContextMapper)} returns as soon as any
+ * directory has found a match, which suits resolving a user that is expected to exist
+ * in only one of them.
+ * <p>
+ * A directory that does not answer within its {@link #setTimeout(String, Duration)
+ * timeout} fails the search with a {@link TimeLimitExceededException}, as does any
+ * other failure, unless {@link #setIgnoreSourceFailures(boolean)} is set.
+ *
+ * @since 4.2
+ */
+public class FederatedLdapSearch {
+
+	private static final Logger LOG = LoggerFactory.getLogger(FederatedLdapSearch.class);
+
+	private static final Executor FEDERATION_EXECUTOR = DefaultLdapClient.blockingExecutor("ldap-federation-");
+
+	private final Map<String, LdapOperations> sources;
+
+	private final Map<String, Duration> timeouts = new HashMap<>();
+
+	private @Nullable Duration defaultTimeout;
+
+	private Executor executor = FEDERATION_EXECUTOR;
+
+	private boolean ignoreSourceFailures = false;
+
+	/**
+	 * Create a new instance.
+	 * @param sources the operations to search each directory with, by directory name;
+	 * results are returned in the iteration order of this map.
+	 */
+	public FederatedLdapSearch(Map<String, ? extends LdapOperations> sources) {
+		Assert.notEmpty(sources, "sources cannot be empty");
+		this.sources = new LinkedHashMap<>(sources);
+	}
+
+	/**
+	 * Set the time each directory is given to answer, unless set for the directory with
+	 * {@link #setTimeout(String, Duration)}. The timeout is also sent to the directory
+	 * as the search time limit, unless the query specifies a lower one. Default is no
+	 * timeout.
+	 * @param timeout the time allowed for each directory.
+	 */
+	public void setTimeout(Duration timeout) {
+		this.defaultTimeout = validTimeout(timeout);
+	}
+
+	/**
+	 * Set the time the given directory is given to answer.
+	 * @param source the directory name.
+	 * @param timeout the time allowed for the directory.
+	 */
+	public void setTimeout(String source, Duration timeout) {
+		Assert.isTrue(this.sources.containsKey(source), () -> "Unknown source '" + source + "'");
+		this.timeouts.put(source, validTimeout(timeout));
+	}
+
+	/**
+	 * Set the executor used to search the directories concurrently. Each directory
+	 * occupies a thread of this executor for as long as it is being searched. Default
+	 * is an executor creating a new thread, virtual when running on Java 21 or later,
+	 * per directory.
+	 * @param executor the executor to search directories on.
+	 */
+	public void setExecutor(Executor executor) {
+		Assert.notNull(executor, "executor cannot be null");
+		this.executor = executor;
+	}
+
+	/**
+	 * Specify whether a directory that fails or does not answer in time should be left
+	 * out of the results rather than failing the search. Default is {@code false}.
+	 * @param ignoreSourceFailures whether to ignore failing directories.
+	 */
+	public void setIgnoreSourceFailures(boolean ignoreSourceFailures) {
+		this.ignoreSourceFailures = ignoreSourceFailures;
+	}
+
+	/**
+	 * Search all directories and return all results.
+	 * @param query the query to issue against each directory.
+	 * @param mapper the mapper to map each entry with.
+	 * @param <T> the result type.
+	 * @return the results of all directories, grouped by directory.
+	 * @see LdapOperations#search(LdapQuery, ContextMapper)
+	 */
+	public <T> List<SourcedResult<T>> search(LdapQuery query, ContextMapper<T> mapper) {
+		Assert.notNull(mapper, "mapper cannot be null");
+		return searchAll(query, (operations, sourceQuery) -> operations.search(sourceQuery, mapper));
+	}
+
+	/**
+	 * Search all directories and return all results, mapping the attributes of each
+	 * entry.
+	 * @param query the query to issue against each directory.
+	 * @param mapper the mapper to map the attributes of each entry with.
+	 * @param <T> the result type.
+	 * @return the results of all directories, grouped by directory.
+	 * @see LdapOperations#search(LdapQuery, AttributesMapper)
+	 */
+	public <T> List<SourcedResult<T>> searchForAttributes(LdapQuery query, AttributesMapper<T> mapper) {
+		Assert.notNull(mapper, "mapper cannot be null");
+		return searchAll(query, (operations, sourceQuery) -> operations.search(sourceQuery, mapper));
+	}
+
+	/**
+	 * Search all directories, returning the results of the first directory to find any.
+	 * Directories that have not been searched yet by then are skipped.
+	 * @param query the query to issue against each directory.
+	 * @param mapper the mapper to map each entry with.
+	 * @param <T> the result type.
+	 * @return the results of the first directory finding any, or an empty list if no
+	 * directory finds any.
+	 */
+	public <T> List<SourcedResult<T>> searchFirst(LdapQuery query, ContextMapper<T> mapper) {
+		Assert.notNull(mapper, "mapper cannot be null");
+		return searchFirst(query, (operations, sourceQuery) -> operations.search(sourceQuery, mapper));
+	}
+
+	/**
+	 * Search all directories, returning the results of the first directory to find any,
+	 * mapping the attributes of each entry. Directories that have not been searched yet
+	 * by then are skipped.
+	 * @param query the query to issue against each directory.
+	 * @param mapper the mapper to map the attributes of each entry with.
+	 * @param <T> the result type.
+	 * @return the results of the first directory finding any, or an empty list if no
+	 * directory finds any.
+	 */
+	public <T> List<SourcedResult<T>> searchFirstForAttributes(LdapQuery query, AttributesMapper<T> mapper) {
+		Assert.notNull(mapper, "mapper cannot be null");
+		return searchFirst(query, (operations, sourceQuery) -> operations.search(sourceQuery, mapper));
+	}
+
+	private <T> List<SourcedResult<T>> searchAll(LdapQuery query,
+			BiFunction<LdapOperations, LdapQuery, List<T>> search) {
+		Map<String, CompletableFuture<List<T>>> futures = submit(query, search);
+		List<SourcedResult<T>> results = new ArrayList<>();
+		futures.forEach((source, future) -> results.addAll(tag(source, await(source, future))));
+		return results;
+	}
+
+	private <T> List<SourcedResult<T>> searchFirst(LdapQuery query,
+			BiFunction<LdapOperations, LdapQuery, List<T>> search) {
+		Map<String, CompletableFuture<List<T>>> futures = submit(query, search);
+		CompletableFuture<List<SourcedResult<T>>> first = new CompletableFuture<>();
+		futures.forEach((source, future) -> future.thenAccept((results) -> {
+			if (!results.isEmpty()) {
+				first.complete(tag(source, results));
+			}
+		}));
+		CompletableFuture<?> all = CompletableFuture.allOf(futures.values()
+			.stream()
+			.map((future) -> future.handle((result, ex) -> null))
+			.toArray(CompletableFuture[]::new));
+		CompletableFuture.anyOf(first, all).join();
+		if (first.isDone()) {
+			// skip the directories still waiting for a thread
+			futures.values().forEach((future) -> future.cancel(false));
+			return first.join();
+		}
+		for (Map.Entry<String, CompletableFuture<List<T>>> entry : futures.entrySet()) {
+			List<T> results = await(entry.getKey(), entry.getValue());
+			if (!results.isEmpty()) {
+				return tag(entry.getKey(), results);
+			}
+		}
+		return Collections.emptyList();
+	}
+
+	private <T> Map<String, CompletableFuture<List<T>>> submit(LdapQuery query,
+			BiFunction<LdapOperations, LdapQuery, List<T>> search) {
+		Assert.notNull(query, "query cannot be null");
+		Map<String, CompletableFuture<List<T>>> futures = new LinkedHashMap<>();
+		this.sources.forEach((source, operations) -> {
+			CompletableFuture<List<T>> future = new CompletableFuture<>();
+			Duration timeout = this.timeouts.getOrDefault(source, this.defaultTimeout);
+			LdapQuery sourceQuery = query;
+			if (timeout != null) {
+				future.orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS);
+				sourceQuery = new TimeLimitedQuery(query, timeout);
+			}
+			LdapQuery target = sourceQuery;
+			try {
+				this.executor.execute(() -> {
+					if (future.isDone()) {
+						// timed out or no longer needed while queued
+						return;
+					}
+					try {
+						future.complete(search.apply(operations, target));
+					}
+					catch (Throwable ex) {
+						future.completeExceptionally(ex);
+					}
+				});
+			}
+			catch (RuntimeException ex) {
+				future.completeExceptionally(ex);
+			}
+			futures.put(source, future);
+		});
+		return futures;
+	}
+
+	private <T> List<T> await(String source, CompletableFuture<List<T>> future) {
+		try {
+			return future.join();
+		}
+		catch (CompletionException ex) {
+			RuntimeException failure = translate(source, ex.getCause());
+			if (!this.ignoreSourceFailures) {
+				throw failure;
+			}
+			LOG.warn("Ignoring failure of source '{}'", source, failure);
+			return Collections.emptyList();
+		}
+	}
+
+	private RuntimeException translate(String source, Throwable ex) {
+		if (ex instanceof TimeoutException) {
+			return new TimeLimitExceededException(
+					new javax.naming.TimeLimitExceededException("Source '" + source + "' did not answer in time"));
+		}
+		if (ex instanceof RuntimeException runtime) {
+			return runtime;
+		}
+		if (ex instanceof Error error) {
+			throw error;
+		}
+		return new IllegalStateException(ex);
+	}
+
+	private static <T> List<SourcedResult<T>> tag(String source, List<T> results) {
+		List<SourcedResult<T>> tagged = new ArrayList<>(results.size());
+		for (T result : results) {
+			tagged.add(new SourcedResult<>(source, result));
+		}
+		return tagged;
+	}
+
+	private static Duration validTimeout(Duration timeout) {
+		Assert.notNull(timeout, "timeout cannot be null");
+		Assert.isTrue(!timeout.isNegative() && !timeout.isZero(), "timeout must be positive");
+		return timeout;
+	}
+
+	/**
+	 * A search result, along with the name of the directory it was found in.
+	 *
+	 * @param <T> the result type
+	 */
+	public static final class SourcedResult<T> {
+
+		private final String source;
+
+		private final T result;
+
+		SourcedResult(String source, T result) {
+			this.source = source;
+			this.result = result;
+		}
+
+		/**
+		 * Get the name of the directory the result was found in.
+		 * @return the directory name.
+		 */
+		public String getSource() {
+			return this.source;
+		}
+
+		/**
+		 * Get the mapped result.
+		 * @return the result.
+		 */
+		public T getResult() {
+			return this.result;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof SourcedResult<?> other)) {
+				return false;
+			}
+			return this.source.equals(other.source) && Objects.equals(this.result, other.result);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(this.source, this.result);
+		}
+
+		@Override
+		public String toString() {
+			return this.source + ": " + this.result;
+		}
+
+	}
+
+	/**
+	 * Limits the server-side time of a query to the time a directory is given to answer.
+	 */
+	private static final class TimeLimitedQuery implements LdapQuery {
+
+		private final LdapQuery delegate;
+
+		private final int timeLimit;
+
+		TimeLimitedQuery(LdapQuery delegate, Duration timeout) {
+			this.delegate = delegate;
+			Integer timeLimit = delegate.timeLimit();
+			int timeoutMillis = (int) Math.max(1, Math.min(timeout.toMillis(), Integer.MAX_VALUE));
+			this.timeLimit = (timeLimit != null && timeLimit > 0) ? Math.min(timeLimit, timeoutMillis) : timeoutMillis;
+		}
+
+		@Override
+		public Name base() {
+			return this.delegate.base();
+		}
+
+		@Override
+		public List<Name> bases() {
+			return this.delegate.bases();
+		}
+
+		@Override
+		public @Nullable SearchScope searchScope() {
+			return this.delegate.searchScope();
+		}
+
+		@Override
+		public Integer timeLimit() {
+			return this.timeLimit;
+		}
+
+		@Override
+		public @Nullable Integer countLimit() {
+			return this.delegate.countLimit();
+		}
+
+		@Override
+		public String @Nullable [] attributes() {
+			return this.delegate.attributes();
+		}
+
+		@Override
+		public @Nullable Integer pageSize() {
+			return this.delegate.pageSize();
+		}
+
+		@Override
+		public List<Filter> partitions() {
+			return this.delegate.partitions();
+		}
+
+		@Override
+		public boolean distinct() {
+			return this.delegate.distinct();
+		}
+
+		@Override
+		public Filter filter() {
+			return this.delegate.filter();
+		}
+
+	}
+
+}
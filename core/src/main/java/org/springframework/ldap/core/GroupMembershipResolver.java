@@ -0,0 +1,295 @@
+/*
+ * Copyright 2006-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ldap.core;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+import javax.naming.Name;
+import javax.naming.ldap.LdapName;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.jspecify.annotations.Nullable;
+
+import org.springframework.ldap.filter.AndFilter;
+import org.springframework.ldap.filter.EqualsFilter;
+import org.springframework.ldap.filter.Filter;
+import org.springframework.ldap.filter.OrFilter;
+import org.springframework.ldap.query.LdapQuery;
+import org.springframework.ldap.query.LdapQueryBuilder;
+import org.springframework.ldap.query.SearchScope;
+import org.springframework.ldap.support.LdapUtils;
+import org.springframework.util.Assert;
+
+/**
+ * Resolves the groups an entry is a member of, directly or through nested groups.
+ * <p>
+ * The direct groups of an entry are found by searching for the groups listing it in
+ * one of their {@link #setMemberAttributes(String...) member attributes}. The groups
+ * each of them is nested in are resolved once and cached per group, so that resolving
+ * another member of the same groups costs a single search. A group is expanded breadth
+ * first, one nesting level at a time, using one filter for up to
+ * {@link #setBatchSize(int) batch size} groups of a level. The searches of a level run
+ * concurrently, each on its own context. Groups that were already found, or whose
+ * groups are already cached, are not expanded again, so cyclic nesting is harmless.
+ * <p>
+ * The resolved groups of entries and groups are cached for the
+ * {@link #setTimeToLive(Duration) time to live}. Since group memberships are usually
+ * changed elsewhere, the cache is not invalidated automatically; after adding an entry
+ * to or removing it from a group, call {@link #invalidate(Name)} with its distinguished
+ * name: <pre>
+ * GroupMembershipResolver groups = new GroupMembershipResolver(ldapTemplate, LdapUtils.newLdapName("ou=groups"));
+ * if (groups.isMember(user, administrators)) {
+ * 	...
+ * }
+ * </pre> Member attributes hold full distinguished names, so the entries and groups
+ * passed to and returned by this class are full distinguished names as well.
+ *
+ * @since 4.2
+ */
+public class GroupMembershipResolver implements MeterBinder {
+
+	private static final Executor GROUP_EXECUTOR = DefaultLdapClient.blockingExecutor("ldap-groups-");
+
+	private static final String[] NO_ATTRIBUTES = { "1.1" };
+
+	private static final int MAXIMUM_SIZE = 10_000;
+
+	private static final ContextMapper<LdapName> DN_MAPPER = (ctx) -> LdapUtils
+		.newLdapName(((DirContextOperations) ctx).getNameInNamespace());
+
+	private final LdapOperations ldapOperations;
+
+	private final Name groupBase;
+
+	private List<String> memberAttributes = List.of("member", "uniqueMember");
+
+	private @Nullable Filter groupFilter;
+
+	private int batchSize = 50;
+
+	private Executor executor = GROUP_EXECUTOR;
+
+	private final ExpiringCache<LdapName, Set<LdapName>> cache = new ExpiringCache<>(MAXIMUM_SIZE,
+			Duration.ofMinutes(5));
+
+	/**
+	 * Create a resolver searching for groups below the given base.
+	 * @param ldapOperations the operations to search with.
+	 * @param groupBase the base below which groups are searched, relative to the base
+	 * of the context source.
+	 */
+	public GroupMembershipResolver(LdapOperations ldapOperations, Name groupBase) {
+		Assert.notNull(ldapOperations, "ldapOperations cannot be null");
+		Assert.notNull(groupBase, "groupBase cannot be null");
+		this.ldapOperations = ldapOperations;
+		this.groupBase = groupBase;
+	}
+
+	/**
+	 * Set the attributes listing the members of a group. Default is {@code member} and
+	 * {@code uniqueMember}.
+	 * @param memberAttributes the member attributes.
+	 */
+	public void setMemberAttributes(String... memberAttributes) {
+		Assert.notEmpty(memberAttributes, "memberAttributes cannot be empty");
+		this.memberAttributes = List.of(memberAttributes);
+	}
+
+	/**
+	 * Set a filter restricting the entries considered groups, for example on their
+	 * {@code objectclass}. Default is none.
+	 * @param groupFilter the filter groups must match, or {@code null}.
+	 */
+	public void setGroupFilter(@Nullable Filter groupFilter) {
+		this.groupFilter = groupFilter;
+	}
+
+	/**
+	 * Set the maximum number of entries whose groups are searched with one filter.
+	 * Default is 50.
+	 * @param batchSize the maximum number of entries per search.
+	 */
+	public void setBatchSize(int batchSize) {
+		Assert.isTrue(batchSize > 0, "batchSize must be greater than 0");
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Set the executor running the searches of a nesting level. Defaults to one using
+	 * a new virtual thread per search where available.
+	 * @param executor the executor.
+	 */
+	public void setExecutor(Executor executor) {
+		Assert.notNull(executor, "executor cannot be null");
+		this.executor = executor;
+	}
+
+	/**
+	 * Set how long resolved groups are cached. Default is 5 minutes. Changing this
+	 * setting also applies to the groups already cached.
+	 * @param timeToLive the time after which groups are resolved again.
+	 */
+	public void setTimeToLive(Duration timeToLive) {
+		this.cache.setTimeToLive(timeToLive);
+	}
+
+	/**
+	 * Get the groups the given entry is a member of, directly or not.
+	 * @param member the distinguished name of the entry.
+	 * @return the distinguished names of the groups, direct groups first.
+	 */
+	public Set<LdapName> getGroups(Name member) {
+		LdapName dn = LdapUtils.newLdapName(member);
+		return this.cache.get(dn, () -> resolve(dn));
+	}
+
+	/**
+	 * Tell whether the given entry is a member of the given group, directly or not.
+	 * @param member the distinguished name of the entry.
+	 * @param group the distinguished name of the group.
+	 * @return {@code true} if the entry is a member of the group.
+	 */
+	public boolean isMember(Name member, Name group) {
+		return getGroups(member).contains(LdapUtils.newLdapName(group));
+	}
+
+	/**
+	 * Forget the groups of the given entry, and of all entries that are members of it
+	 * directly or not.
+	 * @param dn the distinguished name of the changed entry.
+	 */
+	public void invalidate(Name dn) {
+		LdapName name = LdapUtils.newLdapName(dn);
+		this.cache.invalidateEntries((member, groups) -> member.equals(name) || groups.contains(name));
+	}
+
+	/**
+	 * Forget all resolved groups.
+	 */
+	public void invalidateAll() {
+		this.cache.invalidateAll();
+	}
+
+	/**
+	 * Register the hit, miss and eviction counts and the size of the cache with the
+	 * given registry, tagged with {@code cache=groups}.
+	 * @param registry the registry to register the meters with.
+	 */
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		this.cache.bindTo(registry, "groups");
+	}
+
+	private Set<LdapName> resolve(LdapName member) {
+		Set<LdapName> groups = new LinkedHashSet<>(searchGroups(List.of(member)));
+		groups.remove(member);
+		for (LdapName group : List.copyOf(groups)) {
+			groups.addAll(nestingGroups(group));
+		}
+		groups.remove(member);
+		return Collections.unmodifiableSet(groups);
+	}
+
+	private Set<LdapName> nestingGroups(LdapName group) {
+		// not loaded through the cache, since expanding cyclic groups concurrently would
+		// make the loads wait for each other
+		Set<LdapName> cached = this.cache.getIfPresent(group);
+		if (cached != null) {
+			return cached;
+		}
+		long generation = this.cache.generation();
+		Set<LdapName> groups = expand(group);
+		this.cache.put(group, groups, generation);
+		return groups;
+	}
+
+	private Set<LdapName> expand(LdapName group) {
+		Set<LdapName> groups = new LinkedHashSet<>();
+		List<LdapName> level = List.of(group);
+		while (!level.isEmpty()) {
+			List<LdapName> next = new ArrayList<>();
+			List<LdapName> expanded = new ArrayList<>();
+			for (LdapName found : searchGroups(level)) {
+				if (!found.equals(group) && groups.add(found)) {
+					Set<LdapName> cached = this.cache.getIfPresent(found);
+					if (cached != null) {
+						expanded.addAll(cached);
+					}
+					else {
+						next.add(found);
+					}
+				}
+			}
+			for (LdapName found : expanded) {
+				if (!found.equals(group)) {
+					groups.add(found);
+				}
+			}
+			level = next;
+		}
+		return Collections.unmodifiableSet(groups);
+	}
+
+	private Set<LdapName> searchGroups(List<LdapName> members) {
+		List<CompletableFuture<List<LdapName>>> searches = new ArrayList<>();
+		for (int i = 0; i < members.size(); i += this.batchSize) {
+			LdapQuery query = groupsQuery(members.subList(i, Math.min(i + this.batchSize, members.size())));
+			searches.add(CompletableFuture.supplyAsync(() -> this.ldapOperations.search(query, DN_MAPPER),
+					this.executor));
+		}
+		Set<LdapName> groups = new LinkedHashSet<>();
+		for (CompletableFuture<List<LdapName>> search : searches) {
+			try {
+				groups.addAll(search.join());
+			}
+			catch (CompletionException ex) {
+				searches.forEach((pending) -> pending.cancel(false));
+				if (ex.getCause() instanceof RuntimeException runtime) {
+					throw runtime;
+				}
+				throw ex;
+			}
+		}
+		return groups;
+	}
+
+	private LdapQuery groupsQuery(List<LdapName> members) {
+		OrFilter memberFilter = new OrFilter();
+		for (LdapName member : members) {
+			for (String attribute : this.memberAttributes) {
+				memberFilter.or(new EqualsFilter(attribute, member.toString()));
+			}
+		}
+		Filter filter = (this.groupFilter != null) ? new AndFilter().and(this.groupFilter).and(memberFilter)
+				: memberFilter;
+		return LdapQueryBuilder.query()
+			.base(this.groupBase)
+			.searchScope(SearchScope.SUBTREE)
+			.attributes(NO_ATTRIBUTES)
+			.filter(filter);
+	}
+
+}
@@ -16,10 +16,13 @@
 
 package org.springframework.ldap.core;
 
+import java.time.Duration;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
@@ -41,6 +44,7 @@ import org.springframework.ldap.NameAlreadyBoundException;
 import org.springframework.ldap.PartialResultException;
 import org.springframework.ldap.query.LdapQuery;
 import org.springframework.ldap.query.LdapQueryBuilder;
+import org.springframework.util.Assert;
 
 /**
  * An LDAP Client
@@ -247,6 +251,28 @@ public interface LdapClient {
 		 */
 		Builder ignoreSizeLimitExceededException(boolean ignore);
 
+		/**
+		 * How long the entry found by the search of {@link LdapClient#authenticate()} is
+		 * remembered, so that authenticating again with the same query only needs to
+		 * bind. Defaults to {@code null}, searching each time. A remembered entry is
+		 * forgotten when binding as it fails, and when it or one of its ancestors is
+		 * renamed or unbound through the client.
+		 * <p>
+		 * <b>Note:</b> since the search is skipped, the conditions of the query filter
+		 * are not checked again while the entry is remembered. An entry that no longer
+		 * matches them, for instance because it was removed from a required group or
+		 * disabled, can still authenticate with its password until the time to live has
+		 * passed. Keep it short, or leave it unset, when the filter is used for
+		 * authorization.
+		 * @param timeToLive the time after which the entry is searched again, or
+		 * {@code null} to search each time
+		 * @return the {@link LdapClient.Builder} for further customizations
+		 * @since 4.2
+		 */
+		default Builder authenticationCacheTimeToLive(@Nullable Duration timeToLive) {
+			throw new UnsupportedOperationException();
+		}
+
 		/**
 		 * Apply the given {@code Consumer} to this builder instance.
 		 * <p>
@@ -265,6 +291,28 @@ public interface LdapClient {
 		 */
 		LdapClient build();
 
+		/**
+		 * Build an {@link AsyncLdapClient} with this builder's configuration that runs
+		 * each operation on a new thread, using virtual threads when running on Java 21
+		 * or later.
+		 * @return the {@link AsyncLdapClient}
+		 * @since 4.2
+		 */
+		default AsyncLdapClient buildAsync() {
+			return buildAsync(DefaultLdapClient.blockingExecutor("ldap-async-"));
+		}
+
+		/**
+		 * Build an {@link AsyncLdapClient} with this builder's configuration that runs
+		 * each operation on the given {@link Executor}.
+		 * @param executor the executor to run operations on
+		 * @return the {@link AsyncLdapClient}
+		 * @since 4.2
+		 */
+		default AsyncLdapClient buildAsync(Executor executor) {
+			throw new UnsupportedOperationException();
+		}
+
 	}
 
 	/**
@@ -435,6 +483,26 @@ public interface LdapClient {
 			throw new UnsupportedOperationException();
 		}
 
+		/**
+		 * Count the matching entries. No attributes are requested and no objects are
+		 * created for the found entries; only their number is retrieved.
+		 * @return the number of matching entries
+		 * @since 4.2
+		 */
+		default int count() {
+			throw new UnsupportedOperationException();
+		}
+
+		/**
+		 * Determine whether any entry matches. The server is asked to stop after the first
+		 * matching entry, and no attributes or objects are retrieved for it.
+		 * @return {@code true} if at least one entry matches
+		 * @since 4.2
+		 */
+		default boolean exists() {
+			throw new UnsupportedOperationException();
+		}
+
 		@Deprecated(since = "4.1.0")
 		default <O extends LdapDataEntry> @Nullable O toEntry() {
 			ContextMapper<O> cast = (ctx) -> (O) ctx;
@@ -680,6 +748,75 @@ public interface LdapClient {
 		 */
 		Stream<T> stream();
 
+		/**
+		 * Retrieve the result as a {@link Flow.Publisher} of mapped objects, retaining
+		 * the order from the original database result.
+		 * <p>
+		 * The search is only issued once a subscriber requests elements, and entries are
+		 * read from the directory only as they are requested, on an executor chosen by
+		 * the implementation. The context used for the search is released once the
+		 * results are exhausted, an error is signalled, or the subscription is cancelled.
+		 * Combine with {@link LdapQueryBuilder#pageSize(int)} to keep the number of
+		 * entries held in memory bounded regardless of the size of the result.
+		 * @return a cold publisher that issues a new search for every subscriber
+		 * @since 4.2
+		 * @see #publisher(Executor)
+		 */
+		default Flow.Publisher<T> publisher() {
+			throw new UnsupportedOperationException();
+		}
+
+		/**
+		 * Retrieve the result as a {@link Flow.Publisher} of mapped objects, reading
+		 * entries on the given {@link Executor}.
+		 * <p>
+		 * This is a good fit for an executor that creates a virtual thread per task,
+		 * since reading from the directory blocks.
+		 * @param executor the executor to read results on
+		 * @return a cold publisher that issues a new search for every subscriber
+		 * @since 4.2
+		 * @see #publisher()
+		 */
+		default Flow.Publisher<T> publisher(Executor executor) {
+			throw new UnsupportedOperationException();
+		}
+
+		/**
+		 * Pass the mapped objects to the given handler in batches of up to
+		 * {@code batchSize} objects, retaining the order from the original database
+		 * result. Each batch is handled on the calling thread as soon as it is full.
+		 * <p>
+		 * When combined with {@link LdapQueryBuilder#pageSize(int)}, a batch size equal
+		 * to the page size makes each page one batch.
+		 * @param batchSize the maximum number of objects per batch
+		 * @param handler the handler to pass the batches to
+		 * @since 4.2
+		 * @see #forEachBatch(int, BatchCallbackHandler, Executor)
+		 */
+		default void forEachBatch(int batchSize, BatchCallbackHandler<T> handler) {
+			BatchDispatcher.dispatch(stream(), batchSize, handler, null);
+		}
+
+		/**
+		 * Pass the mapped objects to the given handler in batches of up to
+		 * {@code batchSize} objects, handling each batch on the given {@link Executor}
+		 * while the next one is being read.
+		 * <p>
+		 * Batches are still handled one at a time and in order: reading pauses once the
+		 * next batch is full until the previous one has been handled. This method
+		 * returns once all batches have been handled, rethrowing any exception thrown
+		 * by the handler.
+		 * @param batchSize the maximum number of objects per batch
+		 * @param handler the handler to pass the batches to
+		 * @param executor the executor to handle batches on
+		 * @since 4.2
+		 * @see #forEachBatch(int, BatchCallbackHandler)
+		 */
+		default void forEachBatch(int batchSize, BatchCallbackHandler<T> handler, Executor executor) {
+			Assert.notNull(executor, "executor cannot be null");
+			BatchDispatcher.dispatch(stream(), batchSize, handler, executor);
+		}
+
 		/**
 		 * Retrieve the result as a pre-resolved list of mapped objects, retaining the
 		 * order from the original database result.
@@ -699,6 +836,9 @@ public interface LdapClient {
 
 		/**
 		 * Retrieve a single result as a required object instance.
+		 * <p>
+		 * Implementations are encouraged to stop reading results as soon as a second one
+		 * is found, since that is enough to know that the result is not unique.
 		 * @return the single result object (never {@code null})
 		 * @see #optional()
 		 * @see DataAccessUtils#requiredSingleResult(Collection)
@@ -709,6 +849,9 @@ public interface LdapClient {
 
 		/**
 		 * Retrieve a single result, if available, as an {@link Optional} handle.
+		 * <p>
+		 * Like {@link #single()}, implementations are encouraged to stop reading results
+		 * as soon as a second one is found.
 		 * @return an Optional handle with a single result object or none
 		 * @see #single()
 		 * @see DataAccessUtils#optionalResult(Collection)
@@ -1371,6 +1371,10 @@ public interface LdapOperations {
 	 * <b>Note:</b> This method differs from the older authenticate methods in that
 	 * encountered exceptions are thrown rather than supplied to a callback for handling.
 	 * </p>
+	 * <p>
+	 * If the query specifies several {@link LdapQuery#bases() bases}, the entry is searched
+	 * for under each of them and must be found exactly once.
+	 * </p>
 	 * @param query the LdapQuery specifying the details of the search.
 	 * @param password the password to use for authentication.
 	 * @param mapper the callback that will be called to perform operations on the
@@ -1510,6 +1514,32 @@ public interface LdapOperations {
 	 */
 	<T> List<T> search(LdapQuery query, AttributesMapper<T> mapper);
 
+	/**
+	 * Count the entries matching the specified LdapQuery. No attributes are requested and
+	 * no objects are created for the found entries; only their number is retrieved.
+	 * <p>
+	 * If the query specifies several {@link LdapQuery#bases() bases}, an entry found
+	 * under more than one of them is counted once.
+	 * @param query the LDAP query specification.
+	 * @return the number of matching entries.
+	 * @throws NamingException if any error occurs.
+	 * @since 4.2
+	 * @see #exists(LdapQuery)
+	 */
+	int count(LdapQuery query);
+
+	/**
+	 * Determine whether any entry matches the specified LdapQuery. The server is asked to
+	 * stop after the first matching entry, and no attributes or objects are retrieved for
+	 * it.
+	 * @param query the LDAP query specification.
+	 * @return <code>true</code> if at least one entry matches.
+	 * @throws NamingException if any error occurs.
+	 * @since 4.2
+	 * @see #count(LdapQuery)
+	 */
+	boolean exists(LdapQuery query);
+
 	/**
 	 * Perform a search for a unique entry matching the specified LDAP query and return
 	 * the found entry as a DirContextOperation instance. If no entry is found or if there
@@ -1519,6 +1549,8 @@ public interface LdapOperations {
 	 * @return the single entry matching the query as a DirContextOperations instance.
 	 * @throws IncorrectResultSizeDataAccessException if the result is not one unique
 	 * entry
+	 * @throws IllegalArgumentException if the query specifies several
+	 * {@link LdapQuery#bases() bases}
 	 * @since 2.0
 	 * @see org.springframework.ldap.query.LdapQueryBuilder
 	 */
@@ -1532,6 +1564,8 @@ public interface LdapOperations {
 	 * @return the single object returned by the mapper that matches the search criteria.
 	 * @throws IncorrectResultSizeDataAccessException if the result is not one unique
 	 * entry
+	 * @throws IllegalArgumentException if the query specifies several
+	 * {@link LdapQuery#bases() bases}
 	 * @since 2.0
 	 * @see org.springframework.ldap.query.LdapQueryBuilder
 	 */
@@ -1541,6 +1575,14 @@ public interface LdapOperations {
 	 * Perform a search with parameters from the specified LdapQuery. The Attributes of
 	 * the found entries will be supplied to the <code>AttributesMapper</code> for
 	 * processing, and all returned objects will be collected in a list to be returned.
+	 * <p>
+	 * If the query specifies a {@link LdapQuery#pageSize() page size}, the results are
+	 * requested page by page using the Simple Paged Results control on a single
+	 * connection. Closing the stream before it is exhausted abandons the paged search.
+	 * <p>
+	 * If the query specifies {@link LdapQuery#partitions() partitions}, each partition is
+	 * searched concurrently on its own connection and the results are merged into the
+	 * returned stream in no particular order.
 	 * @param query the LDAP query specification.
 	 * @param mapper the <code>Attributes</code> to supply all found Attributes to.
 	 * @return a <code>Stream</code> of all entries received from the
@@ -1555,6 +1597,14 @@ public interface LdapOperations {
 	 * Perform a search with parameters from the specified LdapQuery. All found objects
 	 * will be supplied to the <code>ContextMapper</code> for processing, and all returned
 	 * objects will be collected in a list to be returned.
+	 * <p>
+	 * If the query specifies a {@link LdapQuery#pageSize() page size}, the results are
+	 * requested page by page using the Simple Paged Results control on a single
+	 * connection. Closing the stream before it is exhausted abandons the paged search.
+	 * <p>
+	 * If the query specifies {@link LdapQuery#partitions() partitions}, each partition is
+	 * searched concurrently on its own connection and the results are merged into the
+	 * returned stream in no particular order.
 	 * @param query the LDAP query specification.
 	 * @param mapper the <code>ContextMapper</code> to supply all found entries to.
 	 * @return a <code>Stream</code> of all entries received from the
@@ -1716,6 +1766,8 @@ public interface LdapOperations {
 	 * can be found
 	 * @throws IncorrectResultSizeDataAccessException if more than one matching entry is
 	 * found
+	 * @throws IllegalArgumentException if the query specifies several
+	 * {@link LdapQuery#bases() bases}
 	 */
 	<T> T findOne(LdapQuery query, Class<T> clazz);
 
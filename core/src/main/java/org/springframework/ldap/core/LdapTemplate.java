@@ -16,11 +16,21 @@
 
 package org.springframework.ldap.core;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Set;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -48,6 +58,8 @@ import org.springframework.dao.IncorrectResultSizeDataAccessException;
 import org.springframework.ldap.AuthenticationException;
 import org.springframework.ldap.NamingException;
 import org.springframework.ldap.UncategorizedLdapException;
+import org.springframework.ldap.core.support.CountNameClassPairCallbackHandler;
+import org.springframework.ldap.filter.AndFilter;
 import org.springframework.ldap.filter.Filter;
 import org.springframework.ldap.odm.core.ObjectDirectoryMapper;
 import org.springframework.ldap.odm.core.OdmException;
@@ -91,6 +103,15 @@ public class LdapTemplate implements LdapOperations, InitializingBean {
 
 	private static final String @Nullable [] ALL_ATTRIBUTES = null;
 
+	private static final int SINGLE_RESULT_COUNT_LIMIT = 2;
+
+	// the special attribute selector for requesting no attributes, see RFC 4511
+	private static final String[] NO_ATTRIBUTES = { "1.1" };
+
+	private static final Executor PARTITION_EXECUTOR = DefaultLdapClient.blockingExecutor("ldap-partition-");
+
+	private static final Executor MAPPING_EXECUTOR = DefaultLdapClient.blockingExecutor("ldap-mapping-");
+
 	private ContextSource contextSource = new NullContextSource();
 
 	private boolean ignorePartialResultException = false;
@@ -107,6 +128,14 @@ public class LdapTemplate implements LdapOperations, InitializingBean {
 
 	private ObjectDirectoryMapper odm = new DefaultObjectDirectoryMapper();
 
+	private Executor partitionExecutor = PARTITION_EXECUTOR;
+
+	private Executor mappingExecutor = MAPPING_EXECUTOR;
+
+	private int mappingConcurrency = 1;
+
+	private @Nullable EntryIdentificationCache identificationCache;
+
 	/**
 	 * Constructor for bean usage.
 	 */
@@ -255,6 +284,81 @@ public class LdapTemplate implements LdapOperations, InitializingBean {
 		return this.defaultCountLimit;
 	}
 
+	/**
+	 * Set the executor used to search the partitions of a
+	 * {@link LdapQuery#partitions() partitioned} query concurrently. Each partition
+	 * occupies a thread of this executor and a connection from the
+	 * {@link ContextSource} for as long as it is being read. Default is an executor
+	 * creating a new thread, virtual when running on Java 21 or later, per partition.
+	 * @param partitionExecutor the executor to search partitions on.
+	 * @since 4.2
+	 */
+	public void setPartitionExecutor(Executor partitionExecutor) {
+		Assert.notNull(partitionExecutor, "partitionExecutor cannot be null");
+		this.partitionExecutor = partitionExecutor;
+	}
+
+	/**
+	 * Set the number of threads mapping the results of a search while it is still being
+	 * read from the directory. Default is 1, meaning results are mapped one at a time on
+	 * the thread reading them.
+	 * <p>
+	 * With a higher value, searches whose results are collected into a list, such as
+	 * those taking a {@link ContextMapper} or {@link AttributesMapper}, hand each result
+	 * to a pool of mapping threads as soon as it is read. This pays off for mappers that
+	 * are expensive compared to reading an entry, for example object-directory mapping
+	 * of large entries. Mappers must be safe for concurrent use in that case. The
+	 * returned lists keep the order in which the results were read.
+	 * @param mappingConcurrency the number of threads to map results on.
+	 * @since 4.2
+	 * @see #setMappingExecutor(Executor)
+	 */
+	public void setMappingConcurrency(int mappingConcurrency) {
+		Assert.isTrue(mappingConcurrency > 0, "mappingConcurrency must be greater than 0");
+		this.mappingConcurrency = mappingConcurrency;
+	}
+
+	/**
+	 * Set the executor used to map search results when the
+	 * {@link #setMappingConcurrency(int) mapping concurrency} is greater than 1. Default
+	 * is an executor creating a new thread, virtual when running on Java 21 or later,
+	 * per mapping thread.
+	 * @param mappingExecutor the executor to map results on.
+	 * @since 4.2
+	 */
+	public void setMappingExecutor(Executor mappingExecutor) {
+		Assert.notNull(mappingExecutor, "mappingExecutor cannot be null");
+		this.mappingExecutor = mappingExecutor;
+	}
+
+	/**
+	 * Set how long the entry found by the search of an {@code authenticate} method is
+	 * remembered, so that authenticating again with the same base, filter and scope
+	 * only needs to bind. Default is <code>null</code>, searching each time. Up to 10000
+	 * searches are remembered.
+	 * <p>
+	 * A remembered entry is forgotten when binding as it fails, and when it or one of
+	 * its ancestors is renamed or unbound through this template. Entries renamed or
+	 * removed by other clients fail one more authentication before being searched
+	 * again.
+	 * <p>
+	 * <b>Note:</b> since the search is skipped, the conditions of the filter are not
+	 * checked again while the entry is remembered. An entry that no longer matches them,
+	 * for instance because it was removed from a required group or disabled, can still
+	 * authenticate with its password until the time to live has passed. Keep it short,
+	 * or leave it unset, when the filter is used for authorization.
+	 * @param timeToLive the time after which the entry is searched again, or
+	 * <code>null</code> to search each time.
+	 * @since 4.2
+	 */
+	public void setAuthenticationCacheTimeToLive(@Nullable Duration timeToLive) {
+		this.identificationCache = (timeToLive != null) ? new EntryIdentificationCache(timeToLive) : null;
+	}
+
+	@Nullable EntryIdentificationCache getIdentificationCache() {
+		return this.identificationCache;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -286,7 +390,7 @@ public class LdapTemplate implements LdapOperations, InitializingBean {
 			return ctx.search(base, filter, controls);
 		};
 		// Create a SearchExecutor to perform the search.
-		if (handler instanceof ContextMapperCallbackHandler) {
+		if (mapsContexts(handler)) {
 			assureReturnObjFlagSet(controls);
 		}
 		search(se, handler);
@@ -303,7 +407,7 @@ public class LdapTemplate implements LdapOperations, InitializingBean {
 			return ctx.search(base, filter, controls);
 		};
 		// Create a SearchExecutor to perform the search.
-		if (handler instanceof ContextMapperCallbackHandler) {
+		if (mapsContexts(handler)) {
 			assureReturnObjFlagSet(controls);
 		}
 		search(se, handler);
@@ -320,7 +424,7 @@ public class LdapTemplate implements LdapOperations, InitializingBean {
 			return ctx.search(base, filter, controls);
 		};
 		// Create a SearchExecutor to perform the search.
-		if (handler instanceof ContextMapperCallbackHandler) {
+		if (mapsContexts(handler)) {
 			assureReturnObjFlagSet(controls);
 		}
 		search(se, handler, processor);
@@ -337,7 +441,7 @@ public class LdapTemplate implements LdapOperations, InitializingBean {
 			return ctx.search(base, filter, controls);
 		};
 		// Create a SearchExecutor to perform the search.
-		if (handler instanceof ContextMapperCallbackHandler) {
+		if (mapsContexts(handler)) {
 			assureReturnObjFlagSet(controls);
 		}
 		search(se, handler, processor);
@@ -355,6 +459,11 @@ public class LdapTemplate implements LdapOperations, InitializingBean {
 	 * {@link NameClassPair} (this might be a NameClassPair or a subclass thereof) is
 	 * passed to the CallbackHandler. Any encountered NamingException will be translated
 	 * using the NamingExceptionTranslator.
+	 * <p>
+	 * If a {@link #setMappingConcurrency(int) mapping concurrency} greater than 1 is set
+	 * and the handler is a {@link CollectingNameClassPairCallbackHandler}, entries are
+	 * mapped on separate threads while the search is still being read. A
+	 * {@link BatchingNameClassPairCallbackHandler} is flushed once the search is done.
 	 * @param se the SearchExecutor to use for performing the actual list.
 	 * @param handler the NameClassPairCallbackHandler to which each found entry will be
 	 * passed.
@@ -366,6 +475,32 @@ public class LdapTemplate implements LdapOperations, InitializingBean {
 	 */
 	@Override
 	public void search(SearchExecutor se, NameClassPairCallbackHandler handler, DirContextProcessor processor) {
+		if (this.mappingConcurrency > 1 && handler instanceof CollectingNameClassPairCallbackHandler<?> collecting) {
+			PipelinedMappingCallbackHandler<?> pipelined = new PipelinedMappingCallbackHandler<>(collecting,
+					this.mappingExecutor, this.mappingConcurrency, PartitionedStreams.DEFAULT_BUFFER_SIZE);
+			try {
+				doSearch(se, pipelined, processor);
+			}
+			catch (RuntimeException ex) {
+				pipelined.cancel();
+				throw ex;
+			}
+			pipelined.complete();
+			return;
+		}
+		doSearch(se, handler, processor);
+		if (handler instanceof BatchingNameClassPairCallbackHandler<?> batching) {
+			// the end of a search is the end of a page when paging
+			batching.flush();
+		}
+	}
+
+	private static boolean mapsContexts(NameClassPairCallbackHandler handler) {
+		return handler instanceof ContextMapperCallbackHandler
+				|| (handler instanceof BatchingNameClassPairCallbackHandler<?> batching && batching.isContextMapping());
+	}
+
+	private void doSearch(SearchExecutor se, NameClassPairCallbackHandler handler, DirContextProcessor processor) {
 		DirContext ctx = this.contextSource.getReadOnlyContext();
 
 		NamingEnumeration<?> results = null;
@@ -458,7 +593,7 @@ public class LdapTemplate implements LdapOperations, InitializingBean {
 
 		SearchControls controls = getDefaultSearchControls(this.defaultSearchScope, DONT_RETURN_OBJ_FLAG,
 				ALL_ATTRIBUTES);
-		if (handler instanceof ContextMapperCallbackHandler) {
+		if (mapsContexts(handler)) {
 			assureReturnObjFlagSet(controls);
 		}
 		search(base, filter, controls, handler);
@@ -472,7 +607,7 @@ public class LdapTemplate implements LdapOperations, InitializingBean {
 
 		SearchControls controls = getDefaultSearchControls(this.defaultSearchScope, DONT_RETURN_OBJ_FLAG,
 				ALL_ATTRIBUTES);
-		if (handler instanceof ContextMapperCallbackHandler) {
+		if (mapsContexts(handler)) {
 			assureReturnObjFlagSet(controls);
 		}
 		search(base, filter, controls, handler);
@@ -1023,6 +1158,7 @@ public class LdapTemplate implements LdapOperations, InitializingBean {
 			ctx.unbind(dn);
 			return null;
 		});
+		forgetIdentifications(dn);
 	}
 
 	private void doUnbind(final String dn) {
@@ -1030,20 +1166,31 @@ public class LdapTemplate implements LdapOperations, InitializingBean {
 			ctx.unbind(dn);
 			return null;
 		});
+		forgetIdentifications(LdapUtils.newLdapName(dn));
 	}
 
 	private void doUnbindRecursively(final Name dn) {
-		executeReadWrite((ctx) -> {
-			deleteRecursively(ctx, LdapUtils.newLdapName(dn));
-			return null;
-		});
+		try {
+			executeReadWrite((ctx) -> {
+				deleteRecursively(ctx, LdapUtils.newLdapName(dn));
+				return null;
+			});
+		}
+		finally {
+			// part of the subtree may have been deleted
+			forgetIdentifications(dn);
+		}
 	}
 
 	private void doUnbindRecursively(final String dn) {
-		executeReadWrite((ctx) -> {
-			deleteRecursively(ctx, LdapUtils.newLdapName(dn));
-			return null;
-		});
+		doUnbindRecursively(LdapUtils.newLdapName(dn));
+	}
+
+	private void forgetIdentifications(Name dn) {
+		EntryIdentificationCache identificationCache = this.identificationCache;
+		if (identificationCache != null) {
+			identificationCache.invalidate(dn);
+		}
 	}
 
 	/**
@@ -1114,6 +1261,7 @@ public class LdapTemplate implements LdapOperations, InitializingBean {
 			ctx.rename(oldDn, newDn);
 			return null;
 		});
+		forgetIdentifications(oldDn);
 	}
 
 	/**
@@ -1125,6 +1273,7 @@ public class LdapTemplate implements LdapOperations, InitializingBean {
 			ctx.rename(oldDn, newDn);
 			return null;
 		});
+		forgetIdentifications(LdapUtils.newLdapName(oldDn));
 	}
 
 	/**
@@ -1336,20 +1485,59 @@ public class LdapTemplate implements LdapOperations, InitializingBean {
 	private AuthenticationStatus authenticate(Name base, String filter, String password, SearchControls searchControls,
 			final AuthenticatedLdapEntryContextCallback callback, final AuthenticationErrorCallback errorCallback) {
 
-		List<LdapEntryIdentification> result = search(base, filter, searchControls,
-				new LdapEntryIdentificationContextMapper());
+		EntryIdentificationCache identificationCache = this.identificationCache;
+		LdapEntryIdentification cached = (identificationCache != null)
+				? identificationCache.get(base, filter, searchControls.getSearchScope()) : null;
+		final LdapEntryIdentification entryIdentification;
+		if (cached != null) {
+			entryIdentification = cached;
+		}
+		else {
+			List<LdapEntryIdentification> result = search(base, filter, searchControls,
+					new LdapEntryIdentificationContextMapper());
+			if (result.isEmpty()) {
+				String msg = "No results found for search, base: '" + base + "'; filter: '" + filter + "'.";
+				LOG.info(msg);
+				return AuthenticationStatus.EMPTYRESULT;
+			}
+			else if (result.size() > 1) {
+				String msg = "base: '" + base + "'; filter: '" + filter + "'.";
+				throw new IncorrectResultSizeDataAccessException(msg, 1, result.size());
+			}
+			entryIdentification = result.get(0);
+			if (identificationCache != null) {
+				identificationCache.put(base, filter, searchControls.getSearchScope(), entryIdentification);
+			}
+		}
+		return authenticate(entryIdentification, password, callback, (ex) -> {
+			if (identificationCache != null) {
+				identificationCache.invalidate(base, filter, searchControls.getSearchScope());
+			}
+			errorCallback.execute(ex);
+		});
+	}
+
+	private AuthenticationStatus authenticate(LdapQuery query, String password,
+			AuthenticatedLdapEntryContextCallback callback, AuthenticationErrorCallback errorCallback) {
+		if (query.bases().size() == 1) {
+			return authenticate(query.base(), query.filter().encode(), password,
+					searchControlsForQuery(query, RETURN_OBJ_FLAG), callback, errorCallback);
+		}
+		List<LdapEntryIdentification> result = collect(
+				searchForStream(query, new LdapEntryIdentificationContextMapper()));
 		if (result.isEmpty()) {
-			String msg = "No results found for search, base: '" + base + "'; filter: '" + filter + "'.";
-			LOG.info(msg);
+			LOG.info("No results found for search, bases: '" + query.bases() + "'; filter: '" + query.filter() + "'.");
 			return AuthenticationStatus.EMPTYRESULT;
 		}
 		else if (result.size() > 1) {
-			String msg = "base: '" + base + "'; filter: '" + filter + "'.";
+			String msg = "bases: '" + query.bases() + "'; filter: '" + query.filter() + "'.";
 			throw new IncorrectResultSizeDataAccessException(msg, 1, result.size());
 		}
+		return authenticate(result.get(0), password, callback, errorCallback);
+	}
 
-		final LdapEntryIdentification entryIdentification = result.get(0);
-
+	private AuthenticationStatus authenticate(LdapEntryIdentification entryIdentification, String password,
+			AuthenticatedLdapEntryContextCallback callback, AuthenticationErrorCallback errorCallback) {
 		try {
 			DirContext ctx = this.contextSource.getContext(entryIdentification.getAbsoluteName().toString(), password);
 			executeWithContext((ctx1) -> {
@@ -1370,12 +1558,10 @@ public class LdapTemplate implements LdapOperations, InitializingBean {
 	 */
 	@Override
 	public <T> T authenticate(LdapQuery query, String password, AuthenticatedLdapEntryContextMapper<T> mapper) {
-		SearchControls searchControls = searchControlsForQuery(query, RETURN_OBJ_FLAG);
 		ReturningAuthenticatedLdapEntryContext<T> mapperCallback = new ReturningAuthenticatedLdapEntryContext<>(mapper);
 		CollectingAuthenticationErrorCallback errorCallback = new CollectingAuthenticationErrorCallback();
 
-		AuthenticationStatus authenticationStatus = authenticate(query.base(), query.filter().encode(), password,
-				searchControls, mapperCallback, errorCallback);
+		AuthenticationStatus authenticationStatus = authenticate(query, password, mapperCallback, errorCallback);
 
 		if (errorCallback.hasError()) {
 			Exception error = errorCallback.getError();
@@ -1427,16 +1613,38 @@ public class LdapTemplate implements LdapOperations, InitializingBean {
 	 */
 	@Override
 	public <T> T searchForObject(Name base, String filter, SearchControls searchControls, ContextMapper<T> mapper) {
-		List<T> result = search(base, filter, searchControls, mapper);
+		return searchForSingleResult(base, filter, searchControls, mapper, false);
+	}
 
-		if (result.isEmpty()) {
-			throw new EmptyResultDataAccessException(1);
-		}
-		else if (result.size() != 1) {
-			throw new IncorrectResultSizeDataAccessException(1, result.size());
-		}
+	/**
+	 * Search for a single entry, reading no more than the two entries needed to decide
+	 * whether the result is unique.
+	 * @param skipNullResults whether entries mapped to <code>null</code> should not be
+	 * counted
+	 */
+	private <T> T searchForSingleResult(Name base, String filter, SearchControls searchControls,
+			ContextMapper<T> mapper, boolean skipNullResults) {
+		SearchControls controls = singleResultSearchControls(searchControls);
+		assureReturnObjFlagSet(controls);
+		SingleResultCallbackHandler<T> handler = new SingleResultCallbackHandler<>(mapper, skipNullResults);
+		search(base, filter, controls, handler);
+		return handler.getResult();
+	}
 
-		return result.get(0);
+	/**
+	 * Copy the supplied SearchControls, lowering the count limit so that the server
+	 * stops after the second matching entry.
+	 * @param controls the SearchControls to copy.
+	 * @return the limited copy.
+	 */
+	private SearchControls singleResultSearchControls(SearchControls controls) {
+		SearchControls limited = new SearchControls(controls.getSearchScope(), controls.getCountLimit(),
+				controls.getTimeLimit(), controls.getReturningAttributes(), controls.getReturningObjFlag(),
+				controls.getDerefLinkFlag());
+		if (limited.getCountLimit() == 0 || limited.getCountLimit() > SINGLE_RESULT_COUNT_LIMIT) {
+			limited.setCountLimit(SINGLE_RESULT_COUNT_LIMIT);
+		}
+		return limited;
 	}
 
 	/**
@@ -1452,6 +1660,15 @@ public class LdapTemplate implements LdapOperations, InitializingBean {
 	 */
 	@Override
 	public void search(LdapQuery query, NameClassPairCallbackHandler callbackHandler) {
+		if (isMerged(query)) {
+			try (Stream<SearchResult> results = searchForStream(query, (SearchResult result) -> result)) {
+				results.forEach((result) -> handle(callbackHandler, result));
+			}
+			if (callbackHandler instanceof BatchingNameClassPairCallbackHandler<?> batching) {
+				batching.flush();
+			}
+			return;
+		}
 		SearchControls searchControls = searchControlsForQuery(query, DONT_RETURN_OBJ_FLAG);
 		search(query.base(), query.filter().encode(), searchControls, callbackHandler);
 	}
@@ -1461,6 +1678,9 @@ public class LdapTemplate implements LdapOperations, InitializingBean {
 	 */
 	@Override
 	public <T> List<T> search(LdapQuery query, ContextMapper<T> mapper) {
+		if (isMerged(query)) {
+			return collect(searchForStream(query, mapper));
+		}
 		SearchControls searchControls = searchControlsForQuery(query, RETURN_OBJ_FLAG);
 
 		return search(query.base(), query.filter().encode(), searchControls, mapper);
@@ -1493,11 +1713,90 @@ public class LdapTemplate implements LdapOperations, InitializingBean {
 	 */
 	@Override
 	public <T> List<T> search(LdapQuery query, AttributesMapper<T> mapper) {
+		if (isMerged(query)) {
+			return collect(searchForStream(query, mapper));
+		}
 		SearchControls searchControls = searchControlsForQuery(query, DONT_RETURN_OBJ_FLAG);
 
 		return search(query.base(), query.filter().encode(), searchControls, mapper);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public int count(LdapQuery query) {
+		return count(query, false);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean exists(LdapQuery query) {
+		return count(query, true) > 0;
+	}
+
+	private int count(LdapQuery query, boolean firstOnly) {
+		SearchControls searchControls = searchControlsForQuery(query, DONT_RETURN_OBJ_FLAG);
+		searchControls.setReturningAttributes(NO_ATTRIBUTES);
+		if (firstOnly) {
+			searchControls.setCountLimit(1);
+		}
+		String filter = query.filter().encode();
+		List<Name> bases = query.bases();
+		if (bases.size() == 1) {
+			CountNameClassPairCallbackHandler handler = new CountNameClassPairCallbackHandler();
+			count(query.base(), filter, searchControls, handler, firstOnly);
+			return handler.getNoOfRows();
+		}
+		Set<Object> seen = new HashSet<>();
+		for (Name base : bases) {
+			count(base, filter, searchControls,
+					(result) -> seen.add(DistinctSearchResults.distinguishedName(result, base)), firstOnly);
+			if (firstOnly && !seen.isEmpty()) {
+				break;
+			}
+		}
+		return seen.size();
+	}
+
+	private void count(Name base, String filter, SearchControls searchControls, NameClassPairCallbackHandler handler,
+			boolean firstOnly) {
+		try {
+			search(base, filter, searchControls, handler);
+		}
+		catch (org.springframework.ldap.SizeLimitExceededException ex) {
+			if (!firstOnly) {
+				throw ex;
+			}
+			// the server stopped after the first entry, which is all that was asked for
+		}
+	}
+
+	private static void handle(NameClassPairCallbackHandler callbackHandler, SearchResult result) {
+		try {
+			callbackHandler.handleNameClassPair(result);
+		}
+		catch (javax.naming.NamingException ex) {
+			throw LdapUtils.convertLdapException(ex);
+		}
+	}
+
+	/**
+	 * Whether the query searches several bases or partitions, whose results have to be
+	 * merged from separate searches.
+	 */
+	private static boolean isMerged(LdapQuery query) {
+		return query.bases().size() > 1 || !query.partitions().isEmpty();
+	}
+
+	private static <T> List<T> collect(Stream<T> results) {
+		try (results) {
+			return results.collect(Collectors.toList());
+		}
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -1511,6 +1810,7 @@ public class LdapTemplate implements LdapOperations, InitializingBean {
 	 */
 	@Override
 	public <T> T searchForObject(LdapQuery query, ContextMapper<T> mapper) {
+		assertSingleBase(query);
 		SearchControls searchControls = searchControlsForQuery(query, DONT_RETURN_OBJ_FLAG);
 
 		return searchForObject(query.base(), query.filter().encode(), searchControls, mapper);
@@ -1542,8 +1842,30 @@ public class LdapTemplate implements LdapOperations, InitializingBean {
 	}
 
 	<T> Stream<T> searchForStream(LdapQuery query, Function<SearchResult, @Nullable T> mapper) {
-		Name base = query.base();
-		Filter filter = query.filter();
+		List<Name> bases = query.bases();
+		List<Filter> partitions = query.partitions();
+		if (!isMerged(query)) {
+			return searchForStream(query, query.base(), query.filter(), mapper, null);
+		}
+		List<Filter> filters = new ArrayList<>();
+		if (partitions.isEmpty()) {
+			filters.add(query.filter());
+		}
+		for (Filter partition : partitions) {
+			filters.add(new AndFilter().and(query.filter()).and(partition));
+		}
+		@Nullable Set<Object> seen = (bases.size() > 1 || query.distinct()) ? ConcurrentHashMap.newKeySet() : null;
+		List<Supplier<Stream<T>>> streams = new ArrayList<>(bases.size() * filters.size());
+		for (Name base : bases) {
+			for (Filter filter : filters) {
+				streams.add(() -> searchForStream(query, base, filter, mapper, seen));
+			}
+		}
+		return PartitionedStreams.merge(streams, this.partitionExecutor, PartitionedStreams.DEFAULT_BUFFER_SIZE);
+	}
+
+	private <T> Stream<T> searchForStream(LdapQuery query, Name base, Filter filter,
+			Function<SearchResult, @Nullable T> mapper, @Nullable Set<Object> seen) {
 		SearchControls searchControls = searchControlsForQuery(query, RETURN_OBJ_FLAG);
 		DirContext ctx = this.contextSource.getReadOnlyContext();
 		String encodedFilter = filter.encode();
@@ -1555,20 +1877,53 @@ public class LdapTemplate implements LdapOperations, InitializingBean {
 
 		assureReturnObjFlagSet(searchControls);
 
-		NamingEnumeration<SearchResult> results = unchecked(() -> {
-			LOG.debug("Executing search with base [{}] and filter [{}]", base, filter);
-			return ctx.search(base, encodedFilter, searchControls);
-		});
+		Integer pageSize = query.pageSize();
+		NamingEnumeration<SearchResult> results;
+		try {
+			results = unchecked(() -> {
+				LOG.debug("Executing search with base [{}] and filter [{}]", base, filter);
+				NamingEnumeration<SearchResult> found = (pageSize != null)
+						? PagedSearchResultsEnumeration.search(ctx, base, encodedFilter, searchControls, pageSize)
+						: ctx.search(base, encodedFilter, searchControls);
+				return (seen != null) ? new DistinctSearchResults(found, base, seen) : found;
+			});
+		}
+		catch (RuntimeException ex) {
+			closeContext(ctx);
+			throw ex;
+		}
 		if (results == null) {
 			closeContextAndNamingEnumeration(ctx, null);
 			return Stream.empty();
 		}
-		Spliterator<SearchResult> spliterator = Spliterators.spliteratorUnknownSize(CollectionUtils.toIterator(results),
+		Spliterator<SearchResult> spliterator = Spliterators.spliteratorUnknownSize(iterator(results, pageSize != null),
 				Spliterator.ORDERED);
 		Stream<T> result = StreamSupport.stream(spliterator, false).map(mapper).filter(Objects::nonNull);
 		return result.onClose(() -> closeContextAndNamingEnumeration(ctx, results));
 	}
 
+	private Iterator<SearchResult> iterator(NamingEnumeration<SearchResult> results, boolean paged) {
+		if (!paged) {
+			return CollectionUtils.toIterator(results);
+		}
+		// a failure while requesting a further page must not silently end the stream
+		return new Iterator<>() {
+			@Override
+			public boolean hasNext() {
+				return Boolean.TRUE.equals(unchecked(results::hasMore));
+			}
+
+			@Override
+			public SearchResult next() {
+				SearchResult next = unchecked(results::next);
+				if (next == null) {
+					throw new NoSuchElementException("no more search results");
+				}
+				return next;
+			}
+		};
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -1742,6 +2097,11 @@ public class LdapTemplate implements LdapOperations, InitializingBean {
 		return result;
 	}
 
+	private static void assertSingleBase(LdapQuery query) {
+		Assert.isTrue(query.bases().size() == 1,
+				"Operations returning a single result cannot search several bases; use a list operation instead");
+	}
+
 	private Name nonNullBase(@Nullable Name base) {
 		if (base == null) {
 			return LdapUtils.emptyLdapName();
@@ -1757,6 +2117,9 @@ public class LdapTemplate implements LdapOperations, InitializingBean {
 	 */
 	@Override
 	public <T> List<T> find(LdapQuery query, Class<T> clazz) {
+		if (isMerged(query)) {
+			return collect(findForStream(query, clazz));
+		}
 		SearchControls searchControls = searchControlsForQuery(query, RETURN_OBJ_FLAG);
 		return find(query.base(), query.filter(), searchControls, clazz);
 	}
@@ -1766,16 +2129,18 @@ public class LdapTemplate implements LdapOperations, InitializingBean {
 	 */
 	@Override
 	public <T> T findOne(LdapQuery query, Class<T> clazz) {
-		List<T> result = find(query, clazz);
+		assertSingleBase(query);
+		SearchControls searchControls = searchControlsForQuery(query, RETURN_OBJ_FLAG);
+		Filter finalFilter = this.odm.filterFor(clazz, query.filter());
 
-		if (result.isEmpty()) {
-			throw new EmptyResultDataAccessException(1);
-		}
-		else if (result.size() != 1) {
-			throw new IncorrectResultSizeDataAccessException(1, result.size());
+		// extend search controls with the attributes to return
+		if (searchControls.getReturningAttributes() == null) {
+			String[] attributes = this.odm.manageClass(clazz);
+			searchControls.setReturningAttributes(attributes);
 		}
 
-		return result.get(0);
+		ContextMapper<T> mapper = (ctx) -> this.odm.mapFromLdapDataEntry((DirContextOperations) ctx, clazz);
+		return searchForSingleResult(nonNullBase(query.base()), finalFilter.encode(), searchControls, mapper, true);
 	}
 
 	/**
@@ -1931,6 +2296,48 @@ public class LdapTemplate implements LdapOperations, InitializingBean {
 
 	}
 
+	/**
+	 * Maps the first matching entry and fails as soon as a second one is found, so that
+	 * no further entries are read from the server.
+	 */
+	private static final class SingleResultCallbackHandler<T> implements NameClassPairCallbackHandler {
+
+		private final ContextMapperCallbackHandler<T> mapper;
+
+		private final boolean skipNullResults;
+
+		private boolean found;
+
+		private @Nullable T result;
+
+		private SingleResultCallbackHandler(ContextMapper<T> mapper, boolean skipNullResults) {
+			this.mapper = new ContextMapperCallbackHandler<>(mapper);
+			this.skipNullResults = skipNullResults;
+		}
+
+		@Override
+		public void handleNameClassPair(NameClassPair nameClassPair) throws javax.naming.NamingException {
+			T mapped = this.mapper.getObjectFromNameClassPair(nameClassPair);
+			if (mapped == null && this.skipNullResults) {
+				return;
+			}
+			if (this.found) {
+				throw new IncorrectResultSizeDataAccessException(
+						"Incorrect result size: expected 1, found at least 2", 1);
+			}
+			this.found = true;
+			this.result = mapped;
+		}
+
+		T getResult() {
+			if (!this.found) {
+				throw new EmptyResultDataAccessException(1);
+			}
+			return this.result;
+		}
+
+	}
+
 	private static final class NullAuthenticationErrorCallback implements AuthenticationErrorCallback {
 
 		@Override
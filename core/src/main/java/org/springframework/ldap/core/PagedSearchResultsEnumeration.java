@@ -0,0 +1,265 @@
+/*
+ * Copyright 2006-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ldap.core;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import javax.naming.Name;
+import javax.naming.NamingEnumeration;
+import javax.naming.NamingException;
+import javax.naming.directory.DirContext;
+import javax.naming.directory.SearchControls;
+import javax.naming.directory.SearchResult;
+import javax.naming.ldap.Control;
+import javax.naming.ldap.LdapContext;
+import javax.naming.ldap.PagedResultsControl;
+import javax.naming.ldap.PagedResultsResponseControl;
+
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.util.Assert;
+
+/**
+ * A {@link NamingEnumeration} that transparently chains
+ * <a href="https://www.rfc-editor.org/rfc/rfc2696.html">RFC 2696</a> Simple Paged
+ * Results requests on a single {@link LdapContext}.
+ * <p>
+ * Only the page currently being read is held by the underlying JNDI enumeration; the
+ * next page is requested once the current one is exhausted. Closing the enumeration
+ * before the last page has been read abandons the paged search on the server by sending
+ * a request with a page size of zero, and restores the request controls that were set
+ * on the context beforehand.
+ * <p>
+ * The supplied context must not be shared with other operations until this enumeration
+ * has been closed.
+ *
+ * @since 4.2
+ */
+final class PagedSearchResultsEnumeration implements NamingEnumeration<SearchResult> {
+
+	private static final Logger LOG = LoggerFactory.getLogger(PagedSearchResultsEnumeration.class);
+
+	private final LdapContext ctx;
+
+	private final Name base;
+
+	private final String filter;
+
+	private final SearchControls controls;
+
+	private final int pageSize;
+
+	private final Control @Nullable [] originalRequestControls;
+
+	private @Nullable NamingEnumeration<SearchResult> page;
+
+	private byte @Nullable [] cookie;
+
+	private int pageCount;
+
+	private boolean exhausted;
+
+	private boolean closed;
+
+	private PagedSearchResultsEnumeration(LdapContext ctx, Name base, String filter, SearchControls controls,
+			int pageSize) throws NamingException {
+		this.ctx = ctx;
+		this.base = base;
+		this.filter = filter;
+		this.controls = controls;
+		this.pageSize = pageSize;
+		this.originalRequestControls = ctx.getRequestControls();
+	}
+
+	/**
+	 * Start a paged search, issuing the request for the first page.
+	 * @param ctx the context to search with; must be an {@link LdapContext}
+	 * @param base the search base
+	 * @param filter the encoded search filter
+	 * @param controls the search controls
+	 * @param pageSize the number of entries to request per page
+	 * @return an enumeration spanning all pages
+	 * @throws NamingException if the first page cannot be requested
+	 * @throws IllegalArgumentException if {@code ctx} is not an {@link LdapContext}
+	 */
+	static PagedSearchResultsEnumeration search(DirContext ctx, Name base, String filter, SearchControls controls,
+			int pageSize) throws NamingException {
+		Assert.isTrue(pageSize > 0, "pageSize must be greater than 0");
+		if (!(ctx instanceof LdapContext ldap)) {
+			throw new IllegalArgumentException("ctx must be of type LdapContext");
+		}
+		PagedSearchResultsEnumeration enumeration = new PagedSearchResultsEnumeration(ldap, base, filter, controls,
+				pageSize);
+		try {
+			enumeration.requestPage(pageSize);
+		}
+		catch (NamingException | RuntimeException ex) {
+			enumeration.close();
+			throw ex;
+		}
+		return enumeration;
+	}
+
+	/**
+	 * The number of pages requested from the server so far.
+	 * @return the number of pages requested
+	 */
+	int getPageCount() {
+		return this.pageCount;
+	}
+
+	@Override
+	public boolean hasMore() throws NamingException {
+		while (!this.closed && this.page != null) {
+			if (this.page.hasMore()) {
+				return true;
+			}
+			this.page.close();
+			this.page = null;
+			this.cookie = responseCookie();
+			if (this.cookie == null) {
+				this.exhausted = true;
+				return false;
+			}
+			requestPage(this.pageSize);
+		}
+		return false;
+	}
+
+	@Override
+	public SearchResult next() throws NamingException {
+		if (!hasMore()) {
+			throw new NoSuchElementException("no more search results");
+		}
+		return this.page.next();
+	}
+
+	@Override
+	public boolean hasMoreElements() {
+		try {
+			return hasMore();
+		}
+		catch (NamingException ex) {
+			LOG.debug("Exception while reading the next page, ending enumeration", ex);
+			return false;
+		}
+	}
+
+	@Override
+	public SearchResult nextElement() {
+		try {
+			return next();
+		}
+		catch (NamingException ex) {
+			throw new NoSuchElementException(ex.getMessage());
+		}
+	}
+
+	@Override
+	public void close() {
+		if (this.closed) {
+			return;
+		}
+		this.closed = true;
+		closePage();
+		if (!this.exhausted) {
+			abandon();
+		}
+		try {
+			this.ctx.setRequestControls(this.originalRequestControls);
+		}
+		catch (NamingException ex) {
+			LOG.debug("Failed to restore request controls after paged search", ex);
+		}
+	}
+
+	private void requestPage(int size) throws NamingException {
+		this.ctx.setRequestControls(requestControls(size));
+		this.page = this.ctx.search(this.base, this.filter, this.controls);
+		this.pageCount++;
+		if (LOG.isTraceEnabled()) {
+			LOG.trace("Requested page {} of size {} with base [{}] and filter [{}]", this.pageCount, size, this.base,
+					this.filter);
+		}
+	}
+
+	private Control[] requestControls(int size) throws NamingException {
+		PagedResultsControl paged;
+		try {
+			paged = new PagedResultsControl(size, this.cookie, Control.CRITICAL);
+		}
+		catch (IOException ex) {
+			throw new IllegalArgumentException(ex);
+		}
+		List<Control> controls = new ArrayList<>();
+		if (this.originalRequestControls != null) {
+			for (Control control : this.originalRequestControls) {
+				if (!PagedResultsControl.OID.equals(control.getID())) {
+					controls.add(control);
+				}
+			}
+		}
+		controls.add(paged);
+		return controls.toArray(Control[]::new);
+	}
+
+	private byte @Nullable [] responseCookie() throws NamingException {
+		Control[] responseControls = this.ctx.getResponseControls();
+		if (responseControls == null) {
+			return null;
+		}
+		for (Control control : responseControls) {
+			if (control instanceof PagedResultsResponseControl response) {
+				byte[] cookie = response.getCookie();
+				return (cookie != null && cookie.length > 0) ? cookie : null;
+			}
+		}
+		return null;
+	}
+
+	private void abandon() {
+		if (this.cookie == null) {
+			// still on the first page; closing the JNDI enumeration abandons the request
+			return;
+		}
+		try {
+			requestPage(0);
+			closePage();
+		}
+		catch (NamingException ex) {
+			LOG.debug("Failed to abandon paged search", ex);
+		}
+	}
+
+	private void closePage() {
+		if (this.page != null) {
+			try {
+				this.page.close();
+			}
+			catch (Exception ex) {
+				// Never mind this.
+			}
+			this.page = null;
+		}
+	}
+
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2006-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ldap.core;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.jspecify.annotations.Nullable;
+
+import org.springframework.util.Assert;
+
+/**
+ * Reads several streams concurrently and merges their elements into a single stream.
+ * <p>
+ * Each partition stream is opened and read by its own task on the given
+ * {@link Executor}. Elements are handed over through a bounded buffer, so a slow
+ * consumer holds back the partitions rather than letting them accumulate results in
+ * memory. Closing the merged stream stops all partitions and closes their streams. A
+ * failure in any partition closes the merged stream and is rethrown to the consumer.
+ *
+ * @since 4.2
+ */
+final class PartitionedStreams {
+
+	static final int DEFAULT_BUFFER_SIZE = 256;
+
+	private PartitionedStreams() {
+	}
+
+	/**
+	 * Merge the given partitions, reading them concurrently on the given executor.
+	 * @param partitions the suppliers opening each partition stream
+	 * @param executor the executor to read the partitions on
+	 * @param bufferSize the number of elements that may be read ahead of the consumer
+	 * @param <T> the element type
+	 * @return a stream of the elements of all partitions, in no particular order
+	 */
+	static <T> Stream<T> merge(List<Supplier<Stream<T>>> partitions, Executor executor, int bufferSize) {
+		Assert.notEmpty(partitions, "partitions cannot be empty");
+		Assert.notNull(executor, "executor cannot be null");
+		Assert.isTrue(bufferSize > 0, "bufferSize must be greater than 0");
+		MergedIterator<T> merged = new MergedIterator<>(partitions.size(), bufferSize);
+		try {
+			for (Supplier<Stream<T>> partition : partitions) {
+				executor.execute(() -> merged.read(partition));
+			}
+		}
+		catch (RuntimeException ex) {
+			merged.close();
+			throw ex;
+		}
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(merged, Spliterator.NONNULL), false)
+			.onClose(merged::close);
+	}
+
+	private static final class MergedIterator<T> implements Iterator<T> {
+
+		private static final Object PARTITION_DONE = new Object();
+
+		private final BlockingQueue<Object> buffer;
+
+		private volatile boolean closed;
+
+		// the following are only accessed by the consumer
+
+		private int remaining;
+
+		private @Nullable T next;
+
+		MergedIterator(int partitions, int bufferSize) {
+			this.remaining = partitions;
+			this.buffer = new ArrayBlockingQueue<>(bufferSize);
+		}
+
+		void read(Supplier<Stream<T>> partition) {
+			Object outcome = PARTITION_DONE;
+			try (Stream<T> stream = partition.get()) {
+				Iterator<T> elements = stream.iterator();
+				while (!this.closed && elements.hasNext()) {
+					T element = elements.next();
+					if (element != null && !offer(element)) {
+						return;
+					}
+				}
+			}
+			catch (Throwable ex) {
+				outcome = new PartitionFailure(ex);
+			}
+			offer(outcome);
+		}
+
+		private boolean offer(Object element) {
+			try {
+				while (!this.closed) {
+					if (this.buffer.offer(element, 100, TimeUnit.MILLISECONDS)) {
+						return true;
+					}
+				}
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			return false;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public boolean hasNext() {
+			if (this.next != null) {
+				return true;
+			}
+			while (this.remaining > 0 && !this.closed) {
+				Object element = take();
+				if (element == PARTITION_DONE) {
+					this.remaining--;
+				}
+				else if (element instanceof PartitionFailure failure) {
+					close();
+					throw failure.rethrow();
+				}
+				else {
+					this.next = (T) element;
+					return true;
+				}
+			}
+			return false;
+		}
+
+		@Override
+		public T next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException("no more search results");
+			}
+			T element = this.next;
+			this.next = null;
+			return element;
+		}
+
+		private Object take() {
+			try {
+				return this.buffer.take();
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				close();
+				throw new IllegalStateException("Interrupted while waiting for search results", ex);
+			}
+		}
+
+		void close() {
+			this.closed = true;
+			this.buffer.clear();
+		}
+
+	}
+
+	private static final class PartitionFailure {
+
+		private final Throwable cause;
+
+		PartitionFailure(Throwable cause) {
+			this.cause = cause;
+		}
+
+		RuntimeException rethrow() {
+			if (this.cause instanceof RuntimeException ex) {
+				return ex;
+			}
+			if (this.cause instanceof Error error) {
+				throw error;
+			}
+			return new IllegalStateException(this.cause);
+		}
+
+	}
+
+}
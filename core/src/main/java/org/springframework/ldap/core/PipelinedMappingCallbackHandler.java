@@ -0,0 +1,258 @@
+/*
+ * Copyright 2006-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ldap.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.naming.NameClassPair;
+import javax.naming.NamingException;
+
+import org.jspecify.annotations.Nullable;
+
+import org.springframework.ldap.support.LdapUtils;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link NameClassPairCallbackHandler} that maps search results on several worker
+ * threads while the search thread keeps reading from the directory.
+ * <p>
+ * Each result read is handed to the workers through a bounded buffer, so reading is
+ * held back rather than results accumulating when mapping cannot keep up. The workers
+ * call {@link CollectingNameClassPairCallbackHandler#getObjectFromNameClassPair} of the
+ * target handler, which therefore must be safe for concurrent use. Once the search is
+ * done, {@link #complete()} waits for the remaining results to be mapped and adds all
+ * of them to the target handler's list, in the order they were read.
+ *
+ * @param <T> the type of the mapped results
+ * @since 4.2
+ * @see LdapTemplate#setMappingConcurrency(int)
+ */
+final class PipelinedMappingCallbackHandler<T> implements NameClassPairCallbackHandler {
+
+	private static final Slot<?> END = new Slot<>(new NameClassPair("", null));
+
+	private final CollectingNameClassPairCallbackHandler<T> target;
+
+	private final Executor executor;
+
+	private final int concurrency;
+
+	private final BlockingQueue<Slot<T>> buffer;
+
+	private final AtomicReference<@Nullable Throwable> failure = new AtomicReference<>();
+
+	private volatile boolean cancelled;
+
+	// the following are only accessed by the search thread
+
+	private final List<Slot<T>> slots = new ArrayList<>();
+
+	private @Nullable CountDownLatch workers;
+
+	/**
+	 * Create a new instance.
+	 * @param target the handler mapping and collecting the results
+	 * @param executor the executor to run the workers on
+	 * @param concurrency the number of workers
+	 * @param bufferSize the number of results that may be read ahead of the workers
+	 */
+	PipelinedMappingCallbackHandler(CollectingNameClassPairCallbackHandler<T> target, Executor executor,
+			int concurrency, int bufferSize) {
+		Assert.notNull(target, "target cannot be null");
+		Assert.notNull(executor, "executor cannot be null");
+		Assert.isTrue(concurrency > 0, "concurrency must be greater than 0");
+		Assert.isTrue(bufferSize > 0, "bufferSize must be greater than 0");
+		this.target = target;
+		this.executor = executor;
+		this.concurrency = concurrency;
+		this.buffer = new ArrayBlockingQueue<>(bufferSize);
+	}
+
+	@Override
+	public void handleNameClassPair(NameClassPair nameClassPair) throws NamingException {
+		rethrowFailure();
+		if (this.workers == null) {
+			this.workers = start();
+		}
+		Slot<T> slot = new Slot<>(nameClassPair);
+		this.slots.add(slot);
+		put(slot);
+	}
+
+	/**
+	 * Wait for all results read so far to be mapped and add them to the target handler.
+	 * @throws org.springframework.ldap.NamingException if mapping a result failed with a
+	 * {@link NamingException}
+	 */
+	void complete() {
+		CountDownLatch workers = this.workers;
+		if (workers != null) {
+			for (int i = 0; i < this.concurrency; i++) {
+				put(end());
+			}
+			await(workers);
+		}
+		try {
+			rethrowFailure();
+		}
+		catch (NamingException ex) {
+			throw LdapUtils.convertLdapException(ex);
+		}
+		List<T> results = this.target.getList();
+		for (Slot<T> slot : this.slots) {
+			results.add(slot.result);
+		}
+		this.slots.clear();
+	}
+
+	/**
+	 * Stop the workers, discarding any results not yet mapped.
+	 */
+	void cancel() {
+		this.cancelled = true;
+		this.buffer.clear();
+		this.slots.clear();
+	}
+
+	private CountDownLatch start() {
+		CountDownLatch workers = new CountDownLatch(this.concurrency);
+		try {
+			for (int i = 0; i < this.concurrency; i++) {
+				this.executor.execute(() -> work(workers));
+			}
+		}
+		catch (RuntimeException ex) {
+			cancel();
+			throw ex;
+		}
+		return workers;
+	}
+
+	private void work(CountDownLatch workers) {
+		try {
+			Slot<T> slot;
+			while ((slot = take()) != null && slot != END) {
+				if (this.failure.get() == null) {
+					map(slot);
+				}
+			}
+		}
+		finally {
+			workers.countDown();
+		}
+	}
+
+	private void map(Slot<T> slot) {
+		try {
+			slot.result = this.target.getObjectFromNameClassPair(Objects.requireNonNull(slot.nameClassPair));
+		}
+		catch (Throwable ex) {
+			this.failure.compareAndSet(null, ex);
+		}
+		finally {
+			// only the mapped result is needed from now on
+			slot.nameClassPair = null;
+		}
+	}
+
+	private @Nullable Slot<T> take() {
+		try {
+			while (!this.cancelled) {
+				Slot<T> slot = this.buffer.poll(100, TimeUnit.MILLISECONDS);
+				if (slot != null) {
+					return slot;
+				}
+			}
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		return null;
+	}
+
+	private void put(Slot<T> slot) {
+		try {
+			while (!this.buffer.offer(slot, 100, TimeUnit.MILLISECONDS)) {
+				if (this.cancelled) {
+					throw new IllegalStateException("Mapping of search results has been cancelled");
+				}
+			}
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			cancel();
+			throw new IllegalStateException("Interrupted while waiting for search results to be mapped", ex);
+		}
+	}
+
+	private void await(CountDownLatch workers) {
+		try {
+			workers.await();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			cancel();
+			throw new IllegalStateException("Interrupted while waiting for search results to be mapped", ex);
+		}
+	}
+
+	private void rethrowFailure() throws NamingException {
+		Throwable failure = this.failure.get();
+		if (failure == null) {
+			return;
+		}
+		cancel();
+		if (failure instanceof NamingException ex) {
+			throw ex;
+		}
+		if (failure instanceof RuntimeException ex) {
+			throw ex;
+		}
+		if (failure instanceof Error error) {
+			throw error;
+		}
+		throw new IllegalStateException(failure);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> Slot<T> end() {
+		return (Slot<T>) END;
+	}
+
+	private static final class Slot<T> {
+
+		// cleared once mapped, so that large result sets are not held twice
+		private @Nullable NameClassPair nameClassPair;
+
+		// written by a worker, read by the search thread once all workers are done
+		private @Nullable T result;
+
+		Slot(NameClassPair nameClassPair) {
+			this.nameClassPair = nameClassPair;
+		}
+
+	}
+
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2006-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ldap.core;
+
+import java.util.Iterator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.jspecify.annotations.Nullable;
+
+import org.springframework.util.Assert;
+
+/**
+ * A cold {@link Flow.Publisher} that emits the elements of a lazily opened search
+ * {@link Stream}, reading entries only as they are requested by the subscriber.
+ * <p>
+ * Every subscription opens its own stream. All reads happen on the supplied
+ * {@link Executor}, one task at a time per subscription, so the calling thread never
+ * blocks on the directory. The stream, and with it any context held for the search, is
+ * closed once the results are exhausted, an error occurs, or the subscription is
+ * cancelled.
+ *
+ * @param <T> the mapped result type
+ * @since 4.2
+ */
+final class SearchResultPublisher<T> implements Flow.Publisher<T> {
+
+	private final Supplier<Stream<T>> streamSupplier;
+
+	private final Executor executor;
+
+	SearchResultPublisher(Supplier<Stream<T>> streamSupplier, Executor executor) {
+		Assert.notNull(streamSupplier, "streamSupplier cannot be null");
+		Assert.notNull(executor, "executor cannot be null");
+		this.streamSupplier = streamSupplier;
+		this.executor = executor;
+	}
+
+	@Override
+	public void subscribe(Flow.Subscriber<? super T> subscriber) {
+		Assert.notNull(subscriber, "subscriber cannot be null");
+		SearchResultSubscription<T> subscription = new SearchResultSubscription<>(subscriber, this.streamSupplier,
+				this.executor);
+		subscriber.onSubscribe(subscription);
+	}
+
+	private static final class SearchResultSubscription<T> implements Flow.Subscription, Runnable {
+
+		private final Flow.Subscriber<? super T> subscriber;
+
+		private final Supplier<Stream<T>> streamSupplier;
+
+		private final Executor executor;
+
+		private final AtomicLong requested = new AtomicLong();
+
+		private final AtomicInteger wip = new AtomicInteger();
+
+		private volatile boolean cancelled;
+
+		private volatile @Nullable Throwable invalidRequest;
+
+		// the following are only accessed by the task running on the executor
+
+		private @Nullable Stream<T> stream;
+
+		private @Nullable Iterator<T> iterator;
+
+		private long emitted;
+
+		private boolean done;
+
+		SearchResultSubscription(Flow.Subscriber<? super T> subscriber, Supplier<Stream<T>> streamSupplier,
+				Executor executor) {
+			this.subscriber = subscriber;
+			this.streamSupplier = streamSupplier;
+			this.executor = executor;
+		}
+
+		@Override
+		public void request(long n) {
+			if (n <= 0) {
+				this.invalidRequest = new IllegalArgumentException(
+						"Rule 3.9: request must be greater than 0, but was " + n);
+			}
+			else {
+				this.requested.getAndAccumulate(n, (current, added) -> {
+					long total = current + added;
+					return (total < 0) ? Long.MAX_VALUE : total;
+				});
+			}
+			schedule();
+		}
+
+		@Override
+		public void cancel() {
+			this.cancelled = true;
+			schedule();
+		}
+
+		private void schedule() {
+			if (this.wip.getAndIncrement() != 0) {
+				return;
+			}
+			try {
+				this.executor.execute(this);
+			}
+			catch (RuntimeException ex) {
+				// nothing has been read yet by a task, so it is safe to terminate here
+				this.cancelled = true;
+				closeStream();
+				this.subscriber.onError(ex);
+			}
+		}
+
+		@Override
+		public void run() {
+			int missed = 1;
+			while (!this.done) {
+				drain();
+				missed = this.wip.addAndGet(-missed);
+				if (missed == 0) {
+					return;
+				}
+			}
+		}
+
+		private void drain() {
+			try {
+				if (this.cancelled) {
+					terminate();
+					return;
+				}
+				Throwable invalid = this.invalidRequest;
+				if (invalid != null) {
+					terminate();
+					this.subscriber.onError(invalid);
+					return;
+				}
+				long demand = this.requested.get();
+				while (this.emitted != demand) {
+					Iterator<T> results = iterator();
+					if (this.cancelled) {
+						terminate();
+						return;
+					}
+					if (!results.hasNext()) {
+						terminate();
+						this.subscriber.onComplete();
+						return;
+					}
+					this.subscriber.onNext(results.next());
+					this.emitted++;
+					if (this.emitted == demand) {
+						demand = this.requested.get();
+					}
+				}
+			}
+			catch (Throwable ex) {
+				boolean alreadyDone = this.done;
+				terminate();
+				if (!alreadyDone) {
+					this.subscriber.onError(ex);
+				}
+			}
+		}
+
+		private Iterator<T> iterator() {
+			if (this.iterator == null) {
+				this.stream = this.streamSupplier.get();
+				this.iterator = this.stream.iterator();
+			}
+			return this.iterator;
+		}
+
+		private void terminate() {
+			this.done = true;
+			this.cancelled = true;
+			closeStream();
+		}
+
+		private void closeStream() {
+			Stream<T> stream = this.stream;
+			this.stream = null;
+			this.iterator = null;
+			if (stream != null) {
+				try {
+					stream.close();
+				}
+				catch (Exception ex) {
+					// Never mind this.
+				}
+			}
+		}
+
+	}
+
+}
@@ -18,10 +18,13 @@ package org.springframework.ldap.core.support;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Arrays;
 import java.util.Hashtable;
+import java.util.LinkedHashSet;
 import java.util.ListIterator;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 import javax.naming.Context;
 import javax.naming.NamingEnumeration;
@@ -42,6 +45,7 @@ import org.springframework.ldap.core.AuthenticationSource;
 import org.springframework.ldap.core.ContextSource;
 import org.springframework.ldap.core.DistinguishedName;
 import org.springframework.ldap.support.LdapEncoder;
+import org.springframework.ldap.support.LdapSchema;
 import org.springframework.ldap.support.LdapUtils;
 import org.springframework.util.Assert;
 import org.springframework.util.ObjectUtils;
@@ -84,6 +88,8 @@ public abstract class AbstractContextSource implements BaseLdapPathContextSource
 
 	private static final int DEFAULT_BUFFER_SIZE = 1024;
 
+	private static final String BINARY_ATTRIBUTES = "java.naming.ldap.attributes.binary";
+
 	private @Nullable Class<?> dirObjectFactory = DEFAULT_DIR_OBJECT_FACTORY;
 
 	private @Nullable Class<?> contextFactory;
@@ -118,6 +124,10 @@ public abstract class AbstractContextSource implements BaseLdapPathContextSource
 
 	private @Nullable String referral = null;
 
+	private boolean detectBinaryAttributes = false;
+
+	private @Nullable LdapSchema schema;
+
 	private static final Logger LOG = LoggerFactory.getLogger(AbstractContextSource.class);
 
 	public static final String SUN_LDAP_POOLING_FLAG = "com.sun.jndi.ldap.connect.pool";
@@ -436,6 +446,35 @@ public abstract class AbstractContextSource implements BaseLdapPathContextSource
 		if (this.cacheEnvironmentProperties) {
 			this.anonymousEnv = setupAnonymousEnv();
 		}
+
+		if (this.detectBinaryAttributes) {
+			detectBinaryAttributes();
+		}
+	}
+
+	private void detectBinaryAttributes() {
+		LdapSchema schema;
+		try {
+			schema = LdapSchema.read(this);
+		}
+		catch (org.springframework.ldap.NamingException ex) {
+			LOG.warn("Unable to read the schema, binary attributes will not be detected", ex);
+			return;
+		}
+		this.schema = schema;
+		Set<String> binaryAttributes = new LinkedHashSet<>(schema.getBinaryAttributeNames());
+		Object configured = this.baseEnv.get(BINARY_ATTRIBUTES);
+		if (configured != null) {
+			binaryAttributes.addAll(Arrays.asList(configured.toString().trim().split("\\s+")));
+		}
+		if (binaryAttributes.isEmpty()) {
+			return;
+		}
+		this.baseEnv.put(BINARY_ATTRIBUTES, String.join(" ", binaryAttributes));
+		LOG.debug("Detected binary attributes: " + binaryAttributes);
+		if (this.cacheEnvironmentProperties) {
+			this.anonymousEnv = setupAnonymousEnv();
+		}
 	}
 
 	@SuppressWarnings("deprecation")
@@ -635,6 +674,33 @@ public abstract class AbstractContextSource implements BaseLdapPathContextSource
 		return this.anonymousReadOnly;
 	}
 
+	/**
+	 * Set whether the schema of the server should be read on initialization, so that
+	 * the values of all attribute types with a binary syntax are returned as
+	 * {@code byte[]} without having to list them in the
+	 * {@code java.naming.ldap.attributes.binary}
+	 * {@link #setBaseEnvironmentProperties(Map) environment property}. Attributes already
+	 * listed there are kept. Default is <code>false</code>. If the schema cannot be read,
+	 * a warning is logged and only the configured attributes are binary.
+	 * @param detectBinaryAttributes <code>true</code> to detect binary attributes from
+	 * the schema.
+	 * @since 4.2
+	 * @see #getSchema()
+	 */
+	public void setDetectBinaryAttributes(boolean detectBinaryAttributes) {
+		this.detectBinaryAttributes = detectBinaryAttributes;
+	}
+
+	/**
+	 * Get the schema of the server, read on initialization if
+	 * {@link #setDetectBinaryAttributes(boolean) binary attributes are detected}.
+	 * @return the schema, or <code>null</code> if it was not read.
+	 * @since 4.2
+	 */
+	public @Nullable LdapSchema getSchema() {
+		return this.schema;
+	}
+
 	/**
 	 * Set the {@link DirContextAuthenticationStrategy} to use for preparing the
 	 * environment and processing the created <code>DirContext</code> instances.
@@ -0,0 +1,706 @@
+/*
+ * Copyright 2006-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ldap.core.support;
+
+import java.util.Hashtable;
+
+import javax.naming.Binding;
+import javax.naming.Context;
+import javax.naming.Name;
+import javax.naming.NameClassPair;
+import javax.naming.NameParser;
+import javax.naming.NamingEnumeration;
+import javax.naming.NamingException;
+import javax.naming.directory.Attributes;
+import javax.naming.directory.DirContext;
+import javax.naming.directory.ModificationItem;
+import javax.naming.directory.SearchControls;
+import javax.naming.directory.SearchResult;
+
+import org.springframework.ldap.core.DirContextProxy;
+import org.springframework.util.Assert;
+
+/**
+ * Base class for {@link DirContext} wrappers, calling the target context directly for
+ * each method rather than through a reflective {@link java.lang.reflect.Proxy}.
+ * Subclasses override the methods they change the behavior of, and may inspect the
+ * exceptions thrown by the target context in {@link #onFailure(Exception)}.
+ * <p>
+ * Like a proxy forwarding every call, the wrapper delegates {@code equals} and
+ * {@code hashCode} to its target context. It is therefore equal to its target, but the
+ * target is not equal to it. Subclasses that must not be mistaken for their target
+ * override both to compare by identity.
+ * <p>
+ * Use {@link AbstractDelegatingLdapContext} to wrap an
+ * {@link javax.naming.ldap.LdapContext} so that the wrapper is one too.
+ *
+ * @since 4.2
+ * @see AbstractDelegatingLdapContext
+ */
+public abstract class AbstractDelegatingDirContext implements DirContext, DirContextProxy {
+
+	private final DirContext target;
+
+	/**
+	 * Create a wrapper around the given context.
+	 * @param target the context to delegate to.
+	 */
+	protected AbstractDelegatingDirContext(DirContext target) {
+		Assert.notNull(target, "target cannot be null");
+		this.target = target;
+	}
+
+	@Override
+	public DirContext getTargetContext() {
+		return this.target;
+	}
+
+	/**
+	 * Called when a method of the target context throws, before the exception is
+	 * rethrown. Does nothing by default.
+	 * @param ex the {@link NamingException} or {@link RuntimeException} thrown by the
+	 * target context.
+	 */
+	protected void onFailure(Exception ex) {
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return (this == obj) || this.target.equals(obj);
+	}
+
+	@Override
+	public int hashCode() {
+		return this.target.hashCode();
+	}
+
+	@Override
+	public String toString() {
+		return this.target.toString();
+	}
+
+	@Override
+	public Object lookup(Name name) throws NamingException {
+		try {
+			return this.target.lookup(name);
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public Object lookup(String name) throws NamingException {
+		try {
+			return this.target.lookup(name);
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public void bind(Name name, Object obj) throws NamingException {
+		try {
+			this.target.bind(name, obj);
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public void bind(String name, Object obj) throws NamingException {
+		try {
+			this.target.bind(name, obj);
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public void rebind(Name name, Object obj) throws NamingException {
+		try {
+			this.target.rebind(name, obj);
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public void rebind(String name, Object obj) throws NamingException {
+		try {
+			this.target.rebind(name, obj);
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public void unbind(Name name) throws NamingException {
+		try {
+			this.target.unbind(name);
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public void unbind(String name) throws NamingException {
+		try {
+			this.target.unbind(name);
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public void rename(Name oldName, Name newName) throws NamingException {
+		try {
+			this.target.rename(oldName, newName);
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public void rename(String oldName, String newName) throws NamingException {
+		try {
+			this.target.rename(oldName, newName);
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public NamingEnumeration<NameClassPair> list(Name name) throws NamingException {
+		try {
+			return this.target.list(name);
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public NamingEnumeration<NameClassPair> list(String name) throws NamingException {
+		try {
+			return this.target.list(name);
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public NamingEnumeration<Binding> listBindings(Name name) throws NamingException {
+		try {
+			return this.target.listBindings(name);
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public NamingEnumeration<Binding> listBindings(String name) throws NamingException {
+		try {
+			return this.target.listBindings(name);
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public void destroySubcontext(Name name) throws NamingException {
+		try {
+			this.target.destroySubcontext(name);
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public void destroySubcontext(String name) throws NamingException {
+		try {
+			this.target.destroySubcontext(name);
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public Context createSubcontext(Name name) throws NamingException {
+		try {
+			return this.target.createSubcontext(name);
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public Context createSubcontext(String name) throws NamingException {
+		try {
+			return this.target.createSubcontext(name);
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public Object lookupLink(Name name) throws NamingException {
+		try {
+			return this.target.lookupLink(name);
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public Object lookupLink(String name) throws NamingException {
+		try {
+			return this.target.lookupLink(name);
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public NameParser getNameParser(Name name) throws NamingException {
+		try {
+			return this.target.getNameParser(name);
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public NameParser getNameParser(String name) throws NamingException {
+		try {
+			return this.target.getNameParser(name);
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public Name composeName(Name name, Name prefix) throws NamingException {
+		try {
+			return this.target.composeName(name, prefix);
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public String composeName(String name, String prefix) throws NamingException {
+		try {
+			return this.target.composeName(name, prefix);
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public Object addToEnvironment(String propName, Object propVal) throws NamingException {
+		try {
+			return this.target.addToEnvironment(propName, propVal);
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public Object removeFromEnvironment(String propName) throws NamingException {
+		try {
+			return this.target.removeFromEnvironment(propName);
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public Hashtable<?, ?> getEnvironment() throws NamingException {
+		try {
+			return this.target.getEnvironment();
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public void close() throws NamingException {
+		try {
+			this.target.close();
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public String getNameInNamespace() throws NamingException {
+		try {
+			return this.target.getNameInNamespace();
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public Attributes getAttributes(Name name) throws NamingException {
+		try {
+			return this.target.getAttributes(name);
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public Attributes getAttributes(String name) throws NamingException {
+		try {
+			return this.target.getAttributes(name);
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public Attributes getAttributes(Name name, String[] attrIds) throws NamingException {
+		try {
+			return this.target.getAttributes(name, attrIds);
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public Attributes getAttributes(String name, String[] attrIds) throws NamingException {
+		try {
+			return this.target.getAttributes(name, attrIds);
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public void modifyAttributes(Name name, int mod_op, Attributes attrs) throws NamingException {
+		try {
+			this.target.modifyAttributes(name, mod_op, attrs);
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public void modifyAttributes(String name, int mod_op, Attributes attrs) throws NamingException {
+		try {
+			this.target.modifyAttributes(name, mod_op, attrs);
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public void modifyAttributes(Name name, ModificationItem[] mods) throws NamingException {
+		try {
+			this.target.modifyAttributes(name, mods);
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public void modifyAttributes(String name, ModificationItem[] mods) throws NamingException {
+		try {
+			this.target.modifyAttributes(name, mods);
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public void bind(Name name, Object obj, Attributes attrs) throws NamingException {
+		try {
+			this.target.bind(name, obj, attrs);
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public void bind(String name, Object obj, Attributes attrs) throws NamingException {
+		try {
+			this.target.bind(name, obj, attrs);
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public void rebind(Name name, Object obj, Attributes attrs) throws NamingException {
+		try {
+			this.target.rebind(name, obj, attrs);
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public void rebind(String name, Object obj, Attributes attrs) throws NamingException {
+		try {
+			this.target.rebind(name, obj, attrs);
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public DirContext createSubcontext(Name name, Attributes attrs) throws NamingException {
+		try {
+			return this.target.createSubcontext(name, attrs);
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public DirContext createSubcontext(String name, Attributes attrs) throws NamingException {
+		try {
+			return this.target.createSubcontext(name, attrs);
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public DirContext getSchema(Name name) throws NamingException {
+		try {
+			return this.target.getSchema(name);
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public DirContext getSchema(String name) throws NamingException {
+		try {
+			return this.target.getSchema(name);
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public DirContext getSchemaClassDefinition(Name name) throws NamingException {
+		try {
+			return this.target.getSchemaClassDefinition(name);
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public DirContext getSchemaClassDefinition(String name) throws NamingException {
+		try {
+			return this.target.getSchemaClassDefinition(name);
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public NamingEnumeration<SearchResult> search(Name name, Attributes matchingAttributes, String[] attributesToReturn)
+			throws NamingException {
+		try {
+			return this.target.search(name, matchingAttributes, attributesToReturn);
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public NamingEnumeration<SearchResult> search(String name, Attributes matchingAttributes,
+			String[] attributesToReturn) throws NamingException {
+		try {
+			return this.target.search(name, matchingAttributes, attributesToReturn);
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public NamingEnumeration<SearchResult> search(Name name, Attributes matchingAttributes) throws NamingException {
+		try {
+			return this.target.search(name, matchingAttributes);
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public NamingEnumeration<SearchResult> search(String name, Attributes matchingAttributes) throws NamingException {
+		try {
+			return this.target.search(name, matchingAttributes);
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public NamingEnumeration<SearchResult> search(Name name, String filter, SearchControls cons)
+			throws NamingException {
+		try {
+			return this.target.search(name, filter, cons);
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public NamingEnumeration<SearchResult> search(String name, String filter, SearchControls cons)
+			throws NamingException {
+		try {
+			return this.target.search(name, filter, cons);
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public NamingEnumeration<SearchResult> search(Name name, String filterExpr, Object[] filterArgs,
+			SearchControls cons) throws NamingException {
+		try {
+			return this.target.search(name, filterExpr, filterArgs, cons);
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public NamingEnumeration<SearchResult> search(String name, String filterExpr, Object[] filterArgs,
+			SearchControls cons) throws NamingException {
+		try {
+			return this.target.search(name, filterExpr, filterArgs, cons);
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2006-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ldap.core.support;
+
+import javax.naming.NamingException;
+import javax.naming.ldap.Control;
+import javax.naming.ldap.ExtendedRequest;
+import javax.naming.ldap.ExtendedResponse;
+import javax.naming.ldap.LdapContext;
+
+/**
+ * Base class for {@link LdapContext} wrappers, calling the target context directly for
+ * each method rather than through a reflective {@link java.lang.reflect.Proxy}.
+ *
+ * @since 4.2
+ * @see AbstractDelegatingDirContext
+ */
+public abstract class AbstractDelegatingLdapContext extends AbstractDelegatingDirContext implements LdapContext {
+
+	private final LdapContext target;
+
+	/**
+	 * Create a wrapper around the given context.
+	 * @param target the context to delegate to.
+	 */
+	protected AbstractDelegatingLdapContext(LdapContext target) {
+		super(target);
+		this.target = target;
+	}
+
+	@Override
+	public ExtendedResponse extendedOperation(ExtendedRequest request) throws NamingException {
+		try {
+			return this.target.extendedOperation(request);
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public LdapContext newInstance(Control[] requestControls) throws NamingException {
+		try {
+			return this.target.newInstance(requestControls);
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public void reconnect(Control[] connCtls) throws NamingException {
+		try {
+			this.target.reconnect(connCtls);
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public Control[] getConnectControls() throws NamingException {
+		try {
+			return this.target.getConnectControls();
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public void setRequestControls(Control[] requestControls) throws NamingException {
+		try {
+			this.target.setRequestControls(requestControls);
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public Control[] getRequestControls() throws NamingException {
+		try {
+			return this.target.getRequestControls();
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+	@Override
+	public Control[] getResponseControls() throws NamingException {
+		try {
+			return this.target.getResponseControls();
+		}
+		catch (NamingException | RuntimeException ex) {
+			onFailure(ex);
+			throw ex;
+		}
+	}
+
+}
@@ -17,10 +17,6 @@
 package org.springframework.ldap.core.support;
 
 import java.io.IOException;
-import java.lang.reflect.InvocationHandler;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.lang.reflect.Proxy;
 import java.util.Hashtable;
 
 import javax.naming.NamingException;
@@ -34,7 +30,6 @@ import javax.net.ssl.SSLSocketFactory;
 import org.jspecify.annotations.Nullable;
 
 import org.springframework.ldap.UncategorizedLdapException;
-import org.springframework.ldap.core.DirContextProxy;
 import org.springframework.ldap.support.LdapUtils;
 
 /**
@@ -143,12 +138,9 @@ public abstract class AbstractTlsDirContextAuthenticationStrategy implements Dir
 				applyAuthentication(ldapCtx, userDn, password);
 
 				if (this.shutdownTlsGracefully) {
-					// Wrap the target context in a proxy to intercept any calls
-					// to 'close', so that we can shut down the TLS connection
-					// gracefully first.
-					return (DirContext) Proxy.newProxyInstance(DirContextProxy.class.getClassLoader(),
-							new Class<?>[] { LdapContext.class, DirContextProxy.class },
-							new TlsAwareDirContextProxy(ldapCtx, tlsResponse));
+					// Wrap the target context to intercept any calls to 'close',
+					// so that we can shut down the TLS connection gracefully first.
+					return new TlsAwareLdapContext(ldapCtx, tlsResponse);
 				}
 				else {
 					return ctx;
@@ -176,43 +168,26 @@ public abstract class AbstractTlsDirContextAuthenticationStrategy implements Dir
 	 */
 	protected abstract void applyAuthentication(LdapContext ctx, String userDn, String password) throws NamingException;
 
-	private static final class TlsAwareDirContextProxy implements DirContextProxy, InvocationHandler {
-
-		private static final String GET_TARGET_CONTEXT_METHOD_NAME = "getTargetContext";
-
-		private static final String CLOSE_METHOD_NAME = "close";
-
-		private final LdapContext target;
+	private static final class TlsAwareLdapContext extends AbstractDelegatingLdapContext {
 
 		private final StartTlsResponse tlsResponse;
 
-		TlsAwareDirContextProxy(LdapContext target, StartTlsResponse tlsResponse) {
-			this.target = target;
+		TlsAwareLdapContext(LdapContext target, StartTlsResponse tlsResponse) {
+			super(target);
 			this.tlsResponse = tlsResponse;
 		}
 
 		@Override
-		public DirContext getTargetContext() {
-			return this.target;
-		}
-
-		@Override
-		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
-			if (method.getName().equals(CLOSE_METHOD_NAME)) {
+		public void close() throws NamingException {
+			try {
 				this.tlsResponse.close();
-				return method.invoke(this.target, args);
-			}
-			else if (method.getName().equals(GET_TARGET_CONTEXT_METHOD_NAME)) {
-				return this.target;
 			}
-			else {
-				try {
-					return method.invoke(this.target, args);
-				}
-				catch (InvocationTargetException ex) {
-					throw ex.getTargetException();
-				}
+			catch (IOException ex) {
+				NamingException namingException = new NamingException("Failed to close TLS session");
+				namingException.setRootCause(ex);
+				throw namingException;
 			}
+			super.close();
 		}
 
 	}
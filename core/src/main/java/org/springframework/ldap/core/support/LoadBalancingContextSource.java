@@ -0,0 +1,366 @@
+/*
+ * Copyright 2006-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ldap.core.support;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import javax.naming.directory.DirContext;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.ldap.core.ContextSource;
+import org.springframework.ldap.support.LdapUtils;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link ContextSource} spreading contexts over several directory servers holding the
+ * same data, each behind its own {@link ContextSource}, typically a pooling one.
+ * <p>
+ * Each context is taken from the server with the fewest outstanding contexts, that is
+ * contexts handed out and not yet closed, or, with {@link Strategy#LOWEST_LATENCY}, from
+ * the server whose contexts were held for the shortest time on average, as an
+ * exponentially weighted moving average. The average of a server decays while no
+ * context is taken from it, halving every {@link #setLatencyHalfLife(Duration) half
+ * life}, so that a server that was slow once is tried again eventually. Ties are broken
+ * in turn.
+ * <p>
+ * A server whose context source fails with a {@link javax.naming.CommunicationException}
+ * or a {@link javax.naming.ServiceUnavailableException} is ejected, the context being
+ * taken from the next server instead. Ejected servers are probed in the background every
+ * {@link #setProbeInterval(Duration) probe interval} by getting and closing a read-only
+ * context, and take traffic again once a probe succeeds. If all servers are ejected,
+ * they are all tried.
+ * <p>
+ * The outstanding contexts, average latency, availability and ejections of each server
+ * are published by {@link #bindTo(MeterRegistry)}, tagged with the server name.
+ *
+ * @since 4.2
+ */
+public class LoadBalancingContextSource extends DelegatingBaseLdapPathContextSourceSupport
+		implements ContextSource, DisposableBean, MeterBinder {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(LoadBalancingContextSource.class);
+
+	// weight of the latest sample in the moving average
+	private static final double LATENCY_WEIGHT = 0.2;
+
+	private final List<Server> servers = new ArrayList<>();
+
+	private final AtomicInteger turn = new AtomicInteger();
+
+	private Strategy strategy = Strategy.LEAST_OUTSTANDING;
+
+	private Duration probeInterval = Duration.ofSeconds(10);
+
+	private volatile long latencyHalfLifeNanos = Duration.ofSeconds(10).toNanos();
+
+	private volatile @Nullable ScheduledExecutorService prober;
+
+	/**
+	 * Create a context source spreading contexts over the given servers.
+	 * @param servers the context source of each server, by server name, in the order
+	 * ties are broken in.
+	 */
+	public LoadBalancingContextSource(Map<String, ? extends ContextSource> servers) {
+		Assert.notEmpty(servers, "servers cannot be empty");
+		servers.forEach((name, contextSource) -> this.servers.add(new Server(name, contextSource)));
+	}
+
+	/**
+	 * Set how the server to take each context from is chosen. Default is
+	 * {@link Strategy#LEAST_OUTSTANDING}.
+	 * @param strategy the strategy.
+	 */
+	public void setStrategy(Strategy strategy) {
+		Assert.notNull(strategy, "strategy cannot be null");
+		this.strategy = strategy;
+	}
+
+	/**
+	 * Set how often ejected servers are probed. Default is 10 seconds.
+	 * @param probeInterval the time between probes of an ejected server.
+	 */
+	public void setProbeInterval(Duration probeInterval) {
+		Assert.isTrue(probeInterval.compareTo(Duration.ZERO) > 0, "probeInterval must be positive");
+		this.probeInterval = probeInterval;
+	}
+
+	/**
+	 * Set how fast the average latency of a server decays while no context is taken
+	 * from it, with {@link Strategy#LOWEST_LATENCY}. Default is 10 seconds.
+	 * @param latencyHalfLife the time after which the average latency of an unused
+	 * server is halved.
+	 */
+	public void setLatencyHalfLife(Duration latencyHalfLife) {
+		Assert.isTrue(latencyHalfLife.compareTo(Duration.ZERO) > 0, "latencyHalfLife must be positive");
+		this.latencyHalfLifeNanos = latencyHalfLife.toNanos();
+	}
+
+	@Override
+	public DirContext getReadOnlyContext() {
+		return getContext(ContextSource::getReadOnlyContext);
+	}
+
+	@Override
+	public DirContext getReadWriteContext() {
+		return getContext(ContextSource::getReadWriteContext);
+	}
+
+	@Override
+	public DirContext getContext(String principal, String credentials) {
+		return getContext((contextSource) -> contextSource.getContext(principal, credentials));
+	}
+
+	@Override
+	protected ContextSource getTarget() {
+		return this.servers.get(0).contextSource;
+	}
+
+	/**
+	 * Register the outstanding contexts, average latency, availability and ejections of
+	 * each server with the given registry, tagged with {@code server}.
+	 * @param registry the registry to register the meters with.
+	 */
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		for (Server server : this.servers) {
+			Gauge.builder("spring.ldap.server.outstanding", server, (s) -> s.outstanding.get())
+				.tags("server", server.name)
+				.description("The number of contexts handed out and not yet closed")
+				.register(registry);
+			TimeGauge.builder("spring.ldap.server.latency", server, TimeUnit.NANOSECONDS, Server::latency)
+				.tags("server", server.name)
+				.description("The decaying moving average of the time contexts were held")
+				.register(registry);
+			Gauge.builder("spring.ldap.server.available", server, (s) -> s.ejected.get() ? 0 : 1)
+				.tags("server", server.name)
+				.description("Whether the server takes traffic")
+				.register(registry);
+			FunctionCounter.builder("spring.ldap.server.ejections", server, (s) -> s.ejections.get())
+				.tags("server", server.name)
+				.description("The number of times the server was ejected")
+				.register(registry);
+		}
+	}
+
+	@Override
+	public void destroy() {
+		ScheduledExecutorService prober = this.prober;
+		if (prober != null) {
+			prober.shutdownNow();
+		}
+	}
+
+	private DirContext getContext(Function<ContextSource, DirContext> open) {
+		List<Server> failed = new ArrayList<>();
+		@Nullable RuntimeException failure = null;
+		Server server;
+		while ((server = choose(failed)) != null) {
+			try {
+				return server.open(open);
+			}
+			catch (RuntimeException ex) {
+				if (!isUnavailable(ex)) {
+					throw ex;
+				}
+				eject(server, ex);
+				failed.add(server);
+				if (failure != null) {
+					ex.addSuppressed(failure);
+				}
+				failure = ex;
+			}
+		}
+		throw Objects.requireNonNull(failure);
+	}
+
+	private @Nullable Server choose(List<Server> failed) {
+		List<Server> candidates = new ArrayList<>(this.servers);
+		candidates.removeAll(failed);
+		if (candidates.isEmpty()) {
+			return null;
+		}
+		List<Server> available = candidates.stream().filter((server) -> !server.ejected.get()).toList();
+		if (!available.isEmpty()) {
+			candidates = new ArrayList<>(available);
+		}
+		// rotate so that ties go to each server in turn
+		Collections.rotate(candidates, Math.floorMod(this.turn.getAndIncrement(), candidates.size()));
+		Comparator<Server> comparator = (this.strategy == Strategy.LOWEST_LATENCY)
+				? Comparator.comparingDouble(Server::latency) : Comparator.comparingInt((s) -> s.outstanding.get());
+		return Collections.min(candidates, comparator);
+	}
+
+	private void eject(Server server, RuntimeException ex) {
+		if (server.ejected.compareAndSet(false, true)) {
+			server.ejections.incrementAndGet();
+			LOGGER.warn("Ejecting LDAP server '{}'", server.name, ex);
+			scheduleProbe(server);
+		}
+	}
+
+	private void scheduleProbe(Server server) {
+		try {
+			prober().schedule(() -> probe(server), this.probeInterval.toMillis(), TimeUnit.MILLISECONDS);
+		}
+		catch (RuntimeException ex) {
+			// shut down; the server stays ejected
+			LOGGER.debug("Not probing LDAP server '{}'", server.name, ex);
+		}
+	}
+
+	private void probe(Server server) {
+		try {
+			LdapUtils.closeContext(server.contextSource.getReadOnlyContext());
+			server.ejected.set(false);
+			LOGGER.info("LDAP server '{}' is available again", server.name);
+		}
+		catch (RuntimeException ex) {
+			LOGGER.debug("LDAP server '{}' is still unavailable", server.name, ex);
+			scheduleProbe(server);
+		}
+	}
+
+	private ScheduledExecutorService prober() {
+		ScheduledExecutorService prober = this.prober;
+		if (prober == null) {
+			synchronized (this) {
+				prober = this.prober;
+				if (prober == null) {
+					prober = Executors.newSingleThreadScheduledExecutor((runnable) -> {
+						Thread thread = new Thread(runnable, "ldap-server-prober");
+						thread.setDaemon(true);
+						return thread;
+					});
+					this.prober = prober;
+				}
+			}
+		}
+		return prober;
+	}
+
+	private static boolean isUnavailable(Throwable ex) {
+		for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+			if (cause instanceof javax.naming.CommunicationException
+					|| cause instanceof javax.naming.ServiceUnavailableException) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * How the server to take a context from is chosen.
+	 */
+	public enum Strategy {
+
+		/**
+		 * Take contexts from the server with the fewest contexts handed out and not yet
+		 * closed.
+		 */
+		LEAST_OUTSTANDING,
+
+		/**
+		 * Take contexts from the server whose contexts were held for the shortest time
+		 * on average.
+		 */
+		LOWEST_LATENCY
+
+	}
+
+	private final class Server {
+
+		private final String name;
+
+		private final ContextSource contextSource;
+
+		private final AtomicInteger outstanding = new AtomicInteger();
+
+		private final AtomicLong latencyBits = new AtomicLong(Double.doubleToLongBits(0));
+
+		private volatile long lastSample = System.nanoTime();
+
+		private final AtomicBoolean ejected = new AtomicBoolean();
+
+		private final AtomicLong ejections = new AtomicLong();
+
+		Server(String name, ContextSource contextSource) {
+			Assert.notNull(contextSource, "contextSource cannot be null");
+			this.name = name;
+			this.contextSource = contextSource;
+		}
+
+		DirContext open(Function<ContextSource, DirContext> open) {
+			this.outstanding.incrementAndGet();
+			long start = System.nanoTime();
+			DirContext ctx;
+			try {
+				ctx = open.apply(this.contextSource);
+			}
+			catch (RuntimeException ex) {
+				this.outstanding.decrementAndGet();
+				throw ex;
+			}
+			return ReleasingDirContexts.wrap(ctx, () -> {
+				this.outstanding.decrementAndGet();
+				record(System.nanoTime() - start);
+			});
+		}
+
+		double latency() {
+			return decay(Double.longBitsToDouble(this.latencyBits.get()));
+		}
+
+		private void record(long nanos) {
+			this.latencyBits.updateAndGet((bits) -> {
+				double average = decay(Double.longBitsToDouble(bits));
+				double updated = (average == 0) ? nanos : average + LATENCY_WEIGHT * (nanos - average);
+				return Double.doubleToLongBits(updated);
+			});
+			this.lastSample = System.nanoTime();
+		}
+
+		private double decay(double average) {
+			double halfLives = (double) (System.nanoTime() - this.lastSample)
+					/ LoadBalancingContextSource.this.latencyHalfLifeNanos;
+			return average * Math.pow(0.5, halfLives);
+		}
+
+	}
+
+}
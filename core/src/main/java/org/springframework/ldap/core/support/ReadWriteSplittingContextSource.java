@@ -0,0 +1,127 @@
+/*
+ * Copyright 2006-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ldap.core.support;
+
+import java.time.Duration;
+
+import javax.naming.directory.DirContext;
+
+import org.springframework.ldap.core.ContextSource;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link ContextSource} taking read-write contexts from a primary server and
+ * read-only contexts from replicas, so that read throughput scales with the number of
+ * replicas without changing the code using the contexts.
+ * <p>
+ * Since replicas lag behind the primary, a thread may not find what it just wrote when
+ * reading from a replica. With a {@link #setReadYourWritesWindow(Duration) read your
+ * writes window}, read-only contexts are taken from the primary as well for that long
+ * after the same thread closed a read-write context. Within a
+ * {@link org.springframework.ldap.transaction.compensating.manager.ContextSourceTransactionManager
+ * transaction}, the transaction's read-write context is used for reads anyway.
+ * <p>
+ * Authentication contexts are taken from the replicas, unless
+ * {@link #setAuthenticateOnPrimary(boolean) configured} otherwise, for instance so that
+ * changed passwords take effect immediately.
+ *
+ * @since 4.2
+ * @see LoadBalancingContextSource
+ */
+public class ReadWriteSplittingContextSource extends DelegatingBaseLdapPathContextSourceSupport
+		implements ContextSource {
+
+	private final ThreadLocal<Long> lastWrite = new ThreadLocal<>();
+
+	private final ContextSource primary;
+
+	private final ContextSource replicas;
+
+	private long readYourWritesNanos;
+
+	private boolean authenticateOnPrimary;
+
+	/**
+	 * Create a context source splitting reads and writes.
+	 * @param primary the context source of the primary server, for read-write contexts.
+	 * @param replicas the context source of the replicas, for read-only contexts,
+	 * typically a {@link LoadBalancingContextSource}.
+	 */
+	public ReadWriteSplittingContextSource(ContextSource primary, ContextSource replicas) {
+		Assert.notNull(primary, "primary cannot be null");
+		Assert.notNull(replicas, "replicas cannot be null");
+		this.primary = primary;
+		this.replicas = replicas;
+	}
+
+	/**
+	 * Set how long after closing a read-write context a thread keeps reading from the
+	 * primary. Default is {@link Duration#ZERO}, always reading from the replicas.
+	 * @param readYourWritesWindow the time reads stick to the primary after a write,
+	 * typically somewhat longer than the replication lag.
+	 */
+	public void setReadYourWritesWindow(Duration readYourWritesWindow) {
+		Assert.isTrue(!readYourWritesWindow.isNegative(), "readYourWritesWindow cannot be negative");
+		this.readYourWritesNanos = readYourWritesWindow.toNanos();
+	}
+
+	/**
+	 * Set whether authentication contexts are taken from the primary. Default is
+	 * {@code false}, taking them from the replicas.
+	 * @param authenticateOnPrimary {@code true} to authenticate against the primary.
+	 */
+	public void setAuthenticateOnPrimary(boolean authenticateOnPrimary) {
+		this.authenticateOnPrimary = authenticateOnPrimary;
+	}
+
+	@Override
+	public DirContext getReadOnlyContext() {
+		return (hasWrittenRecently() ? this.primary : this.replicas).getReadOnlyContext();
+	}
+
+	@Override
+	public DirContext getReadWriteContext() {
+		DirContext ctx = this.primary.getReadWriteContext();
+		if (this.readYourWritesNanos == 0) {
+			return ctx;
+		}
+		return ReleasingDirContexts.wrap(ctx, () -> this.lastWrite.set(System.nanoTime()));
+	}
+
+	@Override
+	public DirContext getContext(String principal, String credentials) {
+		return (this.authenticateOnPrimary ? this.primary : this.replicas).getContext(principal, credentials);
+	}
+
+	@Override
+	protected ContextSource getTarget() {
+		return this.primary;
+	}
+
+	private boolean hasWrittenRecently() {
+		Long lastWrite = this.lastWrite.get();
+		if (lastWrite == null) {
+			return false;
+		}
+		if (System.nanoTime() - lastWrite < this.readYourWritesNanos) {
+			return true;
+		}
+		this.lastWrite.remove();
+		return false;
+	}
+
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2006-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ldap.core.support;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.naming.NamingException;
+import javax.naming.directory.DirContext;
+import javax.naming.ldap.LdapContext;
+
+/**
+ * Context wrappers running a callback the first time the target context is closed.
+ *
+ * @since 4.2
+ */
+final class ReleasingDirContexts {
+
+	private ReleasingDirContexts() {
+	}
+
+	/**
+	 * Wrap the given context so that the given callback runs when it is first closed.
+	 * @param target the context to wrap.
+	 * @param release the callback to run once, after closing the target context.
+	 * @return the wrapped context, an {@link LdapContext} if the target is one.
+	 */
+	static DirContext wrap(DirContext target, Runnable release) {
+		AtomicBoolean released = new AtomicBoolean();
+		Runnable releaseOnce = () -> {
+			if (released.compareAndSet(false, true)) {
+				release.run();
+			}
+		};
+		if (target instanceof LdapContext ldapContext) {
+			return new ReleasingLdapContext(ldapContext, releaseOnce);
+		}
+		return new ReleasingDirContext(target, releaseOnce);
+	}
+
+	private static final class ReleasingDirContext extends AbstractDelegatingDirContext {
+
+		private final Runnable release;
+
+		ReleasingDirContext(DirContext target, Runnable release) {
+			super(target);
+			this.release = release;
+		}
+
+		@Override
+		public void close() throws NamingException {
+			try {
+				super.close();
+			}
+			finally {
+				this.release.run();
+			}
+		}
+
+	}
+
+	private static final class ReleasingLdapContext extends AbstractDelegatingLdapContext {
+
+		private final Runnable release;
+
+		ReleasingLdapContext(LdapContext target, Runnable release) {
+			super(target);
+			this.release = release;
+		}
+
+		@Override
+		public void close() throws NamingException {
+			try {
+				super.close();
+			}
+			finally {
+				this.release.run();
+			}
+		}
+
+	}
+
+}
@@ -39,7 +39,9 @@ import org.springframework.ldap.odm.annotations.Attribute;
 import org.springframework.ldap.odm.annotations.DnAttribute;
 import org.springframework.ldap.odm.annotations.Id;
 import org.springframework.ldap.odm.annotations.Transient;
+import org.springframework.ldap.support.LdapSchema;
 import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
 
 /*
  * Extract attribute meta-data from the @Attribute annotation, the @Id annotation
@@ -273,6 +275,24 @@ import org.springframework.util.Assert;
 		}
 	}
 
+	// Complete the syntax and binary type from the schema where the @Attribute
+	// annotation does not specify them
+	void applySchema(LdapSchema schema) {
+		if (this.isTransient || this.isId || this.name == null) {
+			return;
+		}
+		LdapSchema.AttributeType attributeType = schema.getAttributeType(this.name.toString());
+		if (attributeType == null) {
+			return;
+		}
+		if (!StringUtils.hasText(this.syntax) && attributeType.getSyntax() != null) {
+			this.syntax = attributeType.getSyntax();
+		}
+		if (attributeType.isBinary() && this.valueClass == byte[].class) {
+			this.isBinary = true;
+		}
+	}
+
 	String getSyntax() {
 		Assert.notNull(this.syntax, "This attribute does not have a syntax, it may be an @Id");
 		return Objects.requireNonNull(this.syntax);
@@ -51,6 +51,7 @@ import org.springframework.ldap.odm.core.ObjectDirectoryMapper;
 import org.springframework.ldap.odm.typeconversion.ConverterManager;
 import org.springframework.ldap.odm.typeconversion.impl.ConversionServiceConverterManager;
 import org.springframework.ldap.support.LdapNameBuilder;
+import org.springframework.ldap.support.LdapSchema;
 import org.springframework.ldap.support.LdapUtils;
 import org.springframework.util.Assert;
 import org.springframework.util.ReflectionUtils;
@@ -71,6 +72,8 @@ public class DefaultObjectDirectoryMapper implements ObjectDirectoryMapper {
 	// The converter manager to use to translate values between LDAP and Java
 	private ConverterManager converterManager;
 
+	private @Nullable LdapSchema schema;
+
 	private static final String OBJECT_CLASS_ATTRIBUTE = "objectclass";
 
 	private static final CaseIgnoreString OBJECT_CLASS_ATTRIBUTE_CI = new CaseIgnoreString(OBJECT_CLASS_ATTRIBUTE);
@@ -103,6 +106,21 @@ public class DefaultObjectDirectoryMapper implements ObjectDirectoryMapper {
 		this.converterManager = new ConversionServiceConverterManager(conversionService);
 	}
 
+	/**
+	 * Use this {@link LdapSchema} to complete the metadata of managed classes. The
+	 * syntax of attributes whose {@code @Attribute} annotation does not specify one is
+	 * then taken from the schema when a class is first managed, so that converters
+	 * registered for that syntax are used, and {@code byte[]} fields mapped to
+	 * attributes with a binary syntax are treated as binary.
+	 * @param schema the schema, or {@code null} to rely on the annotations only
+	 * @since 4.2
+	 * @see org.springframework.ldap.core.support.AbstractContextSource#getSchema()
+	 */
+	public void setSchema(@Nullable LdapSchema schema) {
+		this.schema = schema;
+		this.metaDataMap.clear();
+	}
+
 	// A map of managed classes to to meta data about those classes
 	private final ConcurrentMap<Class<?>, EntityData> metaDataMap = new ConcurrentHashMap<>();
 
@@ -154,6 +172,11 @@ public class DefaultObjectDirectoryMapper implements ObjectDirectoryMapper {
 
 		// Extract the meta-data from the class
 		ObjectMetaData metaData = new ObjectMetaData(managedClass);
+		if (this.schema != null) {
+			for (Field field : metaData) {
+				metaData.getAttribute(field).applySchema(this.schema);
+			}
+		}
 
 		// Check we can construct the target type - it must have a zero argument public
 		// constructor
@@ -21,7 +21,7 @@ import javax.naming.directory.DirContext;
 import org.springframework.ldap.core.ContextSource;
 
 /**
- * An enum representing the two types of {@link DirContext}s that can be returned by a
+ * An enum representing the types of {@link DirContext}s that can be returned by a
  * {@link ContextSource}.
  *
  * @author Eric Dalquist
@@ -50,4 +50,11 @@ public final class DirContextType {
 	 */
 	public static final DirContextType READ_WRITE = new DirContextType("READ_WRITE");
 
+	/**
+	 * The type of {@link DirContext} returned by
+	 * {@link ContextSource#getContext(String, String)}
+	 * @since 4.2
+	 */
+	public static final DirContextType AUTHENTICATION = new DirContextType("AUTHENTICATION");
+
 }
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2006-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ldap.pool2.factory;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.pool2.impl.GenericKeyedObjectPool;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.ldap.pool2.DirContextType;
+import org.springframework.util.Assert;
+
+/**
+ * Adjusts the maximum number of contexts per type of a pool as configured by an
+ * {@link AdaptivePoolSizing}, from the borrow wait times, borrowed contexts and waiting
+ * threads observed since the previous adjustment.
+ *
+ * @since 4.2
+ */
+final class AdaptivePoolSizer implements Runnable {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(AdaptivePoolSizer.class);
+
+	private static final List<DirContextType> DIR_CONTEXT_TYPES = List.of(DirContextType.READ_ONLY,
+			DirContextType.READ_WRITE);
+
+	private final GenericKeyedObjectPool<Object, Object> pool;
+
+	private final AdaptivePoolSizing sizing;
+
+	private final int maxIdlePerKey;
+
+	private final AtomicLong maxWaitNanos = new AtomicLong();
+
+	private final AtomicInteger peakActive = new AtomicInteger();
+
+	private @Nullable ScheduledExecutorService scheduler;
+
+	AdaptivePoolSizer(GenericKeyedObjectPool<Object, Object> pool, AdaptivePoolSizing sizing) {
+		Assert.isTrue(sizing.getMinTotalPerKey() <= sizing.getMaxTotalPerKey(),
+				"minTotalPerKey cannot be greater than maxTotalPerKey");
+		this.pool = pool;
+		this.sizing = sizing;
+		this.maxIdlePerKey = pool.getMaxIdlePerKey();
+		int maxTotalPerKey = pool.getMaxTotalPerKey();
+		resize((maxTotalPerKey < 0) ? sizing.getMaxTotalPerKey() : bound(maxTotalPerKey));
+	}
+
+	/**
+	 * Start adjusting the pool every {@link AdaptivePoolSizing#getInterval() interval}.
+	 */
+	synchronized void start() {
+		if (this.scheduler == null) {
+			ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor((runnable) -> {
+				Thread thread = new Thread(runnable, "ldap-pool-sizer");
+				thread.setDaemon(true);
+				return thread;
+			});
+			long interval = this.sizing.getInterval().toMillis();
+			scheduler.scheduleWithFixedDelay(this, interval, interval, TimeUnit.MILLISECONDS);
+			this.scheduler = scheduler;
+		}
+	}
+
+	synchronized void stop() {
+		if (this.scheduler != null) {
+			this.scheduler.shutdownNow();
+			this.scheduler = null;
+		}
+	}
+
+	/**
+	 * Record a borrow from the pool.
+	 * @param dirContextType the type of the borrowed context.
+	 * @param waitNanos how long the borrow waited for a context, not counting its
+	 * creation and validation.
+	 */
+	void recordBorrow(DirContextType dirContextType, long waitNanos) {
+		this.maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+		this.peakActive.accumulateAndGet(this.pool.getNumActive(dirContextType), Math::max);
+	}
+
+	@Override
+	public void run() {
+		try {
+			adjust();
+		}
+		catch (RuntimeException ex) {
+			LOGGER.warn("Failed to adjust the pool size", ex);
+		}
+	}
+
+	/**
+	 * Grow the pool by half if a borrow took longer than the target wait time or too
+	 * many threads are waiting, or shrink it by a quarter, but not below the most
+	 * contexts borrowed at once, if utilisation is low.
+	 */
+	void adjust() {
+		int current = this.pool.getMaxTotalPerKey();
+		long maxWaitNanos = this.maxWaitNanos.getAndSet(0);
+		int peakActive = this.peakActive.getAndSet(0);
+		int waiters = 0;
+		for (DirContextType dirContextType : DIR_CONTEXT_TYPES) {
+			peakActive = Math.max(peakActive, this.pool.getNumActive(dirContextType));
+			waiters += getNumWaiters(dirContextType);
+		}
+		int target = current;
+		if (maxWaitNanos > this.sizing.getTargetBorrowWait().toNanos() || waiters > this.sizing.getTargetWaiters()) {
+			target = bound(current + Math.max(1, current / 2));
+		}
+		else if (peakActive < current * this.sizing.getLowUtilization()) {
+			target = bound(Math.max(peakActive, current - Math.max(1, current / 4)));
+		}
+		if (target == current) {
+			return;
+		}
+		LOGGER.debug("Resizing pool from {} to {} contexts per type; waited up to {} ms, {} waiting, {} borrowed",
+				current, target, TimeUnit.NANOSECONDS.toMillis(maxWaitNanos), waiters, peakActive);
+		resize(target);
+		if (target > current) {
+			serveWaiters(target - current);
+		}
+	}
+
+	private void resize(int maxTotalPerKey) {
+		this.pool.setMaxTotalPerKey(maxTotalPerKey);
+		this.pool.setMaxIdlePerKey((this.maxIdlePerKey < 0) ? maxTotalPerKey
+				: Math.min(this.maxIdlePerKey, maxTotalPerKey));
+	}
+
+	// threads already waiting only get contexts returned to the pool, so add some
+	private void serveWaiters(int growth) {
+		for (DirContextType dirContextType : DIR_CONTEXT_TYPES) {
+			for (int i = Math.min(growth, getNumWaiters(dirContextType)); i > 0; i--) {
+				try {
+					this.pool.addObject(dirContextType);
+				}
+				catch (Exception ex) {
+					LOGGER.debug("Failed to add a {} context for waiting threads", dirContextType, ex);
+					break;
+				}
+			}
+		}
+	}
+
+	private int getNumWaiters(DirContextType dirContextType) {
+		return this.pool.getNumWaitersByKey().getOrDefault(dirContextType.toString(), 0);
+	}
+
+	private int bound(int maxTotalPerKey) {
+		return Math.max(this.sizing.getMinTotalPerKey(), Math.min(this.sizing.getMaxTotalPerKey(), maxTotalPerKey));
+	}
+
+}
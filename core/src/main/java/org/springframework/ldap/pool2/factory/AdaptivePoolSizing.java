@@ -0,0 +1,148 @@
+/*
+ * Copyright 2006-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ldap.pool2.factory;
+
+import java.time.Duration;
+
+import org.springframework.util.Assert;
+
+/**
+ * Configuration of the adaptive sizing of a {@link PooledContextSource}, which
+ * periodically adjusts the maximum number of contexts per type between hard bounds:
+ * growing it when threads wait too long for contexts, and shrinking it, along with the
+ * idle capacity, when most of it goes unused.
+ *
+ * @since 4.2
+ * @see PooledContextSource#setAdaptivePoolSizing(AdaptivePoolSizing)
+ */
+public class AdaptivePoolSizing {
+
+	private int minTotalPerKey = 1;
+
+	private int maxTotalPerKey = 64;
+
+	private Duration targetBorrowWait = Duration.ofMillis(10);
+
+	private int targetWaiters = 0;
+
+	private double lowUtilization = 0.5;
+
+	private Duration interval = Duration.ofSeconds(10);
+
+	/**
+	 * @return the lowest maximum number of contexts per type
+	 */
+	public int getMinTotalPerKey() {
+		return this.minTotalPerKey;
+	}
+
+	/**
+	 * Set the lowest the maximum number of contexts per type is shrunk to. Default is 1.
+	 * @param minTotalPerKey the hard lower bound.
+	 */
+	public void setMinTotalPerKey(int minTotalPerKey) {
+		Assert.isTrue(minTotalPerKey > 0, "minTotalPerKey must be positive");
+		this.minTotalPerKey = minTotalPerKey;
+	}
+
+	/**
+	 * @return the highest maximum number of contexts per type
+	 */
+	public int getMaxTotalPerKey() {
+		return this.maxTotalPerKey;
+	}
+
+	/**
+	 * Set the highest the maximum number of contexts per type is grown to. Default is
+	 * 64.
+	 * @param maxTotalPerKey the hard upper bound.
+	 */
+	public void setMaxTotalPerKey(int maxTotalPerKey) {
+		Assert.isTrue(maxTotalPerKey > 0, "maxTotalPerKey must be positive");
+		this.maxTotalPerKey = maxTotalPerKey;
+	}
+
+	/**
+	 * @return the longest acceptable borrow wait time
+	 */
+	public Duration getTargetBorrowWait() {
+		return this.targetBorrowWait;
+	}
+
+	/**
+	 * Set the longest time a thread should wait for a context. The pool grows when a
+	 * borrow waited longer during the last interval. The time spent creating and
+	 * validating the borrowed context does not count as waiting. Default is 10
+	 * milliseconds.
+	 * @param targetBorrowWait the longest acceptable borrow wait time.
+	 */
+	public void setTargetBorrowWait(Duration targetBorrowWait) {
+		Assert.isTrue(!targetBorrowWait.isNegative(), "targetBorrowWait cannot be negative");
+		this.targetBorrowWait = targetBorrowWait;
+	}
+
+	/**
+	 * @return the highest acceptable number of waiting threads
+	 */
+	public int getTargetWaiters() {
+		return this.targetWaiters;
+	}
+
+	/**
+	 * Set how many threads may wait for a context. The pool grows when more are waiting
+	 * at the end of an interval. Default is 0.
+	 * @param targetWaiters the highest acceptable number of waiting threads.
+	 */
+	public void setTargetWaiters(int targetWaiters) {
+		Assert.isTrue(targetWaiters >= 0, "targetWaiters cannot be negative");
+		this.targetWaiters = targetWaiters;
+	}
+
+	/**
+	 * @return the utilisation below which the pool shrinks
+	 */
+	public double getLowUtilization() {
+		return this.lowUtilization;
+	}
+
+	/**
+	 * Set the fraction of the maximum number of contexts per type below which the pool
+	 * shrinks, when the most contexts of a type borrowed at once during the last interval
+	 * stayed below it. Default is 0.5.
+	 * @param lowUtilization the low utilisation threshold, between 0 and 1.
+	 */
+	public void setLowUtilization(double lowUtilization) {
+		Assert.isTrue(lowUtilization >= 0 && lowUtilization <= 1, "lowUtilization must be between 0 and 1");
+		this.lowUtilization = lowUtilization;
+	}
+
+	/**
+	 * @return the time between adjustments
+	 */
+	public Duration getInterval() {
+		return this.interval;
+	}
+
+	/**
+	 * Set how often the pool size is adjusted. Default is 10 seconds.
+	 * @param interval the time between adjustments.
+	 */
+	public void setInterval(Duration interval) {
+		Assert.isTrue(interval.compareTo(Duration.ZERO) > 0, "interval must be positive");
+		this.interval = interval;
+	}
+
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2006-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ldap.pool2.factory;
+
+import java.time.Duration;
+
+import org.springframework.util.Assert;
+
+/**
+ * Configuration of the background validation of the idle contexts of a
+ * {@link PooledContextSource}, which takes validation off the request path: idle
+ * contexts are validated on a background thread at jittered intervals, and contexts are
+ * only validated when borrowed if they were idle for longer than a threshold.
+ *
+ * @since 4.2
+ * @see PooledContextSource#setBackgroundValidation(BackgroundValidation)
+ * @see org.springframework.ldap.pool2.validation.WhoAmIDirContextValidator
+ */
+public class BackgroundValidation {
+
+	private Duration interval = Duration.ofSeconds(30);
+
+	private double jitter = 0.2;
+
+	private Duration borrowIdleThreshold = Duration.ofMinutes(1);
+
+	/**
+	 * @return the average time between validation runs
+	 */
+	public Duration getInterval() {
+		return this.interval;
+	}
+
+	/**
+	 * Set the average time between validation runs. Each run validates up to
+	 * {@link PoolConfig#setNumTestsPerEvictionRun(int) numTestsPerEvictionRun} idle
+	 * contexts, 3 by default, not every idle context, and, like the evictor, destroys
+	 * those that are invalid or idle for too long. Default is 30 seconds.
+	 * @param interval the average time between runs.
+	 */
+	public void setInterval(Duration interval) {
+		Assert.isTrue(interval.compareTo(Duration.ZERO) > 0, "interval must be positive");
+		this.interval = interval;
+	}
+
+	/**
+	 * @return the fraction the interval is randomly varied by
+	 */
+	public double getJitter() {
+		return this.jitter;
+	}
+
+	/**
+	 * Set the fraction the interval is randomly varied by, in both directions, so that
+	 * the validation runs of several pools do not hit the server together. Default is
+	 * 0.2.
+	 * @param jitter the jitter, from 0 (included) to 1 (excluded).
+	 */
+	public void setJitter(double jitter) {
+		Assert.isTrue(jitter >= 0 && jitter < 1, "jitter must be at least 0 and less than 1");
+		this.jitter = jitter;
+	}
+
+	/**
+	 * @return the idle time above which contexts are validated when borrowed
+	 */
+	public Duration getBorrowIdleThreshold() {
+		return this.borrowIdleThreshold;
+	}
+
+	/**
+	 * Set how long a context must have been idle to be validated when borrowed. Contexts
+	 * returned more recently are handed out without validation. Default is 1 minute.
+	 * @param borrowIdleThreshold the idle time above which contexts are validated when
+	 * borrowed.
+	 */
+	public void setBorrowIdleThreshold(Duration borrowIdleThreshold) {
+		Assert.isTrue(!borrowIdleThreshold.isNegative(), "borrowIdleThreshold cannot be negative");
+		this.borrowIdleThreshold = borrowIdleThreshold;
+	}
+
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2006-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ldap.pool2.factory;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.pool2.impl.GenericKeyedObjectPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Validates the idle contexts of a pool on a background thread, at intervals randomly
+ * varied as configured by a {@link BackgroundValidation}, by running an eviction pass
+ * with {@link GenericKeyedObjectPool#getTestWhileIdle() testWhileIdle} enabled. While
+ * running, {@code testWhileIdle} and {@code testOnBorrow} are enabled on the pool; they
+ * are restored to their previous values when stopped.
+ *
+ * @since 4.2
+ */
+final class BackgroundValidator implements Runnable {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(BackgroundValidator.class);
+
+	private final GenericKeyedObjectPool<Object, Object> pool;
+
+	private final BackgroundValidation validation;
+
+	private final boolean testWhileIdle;
+
+	private final boolean testOnBorrow;
+
+	private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor((runnable) -> {
+		Thread thread = new Thread(runnable, "ldap-pool-validator");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	BackgroundValidator(GenericKeyedObjectPool<Object, Object> pool, BackgroundValidation validation) {
+		this.pool = pool;
+		this.validation = validation;
+		this.testWhileIdle = pool.getTestWhileIdle();
+		this.testOnBorrow = pool.getTestOnBorrow();
+	}
+
+	void start() {
+		this.pool.setTestWhileIdle(true);
+		this.pool.setTestOnBorrow(true);
+		schedule();
+	}
+
+	void stop() {
+		this.scheduler.shutdownNow();
+		this.pool.setTestWhileIdle(this.testWhileIdle);
+		this.pool.setTestOnBorrow(this.testOnBorrow);
+	}
+
+	@Override
+	public void run() {
+		try {
+			this.pool.evict();
+		}
+		catch (Exception ex) {
+			LOGGER.warn("Failed to validate idle pooled contexts", ex);
+		}
+		schedule();
+	}
+
+	/**
+	 * @return the delay until the next run in nanoseconds, the interval varied by up to
+	 * the jitter in both directions
+	 */
+	long nextDelay() {
+		double jitter = this.validation.getJitter();
+		double factor = (jitter > 0) ? ThreadLocalRandom.current().nextDouble(1 - jitter, 1 + jitter) : 1;
+		return (long) (this.validation.getInterval().toNanos() * factor);
+	}
+
+	private void schedule() {
+		try {
+			this.scheduler.schedule(this, nextDelay(), TimeUnit.NANOSECONDS);
+		}
+		catch (RejectedExecutionException ex) {
+			// stopped
+		}
+	}
+
+}
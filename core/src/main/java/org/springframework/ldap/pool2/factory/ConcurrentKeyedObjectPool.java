@@ -0,0 +1,456 @@
+/*
+ * Copyright 2006-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ldap.pool2.factory;
+
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.pool2.KeyedObjectPool;
+import org.apache.commons.pool2.KeyedPooledObjectFactory;
+import org.apache.commons.pool2.PooledObject;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.util.Assert;
+
+/**
+ * A {@link KeyedObjectPool} that does not lock on borrow and return.
+ * <p>
+ * The idle objects of each key are kept in a lock-free deque, and the number of objects
+ * borrowed per key and in total is bounded by semaphores. Borrowers waiting for an
+ * object park rather than block on a monitor, so waiting virtual threads do not pin
+ * their carrier. The {@link PoolConfig} settings are honored with these differences:
+ * {@code maxTotal} bounds the number of objects borrowed at the same time rather than
+ * the number of objects in the pool, the eviction policy is fixed to the default one,
+ * and JMX is not supported.
+ *
+ * @since 4.2
+ */
+final class ConcurrentKeyedObjectPool implements KeyedObjectPool<Object, Object> {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ConcurrentKeyedObjectPool.class);
+
+	private final KeyedPooledObjectFactory<Object, Object> factory;
+
+	private final PoolConfig config;
+
+	private final ConcurrentMap<Object, KeyedObjects> pools = new ConcurrentHashMap<>();
+
+	private final ConcurrentMap<Identity, PooledObject<Object>> allObjects = new ConcurrentHashMap<>();
+
+	private final Semaphore totalPermits;
+
+	private final @Nullable ScheduledExecutorService evictor;
+
+	private volatile boolean closed;
+
+	ConcurrentKeyedObjectPool(KeyedPooledObjectFactory<Object, Object> factory, PoolConfig config) {
+		Assert.notNull(factory, "factory may not be null");
+		Assert.notNull(config, "config may not be null");
+		this.factory = factory;
+		this.config = config;
+		this.totalPermits = new Semaphore(limit(config.getMaxTotal()), config.isFairness());
+		long evictionPeriod = config.getTimeBetweenEvictionRunsMillis();
+		if (evictionPeriod > 0) {
+			this.evictor = Executors.newSingleThreadScheduledExecutor((runnable) -> {
+				Thread thread = new Thread(runnable, "ldap-pool-evictor");
+				thread.setDaemon(true);
+				return thread;
+			});
+			this.evictor.scheduleWithFixedDelay(this::evict, evictionPeriod, evictionPeriod, TimeUnit.MILLISECONDS);
+		}
+		else {
+			this.evictor = null;
+		}
+	}
+
+	@Override
+	public Object borrowObject(Object key) throws Exception {
+		assertOpen();
+		KeyedObjects objects = objects(key);
+		acquire(objects.permits);
+		try {
+			acquire(this.totalPermits);
+		}
+		catch (Exception ex) {
+			objects.permits.release();
+			throw ex;
+		}
+		boolean borrowed = false;
+		try {
+			PooledObject<Object> pooledObject = borrowIdleOrCreate(key, objects);
+			borrowed = true;
+			return pooledObject.getObject();
+		}
+		finally {
+			if (!borrowed) {
+				release(objects);
+			}
+		}
+	}
+
+	@Override
+	public void returnObject(Object key, Object obj) throws Exception {
+		PooledObject<Object> pooledObject = pooledObject(obj);
+		KeyedObjects objects = objects(key);
+		try {
+			objects.numActive.decrementAndGet();
+			if (this.config.isTestOnReturn() && !this.factory.validateObject(key, pooledObject)) {
+				destroy(key, pooledObject);
+				return;
+			}
+			try {
+				this.factory.passivateObject(key, pooledObject);
+			}
+			catch (Exception ex) {
+				destroy(key, pooledObject);
+				return;
+			}
+			pooledObject.deallocate();
+			addIdle(key, objects, pooledObject);
+		}
+		finally {
+			release(objects);
+		}
+	}
+
+	@Override
+	public void invalidateObject(Object key, Object obj) throws Exception {
+		PooledObject<Object> pooledObject = pooledObject(obj);
+		KeyedObjects objects = objects(key);
+		try {
+			objects.numActive.decrementAndGet();
+			destroy(key, pooledObject);
+		}
+		finally {
+			release(objects);
+		}
+	}
+
+	@Override
+	public void addObject(Object key) throws Exception {
+		assertOpen();
+		KeyedObjects objects = objects(key);
+		PooledObject<Object> pooledObject = create(key);
+		try {
+			this.factory.passivateObject(key, pooledObject);
+		}
+		catch (Exception ex) {
+			destroy(key, pooledObject);
+			throw ex;
+		}
+		addIdle(key, objects, pooledObject);
+	}
+
+	@Override
+	public void clear(Object key) {
+		KeyedObjects objects = this.pools.get(key);
+		if (objects == null) {
+			return;
+		}
+		PooledObject<Object> pooledObject;
+		while ((pooledObject = objects.pollIdle(true)) != null) {
+			destroy(key, pooledObject);
+		}
+	}
+
+	@Override
+	public void clear() {
+		for (Object key : this.pools.keySet()) {
+			clear(key);
+		}
+	}
+
+	@Override
+	public void close() {
+		this.closed = true;
+		if (this.evictor != null) {
+			this.evictor.shutdownNow();
+		}
+		clear();
+	}
+
+	@Override
+	public List<Object> getKeys() {
+		return new ArrayList<>(this.pools.keySet());
+	}
+
+	@Override
+	public int getNumActive() {
+		return this.pools.values().stream().mapToInt((objects) -> objects.numActive.get()).sum();
+	}
+
+	@Override
+	public int getNumActive(Object key) {
+		KeyedObjects objects = this.pools.get(key);
+		return (objects != null) ? objects.numActive.get() : 0;
+	}
+
+	@Override
+	public int getNumIdle() {
+		return this.pools.values().stream().mapToInt((objects) -> objects.numIdle.get()).sum();
+	}
+
+	@Override
+	public int getNumIdle(Object key) {
+		KeyedObjects objects = this.pools.get(key);
+		return (objects != null) ? objects.numIdle.get() : 0;
+	}
+
+	/**
+	 * @return the minimum number of idle objects per key
+	 */
+	int getMinIdlePerKey() {
+		return this.config.getMinIdlePerKey();
+	}
+
+	/**
+	 * @return the number of threads waiting to borrow an object
+	 */
+	int getNumWaiters() {
+		return this.pools.values().stream().mapToInt((objects) -> objects.permits.getQueueLength()).sum()
+				+ this.totalPermits.getQueueLength();
+	}
+
+	private PooledObject<Object> borrowIdleOrCreate(Object key, KeyedObjects objects) throws Exception {
+		while (true) {
+			PooledObject<Object> pooledObject = objects.pollIdle(true);
+			boolean created = false;
+			if (pooledObject == null) {
+				pooledObject = create(key);
+				created = true;
+			}
+			try {
+				this.factory.activateObject(key, pooledObject);
+			}
+			catch (Exception ex) {
+				destroy(key, pooledObject);
+				if (created) {
+					throw ex;
+				}
+				continue;
+			}
+			boolean validate = this.config.isTestOnBorrow() || (created && this.config.isTestOnCreate());
+			if (validate && !this.factory.validateObject(key, pooledObject)) {
+				destroy(key, pooledObject);
+				if (created) {
+					throw new NoSuchElementException("Unable to validate object");
+				}
+				continue;
+			}
+			pooledObject.allocate();
+			objects.numActive.incrementAndGet();
+			return pooledObject;
+		}
+	}
+
+	private PooledObject<Object> create(Object key) throws Exception {
+		PooledObject<Object> pooledObject = this.factory.makeObject(key);
+		this.allObjects.put(new Identity(pooledObject.getObject()), pooledObject);
+		return pooledObject;
+	}
+
+	private void addIdle(Object key, KeyedObjects objects, PooledObject<Object> pooledObject) {
+		int maxIdle = this.config.getMaxIdlePerKey();
+		if (this.closed || (maxIdle >= 0 && objects.numIdle.get() >= maxIdle)) {
+			destroy(key, pooledObject);
+			return;
+		}
+		objects.numIdle.incrementAndGet();
+		if (this.config.isLifo()) {
+			objects.idle.offerFirst(pooledObject);
+		}
+		else {
+			objects.idle.offerLast(pooledObject);
+		}
+	}
+
+	private void destroy(Object key, PooledObject<Object> pooledObject) {
+		this.allObjects.remove(new Identity(pooledObject.getObject()));
+		try {
+			this.factory.destroyObject(key, pooledObject);
+		}
+		catch (Exception ex) {
+			LOGGER.warn("An exception occurred while destroying '{}'", pooledObject.getObject(), ex);
+		}
+	}
+
+	private void acquire(Semaphore permits) throws InterruptedException {
+		if (!this.config.isBlockWhenExhausted()) {
+			if (!permits.tryAcquire()) {
+				throw new NoSuchElementException("Pool exhausted");
+			}
+		}
+		else if (this.config.getMaxWaitMillis() < 0) {
+			permits.acquire();
+		}
+		else if (!permits.tryAcquire(this.config.getMaxWaitMillis(), TimeUnit.MILLISECONDS)) {
+			throw new NoSuchElementException("Timeout waiting for idle object");
+		}
+	}
+
+	private void release(KeyedObjects objects) {
+		this.totalPermits.release();
+		objects.permits.release();
+	}
+
+	private KeyedObjects objects(Object key) {
+		return this.pools.computeIfAbsent(key, (k) -> new KeyedObjects());
+	}
+
+	private PooledObject<Object> pooledObject(Object obj) {
+		PooledObject<Object> pooledObject = this.allObjects.get(new Identity(obj));
+		if (pooledObject == null) {
+			throw new IllegalStateException("Object is not part of this pool");
+		}
+		return pooledObject;
+	}
+
+	private void assertOpen() {
+		if (this.closed) {
+			throw new IllegalStateException("Pool not open");
+		}
+	}
+
+	/**
+	 * Evict the idle objects that have been idle for too long, validate idle objects if
+	 * configured, and top up each key to its minimum number of idle objects.
+	 */
+	void evict() {
+		for (Object key : this.pools.keySet()) {
+			try {
+				evict(key, this.pools.get(key));
+				ensureMinIdle(key);
+			}
+			catch (Exception ex) {
+				LOGGER.warn("An exception occurred while evicting idle {} objects", key, ex);
+			}
+		}
+	}
+
+	private void evict(Object key, KeyedObjects objects) {
+		int numIdle = objects.numIdle.get();
+		int numTests = this.config.getNumTestsPerEvictionRun();
+		int examine = (numTests >= 0) ? Math.min(numTests, numIdle)
+				: (int) Math.ceil(numIdle / (double) Math.abs(numTests));
+		List<PooledObject<Object>> survivors = new ArrayList<>();
+		for (int i = 0; i < examine; i++) {
+			// the oldest idle objects are at the opposite end from where they are borrowed
+			PooledObject<Object> pooledObject = objects.pollIdle(!this.config.isLifo());
+			if (pooledObject == null) {
+				break;
+			}
+			if (isEvictable(pooledObject, objects) || !isValidWhileIdle(key, pooledObject)) {
+				destroy(key, pooledObject);
+			}
+			else {
+				survivors.add(pooledObject);
+			}
+		}
+		for (PooledObject<Object> survivor : survivors) {
+			objects.numIdle.incrementAndGet();
+			if (this.config.isLifo()) {
+				objects.idle.offerLast(survivor);
+			}
+			else {
+				objects.idle.offerFirst(survivor);
+			}
+		}
+	}
+
+	private boolean isEvictable(PooledObject<Object> pooledObject, KeyedObjects objects) {
+		long idleMillis = pooledObject.getIdleDuration().toMillis();
+		long minEvictableIdle = this.config.getMinEvictableIdleTimeMillis();
+		long softMinEvictableIdle = this.config.getSoftMinEvictableIdleTimeMillis();
+		return (minEvictableIdle > 0 && idleMillis > minEvictableIdle) || (softMinEvictableIdle > 0
+				&& idleMillis > softMinEvictableIdle && objects.numIdle.get() >= this.config.getMinIdlePerKey());
+	}
+
+	private boolean isValidWhileIdle(Object key, PooledObject<Object> pooledObject) {
+		if (!this.config.isTestWhileIdle()) {
+			return true;
+		}
+		try {
+			this.factory.activateObject(key, pooledObject);
+			boolean valid = this.factory.validateObject(key, pooledObject);
+			this.factory.passivateObject(key, pooledObject);
+			return valid;
+		}
+		catch (Exception ex) {
+			return false;
+		}
+	}
+
+	private void ensureMinIdle(Object key) throws Exception {
+		int minIdle = this.config.getMinIdlePerKey();
+		while (!this.closed && getNumIdle(key) < minIdle) {
+			addObject(key);
+		}
+	}
+
+	private static int limit(int max) {
+		return (max > 0) ? max : Integer.MAX_VALUE;
+	}
+
+	private final class KeyedObjects {
+
+		private final Deque<PooledObject<Object>> idle = new ConcurrentLinkedDeque<>();
+
+		private final AtomicInteger numIdle = new AtomicInteger();
+
+		private final AtomicInteger numActive = new AtomicInteger();
+
+		private final Semaphore permits = new Semaphore(
+				limit(ConcurrentKeyedObjectPool.this.config.getMaxTotalPerKey()),
+				ConcurrentKeyedObjectPool.this.config.isFairness());
+
+		@Nullable PooledObject<Object> pollIdle(boolean first) {
+			PooledObject<Object> pooledObject = first ? this.idle.pollFirst() : this.idle.pollLast();
+			if (pooledObject != null) {
+				this.numIdle.decrementAndGet();
+			}
+			return pooledObject;
+		}
+
+	}
+
+	private record Identity(Object object) {
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof Identity other && this.object == other.object;
+		}
+
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(this.object);
+		}
+
+	}
+
+}
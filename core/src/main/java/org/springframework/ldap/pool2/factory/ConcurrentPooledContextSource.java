@@ -0,0 +1,283 @@
+/*
+ * Copyright 2006-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ldap.pool2.factory;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+import javax.naming.directory.DirContext;
+import javax.naming.ldap.LdapContext;
+
+import org.jspecify.annotations.Nullable;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.ldap.core.ContextSource;
+import org.springframework.ldap.core.support.DelegatingBaseLdapPathContextSourceSupport;
+import org.springframework.ldap.pool2.DelegatingDirContext;
+import org.springframework.ldap.pool2.DelegatingLdapContext;
+import org.springframework.ldap.pool2.DirContextType;
+import org.springframework.ldap.pool2.validation.DirContextValidator;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link ContextSource} pooling the {@link DirContext}s of another
+ * {@link ContextSource} without locking on borrow and return, for applications where
+ * many threads contend for the contexts of a {@link PooledContextSource}.
+ * <p>
+ * It is configured like a {@link PooledContextSource}, with a {@link PoolConfig} and
+ * an optional {@link DirContextValidator}, but does not use commons-pool2's
+ * {@code GenericKeyedObjectPool}. The idle contexts of each {@link DirContextType} are
+ * kept in a lock-free deque and the number of borrowed contexts is bounded by
+ * semaphores, so threads waiting for a context park instead of blocking on a monitor,
+ * which suits virtual threads. Unlike with a {@link PooledContextSource},
+ * {@link PoolConfig#setMaxTotal(int) maxTotal} bounds the number of contexts borrowed
+ * at the same time rather than the number of pooled contexts, the eviction policy
+ * cannot be changed, and JMX is not supported.
+ *
+ * @since 4.2
+ */
+public class ConcurrentPooledContextSource extends DelegatingBaseLdapPathContextSourceSupport
+		implements ContextSource, InitializingBean, DisposableBean {
+
+	private final DirContextPooledObjectFactory dirContextPooledObjectFactory;
+
+	private final PoolConfig poolConfig;
+
+	private final ConcurrentKeyedObjectPool keyedObjectPool;
+
+	private volatile @Nullable ConcurrentKeyedObjectPool authenticationPool;
+
+	private @Nullable Duration warmUpTimeout;
+
+	/**
+	 * Create a new pooling context source.
+	 * @param contextSource the context source to get the pooled contexts from.
+	 * @param poolConfig the pool configuration, or {@code null} for the defaults.
+	 */
+	public ConcurrentPooledContextSource(ContextSource contextSource, @Nullable PoolConfig poolConfig) {
+		Assert.notNull(contextSource, "contextSource may not be null");
+		this.dirContextPooledObjectFactory = new DirContextPooledObjectFactory(contextSource);
+		this.poolConfig = (poolConfig != null) ? poolConfig : new PoolConfig();
+		this.keyedObjectPool = new ConcurrentKeyedObjectPool(this.dirContextPooledObjectFactory, this.poolConfig);
+	}
+
+	/**
+	 * @return the poolConfig
+	 */
+	public PoolConfig getPoolConfig() {
+		return this.poolConfig;
+	}
+
+	/**
+	 * @return the contextSource
+	 */
+	public ContextSource getContextSource() {
+		return this.dirContextPooledObjectFactory.getContextSource();
+	}
+
+	/**
+	 * @return the dirContextValidator
+	 */
+	public DirContextValidator getDirContextValidator() {
+		return this.dirContextPooledObjectFactory.getDirContextValidator();
+	}
+
+	/**
+	 * @param dirContextValidator the dirContextValidator to set
+	 */
+	public void setDirContextValidator(DirContextValidator dirContextValidator) {
+		this.dirContextPooledObjectFactory.setDirContextValidator(dirContextValidator);
+	}
+
+	/**
+	 * Configure the exception classes that are to be interpreted as non-transient with
+	 * regards to eager context invalidation.
+	 * @param nonTransientExceptions the exception classes that should be interpreted as
+	 * non-transient with regards to eager invalidation.
+	 * @see PooledContextSource#setNonTransientExceptions(Collection)
+	 */
+	public void setNonTransientExceptions(Collection<Class<? extends Throwable>> nonTransientExceptions) {
+		this.dirContextPooledObjectFactory.setNonTransientExceptions(nonTransientExceptions);
+	}
+
+	/**
+	 * Set up a separate pool of contexts for authenticating users with
+	 * {@link #getContext(String, String)}.
+	 * @param authenticationPoolConfig the configuration of the authentication pool, or
+	 * {@code null} to not support authentication.
+	 * @see PooledContextSource#setAuthenticationPoolConfig(PoolConfig)
+	 */
+	public void setAuthenticationPoolConfig(@Nullable PoolConfig authenticationPoolConfig) {
+		ConcurrentKeyedObjectPool previous = this.authenticationPool;
+		this.authenticationPool = (authenticationPoolConfig != null)
+				? new ConcurrentKeyedObjectPool(this.dirContextPooledObjectFactory, authenticationPoolConfig) : null;
+		if (previous != null) {
+			previous.close();
+		}
+	}
+
+	/**
+	 * Set how long to wait at startup for the pool to open its minimum number of idle
+	 * contexts. Default is {@code null}, not opening any context at startup.
+	 * @param warmUpTimeout how long to wait for the contexts to be opened, or
+	 * {@code null}.
+	 * @see PooledContextSource#setWarmUpTimeout(Duration)
+	 */
+	public void setWarmUpTimeout(@Nullable Duration warmUpTimeout) {
+		this.warmUpTimeout = warmUpTimeout;
+	}
+
+	/**
+	 * Open the minimum number of idle contexts of each type, in parallel.
+	 * @param timeout how long to wait for the contexts to be opened.
+	 * @return the failures; empty if all contexts were opened
+	 * @see PooledContextSource#warmUp(Duration)
+	 */
+	public List<Throwable> warmUp(Duration timeout) {
+		int minIdle = this.keyedObjectPool.getMinIdlePerKey();
+		PoolWarmUp warmUp = new PoolWarmUp().add(this.keyedObjectPool, DirContextType.READ_ONLY, minIdle)
+			.add(this.keyedObjectPool, DirContextType.READ_WRITE, minIdle);
+		ConcurrentKeyedObjectPool authenticationPool = this.authenticationPool;
+		if (authenticationPool != null) {
+			warmUp.add(authenticationPool, DirContextType.AUTHENTICATION, authenticationPool.getMinIdlePerKey());
+		}
+		return warmUp.await(timeout);
+	}
+
+	/**
+	 * @return the number of idle contexts
+	 */
+	public int getNumIdle() {
+		return this.keyedObjectPool.getNumIdle();
+	}
+
+	/**
+	 * @return the number of idle read-only contexts
+	 */
+	public int getNumIdleRead() {
+		return this.keyedObjectPool.getNumIdle(DirContextType.READ_ONLY);
+	}
+
+	/**
+	 * @return the number of idle read-write contexts
+	 */
+	public int getNumIdleWrite() {
+		return this.keyedObjectPool.getNumIdle(DirContextType.READ_WRITE);
+	}
+
+	/**
+	 * @return the number of borrowed contexts
+	 */
+	public int getNumActive() {
+		return this.keyedObjectPool.getNumActive();
+	}
+
+	/**
+	 * @return the number of borrowed read-only contexts
+	 */
+	public int getNumActiveRead() {
+		return this.keyedObjectPool.getNumActive(DirContextType.READ_ONLY);
+	}
+
+	/**
+	 * @return the number of borrowed read-write contexts
+	 */
+	public int getNumActiveWrite() {
+		return this.keyedObjectPool.getNumActive(DirContextType.READ_WRITE);
+	}
+
+	/**
+	 * @return the number of threads waiting for a context
+	 */
+	public int getNumWaiters() {
+		return this.keyedObjectPool.getNumWaiters();
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		if (this.warmUpTimeout != null) {
+			warmUp(this.warmUpTimeout);
+		}
+	}
+
+	@Override
+	public void destroy() {
+		this.keyedObjectPool.close();
+		ConcurrentKeyedObjectPool authenticationPool = this.authenticationPool;
+		if (authenticationPool != null) {
+			authenticationPool.close();
+		}
+	}
+
+	@Override
+	protected ContextSource getTarget() {
+		return getContextSource();
+	}
+
+	@Override
+	public DirContext getReadOnlyContext() {
+		return getContext(DirContextType.READ_ONLY);
+	}
+
+	@Override
+	public DirContext getReadWriteContext() {
+		return getContext(DirContextType.READ_WRITE);
+	}
+
+	/**
+	 * Gets a DirContext of the specified type from the pool.
+	 * @param dirContextType The type of context to return.
+	 * @return A wrapped DirContext of the specified type.
+	 * @throws DataAccessResourceFailureException If retrieving the object from the pool
+	 * throws an exception
+	 */
+	protected DirContext getContext(DirContextType dirContextType) {
+		final DirContext dirContext;
+		try {
+			dirContext = (DirContext) this.keyedObjectPool.borrowObject(dirContextType);
+		}
+		catch (Exception ex) {
+			throw new DataAccessResourceFailureException("Failed to borrow DirContext from pool.", ex);
+		}
+
+		if (dirContext instanceof LdapContext) {
+			return new DelegatingLdapContext(this.keyedObjectPool, (LdapContext) dirContext, dirContextType);
+		}
+
+		return new DelegatingDirContext(this.keyedObjectPool, dirContext, dirContextType);
+	}
+
+	/**
+	 * Authenticate by re-binding a context of the
+	 * {@link #setAuthenticationPoolConfig(PoolConfig) authentication pool} with the given
+	 * credentials.
+	 * @throws UnsupportedOperationException if no authentication pool is configured
+	 * @see PooledContextSource#getContext(String, String)
+	 */
+	@Override
+	public DirContext getContext(String principal, String credentials) {
+		ConcurrentKeyedObjectPool authenticationPool = this.authenticationPool;
+		if (authenticationPool == null) {
+			throw new UnsupportedOperationException("Not supported for this implementation");
+		}
+		return DirContextPooledObjectFactory.authenticate(authenticationPool, principal, credentials);
+	}
+
+}
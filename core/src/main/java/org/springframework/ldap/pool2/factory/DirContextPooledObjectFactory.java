@@ -16,25 +16,32 @@
 
 package org.springframework.ldap.pool2.factory;
 
-import java.lang.reflect.InvocationHandler;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.lang.reflect.Proxy;
+import java.time.Duration;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.Hashtable;
 import java.util.Set;
 
 import javax.naming.CommunicationException;
+import javax.naming.Context;
+import javax.naming.NamingException;
 import javax.naming.directory.DirContext;
+import javax.naming.ldap.LdapContext;
 
 import org.apache.commons.pool2.BaseKeyedPooledObjectFactory;
+import org.apache.commons.pool2.KeyedObjectPool;
 import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.PooledObjectState;
 import org.apache.commons.pool2.impl.DefaultPooledObject;
+import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.ldap.core.ContextSource;
-import org.springframework.ldap.core.DirContextProxy;
+import org.springframework.ldap.core.support.AbstractDelegatingDirContext;
+import org.springframework.ldap.core.support.AbstractDelegatingLdapContext;
+import org.springframework.ldap.pool2.DelegatingLdapContext;
 import org.springframework.ldap.pool2.DirContextType;
 import org.springframework.ldap.pool2.FailureAwareContext;
 import org.springframework.ldap.pool2.validation.DefaultDirContextValidator;
@@ -45,8 +52,12 @@ import org.springframework.util.Assert;
 /**
  * Factory that creates {@link DirContext} instances for pooling via a configured
  * {@link ContextSource}. The {@link DirContext}s are keyed based on if they are read only
- * or read/write. The expected key type is the
+ * or read/write, or used for authentication. The expected key type is the
  * {@link org.springframework.ldap.pool2.DirContextType} enum.
+ * <p>
+ * Authentication contexts are read only contexts that get re-bound with the credentials
+ * of the authenticating user when borrowed. They are re-bound with their original
+ * credentials when returned to the pool.
  *
  * <br>
  * <br>
@@ -88,6 +99,8 @@ class DirContextPooledObjectFactory extends BaseKeyedPooledObjectFactory<Object,
 	 */
 	protected final Logger logger = LoggerFactory.getLogger(this.getClass());
 
+	private static final String SIMPLE_AUTHENTICATION = "simple";
+
 	private static final Set<Class<? extends Throwable>> DEFAULT_NONTRANSIENT_EXCEPTIONS = new HashSet<>();
 
 	static {
@@ -100,6 +113,14 @@ class DirContextPooledObjectFactory extends BaseKeyedPooledObjectFactory<Object,
 
 	private Set<Class<? extends Throwable>> nonTransientExceptions = DEFAULT_NONTRANSIENT_EXCEPTIONS;
 
+	private final PoolMetrics metrics = new PoolMetrics();
+
+	// time spent creating and validating contexts by each thread, so that the time
+	// spent borrowing a context can be told apart from the time spent waiting for one
+	private final ThreadLocal<long[]> workNanos = ThreadLocal.withInitial(() -> new long[1]);
+
+	private volatile @Nullable Duration borrowValidationIdleThreshold;
+
 	DirContextPooledObjectFactory(ContextSource contextSource) {
 		this.contextSource = contextSource;
 	}
@@ -108,6 +129,29 @@ class DirContextPooledObjectFactory extends BaseKeyedPooledObjectFactory<Object,
 		this.nonTransientExceptions = new HashSet<>(nonTransientExceptions);
 	}
 
+	/**
+	 * @param borrowValidationIdleThreshold how long a context must have been idle to be
+	 * validated when borrowed, or {@code null} to always validate it
+	 */
+	void setBorrowValidationIdleThreshold(@Nullable Duration borrowValidationIdleThreshold) {
+		this.borrowValidationIdleThreshold = borrowValidationIdleThreshold;
+	}
+
+	/**
+	 * @return the metrics of the contexts created by this factory
+	 */
+	PoolMetrics getMetrics() {
+		return this.metrics;
+	}
+
+	/**
+	 * @return the total time the current thread spent creating and validating contexts,
+	 * in nanoseconds
+	 */
+	long getWorkNanos() {
+		return this.workNanos.get()[0];
+	}
+
 	/**
 	 * @return the contextSource
 	 */
@@ -138,10 +182,31 @@ class DirContextPooledObjectFactory extends BaseKeyedPooledObjectFactory<Object,
 		this.dirContextValidator = dirContextValidator;
 	}
 
-	private Object makeFailureAwareProxy(DirContext readOnlyContext) {
-		return Proxy.newProxyInstance(DirContextProxy.class.getClassLoader(), new Class<?>[] {
-				LdapUtils.getActualTargetClass(readOnlyContext), DirContextProxy.class, FailureAwareContext.class },
-				new FailureAwareContextProxy(readOnlyContext));
+	private Object makeFailureAwareProxy(DirContext readOnlyContext, DirContextType contextType) {
+		if (readOnlyContext instanceof LdapContext ldapContext) {
+			return new FailureAwareLdapContext(ldapContext, contextType);
+		}
+		return new FailureAwareDirContext(readOnlyContext, contextType);
+	}
+
+	private boolean isNonTransient(Exception ex) {
+		Class<? extends Exception> exceptionClass = ex.getClass();
+		for (Class<? extends Throwable> clazz : this.nonTransientExceptions) {
+			if (clazz.isAssignableFrom(exceptionClass)) {
+				if (this.logger.isDebugEnabled()) {
+					this.logger.debug(String.format(
+							"A %s - explicitly configured to be a non-transient exception - encountered; eagerly invalidating the target context.",
+							exceptionClass));
+				}
+				return true;
+			}
+		}
+		if (this.logger.isDebugEnabled()) {
+			this.logger.debug(String.format(
+					"A %s - not explicitly configured to be a non-transient exception - encountered; ignoring.",
+					exceptionClass));
+		}
+		return false;
 	}
 
 	/**
@@ -156,16 +221,35 @@ class DirContextPooledObjectFactory extends BaseKeyedPooledObjectFactory<Object,
 		Assert.isTrue(pooledObject.getObject() instanceof DirContext,
 				"The Object to validate must be of type '" + DirContext.class + "'");
 
+		final DirContextType contextType = (DirContextType) key;
+		if (isRecentlyReturned(pooledObject)) {
+			return true;
+		}
+		long start = System.nanoTime();
+		boolean valid = false;
 		try {
-			final DirContextType contextType = (DirContextType) key;
 			final DirContext dirContext = (DirContext) pooledObject.getObject();
-			return this.dirContextValidator.validateDirContext(contextType, dirContext);
+			valid = this.dirContextValidator.validateDirContext(contextType, dirContext);
+			return valid;
 		}
 		catch (Exception ex) {
 			this.logger.warn("Failed to validate '" + pooledObject.getObject() + "' due to an unexpected exception.",
 					ex);
 			return false;
 		}
+		finally {
+			long nanos = System.nanoTime() - start;
+			this.workNanos.get()[0] += nanos;
+			this.metrics.recordValidation(contextType, nanos, valid);
+		}
+	}
+
+	// contexts being borrowed again shortly after being returned are left to the
+	// background validation; new contexts are still validated on their first borrow
+	private boolean isRecentlyReturned(PooledObject<Object> pooledObject) {
+		Duration threshold = this.borrowValidationIdleThreshold;
+		return threshold != null && pooledObject.getState() == PooledObjectState.ALLOCATED
+				&& pooledObject.getBorrowedCount() > 1 && pooledObject.getIdleDuration().compareTo(threshold) < 0;
 	}
 
 	/**
@@ -215,7 +299,7 @@ class DirContextPooledObjectFactory extends BaseKeyedPooledObjectFactory<Object,
 					.debug("Created new " + DirContextType.READ_WRITE + " DirContext='" + readWriteContext + "'");
 			}
 
-			return makeFailureAwareProxy(readWriteContext);
+			return makeFailureAwareProxy(readWriteContext, contextType);
 		}
 		else if (contextType == DirContextType.READ_ONLY) {
 
@@ -225,13 +309,56 @@ class DirContextPooledObjectFactory extends BaseKeyedPooledObjectFactory<Object,
 				this.logger.debug("Created new " + DirContextType.READ_ONLY + " DirContext='" + readOnlyContext + "'");
 			}
 
-			return makeFailureAwareProxy(readOnlyContext);
+			return makeFailureAwareProxy(readOnlyContext, contextType);
+		}
+		else if (contextType == DirContextType.AUTHENTICATION) {
+			final DirContext authenticationContext = this.contextSource.getReadOnlyContext();
+			Assert.isInstanceOf(LdapContext.class, authenticationContext,
+					"Authentication contexts can only be pooled for LdapContexts");
+
+			if (this.logger.isDebugEnabled()) {
+				this.logger.debug("Created new " + contextType + " DirContext='" + authenticationContext + "'");
+			}
+
+			return makeFailureAwareProxy(authenticationContext, contextType);
 		}
 		else {
 			throw new IllegalArgumentException("Unrecognized ContextType: " + contextType);
 		}
 	}
 
+	/**
+	 * @see BaseKeyedPooledObjectFactory#makeObject(Object)
+	 *
+	 */
+	@Override
+	public PooledObject<Object> makeObject(Object key) throws Exception {
+		long start = System.nanoTime();
+		Object context;
+		try {
+			context = create(key);
+		}
+		finally {
+			this.workNanos.get()[0] += System.nanoTime() - start;
+		}
+		this.metrics.recordCreation((DirContextType) key, System.nanoTime() - start);
+		if (key == DirContextType.AUTHENTICATION) {
+			return new AuthenticationPooledObject(context, ((DirContext) context).getEnvironment());
+		}
+		return wrap(context);
+	}
+
+	/**
+	 * Re-binds authentication contexts with the credentials they were created with.
+	 * @see BaseKeyedPooledObjectFactory#passivateObject(Object, PooledObject)
+	 */
+	@Override
+	public void passivateObject(Object key, PooledObject<Object> pooledObject) throws Exception {
+		if (pooledObject instanceof AuthenticationPooledObject authenticationObject) {
+			authenticationObject.restoreIdentity();
+		}
+	}
+
 	/**
 	 * @see BaseKeyedPooledObjectFactory#wrap(Object)
 	 *
@@ -241,6 +368,102 @@ class DirContextPooledObjectFactory extends BaseKeyedPooledObjectFactory<Object,
 		return new DefaultPooledObject<>(value);
 	}
 
+	/**
+	 * Borrow an authentication context from the given pool and re-bind it with the given
+	 * credentials. Closing the returned context returns it to the pool.
+	 * @param pool the pool to borrow the context from.
+	 * @param principal the principal to bind as.
+	 * @param credentials the credentials of the principal.
+	 * @return the authenticated context.
+	 * @throws DataAccessResourceFailureException if no context can be borrowed.
+	 * @throws org.springframework.ldap.NamingException if the bind fails.
+	 */
+	static DirContext authenticate(KeyedObjectPool<Object, Object> pool, String principal, String credentials) {
+		final LdapContext ldapContext;
+		try {
+			ldapContext = (LdapContext) pool.borrowObject(DirContextType.AUTHENTICATION);
+		}
+		catch (Exception ex) {
+			throw new DataAccessResourceFailureException("Failed to borrow DirContext from pool.", ex);
+		}
+		return authenticate(pool, ldapContext, principal, credentials);
+	}
+
+	/**
+	 * Re-bind an authentication context borrowed from the given pool with the given
+	 * credentials. Closing the returned context returns it to the pool.
+	 * @param pool the pool the context was borrowed from.
+	 * @param ldapContext the borrowed context.
+	 * @param principal the principal to bind as.
+	 * @param credentials the credentials of the principal.
+	 * @return the authenticated context.
+	 * @throws org.springframework.ldap.NamingException if the bind fails.
+	 */
+	static DirContext authenticate(KeyedObjectPool<Object, Object> pool, LdapContext ldapContext, String principal,
+			String credentials) {
+		DelegatingLdapContext authenticatedContext = new DelegatingLdapContext(pool, ldapContext,
+				DirContextType.AUTHENTICATION);
+		try {
+			rebind(ldapContext, SIMPLE_AUTHENTICATION, principal, credentials);
+			return authenticatedContext;
+		}
+		catch (NamingException ex) {
+			// returning the context re-binds it with its original credentials
+			LdapUtils.closeContext(authenticatedContext);
+			throw LdapUtils.convertLdapException(ex);
+		}
+	}
+
+	/**
+	 * Re-bind the given context on its current connection.
+	 * @param ctx the context to re-bind.
+	 * @param authentication the authentication mechanism, or {@code null} for the
+	 * default.
+	 * @param principal the principal to bind as, or {@code null} for an anonymous bind.
+	 * @param credentials the credentials of the principal, or {@code null}.
+	 * @throws NamingException if the bind fails.
+	 */
+	static void rebind(LdapContext ctx, @Nullable Object authentication, @Nullable Object principal,
+			@Nullable Object credentials) throws NamingException {
+		setEnvironment(ctx, Context.SECURITY_AUTHENTICATION, authentication);
+		setEnvironment(ctx, Context.SECURITY_PRINCIPAL, principal);
+		setEnvironment(ctx, Context.SECURITY_CREDENTIALS, credentials);
+		ctx.reconnect(ctx.getConnectControls());
+	}
+
+	private static void setEnvironment(LdapContext ctx, String name, @Nullable Object value) throws NamingException {
+		if (value != null) {
+			ctx.addToEnvironment(name, value);
+		}
+		else {
+			ctx.removeFromEnvironment(name);
+		}
+	}
+
+	/**
+	 * A pooled authentication context, remembering the credentials it was created with.
+	 */
+	private static final class AuthenticationPooledObject extends DefaultPooledObject<Object> {
+
+		private final @Nullable Object authentication;
+
+		private final @Nullable Object principal;
+
+		private final @Nullable Object credentials;
+
+		AuthenticationPooledObject(Object context, Hashtable<?, ?> environment) {
+			super(context);
+			this.authentication = environment.get(Context.SECURITY_AUTHENTICATION);
+			this.principal = environment.get(Context.SECURITY_PRINCIPAL);
+			this.credentials = environment.get(Context.SECURITY_CREDENTIALS);
+		}
+
+		void restoreIdentity() throws NamingException {
+			rebind((LdapContext) getObject(), this.authentication, this.principal, this.credentials);
+		}
+
+	}
+
 	/**
 	 * Invocation handler that checks thrown exceptions against the configured
 	 * {@link #nonTransientExceptions}, marking the Context as invalid on match.
@@ -248,64 +471,53 @@ class DirContextPooledObjectFactory extends BaseKeyedPooledObjectFactory<Object,
 	 * @author Mattias Hellborg Arthursson
 	 * @since 2.0
 	 */
-	private class FailureAwareContextProxy implements InvocationHandler {
+	private final class FailureAwareDirContext extends AbstractDelegatingDirContext implements FailureAwareContext {
 
-		private final DirContext target;
+		private final DirContextType contextType;
 
 		private boolean hasFailed = false;
 
-		FailureAwareContextProxy(DirContext target) {
-			Assert.notNull(target, "Target must not be null");
-			this.target = target;
+		FailureAwareDirContext(DirContext target, DirContextType contextType) {
+			super(target);
+			this.contextType = contextType;
 		}
 
-		/*
-		 * @see java.lang.reflect.InvocationHandler#invoke(java.lang.Object,
-		 * java.lang.reflect.Method, java.lang.Object[])
-		 */
 		@Override
-		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+		public boolean hasFailed() {
+			return this.hasFailed;
+		}
 
-			String methodName = method.getName();
-			if (methodName.equals("getTargetContext")) {
-				return this.target;
-			}
-			else if (methodName.equals("hasFailed")) {
-				return this.hasFailed;
+		@Override
+		protected void onFailure(Exception ex) {
+			if (isNonTransient(ex) && !this.hasFailed) {
+				this.hasFailed = true;
+				DirContextPooledObjectFactory.this.metrics.recordInvalidation(this.contextType);
 			}
+		}
 
-			try {
-				return method.invoke(this.target, args);
-			}
-			catch (InvocationTargetException ex) {
-				Throwable targetException = ex.getTargetException();
-				Class<? extends Throwable> targetExceptionClass = targetException.getClass();
-
-				boolean nonTransientEncountered = false;
-				for (Class<? extends Throwable> clazz : DirContextPooledObjectFactory.this.nonTransientExceptions) {
-					if (clazz.isAssignableFrom(targetExceptionClass)) {
-						if (DirContextPooledObjectFactory.this.logger.isDebugEnabled()) {
-							DirContextPooledObjectFactory.this.logger.debug(String.format(
-									"A %s - explicitly configured to be a non-transient exception - encountered; eagerly invalidating the target context.",
-									targetExceptionClass));
-						}
-						nonTransientEncountered = true;
-						break;
-					}
-				}
+	}
 
-				if (nonTransientEncountered) {
-					this.hasFailed = true;
-				}
-				else {
-					if (DirContextPooledObjectFactory.this.logger.isDebugEnabled()) {
-						DirContextPooledObjectFactory.this.logger.debug(String.format(
-								"A %s - not explicitly configured to be a non-transient exception - encountered; ignoring.",
-								targetExceptionClass));
-					}
-				}
+	private final class FailureAwareLdapContext extends AbstractDelegatingLdapContext implements FailureAwareContext {
+
+		private final DirContextType contextType;
+
+		private boolean hasFailed = false;
 
-				throw targetException;
+		FailureAwareLdapContext(LdapContext target, DirContextType contextType) {
+			super(target);
+			this.contextType = contextType;
+		}
+
+		@Override
+		public boolean hasFailed() {
+			return this.hasFailed;
+		}
+
+		@Override
+		protected void onFailure(Exception ex) {
+			if (isNonTransient(ex) && !this.hasFailed) {
+				this.hasFailed = true;
+				DirContextPooledObjectFactory.this.metrics.recordInvalidation(this.contextType);
 			}
 		}
 
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2006-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ldap.pool2.factory;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.jspecify.annotations.Nullable;
+
+import org.springframework.ldap.pool2.DirContextType;
+
+/**
+ * Records the borrow wait time, creation and validation latency and non-transient
+ * invalidations of pooled contexts, by {@link DirContextType}. Nothing is recorded until
+ * the metrics are {@link #bindTo(MeterRegistry, String) bound} to a registry.
+ *
+ * @since 4.2
+ */
+final class PoolMetrics {
+
+	static final List<DirContextType> DIR_CONTEXT_TYPES = List.of(DirContextType.READ_ONLY,
+			DirContextType.READ_WRITE, DirContextType.AUTHENTICATION);
+
+	private final CompositeMeterRegistry registry = new CompositeMeterRegistry();
+
+	private volatile @Nullable Map<DirContextType, Meters> meters;
+
+	/**
+	 * Start recording to the given registry, in addition to any registry bound before.
+	 * @param registry the registry to record to.
+	 * @param pool the value of the {@code pool} tag, only used by the first call.
+	 */
+	synchronized void bindTo(MeterRegistry registry, String pool) {
+		if (this.meters == null) {
+			Map<DirContextType, Meters> meters = new HashMap<>();
+			for (DirContextType dirContextType : DIR_CONTEXT_TYPES) {
+				meters.put(dirContextType, new Meters(this.registry, pool, dirContextType));
+			}
+			this.meters = meters;
+		}
+		this.registry.add(registry);
+	}
+
+	void recordBorrow(DirContextType dirContextType, long nanos) {
+		Map<DirContextType, Meters> meters = this.meters;
+		if (meters != null) {
+			meters.get(dirContextType).borrow.record(nanos, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	void recordCreation(DirContextType dirContextType, long nanos) {
+		Map<DirContextType, Meters> meters = this.meters;
+		if (meters != null) {
+			meters.get(dirContextType).creation.record(nanos, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	void recordValidation(DirContextType dirContextType, long nanos, boolean valid) {
+		Map<DirContextType, Meters> meters = this.meters;
+		if (meters != null) {
+			Meters typeMeters = meters.get(dirContextType);
+			(valid ? typeMeters.validation : typeMeters.failedValidation).record(nanos, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	void recordInvalidation(DirContextType dirContextType) {
+		Map<DirContextType, Meters> meters = this.meters;
+		if (meters != null) {
+			meters.get(dirContextType).invalidation.increment();
+		}
+	}
+
+	private static final class Meters {
+
+		private final Timer borrow;
+
+		private final Timer creation;
+
+		private final Timer validation;
+
+		private final Timer failedValidation;
+
+		private final Counter invalidation;
+
+		Meters(MeterRegistry registry, String pool, DirContextType dirContextType) {
+			String type = dirContextType.toString();
+			this.borrow = Timer.builder("spring.ldap.pool.borrow")
+				.tags("pool", pool, "type", type)
+				.description("The time spent waiting for a pooled context, excluding its creation and validation")
+				.publishPercentileHistogram()
+				.register(registry);
+			this.creation = Timer.builder("spring.ldap.pool.creation")
+				.tags("pool", pool, "type", type)
+				.description("The time spent opening a pooled context")
+				.register(registry);
+			this.validation = validation(registry, pool, type, "valid");
+			this.failedValidation = validation(registry, pool, type, "invalid");
+			this.invalidation = Counter.builder("spring.ldap.pool.invalidations")
+				.tags("pool", pool, "type", type)
+				.description("The number of pooled contexts invalidated by a non-transient exception")
+				.register(registry);
+		}
+
+		private static Timer validation(MeterRegistry registry, String pool, String type, String outcome) {
+			return Timer.builder("spring.ldap.pool.validation")
+				.tags("pool", pool, "type", type, "outcome", outcome)
+				.description("The time spent validating a pooled context")
+				.register(registry);
+		}
+
+	}
+
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2006-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ldap.pool2.factory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.commons.pool2.KeyedObjectPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.ldap.pool2.DirContextType;
+
+/**
+ * Opens the minimum number of idle contexts of a pool in parallel, typically at
+ * startup, so that the first requests do not pay for connection setup.
+ *
+ * @since 4.2
+ */
+final class PoolWarmUp {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(PoolWarmUp.class);
+
+	private final SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("ldap-pool-warm-up-");
+
+	private final List<CompletableFuture<Void>> contexts = new ArrayList<>();
+
+	PoolWarmUp() {
+		this.executor.setVirtualThreads(Runtime.version().feature() >= 21);
+		this.executor.setDaemon(true);
+	}
+
+	/**
+	 * Open contexts of the given type until the pool holds the given number of idle
+	 * ones.
+	 * @param pool the pool to add the contexts to.
+	 * @param dirContextType the type of contexts to open.
+	 * @param minIdle the number of idle contexts the pool should hold.
+	 * @return this warm-up
+	 */
+	PoolWarmUp add(KeyedObjectPool<Object, Object> pool, DirContextType dirContextType, int minIdle) {
+		for (int i = pool.getNumIdle(dirContextType); i < minIdle; i++) {
+			this.contexts.add(CompletableFuture.runAsync(() -> {
+				try {
+					pool.addObject(dirContextType);
+				}
+				catch (Exception ex) {
+					throw new IllegalStateException("Failed to open " + dirContextType + " context", ex);
+				}
+			}, this.executor));
+		}
+		return this;
+	}
+
+	/**
+	 * Wait for the contexts to be opened.
+	 * @param timeout how long to wait for all contexts.
+	 * @return the failures, including a {@link TimeoutException} for each context not
+	 * opened within the timeout, which keeps opening in the background; empty if all
+	 * contexts were opened
+	 */
+	List<Throwable> await(Duration timeout) {
+		long deadline = System.nanoTime() + timeout.toNanos();
+		List<Throwable> failures = new ArrayList<>();
+		int opened = 0;
+		for (CompletableFuture<Void> context : this.contexts) {
+			try {
+				context.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+				opened++;
+			}
+			catch (ExecutionException ex) {
+				failures.add(ex.getCause());
+			}
+			catch (TimeoutException ex) {
+				failures.add(ex);
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				failures.add(ex);
+				break;
+			}
+		}
+		if (!failures.isEmpty()) {
+			LOGGER.warn("Opened {} of {} pooled contexts at warm-up", opened, this.contexts.size(), failures.get(0));
+		}
+		else {
+			LOGGER.debug("Opened {} pooled contexts at warm-up", this.contexts.size());
+		}
+		return failures;
+	}
+
+}
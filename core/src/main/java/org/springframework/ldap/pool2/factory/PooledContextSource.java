@@ -16,11 +16,17 @@
 
 package org.springframework.ldap.pool2.factory;
 
+import java.time.Duration;
 import java.util.Collection;
+import java.util.List;
 
 import javax.naming.directory.DirContext;
 import javax.naming.ldap.LdapContext;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import org.apache.commons.pool2.impl.GenericKeyedObjectPool;
 import org.apache.commons.pool2.impl.GenericKeyedObjectPoolConfig;
 import org.jspecify.annotations.Nullable;
@@ -28,6 +34,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
 import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.ldap.NamingException;
 import org.springframework.ldap.core.ContextSource;
@@ -36,6 +43,7 @@ import org.springframework.ldap.pool2.DelegatingDirContext;
 import org.springframework.ldap.pool2.DelegatingLdapContext;
 import org.springframework.ldap.pool2.DirContextType;
 import org.springframework.ldap.pool2.validation.DirContextValidator;
+import org.springframework.util.Assert;
 
 /**
  * A {@link ContextSource} implementation that wraps an object pool and another
@@ -74,14 +82,41 @@ import org.springframework.ldap.pool2.validation.DirContextValidator;
  * <td valign="top">No</td>
  * <td valign="top">null</td>
  * </tr>
+ * <tr>
+ * <td valign="top">authenticationPoolConfig</td>
+ * <td valign="top">The {@link PoolConfig} to configure a separate pool of contexts used
+ * by {@link #getContext(String, String)}. Authentication is not supported without
+ * it.</td>
+ * <td valign="top">No</td>
+ * <td valign="top">null</td>
+ * </tr>
+ * <tr>
+ * <td valign="top">adaptivePoolSizing</td>
+ * <td valign="top">The {@link AdaptivePoolSizing} adjusting the maximum number of
+ * contexts per type to demand, overriding the fixed maximum of the pool
+ * configuration.</td>
+ * <td valign="top">No</td>
+ * <td valign="top">null</td>
+ * </tr>
+ * <tr>
+ * <td valign="top">backgroundValidation</td>
+ * <td valign="top">The {@link BackgroundValidation} validating idle contexts on a
+ * background thread, and borrowed contexts only if they were idle for long.</td>
+ * <td valign="top">No</td>
+ * <td valign="top">null</td>
+ * </tr>
  * </table>
+ * <p>
+ * Borrow wait time, creation and validation latency, non-transient invalidations,
+ * evictions and the active, idle and waiting counts of each {@link DirContextType} are
+ * published by {@link #bindTo(MeterRegistry)}.
  *
  * @author Eric Dalquist
  * @author Anindya Chatterjee
  * @since 2.0
  */
 public class PooledContextSource extends DelegatingBaseLdapPathContextSourceSupport
-		implements ContextSource, DisposableBean {
+		implements ContextSource, InitializingBean, DisposableBean, MeterBinder {
 
 	/**
 	 * The logger for this class and sub-classes
@@ -94,6 +129,16 @@ public class PooledContextSource extends DelegatingBaseLdapPathContextSourceSupp
 
 	private final GenericKeyedObjectPoolConfig<Object> poolConfig;
 
+	private volatile @Nullable GenericKeyedObjectPool<Object, Object> authenticationPool;
+
+	private @Nullable Duration warmUpTimeout;
+
+	private String poolName = "default";
+
+	private volatile @Nullable AdaptivePoolSizer adaptivePoolSizer;
+
+	private volatile @Nullable BackgroundValidator backgroundValidator;
+
 	/**
 	 * Creates a new pooling context source, setting up the DirContext object factory and
 	 * generic keyed object pool.
@@ -173,6 +218,190 @@ public class PooledContextSource extends DelegatingBaseLdapPathContextSourceSupp
 		return this.keyedObjectPool.getNumWaiters();
 	}
 
+	/**
+	 * Set up a separate pool of contexts for authenticating users with
+	 * {@link #getContext(String, String)}, configured by the given pool configuration.
+	 * <p>
+	 * Instead of opening a new connection for every authentication, a context is
+	 * borrowed from this pool and re-bound with the credentials of the user on its
+	 * existing connection. When the returned context is closed, it is re-bound with its
+	 * original credentials and returned to the pool, so that authentication throughput
+	 * is bounded by bind latency rather than by connection setup. Contexts are created
+	 * with {@link ContextSource#getReadOnlyContext()} of the underlying context source,
+	 * which must return {@link LdapContext}s that are not pooled by JNDI, and are
+	 * re-bound using simple authentication.
+	 * @param authenticationPoolConfig the configuration of the authentication pool, or
+	 * {@code null} to not support authentication.
+	 * @since 4.2
+	 */
+	public void setAuthenticationPoolConfig(@Nullable PoolConfig authenticationPoolConfig) {
+		GenericKeyedObjectPool<Object, Object> previous = this.authenticationPool;
+		this.authenticationPool = (authenticationPoolConfig != null) ? new GenericKeyedObjectPool<>(
+				this.dirContextPooledObjectFactory, getConfig(authenticationPoolConfig)) : null;
+		if (previous != null) {
+			previous.close();
+		}
+	}
+
+	/**
+	 * @see GenericKeyedObjectPool#getNumIdle(Object)
+	 * @since 4.2
+	 */
+	public int getNumIdleAuthentication() {
+		GenericKeyedObjectPool<Object, Object> authenticationPool = this.authenticationPool;
+		return (authenticationPool != null) ? authenticationPool.getNumIdle(DirContextType.AUTHENTICATION) : 0;
+	}
+
+	/**
+	 * @see GenericKeyedObjectPool#getNumActive(Object)
+	 * @since 4.2
+	 */
+	public int getNumActiveAuthentication() {
+		GenericKeyedObjectPool<Object, Object> authenticationPool = this.authenticationPool;
+		return (authenticationPool != null) ? authenticationPool.getNumActive(DirContextType.AUTHENTICATION) : 0;
+	}
+
+	/**
+	 * Set how long to wait at startup for the pool to open its
+	 * {@link PoolConfig#setMinIdlePerKey(int) minimum number of idle} contexts. Default
+	 * is {@code null}, not opening any context at startup.
+	 * @param warmUpTimeout how long to wait for the contexts to be opened, or
+	 * {@code null}.
+	 * @since 4.2
+	 * @see #warmUp(Duration)
+	 */
+	public void setWarmUpTimeout(@Nullable Duration warmUpTimeout) {
+		this.warmUpTimeout = warmUpTimeout;
+	}
+
+	/**
+	 * Open the {@link PoolConfig#setMinIdlePerKey(int) minimum number of idle} contexts
+	 * of each type, in parallel, so that the first requests do not pay for connection
+	 * setup. Failures are logged and returned rather than thrown.
+	 * @param timeout how long to wait for the contexts to be opened.
+	 * @return the failures, including a {@link java.util.concurrent.TimeoutException}
+	 * for each context not opened within the timeout; empty if all contexts were opened
+	 * @since 4.2
+	 */
+	public List<Throwable> warmUp(Duration timeout) {
+		int minIdle = this.keyedObjectPool.getMinIdlePerKey();
+		PoolWarmUp warmUp = new PoolWarmUp().add(this.keyedObjectPool, DirContextType.READ_ONLY, minIdle)
+			.add(this.keyedObjectPool, DirContextType.READ_WRITE, minIdle);
+		GenericKeyedObjectPool<Object, Object> authenticationPool = this.authenticationPool;
+		if (authenticationPool != null) {
+			warmUp.add(authenticationPool, DirContextType.AUTHENTICATION, authenticationPool.getMinIdlePerKey());
+		}
+		return warmUp.await(timeout);
+	}
+
+	/**
+	 * Adjust the maximum number of contexts per type, and the idle capacity with it,
+	 * between the bounds of the given configuration as demand changes, instead of using
+	 * the fixed {@link PoolConfig#setMaxTotalPerKey(int) maxTotalPerKey}. The pool grows
+	 * when threads wait for contexts longer than the target time or in larger numbers
+	 * than the target, and shrinks when fewer contexts than the low utilisation
+	 * threshold are borrowed at once. Idle contexts above the new capacity are closed as
+	 * they are returned or evicted.
+	 * @param adaptivePoolSizing the sizing configuration, or {@code null} to stop
+	 * adjusting the pool, leaving it at its current size.
+	 * @since 4.2
+	 */
+	public void setAdaptivePoolSizing(@Nullable AdaptivePoolSizing adaptivePoolSizing) {
+		AdaptivePoolSizer previous = this.adaptivePoolSizer;
+		if (previous != null) {
+			previous.stop();
+		}
+		AdaptivePoolSizer sizer = null;
+		if (adaptivePoolSizing != null) {
+			sizer = new AdaptivePoolSizer(this.keyedObjectPool, adaptivePoolSizing);
+			sizer.start();
+		}
+		this.adaptivePoolSizer = sizer;
+	}
+
+	/**
+	 * Validate idle contexts on a background thread at jittered intervals, and only
+	 * validate contexts when borrowed if they were idle for longer than the configured
+	 * threshold, taking validation latency off the request path. Each run validates up
+	 * to {@link PoolConfig#setNumTestsPerEvictionRun(int) numTestsPerEvictionRun} idle
+	 * contexts, 3 by default, rather than every idle context, so that setting should be
+	 * raised along with the number of idle contexts.
+	 * <p>
+	 * This enables {@link PoolConfig#setTestWhileIdle(boolean) testWhileIdle} and
+	 * {@link PoolConfig#setTestOnBorrow(boolean) testOnBorrow} until background
+	 * validation is stopped, so a {@link #setDirContextValidator(DirContextValidator)
+	 * validator} is required; a
+	 * {@link org.springframework.ldap.pool2.validation.WhoAmIDirContextValidator} or the
+	 * root DSE read of the
+	 * {@link org.springframework.ldap.pool2.validation.DefaultDirContextValidator} make
+	 * cheap probes. Only applies to read-only and read-write contexts.
+	 * @param backgroundValidation the validation configuration, or {@code null} to stop
+	 * validating in the background and restore the previous {@code testWhileIdle} and
+	 * {@code testOnBorrow} settings.
+	 * @since 4.2
+	 */
+	public void setBackgroundValidation(@Nullable BackgroundValidation backgroundValidation) {
+		BackgroundValidator previous = this.backgroundValidator;
+		if (previous != null) {
+			previous.stop();
+		}
+		BackgroundValidator validator = null;
+		if (backgroundValidation != null) {
+			validator = new BackgroundValidator(this.keyedObjectPool, backgroundValidation);
+			this.dirContextPooledObjectFactory
+				.setBorrowValidationIdleThreshold(backgroundValidation.getBorrowIdleThreshold());
+			validator.start();
+		}
+		else {
+			this.dirContextPooledObjectFactory.setBorrowValidationIdleThreshold(null);
+		}
+		this.backgroundValidator = validator;
+	}
+
+	/**
+	 * Set the value of the {@code pool} tag of the meters published by
+	 * {@link #bindTo(MeterRegistry)}, telling pools bound to the same registry apart.
+	 * Must be set before binding. Default is {@code default}.
+	 * @param poolName the name of the pool.
+	 * @since 4.2
+	 */
+	public void setPoolName(String poolName) {
+		Assert.hasText(poolName, "poolName cannot be empty");
+		this.poolName = poolName;
+	}
+
+	/**
+	 * Register the pool meters with the given registry, tagged with {@code pool} and,
+	 * except for evictions, {@code type}: the borrow wait time as a histogram, context
+	 * creation and validation latency, validation failures, non-transient invalidations,
+	 * evictions and the number of active, idle and waiting contexts.
+	 * @param registry the registry to register the meters with.
+	 * @since 4.2
+	 */
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		this.dirContextPooledObjectFactory.getMetrics().bindTo(registry, this.poolName);
+		for (DirContextType dirContextType : PoolMetrics.DIR_CONTEXT_TYPES) {
+			String type = dirContextType.toString();
+			Gauge.builder("spring.ldap.pool.active", this, (source) -> source.getNumActive(dirContextType))
+				.tags("pool", this.poolName, "type", type)
+				.description("The number of pooled contexts borrowed and not yet returned")
+				.register(registry);
+			Gauge.builder("spring.ldap.pool.idle", this, (source) -> source.getNumIdle(dirContextType))
+				.tags("pool", this.poolName, "type", type)
+				.description("The number of pooled contexts ready to be borrowed")
+				.register(registry);
+			Gauge.builder("spring.ldap.pool.waiters", this, (source) -> source.getNumWaiters(dirContextType))
+				.tags("pool", this.poolName, "type", type)
+				.description("The number of threads waiting for a pooled context")
+				.register(registry);
+		}
+		FunctionCounter.builder("spring.ldap.pool.evictions", this, PooledContextSource::getNumEvicted)
+			.tags("pool", this.poolName)
+			.description("The number of idle pooled contexts destroyed by the evictor")
+			.register(registry);
+	}
+
 	// ***** Object Factory Property Configuration *****//
 
 	/**
@@ -220,6 +449,15 @@ public class PooledContextSource extends DelegatingBaseLdapPathContextSourceSupp
 		this.dirContextPooledObjectFactory.setNonTransientExceptions(nonTransientExceptions);
 	}
 
+	// ***** InitializingBean interface methods *****//
+
+	@Override
+	public void afterPropertiesSet() {
+		if (this.warmUpTimeout != null) {
+			warmUp(this.warmUpTimeout);
+		}
+	}
+
 	// ***** DisposableBean interface methods *****//
 
 	/*
@@ -228,12 +466,24 @@ public class PooledContextSource extends DelegatingBaseLdapPathContextSourceSupp
 	 * @see org.springframework.beans.factory.DisposableBean#destroy()
 	 */
 	public void destroy() throws Exception {
+		AdaptivePoolSizer adaptivePoolSizer = this.adaptivePoolSizer;
+		if (adaptivePoolSizer != null) {
+			adaptivePoolSizer.stop();
+		}
+		BackgroundValidator backgroundValidator = this.backgroundValidator;
+		if (backgroundValidator != null) {
+			backgroundValidator.stop();
+		}
 		try {
 			this.keyedObjectPool.close();
 		}
 		catch (Exception ex) {
 			this.logger.warn("An exception occurred while closing the underlying pool.", ex);
 		}
+		GenericKeyedObjectPool<Object, Object> authenticationPool = this.authenticationPool;
+		if (authenticationPool != null) {
+			authenticationPool.close();
+		}
 	}
 
 	@Override
@@ -261,13 +511,8 @@ public class PooledContextSource extends DelegatingBaseLdapPathContextSourceSupp
 	 * throws an exception
 	 */
 	protected DirContext getContext(DirContextType dirContextType) {
-		final DirContext dirContext;
-		try {
-			dirContext = (DirContext) this.keyedObjectPool.borrowObject(dirContextType);
-		}
-		catch (Exception ex) {
-			throw new DataAccessResourceFailureException("Failed to borrow DirContext from pool.", ex);
-		}
+		final DirContext dirContext = (DirContext) borrowObject(this.keyedObjectPool, dirContextType,
+				this.adaptivePoolSizer);
 
 		if (dirContext instanceof LdapContext) {
 			return new DelegatingLdapContext(this.keyedObjectPool, (LdapContext) dirContext, dirContextType);
@@ -276,9 +521,66 @@ public class PooledContextSource extends DelegatingBaseLdapPathContextSourceSupp
 		return new DelegatingDirContext(this.keyedObjectPool, dirContext, dirContextType);
 	}
 
+	/**
+	 * Authenticate by re-binding a context of the
+	 * {@link #setAuthenticationPoolConfig(PoolConfig) authentication pool} with the given
+	 * credentials. Closing the returned context re-binds it with its original
+	 * credentials and returns it to the pool.
+	 * @throws UnsupportedOperationException if no authentication pool is configured
+	 */
 	@Override
 	public DirContext getContext(String principal, String credentials) {
-		throw new UnsupportedOperationException("Not supported for this implementation");
+		GenericKeyedObjectPool<Object, Object> authenticationPool = this.authenticationPool;
+		if (authenticationPool == null) {
+			throw new UnsupportedOperationException("Not supported for this implementation");
+		}
+		LdapContext ldapContext = (LdapContext) borrowObject(authenticationPool, DirContextType.AUTHENTICATION, null);
+		return DirContextPooledObjectFactory.authenticate(authenticationPool, ldapContext, principal, credentials);
+	}
+
+	private Object borrowObject(GenericKeyedObjectPool<Object, Object> pool, DirContextType dirContextType,
+			@Nullable AdaptivePoolSizer adaptivePoolSizer) {
+		long workNanos = this.dirContextPooledObjectFactory.getWorkNanos();
+		long start = System.nanoTime();
+		try {
+			return pool.borrowObject(dirContextType);
+		}
+		catch (Exception ex) {
+			throw new DataAccessResourceFailureException("Failed to borrow DirContext from pool.", ex);
+		}
+		finally {
+			// creation and validation on this thread are not waiting
+			long waitNanos = System.nanoTime() - start
+					- (this.dirContextPooledObjectFactory.getWorkNanos() - workNanos);
+			this.dirContextPooledObjectFactory.getMetrics().recordBorrow(dirContextType, waitNanos);
+			if (adaptivePoolSizer != null) {
+				adaptivePoolSizer.recordBorrow(dirContextType, waitNanos);
+			}
+		}
+	}
+
+	private GenericKeyedObjectPool<Object, Object> getPool(DirContextType dirContextType) {
+		GenericKeyedObjectPool<Object, Object> authenticationPool = this.authenticationPool;
+		return (dirContextType == DirContextType.AUTHENTICATION && authenticationPool != null) ? authenticationPool
+				: this.keyedObjectPool;
+	}
+
+	private int getNumActive(DirContextType dirContextType) {
+		return getPool(dirContextType).getNumActive(dirContextType);
+	}
+
+	private int getNumIdle(DirContextType dirContextType) {
+		return getPool(dirContextType).getNumIdle(dirContextType);
+	}
+
+	private int getNumWaiters(DirContextType dirContextType) {
+		return getPool(dirContextType).getNumWaitersByKey().getOrDefault(dirContextType.toString(), 0);
+	}
+
+	private long getNumEvicted() {
+		GenericKeyedObjectPool<Object, Object> authenticationPool = this.authenticationPool;
+		return this.keyedObjectPool.getDestroyedByEvictorCount()
+				+ ((authenticationPool != null) ? authenticationPool.getDestroyedByEvictorCount() : 0);
 	}
 
 	private PoolConfig getConfig(GenericKeyedObjectPoolConfig<Object> commonsConfig) {
@@ -312,8 +614,8 @@ public class PooledContextSource extends DelegatingBaseLdapPathContextSourceSupp
 		return poolConfig;
 	}
 
-	private GenericKeyedObjectPoolConfig getConfig(PoolConfig poolConfig) {
-		GenericKeyedObjectPoolConfig objectPoolConfig = new GenericKeyedObjectPoolConfig();
+	private GenericKeyedObjectPoolConfig<Object> getConfig(PoolConfig poolConfig) {
+		GenericKeyedObjectPoolConfig<Object> objectPoolConfig = new GenericKeyedObjectPoolConfig<>();
 
 		objectPoolConfig.setMaxTotalPerKey(poolConfig.getMaxTotalPerKey());
 		objectPoolConfig.setMaxTotal(poolConfig.getMaxTotal());
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2006-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ldap.pool2.validation;
+
+import javax.naming.directory.DirContext;
+import javax.naming.ldap.ExtendedRequest;
+import javax.naming.ldap.ExtendedResponse;
+import javax.naming.ldap.LdapContext;
+
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.ldap.pool2.DirContextType;
+import org.springframework.util.Assert;
+
+/**
+ * {@link DirContext} validator that sends the "Who am I?" extended operation
+ * (<a href="https://www.rfc-editor.org/rfc/rfc4532">RFC 4532</a>), which servers answer
+ * without searching, from the identity already bound to the connection. Contexts that
+ * are not {@link LdapContext}s, or whose server does not support the operation, fail
+ * validation.
+ *
+ * @since 4.2
+ * @see DefaultDirContextValidator
+ */
+public class WhoAmIDirContextValidator implements DirContextValidator {
+
+	/**
+	 * The object identifier of the "Who am I?" extended operation.
+	 */
+	public static final String WHO_AM_I_OID = "1.3.6.1.4.1.4203.1.11.3";
+
+	private static final ExtendedRequest WHO_AM_I_REQUEST = new WhoAmIRequest();
+
+	/**
+	 * Logger for this class and sub-classes
+	 */
+	protected final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+	@Override
+	public boolean validateDirContext(DirContextType contextType, DirContext dirContext) {
+		Assert.notNull(contextType, "contextType may not be null");
+		Assert.notNull(dirContext, "dirContext may not be null");
+
+		if (!(dirContext instanceof LdapContext ldapContext)) {
+			this.logger.debug("DirContext '{}' failed validation, it is not an LdapContext.", dirContext);
+			return false;
+		}
+		try {
+			ldapContext.extendedOperation(WHO_AM_I_REQUEST);
+			this.logger.debug("DirContext '{}' passed validation.", dirContext);
+			return true;
+		}
+		catch (Exception ex) {
+			this.logger.debug("DirContext '{}' failed validation with an exception.", dirContext, ex);
+			return false;
+		}
+	}
+
+	private static final class WhoAmIRequest implements ExtendedRequest {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public String getID() {
+			return WHO_AM_I_OID;
+		}
+
+		@Override
+		public byte @Nullable [] getEncodedValue() {
+			return null;
+		}
+
+		@Override
+		public ExtendedResponse createExtendedResponse(String id, byte @Nullable [] berValue, int offset,
+				int length) {
+			return new WhoAmIResponse(id);
+		}
+
+	}
+
+	private record WhoAmIResponse(String id) implements ExtendedResponse {
+
+		@Override
+		public String getID() {
+			return this.id;
+		}
+
+		@Override
+		public byte @Nullable [] getEncodedValue() {
+			return null;
+		}
+
+	}
+
+}
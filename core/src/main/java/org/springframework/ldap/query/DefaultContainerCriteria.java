@@ -17,6 +17,7 @@
 package org.springframework.ldap.query;
 
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 
@@ -132,4 +133,24 @@ class DefaultContainerCriteria implements AppendableContainerCriteria {
 		return this.topQuery.attributes();
 	}
 
+	@Override
+	public @Nullable Integer pageSize() {
+		return this.topQuery.pageSize();
+	}
+
+	@Override
+	public List<Name> bases() {
+		return this.topQuery.bases();
+	}
+
+	@Override
+	public List<Filter> partitions() {
+		return this.topQuery.partitions();
+	}
+
+	@Override
+	public boolean distinct() {
+		return this.topQuery.distinct();
+	}
+
 }
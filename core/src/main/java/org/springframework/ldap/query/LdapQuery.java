@@ -16,6 +16,9 @@
 
 package org.springframework.ldap.query;
 
+import java.util.Collections;
+import java.util.List;
+
 import javax.naming.Name;
 
 import org.jspecify.annotations.Nullable;
@@ -46,6 +49,20 @@ public interface LdapQuery {
 	 */
 	Name base();
 
+	/**
+	 * Get the search bases. Default is a list containing only {@link #base()}. When
+	 * several bases are set, stream and list based search operations issue the search
+	 * under each base concurrently on separate connections and merge the results,
+	 * returning each entry only once. Operations returning a single result reject
+	 * several bases with an {@link IllegalArgumentException}; other operations that
+	 * expect a single base use {@link #base()}, which is the first of the bases.
+	 * @return the search bases.
+	 * @since 4.2
+	 */
+	default List<Name> bases() {
+		return List.of(base());
+	}
+
 	/**
 	 * Get the search scope. Default is <code>null</code>, indicating that the
 	 * LdapTemplate default should be used.
@@ -74,6 +91,46 @@ public interface LdapQuery {
 	 */
 	String @Nullable [] attributes();
 
+	/**
+	 * Get the page size to use when streaming the results of this query. Default is
+	 * <code>null</code>, indicating that results should not be paged. When set, stream
+	 * based search operations chain Simple Paged Results requests of this size on a
+	 * single connection instead of issuing one un-paged search.
+	 * @return the page size.
+	 * @since 4.2
+	 * @see org.springframework.ldap.core.LdapOperations#searchForStream(LdapQuery,
+	 * org.springframework.ldap.core.ContextMapper)
+	 */
+	default @Nullable Integer pageSize() {
+		return null;
+	}
+
+	/**
+	 * Get the filters that split the results of this query into partitions. Default is
+	 * an empty list, indicating that the query is not partitioned. When set, search
+	 * operations returning a list or a stream search each partition, combined with
+	 * {@link #filter()}, concurrently on separate connections and merge the results.
+	 * Operations counting entries or returning a single entry search the unpartitioned
+	 * {@link #filter()} instead, which the partitions are expected to cover.
+	 * @return the partition filters.
+	 * @since 4.2
+	 * @see #distinct()
+	 */
+	default List<Filter> partitions() {
+		return Collections.emptyList();
+	}
+
+	/**
+	 * Whether entries found by more than one partition should only be returned once.
+	 * Default is <code>false</code>. Only relevant when {@link #partitions()} are set and
+	 * may overlap, for example when partitioning on a multi-valued attribute.
+	 * @return whether duplicate entries are removed.
+	 * @since 4.2
+	 */
+	default boolean distinct() {
+		return false;
+	}
+
 	/**
 	 * Get the filter.
 	 * @return the filter.
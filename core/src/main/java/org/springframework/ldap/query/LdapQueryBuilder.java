@@ -17,14 +17,21 @@
 package org.springframework.ldap.query;
 
 import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.function.Consumer;
 
 import javax.naming.Name;
 
 import org.jspecify.annotations.Nullable;
 
+import org.springframework.ldap.filter.AndFilter;
 import org.springframework.ldap.filter.Filter;
+import org.springframework.ldap.filter.GreaterThanOrEqualsFilter;
 import org.springframework.ldap.filter.HardcodedFilter;
+import org.springframework.ldap.filter.NotFilter;
 import org.springframework.ldap.support.LdapEncoder;
 import org.springframework.ldap.support.LdapUtils;
 import org.springframework.util.Assert;
@@ -65,6 +72,8 @@ public final class LdapQueryBuilder implements LdapQuery {
 
 	private Name base = LdapUtils.emptyLdapName();
 
+	private List<Name> bases = Collections.emptyList();
+
 	private @Nullable SearchScope searchScope = null;
 
 	private @Nullable Integer countLimit = null;
@@ -73,6 +82,12 @@ public final class LdapQueryBuilder implements LdapQuery {
 
 	private String @Nullable [] attributes = null;
 
+	private @Nullable Integer pageSize = null;
+
+	private List<Filter> partitions = Collections.emptyList();
+
+	private boolean distinct = false;
+
 	private @Nullable DefaultContainerCriteria rootContainer = null;
 
 	private boolean isFilterStarted = false;
@@ -106,10 +121,16 @@ public final class LdapQueryBuilder implements LdapQuery {
 		LdapQueryBuilder builder = new LdapQueryBuilder();
 		builder.rootContainer = new DefaultContainerCriteria(builder).append(query.filter());
 		builder.base(query.base());
+		if (query.bases().size() > 1) {
+			builder.bases(query.bases().toArray(Name[]::new));
+		}
 		setIfNonNull(builder::attributes, query.attributes());
 		setIfNonNull(builder::countLimit, query.countLimit());
 		setIfNonNull(builder::searchScope, query.searchScope());
 		setIfNonNull(builder::timeLimit, query.timeLimit());
+		setIfNonNull(builder::pageSize, query.pageSize());
+		builder.partitions = query.partitions();
+		builder.distinct = query.distinct();
 		return builder;
 	}
 
@@ -128,6 +149,7 @@ public final class LdapQueryBuilder implements LdapQuery {
 	public LdapQueryBuilder base(String baseDn) {
 		assertFilterNotStarted();
 		this.base = LdapUtils.newLdapName(baseDn);
+		this.bases = Collections.emptyList();
 		return this;
 	}
 
@@ -140,6 +162,49 @@ public final class LdapQueryBuilder implements LdapQuery {
 	public LdapQueryBuilder base(Name baseDn) {
 		assertFilterNotStarted();
 		this.base = LdapUtils.newLdapName(baseDn);
+		this.bases = Collections.emptyList();
+		return this;
+	}
+
+	/**
+	 * Set several base search paths for the query, each of which is searched with the
+	 * same filter and search controls. The first base is also returned by
+	 * {@link #base()}.
+	 * <p>
+	 * {@code search} and {@code searchForStream} run the searches concurrently on
+	 * separate connections and merge their results in no particular order, returning
+	 * each entry only once even if the bases overlap.
+	 * @param baseDns the base search paths.
+	 * @return this instance.
+	 * @since 4.2
+	 */
+	public LdapQueryBuilder bases(String... baseDns) {
+		Assert.notEmpty(baseDns, "baseDns cannot be empty");
+		return bases(Arrays.stream(baseDns).map(LdapUtils::newLdapName).toArray(Name[]::new));
+	}
+
+	/**
+	 * Set several base search paths for the query, each of which is searched with the
+	 * same filter and search controls. The first base is also returned by
+	 * {@link #base()}.
+	 * <p>
+	 * {@code search} and {@code searchForStream} run the searches concurrently on
+	 * separate connections and merge their results in no particular order, returning
+	 * each entry only once even if the bases overlap.
+	 * @param baseDns the base search paths.
+	 * @return this instance.
+	 * @since 4.2
+	 */
+	public LdapQueryBuilder bases(Name... baseDns) {
+		assertFilterNotStarted();
+		Assert.notEmpty(baseDns, "baseDns cannot be empty");
+		Assert.noNullElements(baseDns, "baseDns cannot contain null elements");
+		List<Name> bases = new ArrayList<>(baseDns.length);
+		for (Name baseDn : baseDns) {
+			bases.add(LdapUtils.newLdapName(baseDn));
+		}
+		this.base = bases.get(0);
+		this.bases = Collections.unmodifiableList(bases);
 		return this;
 	}
 
@@ -182,6 +247,88 @@ public final class LdapQueryBuilder implements LdapQuery {
 		return this;
 	}
 
+	/**
+	 * Set the page size to use when streaming the results of the query. Default is no
+	 * paging.
+	 * <p>
+	 * When set, {@code searchForStream} and {@code LdapClient} streams request the
+	 * results in pages of this size using the Simple Paged Results control, so that large
+	 * result sets do not run into server-side size limits.
+	 * @param pageSize the page size; must be greater than 0.
+	 * @return this instance.
+	 * @since 4.2
+	 */
+	public LdapQueryBuilder pageSize(int pageSize) {
+		assertFilterNotStarted();
+		Assert.isTrue(pageSize > 0, "pageSize must be greater than 0");
+		this.pageSize = pageSize;
+		return this;
+	}
+
+	/**
+	 * Split the results of the query into the given partitions. Default is no
+	 * partitioning.
+	 * <p>
+	 * When set, search operations returning a list or a stream search each partition,
+	 * combined with the filter of the query, concurrently on a separate connection and
+	 * merge the results, in no particular order. Together the partitions should match every entry
+	 * that the query is expected to return; use {@link #distinct(boolean)} if they may
+	 * overlap.
+	 * @param partitions the partition filters.
+	 * @return this instance.
+	 * @since 4.2
+	 * @see #partitionByRange(String, String...)
+	 */
+	public LdapQueryBuilder partitions(Filter... partitions) {
+		assertFilterNotStarted();
+		Assert.notEmpty(partitions, "partitions cannot be empty");
+		Assert.noNullElements(partitions, "partitions cannot contain null elements");
+		this.partitions = List.of(partitions);
+		return this;
+	}
+
+	/**
+	 * Split the results of the query into contiguous ranges of the values of the given
+	 * attribute, for example the naming attribute of the entries. The {@code n}
+	 * boundaries yield {@code n + 1} partitions, the first matching values ordered before
+	 * the first boundary and the last matching values ordered at or after the last one,
+	 * so that every entry with a value for the attribute is covered.
+	 * <p>
+	 * The attribute must have an ordering matching rule; entries for which it has more
+	 * than one value may fall into several partitions.
+	 * @param attribute the attribute to partition on.
+	 * @param boundaries the ascending values at which a new partition starts.
+	 * @return this instance.
+	 * @since 4.2
+	 * @see #partitions(Filter...)
+	 */
+	public LdapQueryBuilder partitionByRange(String attribute, String... boundaries) {
+		Assert.hasText(attribute, "attribute cannot be empty");
+		Assert.notEmpty(boundaries, "boundaries cannot be empty");
+		List<Filter> ranges = new ArrayList<>();
+		ranges.add(new NotFilter(new GreaterThanOrEqualsFilter(attribute, boundaries[0])));
+		for (int i = 1; i < boundaries.length; i++) {
+			ranges.add(new AndFilter().and(new GreaterThanOrEqualsFilter(attribute, boundaries[i - 1]))
+				.and(new NotFilter(new GreaterThanOrEqualsFilter(attribute, boundaries[i]))));
+		}
+		ranges.add(new GreaterThanOrEqualsFilter(attribute, boundaries[boundaries.length - 1]));
+		return partitions(ranges.toArray(Filter[]::new));
+	}
+
+	/**
+	 * Whether entries found by more than one partition should only be returned once.
+	 * Default is {@code false}.
+	 * @param distinct whether to remove duplicate entries.
+	 * @return this instance.
+	 * @since 4.2
+	 * @see #partitions(Filter...)
+	 */
+	public LdapQueryBuilder distinct(boolean distinct) {
+		assertFilterNotStarted();
+		this.distinct = distinct;
+		return this;
+	}
+
 	/**
 	 * Start specifying the filter conditions in this query.
 	 * @param attribute The attribute that the first part of the filter should test
@@ -280,6 +427,26 @@ public final class LdapQueryBuilder implements LdapQuery {
 		return this.attributes;
 	}
 
+	@Override
+	public @Nullable Integer pageSize() {
+		return this.pageSize;
+	}
+
+	@Override
+	public List<Name> bases() {
+		return this.bases.isEmpty() ? List.of(this.base) : this.bases;
+	}
+
+	@Override
+	public List<Filter> partitions() {
+		return this.partitions;
+	}
+
+	@Override
+	public boolean distinct() {
+		return this.distinct;
+	}
+
 	@Override
 	public Filter filter() {
 		if (this.rootContainer == null) {
@@ -0,0 +1,318 @@
+/*
+ * Copyright 2006-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ldap.support;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import javax.naming.NameClassPair;
+import javax.naming.NamingEnumeration;
+import javax.naming.NamingException;
+import javax.naming.directory.Attribute;
+import javax.naming.directory.Attributes;
+import javax.naming.directory.DirContext;
+
+import org.jspecify.annotations.Nullable;
+
+import org.springframework.ldap.core.ContextSource;
+
+/**
+ * The attribute types defined by the schema of a directory server, read once from its
+ * subschema subentry.
+ * <p>
+ * Attribute types can be looked up by any of their names or by their OID, ignoring
+ * case. Each one tells its syntax, whether it is single-valued, its equality matching
+ * rule and whether its values are binary, that is whether its syntax is one of the
+ * {@link #BINARY_SYNTAXES}. Syntaxes inherited from a superior attribute type are
+ * resolved.
+ *
+ * @since 4.2
+ * @see org.springframework.ldap.core.support.AbstractContextSource#setDetectBinaryAttributes(boolean)
+ */
+public final class LdapSchema {
+
+	/**
+	 * The OIDs of the standard syntaxes whose values are binary: Audio, Binary,
+	 * Certificate, Certificate List, Certificate Pair, Fax, JPEG, Octet String and
+	 * Supported Algorithm.
+	 */
+	public static final Set<String> BINARY_SYNTAXES = Set.of("1.3.6.1.4.1.1466.115.121.1.4",
+			"1.3.6.1.4.1.1466.115.121.1.5", "1.3.6.1.4.1.1466.115.121.1.8", "1.3.6.1.4.1.1466.115.121.1.9",
+			"1.3.6.1.4.1.1466.115.121.1.10", "1.3.6.1.4.1.1466.115.121.1.23", "1.3.6.1.4.1.1466.115.121.1.28",
+			"1.3.6.1.4.1.1466.115.121.1.40", "1.3.6.1.4.1.1466.115.121.1.49");
+
+	private static final String ATTRIBUTE_DEFINITION = "AttributeDefinition";
+
+	private final Map<String, AttributeType> attributeTypes;
+
+	private final Map<String, AttributeType> attributeTypesByKey = new LinkedHashMap<>();
+
+	private LdapSchema(Map<String, AttributeType> attributeTypes) {
+		this.attributeTypes = attributeTypes;
+		for (AttributeType attributeType : attributeTypes.values()) {
+			for (String name : attributeType.getNames()) {
+				this.attributeTypesByKey.put(name.toLowerCase(Locale.ROOT), attributeType);
+			}
+			if (attributeType.getOid() != null) {
+				this.attributeTypesByKey.put(attributeType.getOid(), attributeType);
+			}
+		}
+	}
+
+	/**
+	 * Read the schema of the directory server behind the given context source.
+	 * @param contextSource the context source to read the schema with.
+	 * @return the schema.
+	 * @throws org.springframework.ldap.NamingException if reading the schema fails.
+	 */
+	public static LdapSchema read(ContextSource contextSource) {
+		DirContext ctx = contextSource.getReadOnlyContext();
+		try {
+			return read(ctx);
+		}
+		catch (NamingException ex) {
+			throw LdapUtils.convertLdapException(ex);
+		}
+		finally {
+			LdapUtils.closeContext(ctx);
+		}
+	}
+
+	/**
+	 * Read the schema of the directory server the given context is connected to.
+	 * @param ctx the context to read the schema with.
+	 * @return the schema.
+	 * @throws NamingException if reading the schema fails.
+	 */
+	public static LdapSchema read(DirContext ctx) throws NamingException {
+		DirContext schema = ctx.getSchema("");
+		Map<String, Attributes> definitions = new LinkedHashMap<>();
+		NamingEnumeration<NameClassPair> names = schema.list(ATTRIBUTE_DEFINITION);
+		try {
+			while (names.hasMore()) {
+				String name = names.next().getName();
+				definitions.put(name.toLowerCase(Locale.ROOT),
+						schema.getAttributes(ATTRIBUTE_DEFINITION + "/" + name));
+			}
+		}
+		finally {
+			names.close();
+		}
+		return from(definitions.values());
+	}
+
+	/**
+	 * Create a schema from attribute type definitions, in the form returned by the JNDI
+	 * schema context for {@code AttributeDefinition/<name>}, that is with
+	 * {@code NUMERICOID}, {@code NAME}, {@code SYNTAX}, {@code SUP}, {@code EQUALITY}
+	 * and {@code SINGLE-VALUE} attributes.
+	 * @param definitions the attribute type definitions.
+	 * @return the schema.
+	 * @throws NamingException if a definition cannot be read.
+	 */
+	public static LdapSchema from(Collection<Attributes> definitions) throws NamingException {
+		Map<String, Attributes> definitionsByName = new LinkedHashMap<>();
+		for (Attributes definition : definitions) {
+			for (String name : values(definition, "NAME")) {
+				definitionsByName.put(name.toLowerCase(Locale.ROOT), definition);
+			}
+			String oid = value(definition, "NUMERICOID");
+			if (oid != null) {
+				definitionsByName.put(oid, definition);
+			}
+		}
+		Map<String, AttributeType> attributeTypes = new LinkedHashMap<>();
+		for (Attributes definition : definitions) {
+			List<String> names = values(definition, "NAME");
+			String oid = value(definition, "NUMERICOID");
+			if (oid == null && names.isEmpty()) {
+				continue;
+			}
+			String syntax = syntax(definition, definitionsByName);
+			AttributeType attributeType = new AttributeType(oid, names, syntax,
+					definition.get("SINGLE-VALUE") != null, value(definition, "EQUALITY"),
+					value(definition, "SUP"));
+			attributeTypes.put((oid != null) ? oid : names.get(0), attributeType);
+		}
+		return new LdapSchema(Collections.unmodifiableMap(attributeTypes));
+	}
+
+	/**
+	 * Get the attribute type with the given name or OID.
+	 * @param nameOrOid any name or the OID of the attribute type, in any case.
+	 * @return the attribute type, or {@code null} if it is not defined.
+	 */
+	public @Nullable AttributeType getAttributeType(String nameOrOid) {
+		return this.attributeTypesByKey.get(nameOrOid.toLowerCase(Locale.ROOT));
+	}
+
+	/**
+	 * Get all attribute types.
+	 * @return the attribute types.
+	 */
+	public Collection<AttributeType> getAttributeTypes() {
+		return this.attributeTypes.values();
+	}
+
+	/**
+	 * Get the names of all attribute types whose values are binary, as listed in the
+	 * {@code java.naming.ldap.attributes.binary} environment property.
+	 * @return the names of the binary attribute types.
+	 */
+	public Set<String> getBinaryAttributeNames() {
+		Set<String> names = new LinkedHashSet<>();
+		for (AttributeType attributeType : this.attributeTypes.values()) {
+			if (attributeType.isBinary()) {
+				names.addAll(attributeType.getNames());
+			}
+		}
+		return names;
+	}
+
+	private static @Nullable String syntax(Attributes definition, Map<String, Attributes> definitionsByName)
+			throws NamingException {
+		Set<Attributes> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+		Attributes current = definition;
+		while (current != null && visited.add(current)) {
+			String syntax = value(current, "SYNTAX");
+			if (syntax != null) {
+				// strip the length bound, as in 1.3.6.1.4.1.1466.115.121.1.15{256}
+				return syntax.split("\\{")[0].trim();
+			}
+			String superior = value(current, "SUP");
+			current = (superior != null) ? definitionsByName.get(superior.toLowerCase(Locale.ROOT)) : null;
+		}
+		return null;
+	}
+
+	private static @Nullable String value(Attributes definition, String id) throws NamingException {
+		Attribute attribute = definition.get(id);
+		return (attribute != null && attribute.size() > 0) ? String.valueOf(attribute.get()) : null;
+	}
+
+	private static List<String> values(Attributes definition, String id) throws NamingException {
+		Attribute attribute = definition.get(id);
+		if (attribute == null) {
+			return Collections.emptyList();
+		}
+		List<String> values = new ArrayList<>();
+		for (int i = 0; i < attribute.size(); i++) {
+			values.add(String.valueOf(attribute.get(i)));
+		}
+		return values;
+	}
+
+	/**
+	 * The definition of an attribute type.
+	 */
+	public static final class AttributeType {
+
+		private final @Nullable String oid;
+
+		private final List<String> names;
+
+		private final @Nullable String syntax;
+
+		private final boolean singleValued;
+
+		private final @Nullable String equality;
+
+		private final @Nullable String superior;
+
+		AttributeType(@Nullable String oid, List<String> names, @Nullable String syntax, boolean singleValued,
+				@Nullable String equality, @Nullable String superior) {
+			this.oid = oid;
+			this.names = List.copyOf(names);
+			this.syntax = syntax;
+			this.singleValued = singleValued;
+			this.equality = equality;
+			this.superior = superior;
+		}
+
+		/**
+		 * Get the OID of this attribute type.
+		 * @return the OID, or {@code null} if the server did not provide it.
+		 */
+		public @Nullable String getOid() {
+			return this.oid;
+		}
+
+		/**
+		 * Get the names of this attribute type.
+		 * @return the names, the primary one first.
+		 */
+		public List<String> getNames() {
+			return this.names;
+		}
+
+		/**
+		 * Get the OID of the syntax of this attribute type, without length bound,
+		 * inherited from its superior if not defined by the type itself.
+		 * @return the syntax OID, or {@code null} if unknown.
+		 */
+		public @Nullable String getSyntax() {
+			return this.syntax;
+		}
+
+		/**
+		 * Tell whether attributes of this type hold at most one value.
+		 * @return {@code true} if single-valued.
+		 */
+		public boolean isSingleValued() {
+			return this.singleValued;
+		}
+
+		/**
+		 * Get the equality matching rule of this attribute type.
+		 * @return the matching rule, or {@code null} if not defined by the type itself.
+		 */
+		public @Nullable String getEquality() {
+			return this.equality;
+		}
+
+		/**
+		 * Get the superior attribute type of this attribute type.
+		 * @return the name or OID of the superior type, or {@code null} if none.
+		 */
+		public @Nullable String getSuperior() {
+			return this.superior;
+		}
+
+		/**
+		 * Tell whether the values of this attribute type are binary.
+		 * @return {@code true} if the syntax is one of the {@link #BINARY_SYNTAXES}.
+		 */
+		public boolean isBinary() {
+			return this.syntax != null && BINARY_SYNTAXES.contains(this.syntax);
+		}
+
+		@Override
+		public String toString() {
+			return ((this.oid != null) ? this.oid : "") + " " + this.names + " " + this.syntax;
+		}
+
+	}
+
+}
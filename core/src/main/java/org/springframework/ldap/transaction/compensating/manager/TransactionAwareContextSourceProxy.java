@@ -16,22 +16,19 @@
 
 package org.springframework.ldap.transaction.compensating.manager;
 
-import java.lang.reflect.Proxy;
-
 import javax.naming.directory.DirContext;
 
 import org.springframework.ldap.core.ContextSource;
-import org.springframework.ldap.core.DirContextProxy;
 import org.springframework.ldap.core.support.DelegatingBaseLdapPathContextSourceSupport;
-import org.springframework.ldap.support.LdapUtils;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
  * A proxy for ContextSource to make sure that the returned DirContext objects are aware
  * of the surrounding transactions. This makes sure that the DirContext is not closed
  * during the transaction and that all modifying operations are recorded, keeping track of
- * the corresponding rollback operations. All returned DirContext instances will be of the
- * type {@link TransactionAwareDirContextInvocationHandler}.
+ * the corresponding rollback operations. All returned DirContext instances implement
+ * {@link org.springframework.ldap.core.DirContextProxy}, giving access to the target
+ * context.
  *
  * @author Mattias Hellborg Arthursson
  * @since 1.2
@@ -59,13 +56,6 @@ public class TransactionAwareContextSourceProxy extends DelegatingBaseLdapPathCo
 		return getReadWriteContext();
 	}
 
-	private DirContext getTransactionAwareDirContextProxy(DirContext context, ContextSource target) {
-		return (DirContext) Proxy.newProxyInstance(DirContextProxy.class.getClassLoader(),
-				new Class[] { LdapUtils.getActualTargetClass(context), DirContextProxy.class },
-				new TransactionAwareDirContextInvocationHandler(context, target));
-
-	}
-
 	@Override
 	public DirContext getReadWriteContext() {
 		DirContextHolder contextHolder = (DirContextHolder) TransactionSynchronizationManager.getResource(this.target);
@@ -81,7 +71,7 @@ public class TransactionAwareContextSourceProxy extends DelegatingBaseLdapPathCo
 				contextHolder.setCtx(ctx);
 			}
 		}
-		return getTransactionAwareDirContextProxy(ctx, this.target);
+		return TransactionAwareDirContext.wrap(ctx, this.target);
 	}
 
 	@Override
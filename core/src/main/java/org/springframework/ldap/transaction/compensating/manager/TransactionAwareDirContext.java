@@ -0,0 +1,284 @@
+/*
+ * Copyright 2006-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ldap.transaction.compensating.manager;
+
+import javax.naming.Name;
+import javax.naming.NamingException;
+import javax.naming.directory.Attributes;
+import javax.naming.directory.DirContext;
+import javax.naming.directory.ModificationItem;
+import javax.naming.ldap.Control;
+import javax.naming.ldap.ExtendedRequest;
+import javax.naming.ldap.ExtendedResponse;
+import javax.naming.ldap.LdapContext;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.ldap.core.ContextSource;
+import org.springframework.ldap.core.support.AbstractDelegatingDirContext;
+import org.springframework.transaction.compensating.CompensatingTransactionOperationManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * {@link DirContext} wrapper making sure that the context is not closed during a
+ * transaction, and that all modifying operations are recorded, storing compensating
+ * rollback operations for them.
+ *
+ * @since 4.2
+ * @see TransactionAwareContextSourceProxy
+ */
+class TransactionAwareDirContext extends AbstractDelegatingDirContext {
+
+	private static final Logger log = LoggerFactory.getLogger(TransactionAwareDirContext.class);
+
+	private final ContextSource contextSource;
+
+	/**
+	 * Create a transaction-aware wrapper around the given context.
+	 * @param target the target context.
+	 * @param contextSource the transactional context source, needed to get hold of the
+	 * current transaction's {@link DirContextHolder}.
+	 */
+	TransactionAwareDirContext(DirContext target, ContextSource contextSource) {
+		super(target);
+		this.contextSource = contextSource;
+	}
+
+	/**
+	 * Wrap the given context, as an {@link LdapContext} if it is one.
+	 * @param target the target context.
+	 * @param contextSource the transactional context source.
+	 * @return the transaction-aware context
+	 */
+	static DirContext wrap(DirContext target, ContextSource contextSource) {
+		if (target instanceof LdapContext ldapContext) {
+			return new TransactionAwareLdapContext(ldapContext, contextSource);
+		}
+		return new TransactionAwareDirContext(target, contextSource);
+	}
+
+	@Override
+	public void bind(Name name, Object obj) throws NamingException {
+		if (!performInTransaction("bind", name, obj)) {
+			super.bind(name, obj);
+		}
+	}
+
+	@Override
+	public void bind(String name, Object obj) throws NamingException {
+		if (!performInTransaction("bind", name, obj)) {
+			super.bind(name, obj);
+		}
+	}
+
+	@Override
+	public void bind(Name name, Object obj, Attributes attrs) throws NamingException {
+		if (!performInTransaction("bind", name, obj, attrs)) {
+			super.bind(name, obj, attrs);
+		}
+	}
+
+	@Override
+	public void bind(String name, Object obj, Attributes attrs) throws NamingException {
+		if (!performInTransaction("bind", name, obj, attrs)) {
+			super.bind(name, obj, attrs);
+		}
+	}
+
+	@Override
+	public void rebind(Name name, Object obj) throws NamingException {
+		if (!performInTransaction("rebind", name, obj)) {
+			super.rebind(name, obj);
+		}
+	}
+
+	@Override
+	public void rebind(String name, Object obj) throws NamingException {
+		if (!performInTransaction("rebind", name, obj)) {
+			super.rebind(name, obj);
+		}
+	}
+
+	@Override
+	public void rebind(Name name, Object obj, Attributes attrs) throws NamingException {
+		if (!performInTransaction("rebind", name, obj, attrs)) {
+			super.rebind(name, obj, attrs);
+		}
+	}
+
+	@Override
+	public void rebind(String name, Object obj, Attributes attrs) throws NamingException {
+		if (!performInTransaction("rebind", name, obj, attrs)) {
+			super.rebind(name, obj, attrs);
+		}
+	}
+
+	@Override
+	public void rename(Name oldName, Name newName) throws NamingException {
+		if (!performInTransaction("rename", oldName, newName)) {
+			super.rename(oldName, newName);
+		}
+	}
+
+	@Override
+	public void rename(String oldName, String newName) throws NamingException {
+		if (!performInTransaction("rename", oldName, newName)) {
+			super.rename(oldName, newName);
+		}
+	}
+
+	@Override
+	public void modifyAttributes(Name name, int mod_op, Attributes attrs) throws NamingException {
+		if (!performInTransaction("modifyAttributes", name, mod_op, attrs)) {
+			super.modifyAttributes(name, mod_op, attrs);
+		}
+	}
+
+	@Override
+	public void modifyAttributes(String name, int mod_op, Attributes attrs) throws NamingException {
+		if (!performInTransaction("modifyAttributes", name, mod_op, attrs)) {
+			super.modifyAttributes(name, mod_op, attrs);
+		}
+	}
+
+	@Override
+	public void modifyAttributes(Name name, ModificationItem[] mods) throws NamingException {
+		if (!performInTransaction("modifyAttributes", name, mods)) {
+			super.modifyAttributes(name, mods);
+		}
+	}
+
+	@Override
+	public void modifyAttributes(String name, ModificationItem[] mods) throws NamingException {
+		if (!performInTransaction("modifyAttributes", name, mods)) {
+			super.modifyAttributes(name, mods);
+		}
+	}
+
+	@Override
+	public void unbind(Name name) throws NamingException {
+		if (!performInTransaction("unbind", name)) {
+			super.unbind(name);
+		}
+	}
+
+	@Override
+	public void unbind(String name) throws NamingException {
+		if (!performInTransaction("unbind", name)) {
+			super.unbind(name);
+		}
+	}
+
+	// Only consider equal when wrappers are identical.
+	@Override
+	public boolean equals(Object obj) {
+		return this == obj;
+	}
+
+	@Override
+	public int hashCode() {
+		return System.identityHashCode(this);
+	}
+
+	/**
+	 * Close the target context, but only if it is not associated with the current
+	 * transaction.
+	 */
+	@Override
+	public void close() throws NamingException {
+		DirContextHolder transactionContextHolder = (DirContextHolder) TransactionSynchronizationManager
+			.getResource(this.contextSource);
+		if (transactionContextHolder == null || transactionContextHolder.getCtx() != getTargetContext()) {
+			log.debug("Closing context");
+			// This is not the transactional context or the transaction is
+			// no longer active - we should close it.
+			super.close();
+		}
+		else {
+			log.debug("Leaving transactional context open");
+		}
+	}
+
+	/**
+	 * Record the given operation in the current transaction, if any.
+	 * @param operation the name of the modifying method.
+	 * @param args the arguments of the method.
+	 * @return {@code true} if a transaction is active, in which case the operation is
+	 * performed by the transaction, {@code false} if the caller should perform it
+	 */
+	private boolean performInTransaction(String operation, Object... args) {
+		DirContextHolder transactionContextHolder = (DirContextHolder) TransactionSynchronizationManager
+			.getResource(this.contextSource);
+		if (transactionContextHolder == null) {
+			return false;
+		}
+		CompensatingTransactionOperationManager transactionOperationManager = transactionContextHolder
+			.getTransactionOperationManager();
+		if (transactionOperationManager != null) {
+			transactionOperationManager.performOperation(transactionContextHolder.getTransactedResource(), operation,
+					args);
+		}
+		return true;
+	}
+
+	private static final class TransactionAwareLdapContext extends TransactionAwareDirContext implements LdapContext {
+
+		private final LdapContext target;
+
+		TransactionAwareLdapContext(LdapContext target, ContextSource contextSource) {
+			super(target, contextSource);
+			this.target = target;
+		}
+
+		@Override
+		public ExtendedResponse extendedOperation(ExtendedRequest request) throws NamingException {
+			return this.target.extendedOperation(request);
+		}
+
+		@Override
+		public LdapContext newInstance(Control[] requestControls) throws NamingException {
+			return this.target.newInstance(requestControls);
+		}
+
+		@Override
+		public void reconnect(Control[] connCtls) throws NamingException {
+			this.target.reconnect(connCtls);
+		}
+
+		@Override
+		public Control[] getConnectControls() throws NamingException {
+			return this.target.getConnectControls();
+		}
+
+		@Override
+		public void setRequestControls(Control[] requestControls) throws NamingException {
+			this.target.setRequestControls(requestControls);
+		}
+
+		@Override
+		public Control[] getRequestControls() throws NamingException {
+			return this.target.getRequestControls();
+		}
+
+		@Override
+		public Control[] getResponseControls() throws NamingException {
+			return this.target.getResponseControls();
+		}
+
+	}
+
+}
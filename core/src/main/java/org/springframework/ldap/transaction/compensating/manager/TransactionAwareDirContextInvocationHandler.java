@@ -39,7 +39,10 @@ import org.springframework.transaction.support.TransactionSynchronizationManager
  *
  * @author Mattias Hellborg Arthursson
  * @since 1.2
+ * @deprecated since 4.2, {@link TransactionAwareContextSourceProxy} wraps contexts
+ * without a reflective proxy
  */
+@Deprecated
 public class TransactionAwareDirContextInvocationHandler implements InvocationHandler {
 
 	private static Logger log = LoggerFactory.getLogger(TransactionAwareDirContextInvocationHandler.class);
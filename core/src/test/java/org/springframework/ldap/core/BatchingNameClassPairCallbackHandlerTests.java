@@ -0,0 +1,94 @@
+/*
+ * Copyright 2006-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ldap.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.naming.Binding;
+import javax.naming.NamingException;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@link BatchingNameClassPairCallbackHandler}.
+ */
+class BatchingNameClassPairCallbackHandlerTests {
+
+	private final List<List<Object>> batches = new ArrayList<>();
+
+	private final ContextMapper<Object> mapper = (ctx) -> ctx;
+
+	@Test
+	void handleNameClassPairWhenBatchFullThenHandsOverBatch() throws NamingException {
+		BatchingNameClassPairCallbackHandler<Object> tested = new BatchingNameClassPairCallbackHandler<>(this.mapper,
+				2, this.batches::add);
+
+		handle(tested, "a", "b", "c");
+
+		assertThat(this.batches).containsExactly(List.of("a", "b"));
+		tested.flush();
+		assertThat(this.batches).containsExactly(List.of("a", "b"), List.of("c"));
+		tested.complete();
+		assertThat(this.batches).hasSize(2);
+	}
+
+	@Test
+	void handleNameClassPairWhenExecutorThenHandsOverBatchAfterPreviousOneIsHandled() throws NamingException {
+		List<Runnable> tasks = new ArrayList<>();
+		BatchingNameClassPairCallbackHandler<Object> tested = new BatchingNameClassPairCallbackHandler<>(this.mapper,
+				2, this.batches::add);
+		tested.setExecutor(tasks::add);
+
+		handle(tested, "a", "b", "c");
+
+		assertThat(this.batches).isEmpty();
+		assertThat(tasks).hasSize(1);
+		tasks.remove(0).run();
+		assertThat(this.batches).containsExactly(List.of("a", "b"));
+		tested.flush();
+		assertThat(tasks).hasSize(1);
+		tasks.remove(0).run();
+		tested.complete();
+		assertThat(this.batches).containsExactly(List.of("a", "b"), List.of("c"));
+	}
+
+	@Test
+	void completeWhenHandlerFailsThenRethrows() throws NamingException {
+		IllegalStateException failure = new IllegalStateException("failed");
+		BatchingNameClassPairCallbackHandler<Object> tested = new BatchingNameClassPairCallbackHandler<>(this.mapper,
+				2, (batch) -> {
+					throw failure;
+				});
+		tested.setExecutor(Runnable::run);
+
+		handle(tested, "a");
+
+		assertThatIllegalStateException().isThrownBy(tested::complete).isSameAs(failure);
+	}
+
+	private static void handle(BatchingNameClassPairCallbackHandler<Object> handler, String... objects)
+			throws NamingException {
+		for (String object : objects) {
+			handler.handleNameClassPair(new Binding("cn=" + object, object));
+		}
+	}
+
+}
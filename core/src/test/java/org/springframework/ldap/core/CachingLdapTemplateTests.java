@@ -0,0 +1,270 @@
+/*
+ * Copyright 2006-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ldap.core;
+
+import java.time.Duration;
+import java.util.List;
+
+import javax.naming.Name;
+import javax.naming.directory.BasicAttributes;
+import javax.naming.directory.ModificationItem;
+import javax.naming.directory.SearchControls;
+import javax.naming.directory.SearchResult;
+import javax.naming.ldap.LdapContext;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.ldap.NameNotFoundException;
+import org.springframework.ldap.query.LdapQuery;
+import org.springframework.ldap.support.LdapUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.springframework.ldap.query.LdapQueryBuilder.query;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link CachingLdapTemplate}.
+ */
+class CachingLdapTemplateTests {
+
+	private static final Name JOHN = LdapUtils.newLdapName("cn=john,ou=people");
+
+	private static final Name JANE = LdapUtils.newLdapName("cn=jane,ou=people");
+
+	private static final String[] CN = { "cn" };
+
+	private final AttributesMapper<Object> cn = (attributes) -> attributes.get("cn").get();
+
+	private ContextSource contextSource;
+
+	private LdapContext ctx;
+
+	private CachingLdapTemplate tested;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		this.contextSource = mock(ContextSource.class);
+		this.ctx = mock(LdapContext.class);
+		given(this.contextSource.getReadOnlyContext()).willReturn(this.ctx);
+		given(this.contextSource.getReadWriteContext()).willReturn(this.ctx);
+		given(this.ctx.getAttributes(any(Name.class), any())).willReturn(new BasicAttributes("cn", "john"));
+		given(this.ctx.search(any(Name.class), any(String.class), any(SearchControls.class)))
+			.willAnswer((invocation) -> {
+				BasicAttributes attributes = new BasicAttributes("cn", "john");
+				DirContextAdapter entry = new DirContextAdapter(attributes, JOHN);
+				return new IterableNamingEnumeration<>(List.of(new SearchResult("cn=john", entry, attributes)));
+			});
+		this.tested = new CachingLdapTemplate(this.contextSource);
+	}
+
+	@Test
+	void lookupWhenSameEntryAndAttributesThenLooksUpOnce() throws Exception {
+		assertThat(this.tested.lookup(JOHN, CN, this.cn)).isEqualTo("john");
+		assertThat(this.tested.lookup("CN=John,ou=people", new String[] { "CN" }, this.cn)).isEqualTo("john");
+
+		verify(this.ctx).getAttributes(JOHN, CN);
+	}
+
+	@Test
+	void lookupWhenOtherAttributesThenLooksUpAgain() throws Exception {
+		this.tested.lookup(JOHN, CN, this.cn);
+		this.tested.lookup(JOHN, this.cn);
+
+		verify(this.ctx).getAttributes(eq(JOHN), eq(CN));
+		verify(this.ctx).getAttributes(eq(JOHN), eq((String[]) null));
+	}
+
+	@Test
+	void lookupWhenContextMapperModifiesEntryThenCacheIsUnaffected() {
+		this.tested.lookup(JOHN, CN, (ContextMapper<Object>) (ctx) -> {
+			((DirContextAdapter) ctx).setAttributeValue("cn", "jane");
+			return null;
+		});
+
+		DirContextAdapter entry = this.tested.lookup(JOHN, CN,
+				(ContextMapper<DirContextAdapter>) (ctx) -> (DirContextAdapter) ctx);
+
+		assertThat(entry.getStringAttribute("cn")).isEqualTo("john");
+		assertThat(entry.getDn()).isEqualTo(JOHN);
+	}
+
+	@Test
+	void modifyAttributesWhenEntryCachedThenLooksUpAgain() throws Exception {
+		this.tested.lookup(JOHN, CN, this.cn);
+		this.tested.modifyAttributes(JOHN, new ModificationItem[0]);
+		this.tested.lookup(JOHN, CN, this.cn);
+
+		verify(this.ctx, times(2)).getAttributes(JOHN, CN);
+	}
+
+	@Test
+	void renameWhenParentRenamedThenLooksUpSubordinatesAgain() throws Exception {
+		this.tested.lookup(JOHN, CN, this.cn);
+		this.tested.rename("ou=people", "ou=staff");
+		this.tested.lookup(JOHN, CN, this.cn);
+
+		verify(this.ctx, times(2)).getAttributes(JOHN, CN);
+	}
+
+	@Test
+	void bindToWhenLookupsThenCountsHitsAndMisses() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		this.tested.bindTo(registry);
+
+		this.tested.lookup(JOHN, CN, this.cn);
+		this.tested.lookup(JOHN, CN, this.cn);
+		this.tested.lookup(JOHN, CN, this.cn);
+
+		assertThat(registry.get("spring.ldap.cache.gets")
+			.tags("cache", "lookup", "result", "hit")
+			.functionCounter()
+			.count()).isEqualTo(2);
+		assertThat(registry.get("spring.ldap.cache.gets")
+			.tags("cache", "lookup", "result", "miss")
+			.functionCounter()
+			.count()).isEqualTo(1);
+		assertThat(registry.get("spring.ldap.cache.size").tag("cache", "lookup").gauge().value()).isEqualTo(1);
+	}
+
+	@Test
+	void bindToWhenReconfiguredThenKeepsCounting() throws Exception {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		this.tested.bindTo(registry);
+
+		this.tested.lookup(JOHN, CN, this.cn);
+		this.tested.lookup(JOHN, CN, this.cn);
+		this.tested.setTimeToLive(Duration.ofMinutes(1));
+		this.tested.setMaximumSize(100);
+		this.tested.lookup(JOHN, CN, this.cn);
+
+		assertThat(registry.get("spring.ldap.cache.gets")
+			.tags("cache", "lookup", "result", "hit")
+			.functionCounter()
+			.count()).isEqualTo(2);
+		verify(this.ctx).getAttributes(JOHN, CN);
+	}
+
+	@Test
+	void searchWhenSearchesNotCachedThenSearchesEachTime() throws Exception {
+		LdapQuery query = query().base("ou=people").attributes("cn").where("uid").is("john");
+
+		this.tested.search(query, this.cn);
+		this.tested.search(query, this.cn);
+
+		verify(this.ctx, times(2)).search(any(Name.class), any(String.class), any(SearchControls.class));
+	}
+
+	@Test
+	void searchWhenEquivalentQueryThenSearchesOnce() throws Exception {
+		this.tested.setCacheSearches(true);
+
+		assertThat(this.tested.search(query().base("ou=people").attributes("cn").where("uid").is("john"), this.cn))
+			.containsExactly("john");
+		assertThat(this.tested.search(query().base("OU=People").attributes("CN").where("uid").is("john"), this.cn))
+			.containsExactly("john");
+
+		verify(this.ctx).search(any(Name.class), any(String.class), any(SearchControls.class));
+	}
+
+	@Test
+	void searchWhenContextMapperModifiesEntryThenCacheIsUnaffected() {
+		this.tested.setCacheSearches(true);
+		LdapQuery query = query().base("ou=people").where("uid").is("john");
+		this.tested.search(query, (ContextMapper<Object>) (ctx) -> {
+			((DirContextAdapter) ctx).setAttributeValue("cn", "jane");
+			return null;
+		});
+
+		List<String> names = this.tested.search(query,
+				(ContextMapper<String>) (ctx) -> ((DirContextAdapter) ctx).getStringAttribute("cn"));
+
+		assertThat(names).containsExactly("john");
+	}
+
+	@Test
+	void modifyAttributesWhenEntryUnderSearchBaseThenSearchesAgain() throws Exception {
+		this.tested.setCacheSearches(true);
+		LdapQuery query = query().base("ou=people").where("uid").is("john");
+
+		this.tested.search(query, this.cn);
+		this.tested.modifyAttributes("cn=admins,ou=groups", new ModificationItem[0]);
+		this.tested.search(query, this.cn);
+		verify(this.ctx).search(any(Name.class), any(String.class), any(SearchControls.class));
+
+		this.tested.modifyAttributes(JOHN, new ModificationItem[0]);
+		this.tested.search(query, this.cn);
+		verify(this.ctx, times(2)).search(any(Name.class), any(String.class), any(SearchControls.class));
+	}
+
+	@Test
+	void lookupAttributesIfExistsWhenEntryAbsentThenLooksUpOnce() throws Exception {
+		given(this.ctx.getAttributes(eq(JANE), any())).willThrow(new javax.naming.NameNotFoundException());
+		this.tested.setNegativeTimeToLive(Duration.ofSeconds(10));
+
+		assertThat(this.tested.lookupAttributesIfExists(JANE, CN, this.cn)).isNull();
+		assertThat(this.tested.lookupAttributesIfExists(JANE, null, this.cn)).isNull();
+		assertThatExceptionOfType(NameNotFoundException.class)
+			.isThrownBy(() -> this.tested.lookup(JANE, CN, this.cn))
+			.satisfies((ex) -> assertThat(ex.getStackTrace()).isEmpty());
+
+		verify(this.ctx).getAttributes(eq(JANE), any());
+	}
+
+	@Test
+	void lookupAttributesIfExistsWhenAbsentsNotRememberedThenLooksUpEachTime() throws Exception {
+		given(this.ctx.getAttributes(eq(JANE), any())).willThrow(new javax.naming.NameNotFoundException());
+
+		assertThat(this.tested.lookupAttributesIfExists(JANE, CN, this.cn)).isNull();
+		assertThat(this.tested.lookupAttributesIfExists(JANE, CN, this.cn)).isNull();
+
+		verify(this.ctx, times(2)).getAttributes(eq(JANE), any());
+	}
+
+	@Test
+	void bindWhileLookingUpAbsentEntryThenLooksUpAgain() throws Exception {
+		given(this.ctx.getAttributes(eq(JANE), any())).willAnswer((invocation) -> {
+			this.tested.bind(JANE, null, new BasicAttributes("cn", "jane"));
+			throw new javax.naming.NameNotFoundException();
+		}).willReturn(new BasicAttributes("cn", "jane"));
+		this.tested.setNegativeTimeToLive(Duration.ofSeconds(10));
+
+		assertThat(this.tested.lookupAttributesIfExists(JANE, CN, this.cn)).isNull();
+
+		assertThat(this.tested.lookupAttributesIfExists(JANE, CN, this.cn)).isEqualTo("jane");
+	}
+
+	@Test
+	void bindWhenEntryAbsentThenLooksUpAgain() throws Exception {
+		given(this.ctx.getAttributes(eq(JANE), any())).willThrow(new javax.naming.NameNotFoundException())
+			.willReturn(new BasicAttributes("cn", "jane"));
+		this.tested.setNegativeTimeToLive(Duration.ofSeconds(10));
+
+		assertThat(this.tested.lookupAttributesIfExists(JANE, CN, this.cn)).isNull();
+		this.tested.bind(JANE, null, new BasicAttributes("cn", "jane"));
+
+		assertThat(this.tested.lookupAttributesIfExists(JANE, CN, this.cn)).isEqualTo("jane");
+	}
+
+}
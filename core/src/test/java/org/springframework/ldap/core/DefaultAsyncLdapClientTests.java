@@ -0,0 +1,152 @@
+/*
+ * Copyright 2006-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ldap.core;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+
+import javax.naming.Name;
+import javax.naming.directory.BasicAttributes;
+import javax.naming.directory.SearchControls;
+import javax.naming.directory.SearchResult;
+import javax.naming.ldap.LdapContext;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import org.springframework.ldap.support.LdapUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * Tests for {@link DefaultAsyncLdapClient}.
+ */
+class DefaultAsyncLdapClientTests {
+
+	private static final Name NAME = LdapUtils.newLdapName("cn=john,ou=people");
+
+	private final List<Runnable> tasks = new ArrayList<>();
+
+	private ContextSource contextSource;
+
+	private LdapContext ctx;
+
+	private AsyncLdapClient tested;
+
+	@BeforeEach
+	void setUp() {
+		this.contextSource = mock(ContextSource.class);
+		this.ctx = mock(LdapContext.class);
+		given(this.contextSource.getReadOnlyContext()).willReturn(this.ctx);
+		given(this.contextSource.getReadWriteContext()).willReturn(this.ctx);
+		this.tested = LdapClient.withContextSource(this.contextSource).buildAsync(this.tasks::add);
+	}
+
+	@Test
+	void searchWhenTaskRunsThenCompletesWithResult() throws Exception {
+		given(this.ctx.search(eq(NAME), anyString(), any(SearchControls.class))).willReturn(
+				new IterableNamingEnumeration<>(List.of(new SearchResult("", null, new BasicAttributes("cn", "john")))));
+
+		AttributesMapper<Object> cn = (attributes) -> attributes.get("cn").get();
+
+		CompletableFuture<List<Object>> future = this.tested.search((search) -> search.name(NAME).map(cn).list());
+
+		assertThat(future).isNotDone();
+		verifyNoInteractions(this.contextSource);
+		runTasks();
+		assertThat(future).isCompletedWithValue(List.of("john"));
+		verify(this.ctx).close();
+	}
+
+	@Test
+	void bindWhenTaskRunsThenBindsOnReadWriteContext() throws Exception {
+		BasicAttributes attributes = new BasicAttributes("cn", "john");
+
+		CompletableFuture<Void> future = this.tested.bind(NAME, (bind) -> bind.attributes(attributes));
+		runTasks();
+
+		assertThat(future).isCompleted();
+		verify(this.ctx).bind(NAME, null, attributes);
+		verify(this.ctx).close();
+	}
+
+	@Test
+	void executeWhenOperationFailsThenCompletesExceptionally() {
+		IllegalStateException failure = new IllegalStateException("failed");
+
+		CompletableFuture<Object> future = this.tested.execute((client) -> {
+			throw failure;
+		});
+		runTasks();
+
+		assertThatExceptionOfType(CompletionException.class).isThrownBy(future::join).withCause(failure);
+	}
+
+	@Test
+	void executeWhenExecutorRejectsThenCompletesExceptionally() {
+		AsyncLdapClient rejecting = LdapClient.withContextSource(this.contextSource).buildAsync((task) -> {
+			throw new IllegalStateException("rejected");
+		});
+
+		CompletableFuture<Object> future = rejecting.execute((client) -> "value");
+
+		assertThat(future).isCompletedExceptionally();
+	}
+
+	@Test
+	void withTimeoutWhenSearchThenServerTimeLimitIsRemainingTime() throws Exception {
+		given(this.ctx.search(eq(NAME), anyString(), any(SearchControls.class)))
+			.willReturn(new IterableNamingEnumeration<>(List.of()));
+
+		this.tested.withTimeout(Duration.ofMinutes(1)).search((search) -> search.name(NAME).toEntryList());
+		runTasks();
+
+		ArgumentCaptor<SearchControls> controls = ArgumentCaptor.forClass(SearchControls.class);
+		verify(this.ctx).search(eq(NAME), anyString(), controls.capture());
+		assertThat(controls.getValue().getTimeLimit()).isPositive().isLessThanOrEqualTo(60_000);
+	}
+
+	@Test
+	void withTimeoutWhenStillQueuedAtDeadlineThenNotSent() {
+		CompletableFuture<Object> future = this.tested.withTimeout(Duration.ofMillis(1))
+			.search((search) -> search.name(NAME).toEntryList());
+
+		assertThatExceptionOfType(CompletionException.class).isThrownBy(future::join)
+			.withCauseInstanceOf(TimeoutException.class);
+		runTasks();
+		verifyNoInteractions(this.contextSource);
+	}
+
+	private void runTasks() {
+		this.tasks.forEach(Runnable::run);
+		this.tasks.clear();
+	}
+
+}
@@ -16,9 +16,12 @@
 
 package org.springframework.ldap.core;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Flow;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 
@@ -31,6 +34,7 @@ import javax.naming.directory.DirContext;
 import javax.naming.directory.ModificationItem;
 import javax.naming.directory.SearchControls;
 import javax.naming.directory.SearchResult;
+import javax.naming.ldap.Control;
 import javax.naming.ldap.LdapContext;
 import javax.naming.ldap.LdapName;
 
@@ -62,8 +66,10 @@ import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.springframework.ldap.core.TestPagedResultsControls.pagedResultsResponse;
 
 /**
  * Unit tests for {@link LdapClient}
@@ -579,6 +585,56 @@ public class DefaultLdapClientTests {
 		assertThat(result).isNotNull();
 	}
 
+	@Test
+	public void testAuthenticateWithIdentificationCacheShouldSearchOnce() throws Exception {
+		LdapClient tested = LdapClient.builder()
+			.contextSource(this.contextSourceMock)
+			.authenticationCacheTimeToLive(Duration.ofMinutes(1))
+			.build();
+		given(this.contextSourceMock.getReadOnlyContext()).willReturn(this.dirContextMock);
+
+		Object expectedObject = new DirContextAdapter(new BasicAttributes(), LdapUtils.newLdapName("cn=john doe"),
+				LdapUtils.newLdapName("dc=jayway, dc=se"));
+		singleSearchResult(searchControlsRecursive(), new SearchResult("", expectedObject, new BasicAttributes()));
+		given(this.contextSourceMock.getContext("cn=john doe,dc=jayway,dc=se", "password"))
+			.willReturn(this.authenticatedContextMock);
+
+		LdapQuery query = LdapQueryBuilder.query().base(this.nameMock).filter("(ou=somevalue)");
+		tested.authenticate().query(query).password("password").execute();
+		tested.authenticate().query(query).password("password").execute();
+
+		verify(this.contextSourceMock).getReadOnlyContext();
+		verify(this.contextSourceMock, times(2)).getContext("cn=john doe,dc=jayway,dc=se", "password");
+	}
+
+	@Test
+	public void testAuthenticateWithIdentificationCacheAndFailedAuthenticationShouldSearchAgain() throws Exception {
+		LdapClient tested = LdapClient.builder()
+			.contextSource(this.contextSourceMock)
+			.authenticationCacheTimeToLive(Duration.ofMinutes(1))
+			.build();
+		given(this.contextSourceMock.getReadOnlyContext()).willReturn(this.dirContextMock);
+
+		Object expectedObject = new DirContextAdapter(new BasicAttributes(), LdapUtils.newLdapName("cn=john doe"),
+				LdapUtils.newLdapName("dc=jayway, dc=se"));
+		given(this.dirContextMock.search(eq(this.nameMock), eq("(ou=somevalue)"),
+				argThat(new SearchControlsMatcher(searchControlsRecursive()))))
+			.willReturn(this.namingEnumerationMock);
+		given(this.namingEnumerationMock.hasMore()).willReturn(true, false, true, false);
+		given(this.namingEnumerationMock.next())
+			.willReturn(new SearchResult("", expectedObject, new BasicAttributes()));
+		given(this.contextSourceMock.getContext("cn=john doe,dc=jayway,dc=se", "password"))
+			.willThrow(new AuthenticationException());
+
+		LdapQuery query = LdapQueryBuilder.query().base(this.nameMock).filter("(ou=somevalue)");
+		assertThatExceptionOfType(AuthenticationException.class)
+			.isThrownBy(() -> tested.authenticate().query(query).password("password").execute());
+		assertThatExceptionOfType(AuthenticationException.class)
+			.isThrownBy(() -> tested.authenticate().query(query).password("password").execute());
+
+		verify(this.contextSourceMock, times(2)).getReadOnlyContext();
+	}
+
 	@Test
 	public void testAuthenticateWithTwoUsersFoundShouldThrowException() throws Exception {
 		given(this.contextSourceMock.getReadOnlyContext()).willReturn(this.dirContextMock);
@@ -735,6 +791,25 @@ public class DefaultLdapClientTests {
 		verify(this.dirContextMock).close();
 	}
 
+	@Test
+	public void searchMapContextMapperSingleWhenMoreResultsThenStopsAfterSecond() throws Exception {
+		expectGetReadOnlyContext();
+
+		given(this.dirContextMock.search(eq(this.nameMock), anyString(),
+				argThat((SearchControls controls) -> controls.getCountLimit() == 2)))
+			.willReturn(this.namingEnumerationMock);
+		given(this.namingEnumerationMock.hasMore()).willReturn(true);
+		given(this.namingEnumerationMock.next()).willReturn(new SearchResult("", null, new BasicAttributes()));
+		given(this.contextMapperMock.mapFromContext(any())).willReturn("mapped");
+
+		assertThatExceptionOfType(IncorrectResultSizeDataAccessException.class)
+			.isThrownBy(() -> this.tested.search().name(this.nameMock).map(this.contextMapperMock).single());
+
+		verify(this.namingEnumerationMock, times(2)).next();
+		verify(this.namingEnumerationMock).close();
+		verify(this.dirContextMock).close();
+	}
+
 	@Test
 	public void searchMapContextMapperOptional() throws Exception {
 		expectGetReadOnlyContext();
@@ -882,6 +957,210 @@ public class DefaultLdapClientTests {
 		verify(this.dirContextMock).close();
 	}
 
+	@Test
+	public void searchStreamWhenPageSizeThenRequestsPagesAndClosesContextOnClose() throws Exception {
+		expectGetReadOnlyContext();
+
+		LdapDataEntry first = mock(LdapDataEntry.class);
+		LdapDataEntry second = mock(LdapDataEntry.class);
+		given(this.dirContextMock.search(eq(this.nameMock), eq("(ou=somevalue)"), any(SearchControls.class)))
+			.willReturn(new IterableNamingEnumeration<>(List.of(new SearchResult("", first, new BasicAttributes()))))
+			.willReturn(new IterableNamingEnumeration<>(List.of(new SearchResult("", second, new BasicAttributes()))));
+		given(((LdapContext) this.dirContextMock).getResponseControls())
+			.willReturn(new Control[] { pagedResultsResponse(new byte[] { 1 }) })
+			.willReturn(new Control[] { pagedResultsResponse() });
+
+		Stream<LdapDataEntry> results = this.tested.search()
+			.query((builder) -> builder.base(this.nameMock).pageSize(1).filter("(ou=somevalue)"))
+			.stream();
+		verify(this.dirContextMock, times(0)).close();
+		try (results) {
+			assertThat(results).containsExactly(first, second);
+		}
+
+		verify(this.dirContextMock).close();
+	}
+
+	@Test
+	public void searchPublisherWhenCancelledThenClosesResultsAndContext() throws Exception {
+		expectGetReadOnlyContext();
+
+		setupSearchResults(searchControlsRecursive(), new SearchResult("", null, new BasicAttributes()),
+				new SearchResult("", null, new BasicAttributes()));
+		given(this.contextMapperMock.mapFromContext(any())).willReturn("mapped");
+
+		Flow.Publisher<Object> publisher = this.tested.search()
+			.query((builder) -> builder.base(this.nameMock).filter("(ou=somevalue)"))
+			.map(this.contextMapperMock)
+			.publisher(Runnable::run);
+		verify(this.contextSourceMock, never()).getReadOnlyContext();
+
+		List<Object> received = new ArrayList<>();
+		publisher.subscribe(new Flow.Subscriber<>() {
+			@Override
+			public void onSubscribe(Flow.Subscription subscription) {
+				subscription.request(1);
+				subscription.cancel();
+			}
+
+			@Override
+			public void onNext(Object item) {
+				received.add(item);
+			}
+
+			@Override
+			public void onError(Throwable throwable) {
+			}
+
+			@Override
+			public void onComplete() {
+			}
+		});
+
+		assertThat(received).containsExactly("mapped");
+		verify(this.namingEnumerationMock).next();
+		verify(this.namingEnumerationMock).close();
+		verify(this.dirContextMock).close();
+	}
+
+	@Test
+	public void searchListWhenBasesThenSearchesEachBaseAndRemovesDuplicates() throws Exception {
+		expectGetReadOnlyContext();
+
+		Name emea = LdapUtils.newLdapName("ou=emea");
+		Name apac = LdapUtils.newLdapName("ou=apac");
+		given(this.dirContextMock.search(eq(emea), eq("(ou=somevalue)"), any(SearchControls.class)))
+			.willReturn(new IterableNamingEnumeration<>(List.of(new SearchResult("uid=john", "john", null))));
+		given(this.dirContextMock.search(eq(apac), eq("(ou=somevalue)"), any(SearchControls.class)))
+			.willReturn(new IterableNamingEnumeration<>(List.of(new SearchResult("uid=jane", "jane", null))));
+		given(this.contextMapperMock.mapFromContext(any())).willAnswer((invocation) -> invocation.getArgument(0));
+
+		List<Object> results = this.tested.search()
+			.query((builder) -> builder.bases(emea, apac).filter("(ou=somevalue)"))
+			.map(this.contextMapperMock)
+			.list();
+
+		assertThat(results).containsExactlyInAnyOrder("john", "jane");
+		verify(this.dirContextMock, times(2)).close();
+	}
+
+	@Test
+	public void searchStreamWhenPartitionsThenSearchesEachPartition() throws Exception {
+		expectGetReadOnlyContext();
+
+		given(this.dirContextMock.search(eq(this.nameMock), eq("(&(ou=somevalue)(!(uid>=m)))"),
+				any(SearchControls.class)))
+			.willReturn(new IterableNamingEnumeration<>(List.of(new SearchResult("uid=john", "john", null))));
+		given(this.dirContextMock.search(eq(this.nameMock), eq("(&(ou=somevalue)(uid>=m))"), any(SearchControls.class)))
+			.willReturn(new IterableNamingEnumeration<>(List.of(new SearchResult("uid=mike", "mike", null))));
+		given(this.contextMapperMock.mapFromContext(any())).willAnswer((invocation) -> invocation.getArgument(0));
+
+		try (Stream<Object> results = this.tested.search()
+			.query((builder) -> builder.base(this.nameMock).partitionByRange("uid", "m").filter("(ou=somevalue)"))
+			.map(this.contextMapperMock)
+			.stream()) {
+			assertThat(results).containsExactlyInAnyOrder("john", "mike");
+		}
+		verify(this.dirContextMock, times(2)).close();
+	}
+
+	@Test
+	public void searchObjectWhenBasesThenIllegalArgumentException() {
+		Name emea = LdapUtils.newLdapName("ou=emea");
+		Name apac = LdapUtils.newLdapName("ou=apac");
+
+		assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> this.tested.search()
+			.query((builder) -> builder.bases(emea, apac).filter("(ou=somevalue)"))
+			.toObject(this.contextMapperMock));
+		verify(this.contextSourceMock, never()).getReadOnlyContext();
+	}
+
+	@Test
+	public void searchCountWhenBasesThenCountsEachEntryOnce() throws Exception {
+		expectGetReadOnlyContext();
+
+		Name people = LdapUtils.newLdapName("ou=people");
+		Name staff = LdapUtils.newLdapName("ou=staff,ou=people");
+		given(this.dirContextMock.search(eq(people), eq("(ou=somevalue)"), any(SearchControls.class)))
+			.willReturn(new IterableNamingEnumeration<>(List.of(new SearchResult("uid=john", null, null),
+					new SearchResult("uid=jane,ou=staff", null, null))));
+		given(this.dirContextMock.search(eq(staff), eq("(ou=somevalue)"), any(SearchControls.class)))
+			.willReturn(new IterableNamingEnumeration<>(List.of(new SearchResult("uid=jane", null, null))));
+
+		int count = this.tested.search()
+			.query((builder) -> builder.bases(people, staff).filter("(ou=somevalue)"))
+			.count();
+
+		assertThat(count).isEqualTo(2);
+		verify(this.dirContextMock, times(2)).search(any(Name.class), eq("(ou=somevalue)"),
+				argThat((SearchControls controls) -> !controls.getReturningObjFlag()
+						&& List.of("1.1").equals(List.of(controls.getReturningAttributes()))));
+		verify(this.dirContextMock, times(2)).close();
+	}
+
+	@Test
+	public void searchExistsWhenServerStopsAfterFirstEntryThenTrue() throws Exception {
+		expectGetReadOnlyContext();
+
+		given(this.dirContextMock.search(eq(this.nameMock), eq("(ou=somevalue)"),
+				argThat((SearchControls controls) -> controls.getCountLimit() == 1)))
+			.willReturn(this.namingEnumerationMock);
+		given(this.namingEnumerationMock.hasMore()).willReturn(true)
+			.willThrow(new javax.naming.SizeLimitExceededException());
+		given(this.namingEnumerationMock.next()).willReturn(new SearchResult("uid=john", null, null));
+
+		LdapClient client = LdapClient.withContextSource(this.contextSourceMock)
+			.ignoreSizeLimitExceededException(false)
+			.build();
+		boolean exists = client.search()
+			.query((builder) -> builder.base(this.nameMock).filter("(ou=somevalue)"))
+			.exists();
+
+		assertThat(exists).isTrue();
+		verify(this.namingEnumerationMock).close();
+		verify(this.dirContextMock).close();
+	}
+
+	@Test
+	public void searchForEachBatchWhenExecutorThenHandsOverBatchesInOrder() throws Exception {
+		expectGetReadOnlyContext();
+
+		setupSearchResults(searchControlsRecursive(), new SearchResult("", "john", null),
+				new SearchResult("", "jane", null));
+		given(this.contextMapperMock.mapFromContext(any())).willAnswer((invocation) -> invocation.getArgument(0));
+
+		List<List<Object>> batches = new ArrayList<>();
+		this.tested.search()
+			.query((builder) -> builder.base(this.nameMock).filter("(ou=somevalue)"))
+			.map(this.contextMapperMock)
+			.forEachBatch(1, batches::add, Runnable::run);
+
+		assertThat(batches).containsExactly(List.of("john"), List.of("jane"));
+		verify(this.namingEnumerationMock).close();
+		verify(this.dirContextMock).close();
+	}
+
+	@Test
+	public void searchForEachBatchWhenSearchFailsThenWaitsForPendingBatch() throws Exception {
+		expectGetReadOnlyContext();
+
+		setupSearchResults(searchControlsRecursive(), new SearchResult("", "john", null),
+				new SearchResult("", "jane", null));
+		given(this.contextMapperMock.mapFromContext(any())).willReturn("john")
+			.willThrow(new IllegalStateException("mapping"));
+
+		assertThatExceptionOfType(IllegalStateException.class).isThrownBy(() -> this.tested.search()
+			.query((builder) -> builder.base(this.nameMock).filter("(ou=somevalue)"))
+			.map(this.contextMapperMock)
+			.forEachBatch(1, (batch) -> {
+				throw new IllegalArgumentException("handling");
+			}, (task) -> new Thread(task).start()))
+			.withMessage("mapping")
+			.satisfies((ex) -> assertThat(ex.getSuppressed()).singleElement()
+				.isInstanceOf(IllegalArgumentException.class));
+		verify(this.dirContextMock).close();
+	}
+
 	@Test
 	public void createWhenLdapTemplateThenUses() {
 		LdapTemplate ldap = mock(LdapTemplate.class);
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2006-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ldap.core;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link ExpiringCache}.
+ */
+class ExpiringCacheTests {
+
+	private final AtomicLong ticker = new AtomicLong();
+
+	private final ExpiringCache<String, String> cache = new ExpiringCache<>(2, Duration.ofSeconds(10),
+			this.ticker::get);
+
+	@Test
+	void getWhenCachedThenDoesNotLoadAgain() {
+		assertThat(this.cache.get("a", () -> "1")).isEqualTo("1");
+		assertThat(this.cache.get("a", () -> "2")).isEqualTo("1");
+
+		assertThat(this.cache.hitCount()).isEqualTo(1);
+		assertThat(this.cache.missCount()).isEqualTo(1);
+	}
+
+	@Test
+	void getWhenExpiredThenLoadsAgain() {
+		this.cache.get("a", () -> "1");
+		this.ticker.addAndGet(TimeUnit.SECONDS.toNanos(10));
+
+		assertThat(this.cache.get("a", () -> "2")).isEqualTo("2");
+	}
+
+	@Test
+	void getWhenFullThenEvictsLeastRecentlyUsed() {
+		this.cache.get("a", () -> "1");
+		this.cache.get("b", () -> "2");
+		this.cache.get("a", () -> "1");
+		this.cache.get("c", () -> "3");
+
+		assertThat(this.cache.getIfPresent("a")).isEqualTo("1");
+		assertThat(this.cache.getIfPresent("b")).isNull();
+		assertThat(this.cache.evictionCount()).isEqualTo(1);
+	}
+
+	@Test
+	void setMaximumSizeWhenSmallerThenEvictsLeastRecentlyUsed() {
+		this.cache.get("a", () -> "1");
+		this.cache.get("b", () -> "2");
+		this.cache.get("a", () -> "1");
+
+		this.cache.setMaximumSize(1);
+
+		assertThat(this.cache.getIfPresent("a")).isEqualTo("1");
+		assertThat(this.cache.getIfPresent("b")).isNull();
+		assertThat(this.cache.evictionCount()).isEqualTo(1);
+		assertThat(this.cache.hitCount()).isEqualTo(1);
+	}
+
+	@Test
+	void setTimeToLiveThenAppliesToCachedEntries() {
+		this.cache.get("a", () -> "1");
+		this.ticker.addAndGet(TimeUnit.SECONDS.toNanos(5));
+
+		this.cache.setTimeToLive(Duration.ofSeconds(5));
+
+		assertThat(this.cache.getIfPresent("a")).isNull();
+	}
+
+	@Test
+	void getWhenLoadingConcurrentlyThenLoadsOnce() throws Exception {
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger loads = new AtomicInteger();
+		CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> this.cache.get("a", () -> {
+			loads.incrementAndGet();
+			loading.countDown();
+			await(release);
+			return "1";
+		}));
+		assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+		CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> this.cache.get("a", () -> {
+			loads.incrementAndGet();
+			return "2";
+		}));
+		release.countDown();
+
+		assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("1");
+		assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("1");
+		assertThat(loads).hasValue(1);
+	}
+
+	@Test
+	void getWhenInvalidatedWhileLoadingThenDoesNotCache() {
+		String value = this.cache.get("a", () -> {
+			this.cache.invalidate("a"::equals);
+			return "1";
+		});
+
+		assertThat(value).isEqualTo("1");
+		assertThat(this.cache.getIfPresent("a")).isNull();
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2006-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ldap.core;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import org.springframework.ldap.TimeLimitExceededException;
+import org.springframework.ldap.core.FederatedLdapSearch.SourcedResult;
+import org.springframework.ldap.query.LdapQuery;
+import org.springframework.ldap.query.LdapQueryBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link FederatedLdapSearch}.
+ */
+class FederatedLdapSearchTests {
+
+	private static final LdapQuery QUERY = LdapQueryBuilder.query().where("uid").is("john");
+
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	private final ContextMapper<Object> mapper = (ctx) -> ctx;
+
+	private LdapOperations corporate;
+
+	private LdapOperations partners;
+
+	private FederatedLdapSearch tested;
+
+	@BeforeEach
+	void setUp() {
+		this.corporate = mock(LdapOperations.class);
+		this.partners = mock(LdapOperations.class);
+		Map<String, LdapOperations> sources = new LinkedHashMap<>();
+		sources.put("corporate", this.corporate);
+		sources.put("partners", this.partners);
+		this.tested = new FederatedLdapSearch(sources);
+		this.tested.setExecutor(this.executor);
+	}
+
+	@AfterEach
+	void shutdown() {
+		this.release.countDown();
+		this.executor.shutdownNow();
+	}
+
+	@Test
+	void searchWhenSourcesAnswerThenTagsResultsBySource() {
+		given(this.corporate.search(any(LdapQuery.class), any(ContextMapper.class))).willReturn(List.of("john"));
+		given(this.partners.search(any(LdapQuery.class), any(ContextMapper.class)))
+			.willReturn(List.of("john.doe", "jdoe"));
+
+		List<SourcedResult<Object>> results = this.tested.search(QUERY, this.mapper);
+
+		assertThat(results).extracting(SourcedResult::getSource)
+			.containsExactly("corporate", "partners", "partners");
+		assertThat(results).extracting(SourcedResult::getResult).containsExactly("john", "john.doe", "jdoe");
+	}
+
+	@Test
+	void searchWhenSourceTimesOutThenFails() {
+		given(this.corporate.search(any(LdapQuery.class), any(ContextMapper.class))).willAnswer((invocation) -> {
+			this.release.await();
+			return List.of();
+		});
+		given(this.partners.search(any(LdapQuery.class), any(ContextMapper.class))).willReturn(List.of("john"));
+		this.tested.setTimeout("corporate", Duration.ofMillis(50));
+
+		assertThatExceptionOfType(TimeLimitExceededException.class)
+			.isThrownBy(() -> this.tested.search(QUERY, this.mapper));
+	}
+
+	@Test
+	void searchWhenSourceTimesOutAndFailuresIgnoredThenReturnsOtherResults() {
+		given(this.corporate.search(any(LdapQuery.class), any(ContextMapper.class))).willAnswer((invocation) -> {
+			this.release.await();
+			return List.of();
+		});
+		given(this.partners.search(any(LdapQuery.class), any(ContextMapper.class))).willReturn(List.of("john"));
+		this.tested.setTimeout(Duration.ofMillis(50));
+		this.tested.setIgnoreSourceFailures(true);
+
+		List<SourcedResult<Object>> results = this.tested.search(QUERY, this.mapper);
+
+		assertThat(results).extracting(SourcedResult::getResult).containsExactly("john");
+	}
+
+	@Test
+	void searchWhenTimeoutThenSendsTimeLimitToSource() {
+		given(this.corporate.search(any(LdapQuery.class), any(ContextMapper.class))).willReturn(List.of());
+		given(this.partners.search(any(LdapQuery.class), any(ContextMapper.class))).willReturn(List.of());
+		this.tested.setTimeout(Duration.ofSeconds(2));
+
+		this.tested.search(QUERY, this.mapper);
+
+		ArgumentCaptor<LdapQuery> query = ArgumentCaptor.forClass(LdapQuery.class);
+		verify(this.corporate).search(query.capture(), any(ContextMapper.class));
+		assertThat(query.getValue().timeLimit()).isEqualTo(2000);
+		assertThat(query.getValue().filter()).isEqualTo(QUERY.filter());
+	}
+
+	@Test
+	void searchFirstWhenOneSourceAnswersThenDoesNotWaitForSlowerSources() {
+		given(this.corporate.search(any(LdapQuery.class), any(ContextMapper.class))).willAnswer((invocation) -> {
+			this.release.await();
+			return List.of("late");
+		});
+		given(this.partners.search(any(LdapQuery.class), any(ContextMapper.class))).willReturn(List.of("john"));
+
+		List<SourcedResult<Object>> results = this.tested.searchFirst(QUERY, this.mapper);
+
+		assertThat(results).extracting(SourcedResult::getSource).containsExactly("partners");
+	}
+
+	@Test
+	void searchForAttributesWhenSourcesAnswerThenTagsResultsBySource() {
+		given(this.corporate.search(any(LdapQuery.class), any(AttributesMapper.class))).willReturn(List.of("john"));
+		given(this.partners.search(any(LdapQuery.class), any(AttributesMapper.class))).willReturn(List.of("jdoe"));
+
+		List<SourcedResult<Object>> results = this.tested.searchForAttributes(QUERY, (attributes) -> attributes);
+
+		assertThat(results).extracting(SourcedResult::getSource).containsExactly("corporate", "partners");
+		assertThat(results).extracting(SourcedResult::getResult).containsExactly("john", "jdoe");
+	}
+
+	@Test
+	void searchFirstWhenNoSourceFindsAnyThenEmpty() {
+		given(this.corporate.search(any(LdapQuery.class), any(ContextMapper.class))).willReturn(List.of());
+		given(this.partners.search(any(LdapQuery.class), any(ContextMapper.class))).willReturn(List.of());
+
+		assertThat(this.tested.searchFirst(QUERY, this.mapper)).isEmpty();
+	}
+
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2006-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ldap.core;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.naming.ldap.LdapName;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.ldap.query.LdapQuery;
+import org.springframework.ldap.support.LdapUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link GroupMembershipResolver}.
+ */
+class GroupMembershipResolverTests {
+
+	private static final LdapName JOHN = LdapUtils.newLdapName("cn=john,ou=people");
+
+	private static final LdapName JANE = LdapUtils.newLdapName("cn=jane,ou=people");
+
+	private static final LdapName DEVELOPERS = LdapUtils.newLdapName("cn=developers,ou=groups");
+
+	private static final LdapName TESTERS = LdapUtils.newLdapName("cn=testers,ou=groups");
+
+	private static final LdapName STAFF = LdapUtils.newLdapName("cn=staff,ou=groups");
+
+	private static final LdapName ADMINS = LdapUtils.newLdapName("cn=admins,ou=groups");
+
+	private final Map<LdapName, List<LdapName>> members = new LinkedHashMap<>();
+
+	private LdapOperations ldapOperations;
+
+	private GroupMembershipResolver tested;
+
+	@BeforeEach
+	void setUp() {
+		// staff and developers are members of each other
+		this.members.put(DEVELOPERS, List.of(JOHN, STAFF));
+		this.members.put(TESTERS, List.of(JOHN));
+		this.members.put(STAFF, List.of(DEVELOPERS, TESTERS));
+		this.ldapOperations = mock(LdapOperations.class);
+		given(this.ldapOperations.search(any(LdapQuery.class), any(ContextMapper.class))).willAnswer((invocation) -> {
+			String filter = invocation.<LdapQuery>getArgument(0).filter().encode();
+			return this.members.entrySet()
+				.stream()
+				.filter((group) -> group.getValue().stream().anyMatch((member) -> filter.contains("=" + member + ")")))
+				.map(Map.Entry::getKey)
+				.toList();
+		});
+		this.tested = new GroupMembershipResolver(this.ldapOperations, LdapUtils.newLdapName("ou=groups"));
+		this.tested.setExecutor(Runnable::run);
+	}
+
+	@Test
+	void getGroupsWhenNestedGroupsThenResolvesEachDirectGroup() {
+		assertThat(this.tested.getGroups(JOHN)).containsExactly(DEVELOPERS, TESTERS, STAFF);
+
+		verify(this.ldapOperations, times(5)).search(any(LdapQuery.class), any(ContextMapper.class));
+	}
+
+	@Test
+	void getGroupsWhenDirectGroupsResolvedThenSearchesDirectGroupsOnly() {
+		this.members.put(TESTERS, List.of(JOHN, JANE));
+		this.tested.getGroups(JOHN);
+
+		assertThat(this.tested.getGroups(JANE)).containsExactly(TESTERS, STAFF, DEVELOPERS);
+
+		verify(this.ldapOperations, times(6)).search(any(LdapQuery.class), any(ContextMapper.class));
+	}
+
+	@Test
+	void getGroupsWhenLevelExceedsBatchSizeThenSearchesInBatches() {
+		this.members.put(ADMINS, List.of(TESTERS));
+		this.tested.setBatchSize(1);
+
+		assertThat(this.tested.getGroups(JOHN)).containsExactly(DEVELOPERS, TESTERS, STAFF, ADMINS);
+
+		verify(this.ldapOperations, times(6)).search(any(LdapQuery.class), any(ContextMapper.class));
+	}
+
+	@Test
+	void isMemberWhenResolvedThenUsesCache() {
+		assertThat(this.tested.isMember(JOHN, STAFF)).isTrue();
+		assertThat(this.tested.isMember(JOHN, ADMINS)).isFalse();
+
+		verify(this.ldapOperations, times(5)).search(any(LdapQuery.class), any(ContextMapper.class));
+	}
+
+	@Test
+	void invalidateWhenGroupChangedThenResolvesItsMembersAgain() {
+		this.tested.getGroups(JOHN);
+		this.members.put(ADMINS, List.of(STAFF));
+
+		this.tested.invalidate(STAFF);
+
+		assertThat(this.tested.isMember(JOHN, ADMINS)).isTrue();
+	}
+
+	@Test
+	void bindToWhenTimeToLiveChangedThenKeepsCounting() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		this.tested.bindTo(registry);
+		this.tested.getGroups(JOHN);
+
+		this.tested.setTimeToLive(Duration.ofMinutes(1));
+		this.tested.getGroups(JOHN);
+
+		assertThat(registry.get("spring.ldap.cache.gets")
+			.tags("cache", "groups", "result", "hit")
+			.functionCounter()
+			.count()).isEqualTo(1);
+	}
+
+}
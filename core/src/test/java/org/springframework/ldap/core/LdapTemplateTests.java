@@ -16,7 +16,10 @@
 
 package org.springframework.ldap.core;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 import javax.naming.Binding;
 import javax.naming.CompositeName;
@@ -29,6 +32,7 @@ import javax.naming.directory.DirContext;
 import javax.naming.directory.ModificationItem;
 import javax.naming.directory.SearchControls;
 import javax.naming.directory.SearchResult;
+import javax.naming.ldap.Control;
 import javax.naming.ldap.LdapContext;
 import javax.naming.ldap.LdapName;
 
@@ -54,6 +58,7 @@ import org.springframework.ldap.query.LdapQueryBuilder;
 import org.springframework.ldap.support.LdapUtils;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.assertj.core.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
@@ -66,6 +71,7 @@ import static org.mockito.BDDMockito.verify;
 import static org.mockito.BDDMockito.willAnswer;
 import static org.mockito.BDDMockito.willDoNothing;
 import static org.mockito.BDDMockito.willThrow;
+import static org.springframework.ldap.core.TestPagedResultsControls.pagedResultsResponse;
 
 /**
  * Unit tests for the LdapTemplate class.
@@ -627,7 +633,7 @@ public class LdapTemplateTests {
 
 		DirContextAdapter expectedObject = new DirContextAdapter();
 		SearchResult searchResult = new SearchResult("", expectedObject, new BasicAttributes());
-		singleSearchResult(searchControlsRecursive(), searchResult);
+		singleSearchResult(searchControlsSingleResult(), searchResult);
 
 		Object expectedResult = expectedObject;
 		given(this.odmMock.mapFromLdapDataEntry(expectedObject, expectedClass)).willReturn(expectedResult);
@@ -648,7 +654,7 @@ public class LdapTemplateTests {
 		given(this.odmMock.filterFor(expectedClass, new EqualsFilter("ou", "somevalue")))
 			.willReturn(new EqualsFilter("ou", "somevalue"));
 
-		noSearchResults(searchControlsRecursive());
+		noSearchResults(searchControlsSingleResult());
 
 		try {
 			this.tested.findOne(LdapQueryBuilder.query().where("ou").is("somevalue"), expectedClass);
@@ -674,7 +680,7 @@ public class LdapTemplateTests {
 		DirContextAdapter expectedObject = new DirContextAdapter();
 		SearchResult searchResult = new SearchResult("", expectedObject, new BasicAttributes());
 
-		setupSearchResults(searchControlsRecursive(), new SearchResult[] { searchResult, searchResult });
+		setupSearchResults(searchControlsSingleResult(), new SearchResult[] { searchResult, searchResult });
 
 		Object expectedResult = expectedObject;
 		given(this.odmMock.mapFromLdapDataEntry(expectedObject, expectedClass)).willReturn(expectedResult,
@@ -1677,7 +1683,7 @@ public class LdapTemplateTests {
 		Object expectedObject = new Object();
 		SearchResult searchResult = new SearchResult("", expectedObject, new BasicAttributes());
 
-		singleSearchResult(searchControlsRecursive(), searchResult);
+		singleSearchResult(searchControlsSingleResult(), searchResult);
 
 		Object expectedResult = expectedObject;
 		given(this.contextMapperMock.mapFromContext(expectedObject)).willReturn(expectedResult);
@@ -1694,7 +1700,7 @@ public class LdapTemplateTests {
 	public void testSearchForObjectWithMultipleResults() throws Exception {
 		expectGetReadOnlyContext();
 
-		SearchControls controls = searchControlsRecursive();
+		SearchControls controls = searchControlsSingleResult();
 
 		Object expectedObject = new Object();
 		SearchResult searchResult = new SearchResult("", expectedObject, new BasicAttributes());
@@ -1718,15 +1724,32 @@ public class LdapTemplateTests {
 			assertThat(true).isTrue();
 		}
 
+		verify(this.namingEnumerationMock, times(2)).hasMore();
 		verify(this.namingEnumerationMock).close();
 		verify(this.dirContextMock).close();
 	}
 
+	@Test
+	public void searchForObjectWhenSearchControlsThenDoesNotModifyThem() throws Exception {
+		expectGetReadOnlyContext();
+
+		SearchControls controls = searchControlsRecursive();
+		SearchResult searchResult = new SearchResult("", new Object(), new BasicAttributes());
+		singleSearchResult(searchControlsSingleResult(), searchResult);
+		given(this.contextMapperMock.mapFromContext(any())).willReturn("mapped");
+
+		Object result = this.tested.searchForObject(this.nameMock, "(ou=somevalue)", controls,
+				this.contextMapperMock);
+
+		assertThat(result).isEqualTo("mapped");
+		assertThat(controls.getCountLimit()).isZero();
+	}
+
 	@Test
 	public void testSearchForObjectWithNoResults() throws Exception {
 		expectGetReadOnlyContext();
 
-		noSearchResults(searchControlsRecursive());
+		noSearchResults(searchControlsSingleResult());
 
 		try {
 			this.tested.searchForObject(this.nameMock, "(ou=somevalue)", this.contextMapperMock);
@@ -1839,6 +1862,31 @@ public class LdapTemplateTests {
 		verify(this.dirContextMock).close();
 	}
 
+	@Test
+	public void authenticateQueryWhenUserUnderSecondBaseThenAuthenticates() throws Exception {
+		expectGetReadOnlyContext();
+		this.tested.setPartitionExecutor(Runnable::run);
+
+		LdapName people = LdapUtils.newLdapName("ou=people");
+		LdapName staff = LdapUtils.newLdapName("ou=staff");
+		Object john = new DirContextAdapter(new BasicAttributes(), LdapUtils.newLdapName("cn=john doe"),
+				LdapUtils.newLdapName("dc=jayway, dc=se"));
+		given(this.dirContextMock.search(eq(people), eq("(uid=john)"), any(SearchControls.class)))
+			.willReturn(new IterableNamingEnumeration<>(List.of()));
+		given(this.dirContextMock.search(eq(staff), eq("(uid=john)"), any(SearchControls.class)))
+			.willReturn(new IterableNamingEnumeration<>(List.of(new SearchResult("", john, new BasicAttributes()))));
+		given(this.contextSourceMock.getContext("cn=john doe,dc=jayway,dc=se", "password"))
+			.willReturn(this.authenticatedContextMock);
+
+		LdapQuery query = LdapQueryBuilder.query().bases(people, staff).filter("(uid=john)");
+		String authenticated = this.tested.authenticate(query, "password",
+				(ctx, identification) -> identification.getAbsoluteName().toString());
+
+		assertThat(authenticated).isEqualTo("cn=john doe,dc=jayway,dc=se");
+		verify(this.authenticatedContextMock).close();
+		verify(this.dirContextMock, times(2)).close();
+	}
+
 	@Test
 	public void testAuthenticateWithFailedAuthenticationShouldFail() throws Exception {
 		given(this.contextSourceMock.getReadOnlyContext()).willReturn(this.dirContextMock);
@@ -1860,6 +1908,77 @@ public class LdapTemplateTests {
 		assertThat(result).isFalse();
 	}
 
+	@Test
+	public void testAuthenticateWithIdentificationCacheShouldSearchOnce() throws Exception {
+		this.tested.setAuthenticationCacheTimeToLive(Duration.ofMinutes(1));
+		given(this.contextSourceMock.getReadOnlyContext()).willReturn(this.dirContextMock);
+
+		Object expectedObject = new DirContextAdapter(new BasicAttributes(), LdapUtils.newLdapName("cn=john doe"),
+				LdapUtils.newLdapName("dc=jayway, dc=se"));
+		SearchResult searchResult = new SearchResult("", expectedObject, new BasicAttributes());
+
+		singleSearchResult(searchControlsRecursive(), searchResult);
+
+		given(this.contextSourceMock.getContext("cn=john doe,dc=jayway,dc=se", "password"))
+			.willReturn(this.authenticatedContextMock);
+
+		assertThat(this.tested.authenticate(this.nameMock, "(ou=somevalue)", "password")).isTrue();
+		assertThat(this.tested.authenticate(this.nameMock, "(ou=somevalue)", "password")).isTrue();
+
+		verify(this.contextSourceMock).getReadOnlyContext();
+		verify(this.contextSourceMock, times(2)).getContext("cn=john doe,dc=jayway,dc=se", "password");
+	}
+
+	@Test
+	public void testAuthenticateWithIdentificationCacheAndFailedAuthenticationShouldSearchAgain() throws Exception {
+		this.tested.setAuthenticationCacheTimeToLive(Duration.ofMinutes(1));
+		given(this.contextSourceMock.getReadOnlyContext()).willReturn(this.dirContextMock);
+
+		Object expectedObject = new DirContextAdapter(new BasicAttributes(), LdapUtils.newLdapName("cn=john doe"),
+				LdapUtils.newLdapName("dc=jayway, dc=se"));
+		SearchResult searchResult = new SearchResult("", expectedObject, new BasicAttributes());
+
+		given(this.dirContextMock.search(eq(this.nameMock), eq("(ou=somevalue)"),
+				argThat(new SearchControlsMatcher(searchControlsRecursive()))))
+			.willReturn(this.namingEnumerationMock);
+		given(this.namingEnumerationMock.hasMore()).willReturn(true, false, true, false);
+		given(this.namingEnumerationMock.next()).willReturn(searchResult);
+
+		given(this.contextSourceMock.getContext("cn=john doe,dc=jayway,dc=se", "password"))
+			.willThrow(new UncategorizedLdapException("Authentication failed"));
+
+		assertThat(this.tested.authenticate(this.nameMock, "(ou=somevalue)", "password")).isFalse();
+		assertThat(this.tested.authenticate(this.nameMock, "(ou=somevalue)", "password")).isFalse();
+
+		verify(this.contextSourceMock, times(2)).getReadOnlyContext();
+	}
+
+	@Test
+	public void testAuthenticateWithIdentificationCacheAfterUnbindShouldSearchAgain() throws Exception {
+		this.tested.setAuthenticationCacheTimeToLive(Duration.ofMinutes(1));
+		given(this.contextSourceMock.getReadOnlyContext()).willReturn(this.dirContextMock);
+		given(this.contextSourceMock.getReadWriteContext()).willReturn(this.dirContextMock);
+
+		Object expectedObject = new DirContextAdapter(new BasicAttributes(), LdapUtils.newLdapName("cn=john doe"),
+				LdapUtils.newLdapName("dc=jayway, dc=se"));
+		SearchResult searchResult = new SearchResult("", expectedObject, new BasicAttributes());
+
+		given(this.dirContextMock.search(eq(this.nameMock), eq("(ou=somevalue)"),
+				argThat(new SearchControlsMatcher(searchControlsRecursive()))))
+			.willReturn(this.namingEnumerationMock);
+		given(this.namingEnumerationMock.hasMore()).willReturn(true, false, true, false);
+		given(this.namingEnumerationMock.next()).willReturn(searchResult);
+
+		given(this.contextSourceMock.getContext("cn=john doe,dc=jayway,dc=se", "password"))
+			.willReturn(this.authenticatedContextMock);
+
+		assertThat(this.tested.authenticate(this.nameMock, "(ou=somevalue)", "password")).isTrue();
+		this.tested.unbind(LdapUtils.newLdapName("cn=john doe"));
+		assertThat(this.tested.authenticate(this.nameMock, "(ou=somevalue)", "password")).isTrue();
+
+		verify(this.contextSourceMock, times(2)).getReadOnlyContext();
+	}
+
 	@Test
 	public void testAuthenticateWithErrorInCallbackShouldFail() throws Exception {
 		given(this.contextSourceMock.getReadOnlyContext()).willReturn(this.dirContextMock);
@@ -1905,6 +2024,245 @@ public class LdapTemplateTests {
 		verify(this.dirContextMock).close();
 	}
 
+	@Test
+	public void searchForStreamWhenPageSizeThenRequestsPagesOnSameContext() throws Exception {
+		expectGetReadOnlyContext();
+
+		SearchResult first = new SearchResult("", new Object(), new BasicAttributes());
+		SearchResult second = new SearchResult("", new Object(), new BasicAttributes());
+		given(this.dirContextMock.search(eq(this.nameMock), eq("(ou=somevalue)"), any(SearchControls.class)))
+			.willReturn(new IterableNamingEnumeration<>(List.of(first)))
+			.willReturn(new IterableNamingEnumeration<>(List.of(second)));
+		given(((LdapContext) this.dirContextMock).getResponseControls())
+			.willReturn(new Control[] { pagedResultsResponse(new byte[] { 1 }) })
+			.willReturn(new Control[] { pagedResultsResponse() });
+		given(this.contextMapperMock.mapFromContext(any())).willReturn("first", "second");
+
+		LdapQuery query = LdapQueryBuilder.query().base(this.nameMock).pageSize(1).filter("(ou=somevalue)");
+		try (Stream<Object> results = this.tested.searchForStream(query, this.contextMapperMock)) {
+			assertThat(results).containsExactly("first", "second");
+		}
+
+		verify(this.contextSourceMock).getReadOnlyContext();
+		verify(this.dirContextMock).close();
+	}
+
+	@Test
+	public void searchForStreamWhenPartitionsThenSearchesEachPartitionOnOwnContext() throws Exception {
+		expectGetReadOnlyContext();
+		this.tested.setPartitionExecutor(Runnable::run);
+
+		given(this.dirContextMock.search(eq(this.nameMock), eq("(&(ou=somevalue)(!(uid>=m)))"),
+				any(SearchControls.class)))
+			.willReturn(new IterableNamingEnumeration<>(List.of(new SearchResult("uid=john", "john", null),
+					new SearchResult("uid=jane", "jane", null))));
+		given(this.dirContextMock.search(eq(this.nameMock), eq("(&(ou=somevalue)(uid>=m))"), any(SearchControls.class)))
+			.willReturn(new IterableNamingEnumeration<>(
+					List.of(new SearchResult("uid=mike", "mike", null), new SearchResult("uid=john", "john", null))));
+		given(this.contextMapperMock.mapFromContext(any())).willAnswer((invocation) -> invocation.getArgument(0));
+
+		LdapQuery query = LdapQueryBuilder.query()
+			.base(this.nameMock)
+			.partitionByRange("uid", "m")
+			.distinct(true)
+			.filter("(ou=somevalue)");
+		try (Stream<Object> results = this.tested.searchForStream(query, this.contextMapperMock)) {
+			assertThat(results).containsExactlyInAnyOrder("john", "jane", "mike");
+		}
+
+		verify(this.contextSourceMock, times(2)).getReadOnlyContext();
+		verify(this.dirContextMock, times(2)).close();
+	}
+
+	@Test
+	public void searchWhenPartitionsThenSearchesEachPartition() throws Exception {
+		expectGetReadOnlyContext();
+		this.tested.setPartitionExecutor(Runnable::run);
+
+		given(this.dirContextMock.search(eq(this.nameMock), eq("(&(ou=somevalue)(!(uid>=m)))"),
+				any(SearchControls.class)))
+			.willReturn(new IterableNamingEnumeration<>(List.of(new SearchResult("uid=john", "john", null))));
+		given(this.dirContextMock.search(eq(this.nameMock), eq("(&(ou=somevalue)(uid>=m))"), any(SearchControls.class)))
+			.willReturn(new IterableNamingEnumeration<>(List.of(new SearchResult("uid=mike", "mike", null))));
+		given(this.contextMapperMock.mapFromContext(any())).willAnswer((invocation) -> invocation.getArgument(0));
+
+		LdapQuery query = LdapQueryBuilder.query()
+			.base(this.nameMock)
+			.partitionByRange("uid", "m")
+			.filter("(ou=somevalue)");
+		List<Object> results = this.tested.search(query, this.contextMapperMock);
+
+		assertThat(results).containsExactlyInAnyOrder("john", "mike");
+		verify(this.contextSourceMock, times(2)).getReadOnlyContext();
+		verify(this.dirContextMock, times(2)).close();
+	}
+
+	@Test
+	public void searchWhenBasesThenSearchesEachBaseAndRemovesDuplicates() throws Exception {
+		expectGetReadOnlyContext();
+		this.tested.setPartitionExecutor(Runnable::run);
+
+		LdapName people = LdapUtils.newLdapName("ou=people");
+		LdapName staff = LdapUtils.newLdapName("ou=staff,ou=people");
+		given(this.dirContextMock.search(eq(people), eq("(ou=somevalue)"), any(SearchControls.class)))
+			.willReturn(new IterableNamingEnumeration<>(List.of(new SearchResult("uid=john", "john", null),
+					new SearchResult("uid=jane,ou=staff", "jane", null))));
+		given(this.dirContextMock.search(eq(staff), eq("(ou=somevalue)"), any(SearchControls.class)))
+			.willReturn(new IterableNamingEnumeration<>(List.of(new SearchResult("UID=Jane", "jane", null),
+					new SearchResult("uid=mike", "mike", null))));
+		given(this.contextMapperMock.mapFromContext(any())).willAnswer((invocation) -> invocation.getArgument(0));
+
+		LdapQuery query = LdapQueryBuilder.query().bases(people, staff).filter("(ou=somevalue)");
+		List<Object> results = this.tested.search(query, this.contextMapperMock);
+
+		assertThat(results).containsExactlyInAnyOrder("john", "jane", "mike");
+		verify(this.contextSourceMock, times(2)).getReadOnlyContext();
+		verify(this.dirContextMock, times(2)).close();
+	}
+
+	@Test
+	public void searchWithCallbackHandlerWhenBasesThenHandlesEachEntryOnce() throws Exception {
+		expectGetReadOnlyContext();
+		this.tested.setPartitionExecutor(Runnable::run);
+
+		LdapName people = LdapUtils.newLdapName("ou=people");
+		LdapName staff = LdapUtils.newLdapName("ou=staff,ou=people");
+		given(this.dirContextMock.search(eq(people), eq("(ou=somevalue)"), any(SearchControls.class)))
+			.willReturn(new IterableNamingEnumeration<>(List.of(new SearchResult("uid=jane,ou=staff", "jane", null))));
+		given(this.dirContextMock.search(eq(staff), eq("(ou=somevalue)"), any(SearchControls.class)))
+			.willReturn(new IterableNamingEnumeration<>(List.of(new SearchResult("uid=jane", "jane", null),
+					new SearchResult("uid=mike", "mike", null))));
+
+		List<String> names = new ArrayList<>();
+		LdapQuery query = LdapQueryBuilder.query().bases(people, staff).filter("(ou=somevalue)");
+		this.tested.search(query, (NameClassPairCallbackHandler) (result) -> names.add(result.getName()));
+
+		assertThat(names).containsExactly("uid=jane,ou=staff", "uid=mike");
+		verify(this.dirContextMock, times(2)).close();
+	}
+
+	@Test
+	public void searchWithBatchingCallbackHandlerWhenBasesThenPassesLastPartialBatch() throws Exception {
+		expectGetReadOnlyContext();
+		this.tested.setPartitionExecutor(Runnable::run);
+
+		LdapName people = LdapUtils.newLdapName("ou=people");
+		LdapName staff = LdapUtils.newLdapName("ou=staff");
+		given(this.dirContextMock.search(eq(people), eq("(ou=somevalue)"), any(SearchControls.class)))
+			.willReturn(new IterableNamingEnumeration<>(List.of(new SearchResult("uid=john", "john", null),
+					new SearchResult("uid=jane", "jane", null))));
+		given(this.dirContextMock.search(eq(staff), eq("(ou=somevalue)"), any(SearchControls.class)))
+			.willReturn(new IterableNamingEnumeration<>(List.of(new SearchResult("uid=mike", "mike", null))));
+		given(this.contextMapperMock.mapFromContext(any())).willAnswer((invocation) -> invocation.getArgument(0));
+		List<List<Object>> batches = new ArrayList<>();
+		BatchingNameClassPairCallbackHandler<Object> handler = new BatchingNameClassPairCallbackHandler<>(
+				this.contextMapperMock, 2, batches::add);
+
+		LdapQuery query = LdapQueryBuilder.query().bases(people, staff).filter("(ou=somevalue)");
+		this.tested.search(query, handler);
+
+		assertThat(batches).containsExactly(List.of("john", "jane"), List.of("mike"));
+		verify(this.dirContextMock, times(2)).close();
+	}
+
+	@Test
+	public void searchForObjectWhenBasesThenIllegalArgumentException() {
+		LdapQuery query = LdapQueryBuilder.query()
+			.bases(LdapUtils.newLdapName("ou=people"), LdapUtils.newLdapName("ou=staff"))
+			.filter("(ou=somevalue)");
+
+		assertThatExceptionOfType(IllegalArgumentException.class)
+			.isThrownBy(() -> this.tested.searchForObject(query, this.contextMapperMock));
+		verify(this.contextSourceMock, never()).getReadOnlyContext();
+	}
+
+	@Test
+	public void countWhenQueryThenRequestsNoAttributesAndCountsEntries() throws Exception {
+		expectGetReadOnlyContext();
+
+		LdapName people = LdapUtils.newLdapName("ou=people");
+		given(this.dirContextMock.search(eq(people), eq("(ou=somevalue)"), any(SearchControls.class)))
+			.willReturn(new IterableNamingEnumeration<>(List.of(new SearchResult("uid=john", null, null),
+					new SearchResult("uid=jane", null, null))));
+
+		int count = this.tested.count(LdapQueryBuilder.query().base(people).filter("(ou=somevalue)"));
+
+		assertThat(count).isEqualTo(2);
+		ArgumentCaptor<SearchControls> controls = ArgumentCaptor.forClass(SearchControls.class);
+		verify(this.dirContextMock).search(eq(people), eq("(ou=somevalue)"), controls.capture());
+		assertThat(controls.getValue().getReturningAttributes()).containsExactly("1.1");
+		assertThat(controls.getValue().getReturningObjFlag()).isFalse();
+		assertThat(controls.getValue().getCountLimit()).isZero();
+		verify(this.dirContextMock).close();
+	}
+
+	@Test
+	public void existsWhenServerStopsAfterFirstEntryThenTrue() throws Exception {
+		expectGetReadOnlyContext();
+		this.tested.setIgnoreSizeLimitExceededException(false);
+
+		LdapName people = LdapUtils.newLdapName("ou=people");
+		given(this.dirContextMock.search(eq(people), eq("(ou=somevalue)"), any(SearchControls.class)))
+			.willReturn(this.namingEnumerationMock);
+		given(this.namingEnumerationMock.hasMore()).willReturn(true)
+			.willThrow(new javax.naming.SizeLimitExceededException());
+		given(this.namingEnumerationMock.next()).willReturn(new SearchResult("uid=john", null, null));
+
+		boolean exists = this.tested.exists(LdapQueryBuilder.query().base(people).filter("(ou=somevalue)"));
+
+		assertThat(exists).isTrue();
+		ArgumentCaptor<SearchControls> controls = ArgumentCaptor.forClass(SearchControls.class);
+		verify(this.dirContextMock).search(eq(people), eq("(ou=somevalue)"), controls.capture());
+		assertThat(controls.getValue().getReturningAttributes()).containsExactly("1.1");
+		assertThat(controls.getValue().getCountLimit()).isEqualTo(1);
+		verify(this.dirContextMock).close();
+	}
+
+	@Test
+	public void searchWhenMappingConcurrencyThenMapsOnMappingExecutorInReadOrder() throws Exception {
+		expectGetReadOnlyContext();
+		List<Runnable> tasks = new ArrayList<>();
+		this.tested.setMappingConcurrency(2);
+		this.tested.setMappingExecutor((task) -> {
+			tasks.add(task);
+			new Thread(task).start();
+		});
+
+		LdapName people = LdapUtils.newLdapName("ou=people");
+		given(this.dirContextMock.search(eq(people), eq("(ou=somevalue)"), any(SearchControls.class)))
+			.willReturn(new IterableNamingEnumeration<>(List.of(new SearchResult("uid=john", "john", null),
+					new SearchResult("uid=jane", "jane", null), new SearchResult("uid=mike", "mike", null))));
+		given(this.contextMapperMock.mapFromContext(any())).willAnswer((invocation) -> invocation.getArgument(0));
+
+		List<Object> results = this.tested.search(LdapQueryBuilder.query().base(people).filter("(ou=somevalue)"),
+				this.contextMapperMock);
+
+		assertThat(results).containsExactly("john", "jane", "mike");
+		assertThat(tasks).hasSize(2);
+		verify(this.dirContextMock).close();
+	}
+
+	@Test
+	public void searchWhenBatchingHandlerThenFlushesAtEndOfSearch() throws Exception {
+		expectGetReadOnlyContext();
+
+		LdapName people = LdapUtils.newLdapName("ou=people");
+		SearchControls controls = new SearchControls();
+		given(this.dirContextMock.search(eq(people), eq("(ou=somevalue)"),
+				argThat((SearchControls searchControls) -> searchControls.getReturningObjFlag())))
+			.willReturn(new IterableNamingEnumeration<>(List.of(new SearchResult("uid=john", "john", null),
+					new SearchResult("uid=jane", "jane", null), new SearchResult("uid=mike", "mike", null))));
+		given(this.contextMapperMock.mapFromContext(any())).willAnswer((invocation) -> invocation.getArgument(0));
+		List<List<Object>> batches = new ArrayList<>();
+		BatchingNameClassPairCallbackHandler<Object> handler = new BatchingNameClassPairCallbackHandler<>(
+				this.contextMapperMock, 2, batches::add);
+
+		this.tested.search(people, "(ou=somevalue)", controls, handler, new LdapTemplate.NullDirContextProcessor());
+
+		assertThat(batches).containsExactly(List.of("john", "jane"), List.of("mike"));
+		verify(this.dirContextMock).close();
+	}
+
 	private void noSearchResults(SearchControls controls) throws Exception {
 		given(this.dirContextMock.search(eq(this.nameMock), eq("(ou=somevalue)"),
 				argThat(new SearchControlsMatcher(controls))))
@@ -1951,6 +2309,12 @@ public class LdapTemplateTests {
 		return controls;
 	}
 
+	private SearchControls searchControlsSingleResult() {
+		SearchControls controls = searchControlsRecursive();
+		controls.setCountLimit(2);
+		return controls;
+	}
+
 	private SearchControls searchControlsOneLevel() {
 		SearchControls controls = new SearchControls();
 		controls.setSearchScope(SearchControls.ONELEVEL_SCOPE);
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2006-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ldap.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.naming.Name;
+import javax.naming.directory.BasicAttributes;
+import javax.naming.directory.DirContext;
+import javax.naming.directory.SearchControls;
+import javax.naming.directory.SearchResult;
+import javax.naming.ldap.Control;
+import javax.naming.ldap.LdapContext;
+import javax.naming.ldap.PagedResultsControl;
+import javax.naming.ldap.SortControl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import org.springframework.ldap.support.LdapUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.ldap.core.TestPagedResultsControls.pagedResultsResponse;
+
+/**
+ * Tests for {@link PagedSearchResultsEnumeration}.
+ */
+class PagedSearchResultsEnumerationTests {
+
+	private static final Name BASE = LdapUtils.newLdapName("ou=people");
+
+	private LdapContext ctx;
+
+	private SearchControls controls;
+
+	@BeforeEach
+	void setUp() {
+		this.ctx = mock(LdapContext.class);
+		this.controls = new SearchControls();
+	}
+
+	@Test
+	void searchWhenMultiplePagesThenChainsCookies() throws Exception {
+		SearchResult first = result("cn=first");
+		SearchResult second = result("cn=second");
+		given(this.ctx.search(eq(BASE), eq("(objectclass=*)"), eq(this.controls)))
+			.willReturn(new IterableNamingEnumeration<>(List.of(first)))
+			.willReturn(new IterableNamingEnumeration<>(List.of(second)));
+		given(this.ctx.getResponseControls()).willReturn(new Control[] { pagedResultsResponse(new byte[] { 1, 2 }) })
+			.willReturn(new Control[] { pagedResultsResponse() });
+
+		PagedSearchResultsEnumeration results = PagedSearchResultsEnumeration.search(this.ctx, BASE,
+				"(objectclass=*)", this.controls, 1);
+		List<SearchResult> collected = new ArrayList<>();
+		while (results.hasMore()) {
+			collected.add(results.next());
+		}
+		results.close();
+
+		assertThat(collected).containsExactly(first, second);
+		assertThat(results.getPageCount()).isEqualTo(2);
+		ArgumentCaptor<Control[]> captor = ArgumentCaptor.forClass(Control[].class);
+		verify(this.ctx, times(3)).setRequestControls(captor.capture());
+		PagedResultsControl secondRequest = (PagedResultsControl) captor.getAllValues().get(1)[0];
+		assertThat(secondRequest.getEncodedValue()).isNotEqualTo(captor.getAllValues().get(0)[0].getEncodedValue());
+		assertThat(captor.getAllValues().get(2)).isNull();
+	}
+
+	@Test
+	void searchWhenExistingRequestControlsThenKeepsAndRestores() throws Exception {
+		Control[] original = new Control[] { new SortControl("cn", false) };
+		given(this.ctx.getRequestControls()).willReturn(original);
+		given(this.ctx.search(any(Name.class), anyString(), any(SearchControls.class)))
+			.willReturn(new IterableNamingEnumeration<>(List.of()));
+
+		PagedSearchResultsEnumeration results = PagedSearchResultsEnumeration.search(this.ctx, BASE,
+				"(objectclass=*)", this.controls, 10);
+		assertThat(results.hasMore()).isFalse();
+		results.close();
+
+		ArgumentCaptor<Control[]> captor = ArgumentCaptor.forClass(Control[].class);
+		verify(this.ctx, times(2)).setRequestControls(captor.capture());
+		assertThat(captor.getAllValues().get(0)).hasExactlyElementsOfTypes(SortControl.class,
+				PagedResultsControl.class);
+		assertThat(captor.getAllValues().get(1)).isSameAs(original);
+	}
+
+	@Test
+	void closeWhenPagesRemainThenAbandons() throws Exception {
+		given(this.ctx.search(any(Name.class), anyString(), any(SearchControls.class)))
+			.willReturn(new IterableNamingEnumeration<>(List.of(result("cn=first"))))
+			.willReturn(new IterableNamingEnumeration<>(List.of(result("cn=second"))))
+			.willReturn(new IterableNamingEnumeration<>(List.of()));
+		given(this.ctx.getResponseControls()).willReturn(new Control[] { pagedResultsResponse(new byte[] { 1 }) });
+
+		PagedSearchResultsEnumeration results = PagedSearchResultsEnumeration.search(this.ctx, BASE,
+				"(objectclass=*)", this.controls, 1);
+		results.next();
+		results.next();
+		results.close();
+
+		verify(this.ctx, times(3)).search(any(Name.class), anyString(), any(SearchControls.class));
+		ArgumentCaptor<Control[]> captor = ArgumentCaptor.forClass(Control[].class);
+		verify(this.ctx, times(4)).setRequestControls(captor.capture());
+		PagedResultsControl abandon = (PagedResultsControl) captor.getAllValues().get(2)[0];
+		assertThat(abandon.getEncodedValue()).isEqualTo(new PagedResultsControl(0, new byte[] { 1 }, true)
+			.getEncodedValue());
+	}
+
+	@Test
+	void searchWhenNotLdapContextThenIllegalArgument() {
+		assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> PagedSearchResultsEnumeration
+			.search(mock(DirContext.class), BASE, "(objectclass=*)", this.controls, 10));
+	}
+
+	private static SearchResult result(String name) {
+		return new SearchResult(name, null, new BasicAttributes());
+	}
+
+}
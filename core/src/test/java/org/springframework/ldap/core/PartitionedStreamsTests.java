@@ -0,0 +1,82 @@
+/*
+ * Copyright 2006-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ldap.core;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@link PartitionedStreams}.
+ */
+class PartitionedStreamsTests {
+
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+
+	@AfterEach
+	void shutdown() {
+		this.executor.shutdownNow();
+	}
+
+	@Test
+	void mergeWhenPartitionsThenContainsAllElements() {
+		List<Supplier<Stream<Integer>>> partitions = List.of(() -> IntStream.range(0, 500).boxed(),
+				() -> IntStream.range(500, 1000).boxed(), Stream::empty);
+
+		try (Stream<Integer> merged = PartitionedStreams.merge(partitions, this.executor, 8)) {
+			assertThat(merged).containsExactlyInAnyOrderElementsOf(IntStream.range(0, 1000).boxed().toList());
+		}
+	}
+
+	@Test
+	void mergeWhenClosedEarlyThenClosesPartitions() throws Exception {
+		CountDownLatch closed = new CountDownLatch(2);
+		List<Supplier<Stream<Integer>>> partitions = List.of(
+				() -> Stream.iterate(0, (i) -> i + 1).onClose(closed::countDown),
+				() -> Stream.iterate(0, (i) -> i - 1).onClose(closed::countDown));
+
+		try (Stream<Integer> merged = PartitionedStreams.merge(partitions, this.executor, 4)) {
+			assertThat(merged.limit(10)).hasSize(10);
+		}
+
+		assertThat(closed.await(5, TimeUnit.SECONDS)).isTrue();
+	}
+
+	@Test
+	void mergeWhenPartitionFailsThenRethrows() {
+		IllegalStateException failure = new IllegalStateException("partition failed");
+		List<Supplier<Stream<Integer>>> partitions = List.of(() -> Stream.of(1, 2), () -> {
+			throw failure;
+		});
+
+		try (Stream<Integer> merged = PartitionedStreams.merge(partitions, this.executor, 8)) {
+			assertThatIllegalStateException().isThrownBy(merged::toList).isSameAs(failure);
+		}
+	}
+
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2006-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ldap.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+import javax.naming.NameClassPair;
+import javax.naming.NamingException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.ldap.NameNotFoundException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for {@link PipelinedMappingCallbackHandler}.
+ */
+class PipelinedMappingCallbackHandlerTests {
+
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+
+	@AfterEach
+	void shutdown() {
+		this.executor.shutdownNow();
+	}
+
+	@Test
+	void completeWhenMappedConcurrentlyThenKeepsReadOrder() throws Exception {
+		CollectingNameClassPairCallbackHandler<String> target = new NameCollectingHandler(true);
+		PipelinedMappingCallbackHandler<String> pipelined = new PipelinedMappingCallbackHandler<>(target,
+				this.executor, 4, 8);
+		List<String> names = IntStream.range(0, 200).mapToObj((i) -> "cn=" + i).toList();
+
+		for (String name : names) {
+			pipelined.handleNameClassPair(new NameClassPair(name, null));
+		}
+		pipelined.complete();
+
+		assertThat(target.getList()).containsExactlyElementsOf(names);
+	}
+
+	@Test
+	void completeWhenNoResultsThenStartsNoWorkers() {
+		List<Runnable> tasks = new ArrayList<>();
+		CollectingNameClassPairCallbackHandler<String> target = new NameCollectingHandler(false);
+		PipelinedMappingCallbackHandler<String> pipelined = new PipelinedMappingCallbackHandler<>(target, tasks::add,
+				4, 8);
+
+		pipelined.complete();
+
+		assertThat(tasks).isEmpty();
+		assertThat(target.getList()).isEmpty();
+	}
+
+	@Test
+	void completeWhenMappingFailsThenTranslatesException() throws Exception {
+		CollectingNameClassPairCallbackHandler<String> target = new CollectingNameClassPairCallbackHandler<>() {
+			@Override
+			public String getObjectFromNameClassPair(NameClassPair nameClassPair) throws NamingException {
+				throw new javax.naming.NameNotFoundException(nameClassPair.getName());
+			}
+		};
+		PipelinedMappingCallbackHandler<String> pipelined = new PipelinedMappingCallbackHandler<>(target,
+				this.executor, 2, 8);
+
+		pipelined.handleNameClassPair(new NameClassPair("cn=john", null));
+
+		assertThatExceptionOfType(NameNotFoundException.class).isThrownBy(pipelined::complete);
+		assertThat(target.getList()).isEmpty();
+	}
+
+	private static final class NameCollectingHandler extends CollectingNameClassPairCallbackHandler<String> {
+
+		private final boolean slow;
+
+		NameCollectingHandler(boolean slow) {
+			this.slow = slow;
+		}
+
+		@Override
+		public String getObjectFromNameClassPair(NameClassPair nameClassPair) {
+			if (this.slow) {
+				// let later entries overtake earlier ones
+				try {
+					Thread.sleep(ThreadLocalRandom.current().nextInt(3));
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			return nameClassPair.getName();
+		}
+
+	}
+
+}
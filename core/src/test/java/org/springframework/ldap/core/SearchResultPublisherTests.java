@@ -0,0 +1,185 @@
+/*
+ * Copyright 2006-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ldap.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link SearchResultPublisher}.
+ */
+class SearchResultPublisherTests {
+
+	private final AtomicInteger pulled = new AtomicInteger();
+
+	private final AtomicBoolean closed = new AtomicBoolean();
+
+	@Test
+	void subscribeWhenNoRequestThenDoesNotOpenStream() {
+		AtomicBoolean opened = new AtomicBoolean();
+		SearchResultPublisher<String> publisher = new SearchResultPublisher<>(() -> {
+			opened.set(true);
+			return results("a");
+		}, Runnable::run);
+
+		publisher.subscribe(new RecordingSubscriber());
+
+		assertThat(opened).isFalse();
+	}
+
+	@Test
+	void requestWhenPartialDemandThenReadsOnlyRequestedEntries() {
+		SearchResultPublisher<String> publisher = new SearchResultPublisher<>(() -> results("a", "b", "c"),
+				Runnable::run);
+		RecordingSubscriber subscriber = new RecordingSubscriber();
+		publisher.subscribe(subscriber);
+
+		subscriber.subscription.request(2);
+
+		assertThat(subscriber.items).containsExactly("a", "b");
+		assertThat(this.pulled).hasValue(2);
+		assertThat(subscriber.completed).isFalse();
+
+		subscriber.subscription.request(5);
+
+		assertThat(subscriber.items).containsExactly("a", "b", "c");
+		assertThat(subscriber.completed).isTrue();
+		assertThat(this.closed).isTrue();
+	}
+
+	@Test
+	void cancelWhenResultsRemainThenClosesStream() {
+		SearchResultPublisher<String> publisher = new SearchResultPublisher<>(() -> results("a", "b", "c"),
+				Runnable::run);
+		RecordingSubscriber subscriber = new RecordingSubscriber();
+		publisher.subscribe(subscriber);
+
+		subscriber.subscription.request(1);
+		subscriber.subscription.cancel();
+		subscriber.subscription.request(1);
+
+		assertThat(subscriber.items).containsExactly("a");
+		assertThat(this.closed).isTrue();
+		assertThat(subscriber.completed).isFalse();
+		assertThat(subscriber.error).isNull();
+	}
+
+	@Test
+	void requestWhenNotPositiveThenErrorAndClose() {
+		SearchResultPublisher<String> publisher = new SearchResultPublisher<>(() -> results("a"), Runnable::run);
+		RecordingSubscriber subscriber = new RecordingSubscriber();
+		publisher.subscribe(subscriber);
+
+		subscriber.subscription.request(0);
+
+		assertThat(subscriber.error).isInstanceOf(IllegalArgumentException.class);
+		assertThat(subscriber.items).isEmpty();
+	}
+
+	@Test
+	void requestWhenSearchFailsThenError() {
+		IllegalStateException failure = new IllegalStateException("search failed");
+		SearchResultPublisher<String> publisher = new SearchResultPublisher<>(() -> {
+			throw failure;
+		}, Runnable::run);
+		RecordingSubscriber subscriber = new RecordingSubscriber();
+		publisher.subscribe(subscriber);
+
+		subscriber.subscription.request(1);
+
+		assertThat(subscriber.error).isSameAs(failure);
+	}
+
+	@Test
+	void requestWhenExecutorRejectsThenError() {
+		Executor rejecting = (task) -> {
+			throw new RejectedExecutionException();
+		};
+		SearchResultPublisher<String> publisher = new SearchResultPublisher<>(() -> results("a"), rejecting);
+		RecordingSubscriber subscriber = new RecordingSubscriber();
+		publisher.subscribe(subscriber);
+
+		subscriber.subscription.request(1);
+
+		assertThat(subscriber.error).isInstanceOf(RejectedExecutionException.class);
+	}
+
+	@Test
+	void requestWhenDeferredExecutorThenReadsOnExecutor() {
+		List<Runnable> tasks = new ArrayList<>();
+		SearchResultPublisher<String> publisher = new SearchResultPublisher<>(() -> results("a", "b"), tasks::add);
+		RecordingSubscriber subscriber = new RecordingSubscriber();
+		publisher.subscribe(subscriber);
+
+		subscriber.subscription.request(1);
+		subscriber.subscription.request(1);
+
+		assertThat(tasks).hasSize(1);
+		assertThat(subscriber.items).isEmpty();
+
+		tasks.get(0).run();
+
+		assertThat(subscriber.items).containsExactly("a", "b");
+	}
+
+	private Stream<String> results(String... values) {
+		return Stream.of(values).peek((value) -> this.pulled.incrementAndGet()).onClose(() -> this.closed.set(true));
+	}
+
+	private static final class RecordingSubscriber implements Flow.Subscriber<String> {
+
+		private Flow.Subscription subscription;
+
+		private final List<String> items = new ArrayList<>();
+
+		private Throwable error;
+
+		private boolean completed;
+
+		@Override
+		public void onSubscribe(Flow.Subscription subscription) {
+			this.subscription = subscription;
+		}
+
+		@Override
+		public void onNext(String item) {
+			this.items.add(item);
+		}
+
+		@Override
+		public void onError(Throwable throwable) {
+			this.error = throwable;
+		}
+
+		@Override
+		public void onComplete() {
+			this.completed = true;
+		}
+
+	}
+
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2006-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ldap.core;
+
+import javax.naming.ldap.PagedResultsResponseControl;
+
+final class TestPagedResultsControls {
+
+	private TestPagedResultsControls() {
+
+	}
+
+	static PagedResultsResponseControl pagedResultsResponse(byte... cookie) throws Exception {
+		byte[] prefix = new byte[] { 0x30, (byte) (5 + cookie.length), 2, 1, 0, 4, (byte) cookie.length };
+		byte[] value = new byte[prefix.length + cookie.length];
+		System.arraycopy(prefix, 0, value, 0, prefix.length);
+		System.arraycopy(cookie, 0, value, prefix.length, cookie.length);
+		return new PagedResultsResponseControl(PagedResultsResponseControl.OID, false, value);
+	}
+
+}
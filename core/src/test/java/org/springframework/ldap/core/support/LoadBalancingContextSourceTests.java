@@ -0,0 +1,147 @@
+/*
+ * Copyright 2006-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ldap.core.support;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.naming.directory.DirContext;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.ldap.AuthenticationException;
+import org.springframework.ldap.CommunicationException;
+import org.springframework.ldap.core.ContextSource;
+import org.springframework.ldap.core.DirContextProxy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.mock;
+import static org.mockito.BDDMockito.never;
+import static org.mockito.BDDMockito.verify;
+
+/**
+ * Tests for {@link LoadBalancingContextSource}.
+ */
+class LoadBalancingContextSourceTests {
+
+	private ContextSource first;
+
+	private ContextSource second;
+
+	private DirContext firstContext;
+
+	private DirContext secondContext;
+
+	private LoadBalancingContextSource tested;
+
+	@BeforeEach
+	void setUp() {
+		this.first = mock(ContextSource.class);
+		this.second = mock(ContextSource.class);
+		this.firstContext = mock(DirContext.class);
+		this.secondContext = mock(DirContext.class);
+		given(this.first.getReadOnlyContext()).willReturn(this.firstContext);
+		given(this.second.getReadOnlyContext()).willReturn(this.secondContext);
+		Map<String, ContextSource> servers = new LinkedHashMap<>();
+		servers.put("first", this.first);
+		servers.put("second", this.second);
+		this.tested = new LoadBalancingContextSource(servers);
+	}
+
+	@AfterEach
+	void tearDown() {
+		this.tested.destroy();
+	}
+
+	@Test
+	void getReadOnlyContextWhenContextOutstandingThenUsesOtherServer() throws Exception {
+		DirContext ctx1 = this.tested.getReadOnlyContext();
+		DirContext ctx2 = this.tested.getReadOnlyContext();
+
+		assertThat(target(ctx1)).isNotSameAs(target(ctx2));
+
+		ctx1.close();
+		DirContext ctx3 = this.tested.getReadOnlyContext();
+
+		assertThat(target(ctx3)).isSameAs(target(ctx1));
+	}
+
+	@Test
+	void getReadOnlyContextWhenServerUnavailableThenEjectsItUntilProbeSucceeds() throws Exception {
+		given(this.first.getReadOnlyContext())
+			.willThrow(new CommunicationException(new javax.naming.CommunicationException()))
+			.willReturn(this.firstContext);
+		this.tested.setProbeInterval(Duration.ofMillis(10));
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		this.tested.bindTo(registry);
+
+		DirContext ctx = this.tested.getReadOnlyContext();
+
+		assertThat(target(ctx)).isSameAs(this.secondContext);
+		assertThat(registry.get("spring.ldap.server.ejections").tag("server", "first").functionCounter().count())
+			.isEqualTo(1);
+		assertThat(registry.get("spring.ldap.server.outstanding").tag("server", "second").gauge().value())
+			.isEqualTo(1);
+
+		long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+		while (registry.get("spring.ldap.server.available").tag("server", "first").gauge().value() == 0) {
+			assertThat(System.nanoTime()).isLessThan(deadline);
+			Thread.sleep(10);
+		}
+		verify(this.firstContext).close();
+		assertThat(target(this.tested.getReadOnlyContext())).isSameAs(this.firstContext);
+	}
+
+	@Test
+	void getReadOnlyContextWhenLowestLatencyThenRetriesSlowServerOnceItsLatencyDecayed() throws Exception {
+		this.tested.setStrategy(LoadBalancingContextSource.Strategy.LOWEST_LATENCY);
+		this.tested.setLatencyHalfLife(Duration.ofMillis(20));
+
+		DirContext slow = this.tested.getReadOnlyContext();
+		Thread.sleep(50);
+		slow.close();
+
+		long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+		DirContext ctx;
+		while (target(ctx = this.tested.getReadOnlyContext()) != target(slow)) {
+			ctx.close();
+			assertThat(System.nanoTime()).isLessThan(deadline);
+			Thread.sleep(5);
+		}
+		ctx.close();
+	}
+
+	@Test
+	void getContextWhenAuthenticationFailsThenDoesNotEject() {
+		given(this.first.getContext("cn=john", "wrong")).willThrow(new AuthenticationException());
+
+		assertThatExceptionOfType(AuthenticationException.class)
+			.isThrownBy(() -> this.tested.getContext("cn=john", "wrong"));
+		verify(this.second, never()).getContext("cn=john", "wrong");
+	}
+
+	private static DirContext target(DirContext ctx) {
+		return ((DirContextProxy) ctx).getTargetContext();
+	}
+
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2006-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ldap.core.support;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import javax.naming.directory.DirContext;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.ldap.core.ContextSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.mock;
+import static org.mockito.BDDMockito.verify;
+
+/**
+ * Tests for {@link ReadWriteSplittingContextSource}.
+ */
+class ReadWriteSplittingContextSourceTests {
+
+	private ContextSource primary;
+
+	private ContextSource replicas;
+
+	private DirContext primaryContext;
+
+	private DirContext replicaContext;
+
+	private ReadWriteSplittingContextSource tested;
+
+	@BeforeEach
+	void setUp() {
+		this.primary = mock(ContextSource.class);
+		this.replicas = mock(ContextSource.class);
+		this.primaryContext = mock(DirContext.class);
+		this.replicaContext = mock(DirContext.class);
+		given(this.primary.getReadOnlyContext()).willReturn(this.primaryContext);
+		given(this.primary.getReadWriteContext()).willReturn(this.primaryContext);
+		given(this.replicas.getReadOnlyContext()).willReturn(this.replicaContext);
+		this.tested = new ReadWriteSplittingContextSource(this.primary, this.replicas);
+	}
+
+	@Test
+	void getContextWhenNoWindowThenSplitsReadsAndWrites() throws Exception {
+		DirContext ctx = this.tested.getReadWriteContext();
+		ctx.close();
+
+		assertThat(ctx).isSameAs(this.primaryContext);
+		assertThat(this.tested.getReadOnlyContext()).isSameAs(this.replicaContext);
+		this.tested.getContext("cn=john", "secret");
+		verify(this.replicas).getContext("cn=john", "secret");
+	}
+
+	@Test
+	void getReadOnlyContextWhenWrittenWithinWindowThenReadsFromPrimary() throws Exception {
+		this.tested.setReadYourWritesWindow(Duration.ofMillis(200));
+
+		this.tested.getReadWriteContext().close();
+
+		assertThat(this.tested.getReadOnlyContext()).isSameAs(this.primaryContext);
+		assertThat(CompletableFuture.supplyAsync(this.tested::getReadOnlyContext).get())
+			.isSameAs(this.replicaContext);
+		verify(this.primaryContext).close();
+
+		Thread.sleep(250);
+
+		assertThat(this.tested.getReadOnlyContext()).isSameAs(this.replicaContext);
+	}
+
+	@Test
+	void getContextWhenAuthenticateOnPrimaryThenUsesPrimary() {
+		this.tested.setAuthenticateOnPrimary(true);
+
+		this.tested.getContext("cn=john", "secret");
+
+		verify(this.primary).getContext("cn=john", "secret");
+	}
+
+}
@@ -18,8 +18,11 @@ package org.springframework.ldap.odm.core.impl;
 
 import java.lang.reflect.Field;
 import java.util.Arrays;
+import java.util.List;
 
 import javax.naming.Name;
+import javax.naming.directory.Attributes;
+import javax.naming.directory.BasicAttributes;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -35,6 +38,7 @@ import org.springframework.core.convert.ConversionService;
 import org.springframework.core.convert.support.GenericConversionService;
 import org.springframework.ldap.core.DirContextAdapter;
 import org.springframework.ldap.query.LdapQueryBuilder;
+import org.springframework.ldap.support.LdapSchema;
 import org.springframework.ldap.support.LdapUtils;
 import org.springframework.util.ReflectionUtils;
 import org.springframework.util.StringUtils;
@@ -162,6 +166,23 @@ public class DefaultObjectDirectoryMapperTests {
 		assertThat(testPerson.getAge()).isEqualTo(34L);
 	}
 
+	@Test
+	public void manageClassWhenSchemaThenTakesSyntaxFromSchema() throws Exception {
+		Attributes sn = new BasicAttributes(true);
+		sn.put("NUMERICOID", "2.5.4.4");
+		sn.put("NAME", "sn");
+		sn.put("SYNTAX", "1.3.6.1.4.1.1466.115.121.1.15");
+		this.tested.setSchema(LdapSchema.from(List.of(sn)));
+
+		this.tested.manageClass(UnitTestPerson.class);
+
+		ObjectMetaData metaData = this.tested.getMetaDataMap().get(UnitTestPerson.class).metaData;
+		assertThat(metaData.getAttribute(UnitTestPerson.class.getDeclaredField("lastName")).getSyntax())
+			.isEqualTo("1.3.6.1.4.1.1466.115.121.1.15");
+		assertThat(metaData.getAttribute(UnitTestPerson.class.getDeclaredField("telephoneNumber")).getSyntax())
+			.isEmpty();
+	}
+
 	private void assertField(DefaultObjectDirectoryMapper.EntityData entityData, String fieldName,
 			String expectedAttributeName, String expectedDnAttributeName, boolean expectedBinary,
 			boolean expectedTransient, boolean expectedList, boolean expectedReadOnly) {
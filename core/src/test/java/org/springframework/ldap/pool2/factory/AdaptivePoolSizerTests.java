@@ -0,0 +1,116 @@
+/*
+ * Copyright 2006-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ldap.pool2.factory;
+
+import java.time.Duration;
+
+import javax.naming.directory.DirContext;
+
+import org.apache.commons.pool2.impl.GenericKeyedObjectPool;
+import org.apache.commons.pool2.impl.GenericKeyedObjectPoolConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.ldap.core.ContextSource;
+import org.springframework.ldap.pool2.DirContextType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.mock;
+
+/**
+ * Tests for {@link AdaptivePoolSizer}.
+ */
+class AdaptivePoolSizerTests {
+
+	private GenericKeyedObjectPool<Object, Object> pool;
+
+	private AdaptivePoolSizing sizing;
+
+	@BeforeEach
+	void setUp() {
+		GenericKeyedObjectPoolConfig<Object> config = new GenericKeyedObjectPoolConfig<>();
+		config.setMaxTotalPerKey(4);
+		config.setMaxIdlePerKey(8);
+		ContextSource contextSource = mock(ContextSource.class);
+		given(contextSource.getReadOnlyContext()).willAnswer((invocation) -> mock(DirContext.class));
+		this.pool = new GenericKeyedObjectPool<>(new DirContextPooledObjectFactory(contextSource), config);
+		this.sizing = new AdaptivePoolSizing();
+		this.sizing.setMinTotalPerKey(2);
+		this.sizing.setMaxTotalPerKey(8);
+	}
+
+	@AfterEach
+	void tearDown() {
+		this.pool.close();
+	}
+
+	@Test
+	void adjustWhenBorrowWaitAboveTargetThenGrowsUpToMaximum() {
+		AdaptivePoolSizer sizer = new AdaptivePoolSizer(this.pool, this.sizing);
+
+		sizer.recordBorrow(DirContextType.READ_ONLY, Duration.ofMillis(50).toNanos());
+		sizer.adjust();
+
+		assertThat(this.pool.getMaxTotalPerKey()).isEqualTo(6);
+		assertThat(this.pool.getMaxIdlePerKey()).isEqualTo(6);
+
+		sizer.recordBorrow(DirContextType.READ_WRITE, Duration.ofMillis(50).toNanos());
+		sizer.adjust();
+
+		assertThat(this.pool.getMaxTotalPerKey()).isEqualTo(8);
+		assertThat(this.pool.getMaxIdlePerKey()).isEqualTo(8);
+	}
+
+	@Test
+	void adjustWhenUtilizationLowThenShrinksDownToMinimum() {
+		AdaptivePoolSizer sizer = new AdaptivePoolSizer(this.pool, this.sizing);
+
+		sizer.adjust();
+
+		assertThat(this.pool.getMaxTotalPerKey()).isEqualTo(3);
+		assertThat(this.pool.getMaxIdlePerKey()).isEqualTo(3);
+
+		sizer.adjust();
+		sizer.adjust();
+
+		assertThat(this.pool.getMaxTotalPerKey()).isEqualTo(2);
+	}
+
+	@Test
+	void adjustWhenBorrowWaitWithinTargetAndUtilizationHighThenKeepsSize() throws Exception {
+		AdaptivePoolSizer sizer = new AdaptivePoolSizer(this.pool, this.sizing);
+		for (int i = 0; i < 3; i++) {
+			this.pool.borrowObject(DirContextType.READ_ONLY);
+		}
+
+		sizer.recordBorrow(DirContextType.READ_ONLY, Duration.ofMillis(1).toNanos());
+		sizer.adjust();
+
+		assertThat(this.pool.getMaxTotalPerKey()).isEqualTo(4);
+	}
+
+	@Test
+	void constructorWhenPoolUnboundedThenStartsAtMaximum() {
+		this.pool.setMaxTotalPerKey(-1);
+
+		new AdaptivePoolSizer(this.pool, this.sizing);
+
+		assertThat(this.pool.getMaxTotalPerKey()).isEqualTo(8);
+	}
+
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2006-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ldap.pool2.factory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import javax.naming.directory.DirContext;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.ldap.pool2.AbstractPoolTestCase;
+import org.springframework.ldap.pool2.DirContextType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.mock;
+import static org.mockito.BDDMockito.times;
+import static org.mockito.BDDMockito.verify;
+
+/**
+ * Tests for {@link ConcurrentPooledContextSource}.
+ */
+public class ConcurrentPooledContextSourceTests extends AbstractPoolTestCase {
+
+	@Test
+	public void testGetReadOnlyContextPool() throws Exception {
+		DirContext secondDirContextMock = mock(DirContext.class);
+		given(this.contextSourceMock.getReadOnlyContext()).willReturn(this.dirContextMock, secondDirContextMock);
+
+		ConcurrentPooledContextSource pooledContextSource = new ConcurrentPooledContextSource(this.contextSourceMock,
+				null);
+
+		DirContext readOnlyContext1 = pooledContextSource.getReadOnlyContext();
+		assertThat(readOnlyContext1).isEqualTo(this.dirContextMock);
+		assertThat(pooledContextSource.getNumActiveRead()).isEqualTo(1);
+		readOnlyContext1.close();
+		assertThat(pooledContextSource.getNumActiveRead()).isEqualTo(0);
+		assertThat(pooledContextSource.getNumIdleRead()).isEqualTo(1);
+
+		DirContext readOnlyContext2 = pooledContextSource.getReadOnlyContext();
+		DirContext readOnlyContext3 = pooledContextSource.getReadOnlyContext();
+		assertThat(readOnlyContext2).isEqualTo(this.dirContextMock);
+		assertThat(readOnlyContext3).isEqualTo(secondDirContextMock);
+		assertThat(pooledContextSource.getNumActive()).isEqualTo(2);
+		assertThat(pooledContextSource.getNumIdle()).isEqualTo(0);
+
+		readOnlyContext2.close();
+		readOnlyContext3.close();
+		assertThat(pooledContextSource.getNumActive()).isEqualTo(0);
+		assertThat(pooledContextSource.getNumIdle()).isEqualTo(2);
+		assertThat(pooledContextSource.getNumIdleWrite()).isEqualTo(0);
+	}
+
+	@Test
+	public void testGetContextWhenExhaustedThenFails() throws Exception {
+		given(this.contextSourceMock.getReadWriteContext()).willReturn(this.dirContextMock);
+		PoolConfig poolConfig = new PoolConfig();
+		poolConfig.setMaxTotalPerKey(1);
+		poolConfig.setBlockWhenExhausted(false);
+
+		ConcurrentPooledContextSource pooledContextSource = new ConcurrentPooledContextSource(this.contextSourceMock,
+				poolConfig);
+
+		DirContext readWriteContext = pooledContextSource.getReadWriteContext();
+		assertThatExceptionOfType(DataAccessResourceFailureException.class)
+			.isThrownBy(pooledContextSource::getReadWriteContext);
+
+		readWriteContext.close();
+		pooledContextSource.getReadWriteContext().close();
+		verify(this.contextSourceMock).getReadWriteContext();
+	}
+
+	@Test
+	public void testGetContextWithTestOnBorrowThenReplacesInvalidContext() throws Exception {
+		DirContext secondDirContextMock = mock(DirContext.class);
+		given(this.contextSourceMock.getReadOnlyContext()).willReturn(this.dirContextMock, secondDirContextMock);
+		given(this.dirContextValidatorMock.validateDirContext(any(), any())).willReturn(false, true);
+		PoolConfig poolConfig = new PoolConfig();
+		poolConfig.setTestOnBorrow(true);
+		ConcurrentPooledContextSource pooledContextSource = new ConcurrentPooledContextSource(this.contextSourceMock,
+				poolConfig);
+		pooledContextSource.setDirContextValidator(this.dirContextValidatorMock);
+
+		// the first context is created before validation
+		assertThatExceptionOfType(DataAccessResourceFailureException.class)
+			.isThrownBy(pooledContextSource::getReadOnlyContext);
+		assertThat(pooledContextSource.getReadOnlyContext()).isEqualTo(secondDirContextMock);
+		verify(this.dirContextMock).close();
+	}
+
+	@Test
+	public void testGetContextFromManyThreadsThenBoundsBorrowedContexts() throws Exception {
+		given(this.contextSourceMock.getReadOnlyContext()).willAnswer((invocation) -> mock(DirContext.class));
+		PoolConfig poolConfig = new PoolConfig();
+		poolConfig.setMaxTotalPerKey(4);
+		ConcurrentPooledContextSource pooledContextSource = new ConcurrentPooledContextSource(this.contextSourceMock,
+				poolConfig);
+
+		ExecutorService executor = Executors.newFixedThreadPool(16);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int i = 0; i < 16; i++) {
+			futures.add(executor.submit(() -> {
+				for (int j = 0; j < 200; j++) {
+					DirContext ctx = pooledContextSource.getReadOnlyContext();
+					assertThat(pooledContextSource.getNumActiveRead()).isLessThanOrEqualTo(4);
+					ctx.close();
+				}
+				return null;
+			}));
+		}
+		for (Future<?> future : futures) {
+			future.get(30, TimeUnit.SECONDS);
+		}
+		executor.shutdown();
+
+		assertThat(pooledContextSource.getNumActive()).isEqualTo(0);
+		assertThat(pooledContextSource.getNumIdleRead()).isLessThanOrEqualTo(4);
+		verify(this.contextSourceMock, times(pooledContextSource.getNumIdleRead())).getReadOnlyContext();
+	}
+
+	@Test
+	public void testEvictThenRemovesIdleContextsAndKeepsMinimumIdle() throws Exception {
+		DirContext secondDirContextMock = mock(DirContext.class);
+		given(this.contextSourceMock.getReadOnlyContext()).willReturn(this.dirContextMock, secondDirContextMock);
+		PoolConfig poolConfig = new PoolConfig();
+		poolConfig.setMinEvictableIdleTimeMillis(1);
+		poolConfig.setMinIdlePerKey(1);
+		ConcurrentKeyedObjectPool pool = new ConcurrentKeyedObjectPool(
+				new DirContextPooledObjectFactory(this.contextSourceMock), poolConfig);
+
+		pool.returnObject(DirContextType.READ_ONLY, pool.borrowObject(DirContextType.READ_ONLY));
+		Thread.sleep(10);
+		pool.evict();
+
+		verify(this.dirContextMock).close();
+		assertThat(pool.getNumIdle(DirContextType.READ_ONLY)).isEqualTo(1);
+		assertThat(pool.borrowObject(DirContextType.READ_ONLY)).isEqualTo(secondDirContextMock);
+	}
+
+}
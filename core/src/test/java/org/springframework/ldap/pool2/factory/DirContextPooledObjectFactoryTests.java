@@ -16,23 +16,24 @@
 
 package org.springframework.ldap.pool2.factory;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.InvocationHandler;
-import java.lang.reflect.Proxy;
-
+import javax.naming.CommunicationException;
+import javax.naming.NameNotFoundException;
 import javax.naming.directory.DirContext;
+import javax.naming.ldap.LdapContext;
 
 import org.apache.commons.pool2.PooledObject;
 import org.apache.commons.pool2.impl.DefaultPooledObject;
 import org.junit.jupiter.api.Test;
 
 import org.springframework.ldap.core.ContextSource;
+import org.springframework.ldap.core.DirContextProxy;
 import org.springframework.ldap.pool2.AbstractPoolTestCase;
 import org.springframework.ldap.pool2.DirContextType;
+import org.springframework.ldap.pool2.FailureAwareContext;
 import org.springframework.ldap.pool2.validation.DirContextValidator;
-import org.springframework.util.ReflectionUtils;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.assertj.core.api.Assertions.fail;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.mock;
@@ -107,8 +108,7 @@ public class DirContextPooledObjectFactoryTests extends AbstractPoolTestCase {
 		objectFactory.setContextSource(contextSourceMock);
 
 		final PooledObject createdDirContext = objectFactory.makeObject(DirContextType.READ_ONLY);
-		InvocationHandler invocationHandler = Proxy.getInvocationHandler(createdDirContext.getObject());
-		assertThat(readOnlyContextMock).isEqualTo(getInternalState(invocationHandler, "target"));
+		assertThat(((DirContextProxy) createdDirContext.getObject()).getTargetContext()).isSameAs(readOnlyContextMock);
 	}
 
 	@Test
@@ -122,8 +122,25 @@ public class DirContextPooledObjectFactoryTests extends AbstractPoolTestCase {
 
 		final PooledObject createdDirContext = objectFactory.makeObject(DirContextType.READ_WRITE);
 
-		InvocationHandler invocationHandler = Proxy.getInvocationHandler(createdDirContext.getObject());
-		assertThat(readWriteContextMock).isEqualTo(getInternalState(invocationHandler, "target"));
+		assertThat(((DirContextProxy) createdDirContext.getObject()).getTargetContext())
+			.isSameAs(readWriteContextMock);
+	}
+
+	@Test
+	public void testMakeObjectFailsOnNonTransientException() throws Exception {
+		final DirContextPooledObjectFactory objectFactory = new DirContextPooledObjectFactory(contextSourceMock);
+
+		LdapContext readOnlyContextMock = mock(LdapContext.class);
+		given(contextSourceMock.getReadOnlyContext()).willReturn(readOnlyContextMock);
+		willThrow(new NameNotFoundException()).given(readOnlyContextMock).lookup("cn=john");
+		willThrow(new CommunicationException()).given(readOnlyContextMock).getResponseControls();
+
+		LdapContext created = (LdapContext) objectFactory.makeObject(DirContextType.READ_ONLY).getObject();
+
+		assertThatExceptionOfType(NameNotFoundException.class).isThrownBy(() -> created.lookup("cn=john"));
+		assertThat(((FailureAwareContext) created).hasFailed()).isFalse();
+		assertThatExceptionOfType(CommunicationException.class).isThrownBy(created::getResponseControls);
+		assertThat(((FailureAwareContext) created).hasFailed()).isTrue();
 	}
 
 	@Test
@@ -226,10 +243,4 @@ public class DirContextPooledObjectFactoryTests extends AbstractPoolTestCase {
 		verify(dirContextMock).close();
 	}
 
-	private <T> T getInternalState(Object target, String fieldName) {
-		Field field = ReflectionUtils.findField(target.getClass(), fieldName);
-		field.setAccessible(true);
-		return (T) ReflectionUtils.getField(field, target);
-	}
-
 }
@@ -16,20 +16,34 @@
 
 package org.springframework.ldap.pool2.factory;
 
+import java.time.Duration;
+import java.util.Hashtable;
+import java.util.concurrent.TimeUnit;
+
+import javax.naming.Context;
 import javax.naming.directory.DirContext;
 import javax.naming.ldap.LdapContext;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 
 import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.ldap.AuthenticationException;
+import org.springframework.ldap.CommunicationException;
 import org.springframework.ldap.core.ContextSource;
 import org.springframework.ldap.pool2.AbstractPoolTestCase;
 import org.springframework.ldap.pool2.validation.DirContextValidator;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.assertj.core.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.mock;
+import static org.mockito.BDDMockito.times;
+import static org.mockito.BDDMockito.verify;
+import static org.mockito.BDDMockito.willReturn;
+import static org.mockito.BDDMockito.willThrow;
 
 /**
  * @author Eric Dalquist
@@ -262,4 +276,223 @@ public class PooledContextSourceTests extends AbstractPoolTestCase {
 		assertThat(pooledContextSource.getNumIdle()).isEqualTo(2);
 	}
 
+	@Test
+	public void testGetContextWithoutAuthenticationPoolIsNotSupported() {
+		final PooledContextSource pooledContextSource = new PooledContextSource(contextSourceMock, null);
+
+		assertThatExceptionOfType(UnsupportedOperationException.class)
+			.isThrownBy(() -> pooledContextSource.getContext("cn=john", "secret"));
+	}
+
+	@Test
+	public void testGetContextRebindsPooledAuthenticationContext() throws Exception {
+		Hashtable<String, Object> environment = new Hashtable<>();
+		environment.put(Context.SECURITY_AUTHENTICATION, "simple");
+		environment.put(Context.SECURITY_PRINCIPAL, "cn=admin");
+		environment.put(Context.SECURITY_CREDENTIALS, "adminsecret");
+		willReturn(environment).given(ldapContextMock).getEnvironment();
+		given(contextSourceMock.getReadOnlyContext()).willReturn(ldapContextMock);
+
+		final PooledContextSource pooledContextSource = new PooledContextSource(contextSourceMock, null);
+		pooledContextSource.setAuthenticationPoolConfig(new PoolConfig());
+
+		final DirContext authenticatedContext1 = pooledContextSource.getContext("cn=john", "secret");
+		assertThat(authenticatedContext1).isEqualTo(ldapContextMock);
+		assertThat(pooledContextSource.getNumActiveAuthentication()).isEqualTo(1);
+		verify(ldapContextMock).addToEnvironment(Context.SECURITY_PRINCIPAL, "cn=john");
+		verify(ldapContextMock).addToEnvironment(Context.SECURITY_CREDENTIALS, "secret");
+
+		authenticatedContext1.close();
+		assertThat(pooledContextSource.getNumActiveAuthentication()).isEqualTo(0);
+		assertThat(pooledContextSource.getNumIdleAuthentication()).isEqualTo(1);
+		verify(ldapContextMock).addToEnvironment(Context.SECURITY_PRINCIPAL, "cn=admin");
+		verify(ldapContextMock).addToEnvironment(Context.SECURITY_CREDENTIALS, "adminsecret");
+
+		final DirContext authenticatedContext2 = pooledContextSource.getContext("cn=jane", "secret");
+		authenticatedContext2.close();
+
+		verify(contextSourceMock).getReadOnlyContext();
+		verify(ldapContextMock, times(4)).reconnect(any());
+		assertThat(pooledContextSource.getNumActive()).isEqualTo(0);
+		assertThat(pooledContextSource.getNumIdle()).isEqualTo(0);
+	}
+
+	@Test
+	public void testGetContextWithFailedBindReturnsAuthenticationContext() throws Exception {
+		willReturn(new Hashtable<>()).given(ldapContextMock).getEnvironment();
+		given(contextSourceMock.getReadOnlyContext()).willReturn(ldapContextMock);
+		willThrow(new javax.naming.AuthenticationException()).willDoNothing().given(ldapContextMock).reconnect(any());
+
+		final PooledContextSource pooledContextSource = new PooledContextSource(contextSourceMock, null);
+		pooledContextSource.setAuthenticationPoolConfig(new PoolConfig());
+
+		assertThatExceptionOfType(AuthenticationException.class)
+			.isThrownBy(() -> pooledContextSource.getContext("cn=john", "wrong"));
+		assertThat(pooledContextSource.getNumActiveAuthentication()).isEqualTo(0);
+		assertThat(pooledContextSource.getNumIdleAuthentication()).isEqualTo(1);
+		verify(ldapContextMock).removeFromEnvironment(Context.SECURITY_PRINCIPAL);
+	}
+
+	@Test
+	public void testAfterPropertiesSetWithWarmUpTimeoutOpensMinimumIdleContexts() throws Exception {
+		given(contextSourceMock.getReadOnlyContext()).willAnswer((invocation) -> mock(DirContext.class));
+		given(contextSourceMock.getReadWriteContext()).willAnswer((invocation) -> mock(DirContext.class));
+		final PoolConfig poolConfig = new PoolConfig();
+		poolConfig.setMinIdlePerKey(2);
+
+		final PooledContextSource pooledContextSource = new PooledContextSource(contextSourceMock, poolConfig);
+		pooledContextSource.setWarmUpTimeout(Duration.ofSeconds(10));
+		pooledContextSource.afterPropertiesSet();
+
+		assertThat(pooledContextSource.getNumIdleRead()).isEqualTo(2);
+		assertThat(pooledContextSource.getNumIdleWrite()).isEqualTo(2);
+	}
+
+	@Test
+	public void testWarmUpReportsFailures() throws Exception {
+		given(contextSourceMock.getReadOnlyContext()).willAnswer((invocation) -> mock(DirContext.class));
+		CommunicationException failure = new CommunicationException(new javax.naming.CommunicationException());
+		given(contextSourceMock.getReadWriteContext()).willThrow(failure);
+		final PoolConfig poolConfig = new PoolConfig();
+		poolConfig.setMinIdlePerKey(2);
+
+		final PooledContextSource pooledContextSource = new PooledContextSource(contextSourceMock, poolConfig);
+
+		assertThat(pooledContextSource.warmUp(Duration.ofSeconds(10))).hasSize(2)
+			.allSatisfy((ex) -> assertThat(ex).hasCause(failure));
+		assertThat(pooledContextSource.getNumIdleRead()).isEqualTo(2);
+		assertThat(pooledContextSource.getNumIdleWrite()).isEqualTo(0);
+	}
+
+	@Test
+	public void testBindToPublishesPoolMeters() throws Exception {
+		given(contextSourceMock.getReadOnlyContext()).willReturn(dirContextMock);
+		given(dirContextValidatorMock.validateDirContext(any(), any())).willReturn(true);
+		willThrow(new javax.naming.CommunicationException()).given(dirContextMock).lookup("cn=john");
+		final PoolConfig poolConfig = new PoolConfig();
+		poolConfig.setTestOnBorrow(true);
+
+		final PooledContextSource pooledContextSource = new PooledContextSource(contextSourceMock, poolConfig);
+		pooledContextSource.setDirContextValidator(dirContextValidatorMock);
+		pooledContextSource.setPoolName("users");
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		pooledContextSource.bindTo(registry);
+
+		final DirContext readOnlyContext = pooledContextSource.getReadOnlyContext();
+
+		assertThat(registry.get("spring.ldap.pool.borrow").tags("pool", "users", "type", "READ_ONLY").timer().count())
+			.isEqualTo(1);
+		assertThat(registry.get("spring.ldap.pool.creation").tags("type", "READ_ONLY").timer().count()).isEqualTo(1);
+		assertThat(registry.get("spring.ldap.pool.validation").tags("type", "READ_ONLY", "outcome", "valid")
+			.timer()
+			.count()).isEqualTo(1);
+		assertThat(registry.get("spring.ldap.pool.active").tags("type", "READ_ONLY").gauge().value()).isEqualTo(1);
+
+		assertThatExceptionOfType(javax.naming.CommunicationException.class)
+			.isThrownBy(() -> readOnlyContext.lookup("cn=john"));
+		readOnlyContext.close();
+
+		assertThat(registry.get("spring.ldap.pool.invalidations").tags("type", "READ_ONLY").counter().count())
+			.isEqualTo(1);
+		assertThat(registry.get("spring.ldap.pool.active").tags("type", "READ_ONLY").gauge().value()).isEqualTo(0);
+		assertThat(registry.get("spring.ldap.pool.idle").tags("type", "READ_ONLY").gauge().value()).isEqualTo(0);
+	}
+
+	@Test
+	public void testBorrowMeterExcludesCreationAndValidation() throws Exception {
+		given(contextSourceMock.getReadOnlyContext()).willAnswer((invocation) -> {
+			Thread.sleep(50);
+			return dirContextMock;
+		});
+		given(dirContextValidatorMock.validateDirContext(any(), any())).willAnswer((invocation) -> {
+			Thread.sleep(50);
+			return true;
+		});
+		final PoolConfig poolConfig = new PoolConfig();
+		poolConfig.setTestOnBorrow(true);
+
+		final PooledContextSource pooledContextSource = new PooledContextSource(contextSourceMock, poolConfig);
+		pooledContextSource.setDirContextValidator(dirContextValidatorMock);
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		pooledContextSource.bindTo(registry);
+
+		pooledContextSource.getReadOnlyContext().close();
+
+		assertThat(registry.get("spring.ldap.pool.borrow").tags("type", "READ_ONLY").timer().max(TimeUnit.MILLISECONDS))
+			.isLessThan(50);
+		assertThat(registry.get("spring.ldap.pool.creation")
+			.tags("type", "READ_ONLY")
+			.timer()
+			.max(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(50);
+	}
+
+	@Test
+	public void testBorrowMeterRecordsAuthenticationBorrows() throws Exception {
+		willReturn(new Hashtable<>()).given(ldapContextMock).getEnvironment();
+		given(contextSourceMock.getReadOnlyContext()).willReturn(ldapContextMock);
+
+		final PooledContextSource pooledContextSource = new PooledContextSource(contextSourceMock, null);
+		pooledContextSource.setAuthenticationPoolConfig(new PoolConfig());
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		pooledContextSource.bindTo(registry);
+
+		pooledContextSource.getContext("cn=john", "secret").close();
+
+		assertThat(registry.get("spring.ldap.pool.borrow").tags("type", "AUTHENTICATION").timer().count())
+			.isEqualTo(1);
+		assertThat(registry.get("spring.ldap.pool.borrow").tags("type", "READ_ONLY").timer().count()).isZero();
+	}
+
+	@Test
+	public void testBackgroundValidationValidatesIdleContextsAndSkipsRecentlyReturnedOnBorrow() throws Exception {
+		given(contextSourceMock.getReadOnlyContext()).willReturn(dirContextMock);
+		given(dirContextValidatorMock.validateDirContext(any(), any())).willReturn(true);
+
+		final PooledContextSource pooledContextSource = new PooledContextSource(contextSourceMock, new PoolConfig());
+		pooledContextSource.setDirContextValidator(dirContextValidatorMock);
+		BackgroundValidation backgroundValidation = new BackgroundValidation();
+		backgroundValidation.setInterval(Duration.ofMillis(10));
+		pooledContextSource.setBackgroundValidation(backgroundValidation);
+
+		try {
+			// validated on first borrow, not when borrowed again shortly after
+			pooledContextSource.getReadOnlyContext().close();
+			pooledContextSource.getReadOnlyContext().close();
+			verify(dirContextValidatorMock, times(1)).validateDirContext(any(), any());
+
+			// the idle context is validated in the background, and destroyed when invalid
+			given(dirContextValidatorMock.validateDirContext(any(), any())).willReturn(false);
+			long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+			while (pooledContextSource.getNumIdle() > 0) {
+				assertThat(System.nanoTime()).isLessThan(deadline);
+				Thread.sleep(10);
+			}
+			verify(dirContextMock).close();
+		}
+		finally {
+			pooledContextSource.destroy();
+		}
+	}
+
+	@Test
+	public void testBackgroundValidationRestoresTestSettingsWhenStopped() throws Exception {
+		final PooledContextSource pooledContextSource = new PooledContextSource(contextSourceMock, new PoolConfig());
+		pooledContextSource.setDirContextValidator(dirContextValidatorMock);
+
+		try {
+			pooledContextSource.setBackgroundValidation(new BackgroundValidation());
+
+			assertThat(pooledContextSource.keyedObjectPool.getTestOnBorrow()).isTrue();
+			assertThat(pooledContextSource.keyedObjectPool.getTestWhileIdle()).isTrue();
+
+			pooledContextSource.setBackgroundValidation(null);
+
+			assertThat(pooledContextSource.keyedObjectPool.getTestOnBorrow()).isFalse();
+			assertThat(pooledContextSource.keyedObjectPool.getTestWhileIdle()).isFalse();
+		}
+		finally {
+			pooledContextSource.destroy();
+		}
+	}
+
 }
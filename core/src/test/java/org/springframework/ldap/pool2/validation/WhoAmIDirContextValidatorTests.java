@@ -0,0 +1,67 @@
+/*
+ * Copyright 2006-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ldap.pool2.validation;
+
+import javax.naming.OperationNotSupportedException;
+import javax.naming.directory.DirContext;
+import javax.naming.ldap.ExtendedRequest;
+import javax.naming.ldap.LdapContext;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import org.springframework.ldap.pool2.DirContextType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.mock;
+import static org.mockito.BDDMockito.verify;
+
+/**
+ * Tests for {@link WhoAmIDirContextValidator}.
+ */
+public class WhoAmIDirContextValidatorTests {
+
+	private final WhoAmIDirContextValidator tested = new WhoAmIDirContextValidator();
+
+	@Test
+	public void testValidateDirContextSendsWhoAmIRequest() throws Exception {
+		LdapContext ldapContext = mock(LdapContext.class);
+
+		assertThat(this.tested.validateDirContext(DirContextType.READ_ONLY, ldapContext)).isTrue();
+
+		ArgumentCaptor<ExtendedRequest> request = ArgumentCaptor.forClass(ExtendedRequest.class);
+		verify(ldapContext).extendedOperation(request.capture());
+		assertThat(request.getValue().getID()).isEqualTo(WhoAmIDirContextValidator.WHO_AM_I_OID);
+		assertThat(request.getValue().getEncodedValue()).isNull();
+	}
+
+	@Test
+	public void testValidateDirContextFailsWhenOperationFails() throws Exception {
+		LdapContext ldapContext = mock(LdapContext.class);
+		given(ldapContext.extendedOperation(any())).willThrow(new OperationNotSupportedException());
+
+		assertThat(this.tested.validateDirContext(DirContextType.READ_ONLY, ldapContext)).isFalse();
+	}
+
+	@Test
+	public void testValidateDirContextFailsForPlainDirContext() {
+		assertThat(this.tested.validateDirContext(DirContextType.READ_ONLY, mock(DirContext.class))).isFalse();
+	}
+
+}
@@ -18,6 +18,7 @@ package org.springframework.ldap.query;
 
 import org.junit.jupiter.api.Test;
 
+import org.springframework.ldap.filter.Filter;
 import org.springframework.ldap.filter.ProximityFilter;
 import org.springframework.ldap.support.LdapUtils;
 
@@ -37,9 +38,59 @@ public class LdapQueryBuilderTests {
 		assertThat(result.searchScope()).isNull();
 		assertThat(result.timeLimit()).isNull();
 		assertThat(result.countLimit()).isNull();
+		assertThat(result.partitions()).isEmpty();
+		assertThat(result.distinct()).isFalse();
+		assertThat(result.pageSize()).isNull();
 		assertThat(result.filter().encode()).isEqualTo("(cn=John Doe)");
 	}
 
+	@Test
+	public void buildWithPageSize() {
+		LdapQuery result = LdapQueryBuilder.query().pageSize(500).where("cn").is("John Doe");
+
+		assertThat(result.pageSize()).isEqualTo(500);
+		assertThat(LdapQueryBuilder.fromQuery(result).pageSize()).isEqualTo(500);
+	}
+
+	@Test
+	public void pageSizeWhenNotPositiveThenIllegalArgument() {
+		assertThatExceptionOfType(IllegalArgumentException.class)
+			.isThrownBy(() -> LdapQueryBuilder.query().pageSize(0));
+	}
+
+	@Test
+	public void buildWithBases() {
+		LdapQuery result = LdapQueryBuilder.query().bases("ou=emea", "ou=apac").where("cn").is("John Doe");
+
+		assertThat(result.base()).isEqualTo(LdapUtils.newLdapName("ou=emea"));
+		assertThat(result.bases()).containsExactly(LdapUtils.newLdapName("ou=emea"), LdapUtils.newLdapName("ou=apac"));
+		assertThat(LdapQueryBuilder.fromQuery(result).bases()).isEqualTo(result.bases());
+		assertThat(LdapQueryBuilder.query().bases("ou=emea", "ou=apac").base("ou=amer").bases())
+			.containsExactly(LdapUtils.newLdapName("ou=amer"));
+	}
+
+	@Test
+	public void buildWithPartitionByRange() {
+		LdapQuery result = LdapQueryBuilder.query()
+			.partitionByRange("uid", "h", "p")
+			.distinct(true)
+			.where("objectclass")
+			.is("person");
+
+		assertThat(result.partitions()).extracting(Filter::encode)
+			.containsExactly("(!(uid>=h))", "(&(uid>=h)(!(uid>=p)))", "(uid>=p)");
+		assertThat(result.distinct()).isTrue();
+		LdapQuery copy = LdapQueryBuilder.fromQuery(result);
+		assertThat(copy.partitions()).isEqualTo(result.partitions());
+		assertThat(copy.distinct()).isTrue();
+	}
+
+	@Test
+	public void partitionsWhenEmptyThenIllegalArgument() {
+		assertThatExceptionOfType(IllegalArgumentException.class)
+			.isThrownBy(() -> LdapQueryBuilder.query().partitions(new Filter[0]));
+	}
+
 	@Test
 	public void buildGreaterThanOrEquals() {
 		LdapQuery result = LdapQueryBuilder.query().where("cn").gte("John Doe");
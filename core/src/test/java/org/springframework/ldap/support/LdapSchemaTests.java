@@ -0,0 +1,107 @@
+/*
+ * Copyright 2006-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ldap.support;
+
+import java.util.List;
+
+import javax.naming.NameClassPair;
+import javax.naming.NamingEnumeration;
+import javax.naming.directory.Attributes;
+import javax.naming.directory.BasicAttribute;
+import javax.naming.directory.BasicAttributes;
+import javax.naming.directory.DirContext;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests for {@link LdapSchema}.
+ */
+class LdapSchemaTests {
+
+	private static final Attributes NAME = definition("2.5.4.41", List.of("name"),
+			"1.3.6.1.4.1.1466.115.121.1.15{32768}", null);
+
+	private static final Attributes CN = definition("2.5.4.3", List.of("cn", "commonName"), null, "name");
+
+	private static final Attributes JPEG_PHOTO = definition("0.9.2342.19200300.100.1.60", List.of("jpegPhoto"),
+			"1.3.6.1.4.1.1466.115.121.1.28", null);
+
+	@Test
+	void getAttributeTypeWhenNameOrOidThenIgnoresCase() throws Exception {
+		LdapSchema schema = LdapSchema.from(List.of(NAME, CN, JPEG_PHOTO));
+
+		assertThat(schema.getAttributeType("CommonName")).isSameAs(schema.getAttributeType("2.5.4.3"));
+		assertThat(schema.getAttributeType("CN").getNames()).containsExactly("cn", "commonName");
+		assertThat(schema.getAttributeType("unknown")).isNull();
+	}
+
+	@Test
+	void getAttributeTypeWhenSyntaxInheritedThenResolvesSuperior() throws Exception {
+		LdapSchema schema = LdapSchema.from(List.of(NAME, CN, JPEG_PHOTO));
+
+		LdapSchema.AttributeType cn = schema.getAttributeType("cn");
+		assertThat(cn.getSyntax()).isEqualTo("1.3.6.1.4.1.1466.115.121.1.15");
+		assertThat(cn.getSuperior()).isEqualTo("name");
+		assertThat(cn.isBinary()).isFalse();
+		assertThat(cn.isSingleValued()).isFalse();
+	}
+
+	@Test
+	void getBinaryAttributeNamesWhenBinarySyntaxThenIncluded() throws Exception {
+		LdapSchema schema = LdapSchema.from(List.of(NAME, CN, JPEG_PHOTO));
+
+		assertThat(schema.getBinaryAttributeNames()).containsExactly("jpegPhoto");
+	}
+
+	@Test
+	void readWhenSchemaContextThenReadsAttributeDefinitions() throws Exception {
+		DirContext ctx = mock(DirContext.class);
+		DirContext schemaContext = mock(DirContext.class);
+		given(ctx.getSchema("")).willReturn(schemaContext);
+		NamingEnumeration<NameClassPair> names = mock(NamingEnumeration.class);
+		given(names.hasMore()).willReturn(true, true, false);
+		given(names.next()).willReturn(new NameClassPair("name", null), new NameClassPair("cn", null));
+		given(schemaContext.list("AttributeDefinition")).willReturn(names);
+		given(schemaContext.getAttributes("AttributeDefinition/name")).willReturn(NAME);
+		given(schemaContext.getAttributes("AttributeDefinition/cn")).willReturn(CN);
+
+		LdapSchema schema = LdapSchema.read(ctx);
+
+		assertThat(schema.getAttributeTypes()).hasSize(2);
+		assertThat(schema.getAttributeType("commonName").getOid()).isEqualTo("2.5.4.3");
+	}
+
+	private static Attributes definition(String oid, List<String> names, String syntax, String superior) {
+		Attributes definition = new BasicAttributes(true);
+		definition.put("NUMERICOID", oid);
+		BasicAttribute name = new BasicAttribute("NAME");
+		names.forEach(name::add);
+		definition.put(name);
+		if (syntax != null) {
+			definition.put("SYNTAX", syntax);
+		}
+		if (superior != null) {
+			definition.put("SUP", superior);
+		}
+		return definition;
+	}
+
+}
@@ -29,6 +29,7 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 
+@SuppressWarnings("deprecation")
 public class TransactionAwareDirContextInvocationHandlerTests {
 
 	private ContextSource contextSourceMock;
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2006-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ldap.transaction.compensating.manager;
+
+import javax.naming.directory.DirContext;
+import javax.naming.ldap.LdapName;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.ldap.core.ContextSource;
+import org.springframework.transaction.compensating.CompensatingTransactionOperationManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.mock;
+import static org.mockito.BDDMockito.never;
+import static org.mockito.BDDMockito.verify;
+
+/**
+ * Tests for {@link TransactionAwareDirContext}.
+ */
+class TransactionAwareDirContextTests {
+
+	private ContextSource contextSource;
+
+	private DirContext target;
+
+	private CompensatingTransactionOperationManager operationManager;
+
+	private DirContext tested;
+
+	@BeforeEach
+	void setUp() {
+		this.contextSource = mock(ContextSource.class);
+		this.target = mock(DirContext.class);
+		this.operationManager = mock(CompensatingTransactionOperationManager.class);
+		this.tested = TransactionAwareDirContext.wrap(this.target, this.contextSource);
+	}
+
+	@AfterEach
+	void tearDown() {
+		if (TransactionSynchronizationManager.hasResource(this.contextSource)) {
+			TransactionSynchronizationManager.unbindResource(this.contextSource);
+		}
+	}
+
+	@Test
+	void closeWhenNoTransactionThenClosesTarget() throws Exception {
+		this.tested.close();
+
+		verify(this.target).close();
+	}
+
+	@Test
+	void closeWhenTransactionalContextThenLeavesTargetOpen() throws Exception {
+		TransactionSynchronizationManager.bindResource(this.contextSource,
+				new DirContextHolder(this.operationManager, this.target));
+
+		this.tested.close();
+
+		verify(this.target, never()).close();
+	}
+
+	@Test
+	void equalsWhenSameTargetThenOnlyEqualToItself() {
+		DirContext other = TransactionAwareDirContext.wrap(this.target, this.contextSource);
+
+		assertThat(this.tested).isEqualTo(this.tested);
+		assertThat(this.tested).isNotEqualTo(other);
+		assertThat(this.tested).isNotEqualTo(this.target);
+	}
+
+	@Test
+	void unbindWhenNoTransactionThenUnbindsTarget() throws Exception {
+		LdapName name = new LdapName("cn=john");
+
+		this.tested.unbind(name);
+
+		verify(this.target).unbind(name);
+	}
+
+	@Test
+	void unbindWhenTransactionThenRecordsOperation() throws Exception {
+		TransactionSynchronizationManager.bindResource(this.contextSource,
+				new DirContextHolder(this.operationManager, this.target));
+		LdapName name = new LdapName("cn=john");
+
+		this.tested.unbind(name);
+
+		verify(this.operationManager).performOperation(this.target, "unbind", new Object[] { name });
+		verify(this.target, never()).unbind(any(LdapName.class));
+	}
+
+}